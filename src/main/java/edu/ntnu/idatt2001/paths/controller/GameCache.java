@@ -0,0 +1,182 @@
+package edu.ntnu.idatt2001.paths.controller;
+
+import com.google.gson.JsonParseException;
+import edu.ntnu.idatt2001.paths.model.Game;
+import edu.ntnu.idatt2001.paths.model.filehandling.GameSpill;
+import edu.ntnu.idatt2001.paths.model.filehandling.StoredGame;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The GameCache class limits the number of games a GameManager keeps in memory. The stored
+ * games whose games have been created are kept in order of use, and when the limit is
+ * exceeded, the games that have been idle the longest are evicted, see
+ * {@link StoredGame#evict(GameSpill)}.
+ *
+ * <p>A game is only evicted while no one is using it through
+ * {@link GameManager#withGame(String, java.util.function.Function)}. The games are locked by
+ * their key, and eviction only tries the locks, so an idle game whose lock is held is skipped
+ * and evicted later. The number of games in memory can therefore exceed the limit for a
+ * while, when the games above it are in use.
+ *
+ * @author Ramtin Samavat
+ * @author Tobias Oftedal
+ * @version 1.0
+ * @since May 26, 2023.
+ */
+final class GameCache {
+
+  private static final Logger logger = Logger.getLogger(GameCache.class.getName());
+  private static final int LOCK_STRIPES = 1024;
+
+  private final int maxResidentGames;
+  private final GameSpill spill;
+  private final Map<String, StoredGame> residentGames;
+  private final ReentrantLock[] locks;
+  private long hits;
+  private long misses;
+  private long evictions;
+  private long spills;
+
+  /**
+   * Constructor for the GameCache class.
+   *
+   * @param maxResidentGames the maximum number of games kept in memory.
+   * @param spill            the spill the changed games are written to when evicted.
+   * @throws IllegalArgumentException if the maxResidentGames is not positive.
+   * @throws NullPointerException     if the spill is null.
+   */
+  GameCache(int maxResidentGames, GameSpill spill)
+      throws IllegalArgumentException, NullPointerException {
+    if (maxResidentGames <= 0) {
+      throw new IllegalArgumentException("The maximum number of games must be positive.");
+    }
+    if (spill == null) {
+      throw new NullPointerException("The spill cannot be null.");
+    }
+    this.maxResidentGames = maxResidentGames;
+    this.spill = spill;
+    this.residentGames = new LinkedHashMap<>(16, 0.75f, true);
+    this.locks = new ReentrantLock[LOCK_STRIPES];
+    for (int i = 0; i < LOCK_STRIPES; i++) {
+      locks[i] = new ReentrantLock();
+    }
+  }
+
+  /**
+   * The method retrieves the lock of the game with the given key.
+   *
+   * @param key the key of the game.
+   * @return the lock.
+   */
+  ReentrantLock lockFor(String key) {
+    return locks[Math.floorMod(key.hashCode(), LOCK_STRIPES)];
+  }
+
+  /**
+   * The method retrieves the game of a stored game, creating it if it is not in memory, and
+   * marks it as the most recently used game.
+   *
+   * @param key        the key of the game.
+   * @param storedGame the stored game.
+   * @return the game.
+   * @throws JsonParseException if the game cannot be created.
+   */
+  Game load(String key, StoredGame storedGame) throws JsonParseException {
+    boolean loaded = storedGame.isLoaded();
+    Game game = storedGame.getGame();
+    synchronized (this) {
+      if (loaded) {
+        hits++;
+      } else {
+        misses++;
+      }
+    }
+    add(key, storedGame);
+    return game;
+  }
+
+  /**
+   * The method marks a stored game whose game is in memory as the most recently used game,
+   * replacing the stored game with the same key, and evicts the idle games above the limit.
+   *
+   * @param key        the key of the game.
+   * @param storedGame the stored game.
+   */
+  void add(String key, StoredGame storedGame) {
+    List<Map.Entry<String, StoredGame>> idleGames = new ArrayList<>();
+    synchronized (this) {
+      residentGames.put(key, storedGame);
+      Iterator<Map.Entry<String, StoredGame>> iterator = residentGames.entrySet().iterator();
+      while (residentGames.size() - idleGames.size() > maxResidentGames && iterator.hasNext()) {
+        Map.Entry<String, StoredGame> entry = iterator.next();
+        idleGames.add(Map.entry(entry.getKey(), entry.getValue()));
+      }
+    }
+    for (Map.Entry<String, StoredGame> idleGame : idleGames) {
+      evict(idleGame.getKey(), idleGame.getValue());
+    }
+  }
+
+  /**
+   * The method forgets the stored game with the given key, when the game has been deleted.
+   *
+   * @param key the key of the game.
+   */
+  synchronized void remove(String key) {
+    residentGames.remove(key);
+  }
+
+  /**
+   * The method retrieves the statistics of the games in memory.
+   *
+   * @return the statistics.
+   */
+  synchronized GameCacheStatistics getStatistics() {
+    return new GameCacheStatistics(residentGames.size(), maxResidentGames, hits, misses,
+        evictions, spills);
+  }
+
+  /**
+   * Helper method to evict an idle game, unless it is being used, or has been replaced or
+   * forgotten since it was found idle.
+   *
+   * @param key        the key of the game.
+   * @param storedGame the stored game.
+   */
+  private void evict(String key, StoredGame storedGame) {
+    ReentrantLock lock = lockFor(key);
+    if (!lock.tryLock()) {
+      return;
+    }
+    try {
+      synchronized (this) {
+        if (!residentGames.remove(key, storedGame)) {
+          return;
+        }
+      }
+      boolean spilled = storedGame.evict(spill);
+      synchronized (this) {
+        evictions++;
+        if (spilled) {
+          spills++;
+        }
+      }
+    } catch (IOException e) {
+      logger.log(Level.WARNING, "Failed to spill the game " + key
+          + ", it is kept in memory.", e);
+      synchronized (this) {
+        residentGames.putIfAbsent(key, storedGame);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+}
@@ -0,0 +1,118 @@
+package edu.ntnu.idatt2001.paths.controller;
+
+/**
+ * The GameCacheStatistics class holds the statistics of the games a GameManager keeps in
+ * memory: the number of resident games and its limit, how many requests for a game found it
+ * in memory, and how many games have been evicted and written to the spill.
+ *
+ * @author Ramtin Samavat
+ * @author Tobias Oftedal
+ * @version 1.0
+ * @since May 26, 2023.
+ */
+public final class GameCacheStatistics {
+
+  private final int residentGames;
+  private final int maxResidentGames;
+  private final long hits;
+  private final long misses;
+  private final long evictions;
+  private final long spills;
+
+  /**
+   * Constructor for the GameCacheStatistics class.
+   *
+   * @param residentGames    the number of games kept in memory.
+   * @param maxResidentGames the maximum number of games kept in memory.
+   * @param hits             the number of requests that found the game in memory.
+   * @param misses           the number of requests that created the game.
+   * @param evictions        the number of games evicted from memory.
+   * @param spills           the number of evicted games written to the spill.
+   */
+  GameCacheStatistics(int residentGames, int maxResidentGames, long hits, long misses,
+                      long evictions, long spills) {
+    this.residentGames = residentGames;
+    this.maxResidentGames = maxResidentGames;
+    this.hits = hits;
+    this.misses = misses;
+    this.evictions = evictions;
+    this.spills = spills;
+  }
+
+  /**
+   * The method retrieves the number of games kept in memory.
+   *
+   * @return the number of resident games.
+   */
+  public int getResidentGames() {
+    return residentGames;
+  }
+
+  /**
+   * The method retrieves the maximum number of games kept in memory.
+   *
+   * @return the maximum number of resident games.
+   */
+  public int getMaxResidentGames() {
+    return maxResidentGames;
+  }
+
+  /**
+   * The method retrieves the number of requests that found the game in memory.
+   *
+   * @return the number of hits.
+   */
+  public long getHits() {
+    return hits;
+  }
+
+  /**
+   * The method retrieves the number of requests that created the game from its record.
+   *
+   * @return the number of misses.
+   */
+  public long getMisses() {
+    return misses;
+  }
+
+  /**
+   * The method retrieves the share of the requests that found the game in memory.
+   *
+   * @return the hit rate between 0 and 1, or 0 if no game has been requested.
+   */
+  public double getHitRate() {
+    long requests = hits + misses;
+    return requests == 0 ? 0 : (double) hits / requests;
+  }
+
+  /**
+   * The method retrieves the number of games evicted from memory.
+   *
+   * @return the number of evictions.
+   */
+  public long getEvictions() {
+    return evictions;
+  }
+
+  /**
+   * The method retrieves the number of evicted games that had changed and were written to
+   * the spill.
+   *
+   * @return the number of spills.
+   */
+  public long getSpills() {
+    return spills;
+  }
+
+  /**
+   * The method returns a string representation of the statistics.
+   *
+   * @return the statistics as a string.
+   */
+  @Override
+  public String toString() {
+    return String.format("resident %d/%d, hits %d, misses %d, hit rate %.3f, evictions %d, "
+        + "spills %d", residentGames, maxResidentGames, hits, misses, getHitRate(), evictions,
+        spills);
+  }
+}
@@ -1,8 +1,14 @@
 package edu.ntnu.idatt2001.paths.controller;
 
+import com.google.gson.JsonParseException;
 import com.google.gson.JsonSyntaxException;
 import edu.ntnu.idatt2001.paths.model.filehandling.FileGameHandler;
 import edu.ntnu.idatt2001.paths.model.filehandling.FilePathValidator;
+import edu.ntnu.idatt2001.paths.model.filehandling.GameJournal;
+import edu.ntnu.idatt2001.paths.model.filehandling.GameSaver;
+import edu.ntnu.idatt2001.paths.model.filehandling.GameSpill;
+import edu.ntnu.idatt2001.paths.model.filehandling.SaveCompression;
+import edu.ntnu.idatt2001.paths.model.filehandling.StoredGame;
 import edu.ntnu.idatt2001.paths.model.goals.Goal;
 import edu.ntnu.idatt2001.paths.model.Game;
 import edu.ntnu.idatt2001.paths.model.Passage;
@@ -10,11 +16,58 @@ import edu.ntnu.idatt2001.paths.model.Player;
 import edu.ntnu.idatt2001.paths.model.Story;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
 
 /**
  * The GameManager class is responsible for managing the creation, deletion, and saving of Game
- * objects.
+ * objects. Saves and deletes are appended to a journal by a saver thread, and the journal is
+ * compacted into the file of games in the background. The stored games are kept by their game
+ * ID, and a stored game is only created as a Game object when it is requested.
+ *
+ * <p>A GameManager can be used by many sessions at once. The stored games are kept in a
+ * concurrent map, so games are looked up, saved and deleted by their game ID without locks.
+ * A save replaces the entry of the game with compare-and-set, and is handed to the saver and
+ * the index only once it has been recorded in the map. The saver and the index skip a save
+ * or delete that has been overtaken by a newer change of the game in the map, so the journal
+ * and the index end up with the latest change of every game, even if the changes reach them
+ * out of order. The games are listed in the order they were first saved.
+ *
+ * <p>Only a limited number of created games are kept in memory. When the limit is exceeded,
+ * the games that have been idle the longest are evicted, and created again when they are
+ * requested. A game that has been played since it was created or saved is written to a spill
+ * next to the file of games when it is evicted, so that it is created as it was played, even
+ * though it has not been saved. Games that are changed by several threads should be used
+ * through {@link #withGame(String, Function)}, so that they are not evicted while they are
+ * being changed. The statistics of the games in memory are retrieved with
+ * {@link #getCacheStatistics()}.
+ *
+ * <p>Every saved game has a version, which is increased every time the game is saved. A game
+ * remembers the version it was created from, and a save is only applied if the saved game is
+ * still that version, so a game that has been saved or deleted by someone else since is not
+ * overwritten, see {@link GameVersionConflictException}. The versions are compared without
+ * waiting for other saves, and the compare-and-set of the save fails if the saved game has
+ * changed since it was compared.
+ *
+ * <p>The summaries of the stored games are indexed when the games are saved and deleted, so
+ * games can be found by the name of the player, the story, the current passage or the score
+ * without creating them, see {@link #findGames(GameQuery)}.
+ *
+ * <p>A GameManager is created for a file of games, and there should be only one GameManager
+ * for each file. The application uses the shared GameManager of {@link #initialize(String)}.
  *
  * @author Ramtin Samavat
  * @author Tobias Oftedal
@@ -23,12 +76,20 @@ import java.util.List;
  */
 public class GameManager {
 
+  private static final Logger logger = Logger.getLogger(GameManager.class.getName());
+  private static final int DEFAULT_MAX_RESIDENT_GAMES = 1000;
   private static GameManager instance = null;
-  private final String pathOfFile;
-  private final List<Game> games;
+  private final GameJournal journal;
+  private final GameSaver saver;
+  private final GameSpill spill;
+  private final GameCache cache;
+  private final StoredGameIndex index;
+  private final ConcurrentMap<String, Entry> games;
+  private final ConcurrentMap<String, Game> createdGames;
+  private final AtomicLong nextOrder;
 
   /**
-   * Constructor for the GameManager class.
+   * Constructor for the GameManager class, which writes the file of games uncompressed.
    *
    * @param pathOfFile the path to the file for reading and writing Game objects.
    * @throws NullPointerException     if the pathOfFile or file extension is null.
@@ -37,17 +98,66 @@ public class GameManager {
    * @throws IOException              if there is an error reading the list of games form the file.
    * @throws JsonSyntaxException      if the file does not have the correct JSON syntax.
    */
-  private GameManager(String pathOfFile)
+  public GameManager(String pathOfFile)
+      throws NullPointerException, IllegalArgumentException, IOException, JsonSyntaxException {
+    this(pathOfFile, SaveCompression.NONE);
+  }
+
+  /**
+   * Constructor for the GameManager class.
+   *
+   * @param pathOfFile  the path to the file for reading and writing Game objects.
+   * @param compression the compression used when writing the file.
+   * @throws NullPointerException     if the pathOfFile, file extension or compression is null.
+   * @throws IllegalArgumentException if the pathOfFile is blank or has an incorrect file
+   *                                  extension.
+   * @throws IOException              if there is an error reading the list of games form the file.
+   * @throws JsonSyntaxException      if the file does not have the correct JSON syntax.
+   */
+  public GameManager(String pathOfFile, SaveCompression compression)
+      throws NullPointerException, IllegalArgumentException, IOException, JsonSyntaxException {
+    this(pathOfFile, compression, DEFAULT_MAX_RESIDENT_GAMES);
+  }
+
+  /**
+   * Constructor for the GameManager class, which keeps at most the given number of created
+   * games in memory.
+   *
+   * @param pathOfFile       the path to the file for reading and writing Game objects.
+   * @param compression      the compression used when writing the file.
+   * @param maxResidentGames the maximum number of created games kept in memory.
+   * @throws NullPointerException     if the pathOfFile, file extension or compression is null.
+   * @throws IllegalArgumentException if the pathOfFile is blank or has an incorrect file
+   *                                  extension, or the maxResidentGames is not positive.
+   * @throws IOException              if there is an error reading the list of games form the file.
+   * @throws JsonSyntaxException      if the file does not have the correct JSON syntax.
+   */
+  public GameManager(String pathOfFile, SaveCompression compression, int maxResidentGames)
       throws NullPointerException, IllegalArgumentException, IOException, JsonSyntaxException {
+    if (maxResidentGames <= 0) {
+      throw new IllegalArgumentException("The maximum number of games must be positive.");
+    }
     FilePathValidator.validatePathOfFile(pathOfFile, FileGameHandler.getFileExtension());
-    this.pathOfFile = pathOfFile;
-    this.games = new ArrayList<>();
-    this.games.addAll(FileGameHandler.parseGamesFromFile(pathOfFile));
+    this.journal = new GameJournal(pathOfFile, compression);
+    this.games = new ConcurrentHashMap<>();
+    this.createdGames = new ConcurrentHashMap<>();
+    this.nextOrder = new AtomicLong();
+    this.index = new StoredGameIndex();
+    for (StoredGame storedGame : journal.load()) {
+      String gameId = storedGame.getGameId();
+      String key = gameId == null ? "#" + games.size() : gameId;
+      long order = nextOrder.getAndIncrement();
+      games.put(key, new Entry(storedGame, order));
+      index.put(key, storedGame, order);
+    }
+    this.saver = new GameSaver(journal);
+    this.spill = new GameSpill(pathOfFile);
+    this.cache = new GameCache(maxResidentGames, spill);
   }
 
   /**
-   * The method initializes the GameManager with the given path of file. This method can only be
-   * called once to ensure that GameManager is a singleton instance.
+   * The method initializes the shared GameManager with the given path of file. This method can
+   * only be called once, so that the application has a single shared instance.
    *
    * @param pathOfFile the path to the file for reading and writing Game objects.
    * @return the initialized GameManager instance.
@@ -59,21 +169,42 @@ public class GameManager {
    */
   public static GameManager initialize(String pathOfFile)
       throws NullPointerException, IllegalArgumentException, IOException, IllegalStateException {
+    return initialize(pathOfFile, SaveCompression.NONE);
+  }
+
+  /**
+   * The method initializes the shared GameManager with the given path of file, writing the
+   * file with the given compression. The file is read regardless of the compression it was
+   * written with. This method can only be called once, so that the application has a single
+   * shared instance.
+   *
+   * @param pathOfFile  the path to the file for reading and writing Game objects.
+   * @param compression the compression used when writing the file.
+   * @return the initialized GameManager instance.
+   * @throws NullPointerException     if the pathOfFile, FILE_EXTENSION or compression is null.
+   * @throws IllegalArgumentException if the pathOfFile is blank or has an incorrect file
+   *                                  extension.
+   * @throws IOException              if there is an error reading the list of games from the file.
+   * @throws IllegalStateException    if the GameManager has already been initialized.
+   */
+  public static synchronized GameManager initialize(String pathOfFile,
+      SaveCompression compression)
+      throws NullPointerException, IllegalArgumentException, IOException, IllegalStateException {
     if (instance != null) {
       throw new IllegalStateException("GameManager has already been initialized.");
     }
-    instance = new GameManager(pathOfFile);
+    instance = new GameManager(pathOfFile, compression);
     return instance;
   }
 
   /**
-   * Returns an instance of the GameManager class. The GameManager must be initialized using the
-   * initialize() method before calling this method.
+   * Returns the shared instance of the GameManager class. The GameManager must be initialized
+   * using the initialize() method before calling this method.
    *
    * @return the instance of the GameManager.
    * @throws IllegalStateException if the GameManager has not been initialized.
    */
-  public static GameManager getInstance() throws IllegalStateException {
+  public static synchronized GameManager getInstance() throws IllegalStateException {
     if (instance == null) {
       throw new IllegalStateException("GameManager has not been initialized.");
     }
@@ -81,14 +212,17 @@ public class GameManager {
   }
 
   /**
-   * The method creates a new Game object with the given player, story, and goals.
+   * The method creates a new Game object with the given player, story, and goals. The game ID
+   * is reserved for the created game until the game is saved or deleted, or released with
+   * {@link #releaseGame(Game)}, so two games cannot be created with the same ID at once.
    *
+   * @param gameId the ID of the new game.
    * @param player the player of the new game.
    * @param story  the story for the new game.
    * @param goals  the goals for the new game.
    * @return the new created game.
-   * @throws IllegalStateException    if the maximum number of games is reached.
-   * @throws IllegalArgumentException if a game with the same ID already exists.
+   * @throws IllegalArgumentException if the gameId is blank, or a game with the same ID has
+   *                                  been saved or created.
    * @throws NullPointerException     if the gameId, player, story, or goals is null.
    */
   public Game createGame(String gameId, Player player, Story story, List<Goal> goals)
@@ -96,9 +230,6 @@ public class GameManager {
     if (gameId == null) {
       throw new NullPointerException("Game ID cannot be null.");
     }
-    if (games.stream().anyMatch(game -> game.getGameId().equals(gameId.trim()))) {
-      throw new IllegalArgumentException("A game with the same ID already exists.");
-    }
     if (player == null) {
       throw new NullPointerException("Player cannot be null.");
     }
@@ -108,59 +239,417 @@ public class GameManager {
     if (goals == null) {
       throw new NullPointerException("Goals cannot be null.");
     }
-    return new Game(gameId, player, story, goals);
+    Game game = new Game(gameId, player, story, goals);
+    String key = game.getGameId();
+    if (createdGames.putIfAbsent(key, game) != null) {
+      throw new IllegalArgumentException("A game with the same ID already exists.");
+    }
+    if (games.containsKey(key)) {
+      createdGames.remove(key, game);
+      throw new IllegalArgumentException("A game with the same ID already exists.");
+    }
+    return game;
   }
 
   /**
-   * The method deletes the given game from the list of games and writes the updated list to the
-   * file.
+   * The method releases the game ID of a created game that will not be saved, so that a new
+   * game can be created with the ID. Nothing is released if the game ID is not reserved for
+   * the game.
+   *
+   * @param game the created game.
+   * @throws NullPointerException if the game is null.
+   */
+  public void releaseGame(Game game) throws NullPointerException {
+    validateGame(game);
+    createdGames.remove(game.getGameId(), game);
+  }
+
+  /**
+   * The method deletes the given game from the list of games and appends the deletion to the
+   * journal.
    *
    * @param game the game to delete.
    * @throws NullPointerException     if the game or pathOfFile is null.
    * @throws IllegalArgumentException if the pathOfFile is blank or has an incorrect file
    *                                  extension.
-   * @throws IOException              if there is an error writing list of games to file.
+   * @throws IOException              if there is an error writing to the journal.
    */
   public void deleteGame(Game game)
       throws NullPointerException, IllegalArgumentException, IOException {
     validateGame(game);
-    if (games.remove(game)) {
-      FileGameHandler.writeGamesToFile(games, pathOfFile);
+    deleteGameById(game.getGameId());
+  }
+
+  /**
+   * The method deletes the game with the given game ID from the list of games and appends the
+   * deletion to the journal, without creating the game. The game ID is released if it is
+   * reserved for a created game.
+   *
+   * @param gameId the ID of the game to delete.
+   * @throws NullPointerException if the gameId is null.
+   * @throws IOException          if there is an error writing to the journal.
+   */
+  public void deleteGameById(String gameId) throws NullPointerException, IOException {
+    if (gameId == null) {
+      throw new NullPointerException("Game ID cannot be null.");
+    }
+    Entry entry = games.remove(gameId);
+    createdGames.remove(gameId);
+    if (entry == null) {
+      return;
+    }
+    BooleanSupplier deleted = () -> !games.containsKey(gameId);
+    CompletableFuture<Void> deletion;
+    try {
+      deletion = saver.delete(gameId, deleted);
+    } catch (IllegalStateException e) {
+      games.putIfAbsent(gameId, entry);
+      throw e;
     }
+    index.remove(gameId, deleted);
+    cache.remove(gameId);
+    entry.storedGame.discardSpill();
+    waitFor(deletion);
   }
 
   /**
-   * The method saves the given game to the list of games and writes the updated list to the file.
+   * The method saves the given game to the list of games and appends the game to the journal,
+   * waiting until the game has been written.
    *
    * @param game the game to save.
-   * @throws NullPointerException     if game, currentPassage, or pathOfFile is null.
-   * @throws IllegalArgumentException if the pathOfFile is blank or has an incorrect file
-   *                                  extension.
-   * @throws IOException              if there is an error writing list of games to file.
+   * @throws NullPointerException          if game, currentPassage, or pathOfFile is null.
+   * @throws IllegalArgumentException      if the pathOfFile is blank or has an incorrect file
+   *                                       extension.
+   * @throws GameVersionConflictException if the saved game is not the version the game was
+   *                                       created from.
+   * @throws IOException                   if there is an error writing to the journal.
    */
   public void saveGame(Game game, Passage currentPassage)
-      throws NullPointerException, IOException, IllegalArgumentException {
+      throws NullPointerException, IOException, IllegalArgumentException,
+      GameVersionConflictException {
+    waitFor(saveGameAsync(game, currentPassage));
+  }
+
+  /**
+   * The method saves the given game to the list of games, and appends the game to the journal
+   * on the saver thread. The game is recorded as it is when the method is called, so the game
+   * can be played on while it is written. If the game is saved again before it has been
+   * written, only the latest save is written.
+   *
+   * <p>The game is only saved if the saved game is the version the game was created from, or
+   * is not saved if the game has version 0. The version of the game is increased when it is
+   * saved, and the game ID of a created game is no longer reserved for it once it is saved.
+   * The current passage of the game is left as it was if the game is not saved.
+   *
+   * @param game           the game to save.
+   * @param currentPassage the passage the player is at.
+   * @return a future that completes when the game has been written, or completes
+   *         exceptionally if the game could not be written.
+   * @throws NullPointerException          if game or currentPassage is null.
+   * @throws GameVersionConflictException if the saved game is not the version the game was
+   *                                       created from.
+   * @throws IllegalStateException         if the GameManager has been closed.
+   */
+  public CompletableFuture<Void> saveGameAsync(Game game, Passage currentPassage)
+      throws NullPointerException, GameVersionConflictException, IllegalStateException {
     validateGame(game);
     if (currentPassage == null) {
       throw new NullPointerException("Current passage cannot be null.");
     }
-    game.getStory().setCurrentPassage(currentPassage);
-    if (games.contains(game)) {
-      int index = games.indexOf(game);
-      games.set(index, game);
-    } else {
-      games.add(game);
+    String key = game.getGameId();
+    long version = game.getVersion();
+    Entry expected = games.get(key);
+    validateVersion(key, version, expected);
+    Passage previousPassage = game.getCurrentPassage();
+    game.setCurrentPassage(currentPassage);
+    StoredGame storedGame = StoredGame.of(game, version + 1);
+    Entry next = new Entry(storedGame, expected == null ? nextOrder.getAndIncrement()
+        : expected.order);
+    while (expected == null ? games.putIfAbsent(key, next) != null
+        : !games.replace(key, expected, next)) {
+      expected = games.get(key);
+      try {
+        validateVersion(key, version, expected);
+      } catch (GameVersionConflictException e) {
+        restorePassage(game, previousPassage);
+        throw e;
+      }
+      next = new Entry(storedGame, expected == null ? nextOrder.getAndIncrement()
+          : expected.order);
     }
-    FileGameHandler.writeGamesToFile(games, pathOfFile);
+    game.setVersion(version + 1);
+
+    Entry saved = next;
+    BooleanSupplier current = () -> games.get(key) == saved;
+    CompletableFuture<Void> future;
+    try {
+      future = saver.save(storedGame, current);
+    } catch (IllegalStateException e) {
+      if (expected == null ? games.remove(key, saved) : games.replace(key, saved, expected)) {
+        game.setVersion(version);
+        restorePassage(game, previousPassage);
+      }
+      throw e;
+    }
+    index.put(key, storedGame, saved.order, current);
+    cache.add(key, storedGame);
+    createdGames.remove(key, game);
+    if (expected != null) {
+      expected.storedGame.discardSpill();
+    }
+    return future;
   }
 
   /**
-   * The method retrieves the list of games.
+   * The method compacts the journal by writing the saved games to the file of games.
+   *
+   * @throws IOException if there is an error writing the list of games to file.
+   */
+  public void compact() throws IOException {
+    journal.compact();
+  }
+
+  /**
+   * The method waits until every save and delete has been written, stops the saver thread,
+   * waits until a running compaction of the journal has finished, and deletes the spill, so
+   * the changes of the evicted games that have not been saved are lost. The method should be
+   * called before the application exits.
+   */
+  public void close() {
+    saver.close();
+    journal.close();
+    try {
+      spill.close();
+    } catch (IOException e) {
+      logger.log(Level.WARNING, "Failed to delete the spill of the games.", e);
+    }
+  }
+
+  /**
+   * The method retrieves the list of games. Games that are not in memory are created from
+   * their stored records, and games that cannot be created are skipped. The games are kept in
+   * memory within the limit of the game manager, so the games above the limit are evicted
+   * again while the list is created.
    *
    * @return the list og games.
    */
   public List<Game> getGames() {
-    return games;
+    List<Game> gameList = new ArrayList<>();
+    for (Map.Entry<String, Entry> entry : getSortedEntries()) {
+      try {
+        gameList.add(withGame(entry.getKey(), entry.getValue().storedGame, game -> game));
+      } catch (JsonParseException e) {
+        logger.log(Level.WARNING, "Failed to load game: " + entry.getKey() + ". "
+            + e.getMessage() + " The current game cannot be played before it is fixed.", e);
+      }
+    }
+    return gameList;
+  }
+
+  /**
+   * The method retrieves the game with the given game ID. The game is created from its stored
+   * record if it is not in memory.
+   *
+   * <p>The game may be evicted from memory when other games are requested, after which the
+   * game is created again when it is requested. Changes made to the returned game after it
+   * has been evicted are not part of the game the game manager creates again, unless the
+   * game is saved, so a game that is changed while other threads use the game manager should
+   * be changed through {@link #withGame(String, Function)}.
+   *
+   * @param gameId the ID of the game.
+   * @return the game.
+   * @throws NullPointerException   if the gameId is null.
+   * @throws NoSuchElementException if no game has the game ID.
+   * @throws JsonParseException     if the game cannot be created from its stored record.
+   */
+  public Game getGame(String gameId)
+      throws NullPointerException, NoSuchElementException, JsonParseException {
+    return withGame(gameId, game -> game);
+  }
+
+  /**
+   * The method applies a function to the game with the given game ID, while the game is
+   * locked, so that the game is not evicted from memory and is not used by another call of
+   * this method while the function is applied. The game is created from its stored record if
+   * it is not in memory. The function should not keep the game after it returns.
+   *
+   * @param gameId   the ID of the game.
+   * @param function the function to apply to the game.
+   * @param <T>      the type of the result of the function.
+   * @return the result of the function.
+   * @throws NullPointerException   if the gameId or function is null.
+   * @throws NoSuchElementException if no game has the game ID.
+   * @throws JsonParseException     if the game cannot be created from its stored record.
+   */
+  public <T> T withGame(String gameId, Function<Game, T> function)
+      throws NullPointerException, NoSuchElementException, JsonParseException {
+    if (function == null) {
+      throw new NullPointerException("Function cannot be null.");
+    }
+    return withGame(gameId, getStoredGame(gameId), function);
+  }
+
+  /**
+   * The method retrieves the statistics of the games kept in memory.
+   *
+   * @return the statistics.
+   */
+  public GameCacheStatistics getCacheStatistics() {
+    return cache.getStatistics();
+  }
+
+  /**
+   * The method retrieves the stored game with the given game ID, without creating the game.
+   *
+   * @param gameId the ID of the game.
+   * @return the stored game.
+   * @throws NullPointerException   if the gameId is null.
+   * @throws NoSuchElementException if no game has the game ID.
+   */
+  public StoredGame getStoredGame(String gameId)
+      throws NullPointerException, NoSuchElementException {
+    if (gameId == null) {
+      throw new NullPointerException("Game ID cannot be null.");
+    }
+    Entry entry = games.get(gameId);
+    if (entry == null) {
+      throw new NoSuchElementException("No game has the ID " + gameId + ".");
+    }
+    return entry.storedGame;
+  }
+
+  /**
+   * The method checks if a game with the given game ID has been saved.
+   *
+   * @param gameId the ID of the game.
+   * @return true if the game has been saved, false otherwise.
+   * @throws NullPointerException if the gameId is null.
+   */
+  public boolean hasGame(String gameId) throws NullPointerException {
+    if (gameId == null) {
+      throw new NullPointerException("Game ID cannot be null.");
+    }
+    return games.containsKey(gameId);
+  }
+
+  /**
+   * The method retrieves the number of saved games.
+   *
+   * @return the number of games.
+   */
+  public int getGameCount() {
+    return games.size();
+  }
+
+  /**
+   * The method retrieves the stored games, without creating the Game objects. The summaries
+   * of the stored games are read from the summary index, so the games can be listed without
+   * reading the file of games.
+   *
+   * @return the list of stored games.
+   */
+  public List<StoredGame> getStoredGames() {
+    return getSortedEntries().stream()
+        .map(entry -> entry.getValue().storedGame)
+        .collect(Collectors.toCollection(ArrayList::new));
+  }
+
+  /**
+   * The method finds the stored games matching a query, without creating the Game objects.
+   * The games are found in order of score if the query has a range of scores, and in the
+   * order they were first saved otherwise. The summaries are those of the last save, so the
+   * score is the score of the player when the game was saved.
+   *
+   * @param query the query.
+   * @return the list of stored games matching the query.
+   * @throws NullPointerException if the query is null.
+   */
+  public List<StoredGame> findGames(GameQuery query) throws NullPointerException {
+    if (query == null) {
+      throw new NullPointerException("Query cannot be null.");
+    }
+    return index.find(query);
+  }
+
+  /**
+   * Helper method to apply a function to a stored game while its game is locked, creating
+   * the game if it is not in memory.
+   *
+   * @param key        the key of the game.
+   * @param storedGame the stored game.
+   * @param function   the function to apply to the game.
+   * @param <T>        the type of the result of the function.
+   * @return the result of the function.
+   * @throws JsonParseException if the game cannot be created from its stored record.
+   */
+  private <T> T withGame(String key, StoredGame storedGame, Function<Game, T> function)
+      throws JsonParseException {
+    ReentrantLock lock = cache.lockFor(key);
+    lock.lock();
+    try {
+      return function.apply(cache.load(key, storedGame));
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Helper method to retrieve the entries of the games in the order they were first saved.
+   *
+   * @return the entries of the games.
+   */
+  private List<Map.Entry<String, Entry>> getSortedEntries() {
+    return games.entrySet().stream()
+        .sorted(Comparator.comparingLong(entry -> entry.getValue().order))
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Helper method to wait for a save or delete to be written.
+   *
+   * @param future the future of the save or delete.
+   * @throws IOException if the save or delete could not be written.
+   */
+  private void waitFor(CompletableFuture<Void> future) throws IOException {
+    try {
+      future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof IOException ioException) {
+        throw ioException;
+      }
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Helper method to check that the saved game is the version a game was created from.
+   *
+   * @param gameId  the ID of the game.
+   * @param version the version the game was created from.
+   * @param entry   the entry of the saved game, or null if the game is not saved.
+   * @throws GameVersionConflictException if the saved game is another version.
+   */
+  private static void validateVersion(String gameId, long version, Entry entry)
+      throws GameVersionConflictException {
+    long savedVersion = entry == null ? 0 : entry.storedGame.getVersion();
+    if (savedVersion != version) {
+      throw new GameVersionConflictException(gameId, version, savedVersion);
+    }
+  }
+
+  /**
+   * Helper method to move a game back to the passage it was at before a save that failed.
+   *
+   * @param game            the game.
+   * @param previousPassage the passage the game was at, or null if it had none.
+   */
+  private static void restorePassage(Game game, Passage previousPassage) {
+    if (previousPassage != null) {
+      game.setCurrentPassage(previousPassage);
+    }
   }
 
   /**
@@ -173,4 +662,24 @@ public class GameManager {
       throw new NullPointerException("Game cannot be null.");
     }
   }
+
+  /**
+   * The Entry class holds a stored game, and the position of the game in the list of games.
+   * The position is kept when the game is saved again, as in the file of games.
+   */
+  private static final class Entry {
+    private final StoredGame storedGame;
+    private final long order;
+
+    /**
+     * Constructs an Entry object.
+     *
+     * @param storedGame the stored game.
+     * @param order      the position of the game.
+     */
+    Entry(StoredGame storedGame, long order) {
+      this.storedGame = storedGame;
+      this.order = order;
+    }
+  }
 }
@@ -0,0 +1,254 @@
+package edu.ntnu.idatt2001.paths.controller;
+
+import java.util.Locale;
+
+/**
+ * The GameQuery class describes which stored games to find, see
+ * {@link GameManager#findGames(GameQuery)}. A query can match the start of the name of the
+ * player, the title of the story, the title of the current passage and a range of scores. A
+ * game must match every part of the query that is set, so a query with no parts set matches
+ * every game. Names and titles are matched without regard to case, and a blank name or title
+ * is not set.
+ *
+ * <p>The games are found in order of score when the query has a range of scores, and in the
+ * order they were first saved otherwise.
+ *
+ * @author Ramtin Samavat
+ * @author Tobias Oftedal
+ * @version 1.0
+ * @since May 26, 2023.
+ */
+public final class GameQuery {
+
+  private final String playerNamePrefix;
+  private final String storyTitle;
+  private final String currentPassageTitle;
+  private final Integer minScore;
+  private final Integer maxScore;
+  private final int limit;
+
+  /**
+   * Constructs a GameQuery object with the values of the builder.
+   *
+   * @param builder the builder of the query.
+   */
+  private GameQuery(GameQueryBuilder builder) {
+    this.playerNamePrefix = normalize(builder.playerNamePrefix);
+    this.storyTitle = normalize(builder.storyTitle);
+    this.currentPassageTitle = normalize(builder.currentPassageTitle);
+    this.minScore = builder.minScore;
+    this.maxScore = builder.maxScore;
+    this.limit = builder.limit;
+  }
+
+  /**
+   * The method normalizes a name or title, so that it is matched without regard to case.
+   *
+   * @param text the name or title.
+   * @return the normalized text, or null if the text is null or blank.
+   */
+  static String normalize(String text) {
+    return text == null || text.isBlank() ? null : text.trim().toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * The method retrieves the start of the name of the player, normalized.
+   *
+   * @return the start of the player name, or null if any player matches.
+   */
+  String getPlayerNamePrefix() {
+    return playerNamePrefix;
+  }
+
+  /**
+   * The method retrieves the title of the story, normalized.
+   *
+   * @return the story title, or null if any story matches.
+   */
+  String getStoryTitle() {
+    return storyTitle;
+  }
+
+  /**
+   * The method retrieves the title of the current passage, normalized.
+   *
+   * @return the title of the current passage, or null if any passage matches.
+   */
+  String getCurrentPassageTitle() {
+    return currentPassageTitle;
+  }
+
+  /**
+   * The method checks if the query has a range of scores.
+   *
+   * @return true if the query has a range of scores, false otherwise.
+   */
+  boolean hasScoreRange() {
+    return minScore != null || maxScore != null;
+  }
+
+  /**
+   * The method retrieves the lowest score of the range.
+   *
+   * @return the lowest score.
+   */
+  int getMinScore() {
+    return minScore == null ? Integer.MIN_VALUE : minScore;
+  }
+
+  /**
+   * The method retrieves the highest score of the range.
+   *
+   * @return the highest score.
+   */
+  int getMaxScore() {
+    return maxScore == null ? Integer.MAX_VALUE : maxScore;
+  }
+
+  /**
+   * The method retrieves the maximum number of games to find.
+   *
+   * @return the maximum number of games.
+   */
+  int getLimit() {
+    return limit;
+  }
+
+  /**
+   * The method checks if the summary of a stored game matches the query. The names and titles
+   * must be normalized.
+   *
+   * @param playerName          the name of the player.
+   * @param storyTitle          the title of the story.
+   * @param currentPassageTitle the title of the current passage.
+   * @param score               the score of the player.
+   * @return true if the game matches every part of the query, false otherwise.
+   */
+  boolean matches(String playerName, String storyTitle, String currentPassageTitle,
+                  int score) {
+    if (playerNamePrefix != null
+        && (playerName == null || !playerName.startsWith(playerNamePrefix))) {
+      return false;
+    }
+    if (this.storyTitle != null && !this.storyTitle.equals(storyTitle)) {
+      return false;
+    }
+    if (this.currentPassageTitle != null
+        && !this.currentPassageTitle.equals(currentPassageTitle)) {
+      return false;
+    }
+    return score >= getMinScore() && score <= getMaxScore();
+  }
+
+  /**
+   * The method creates a builder of a query.
+   *
+   * @return the builder.
+   */
+  public static GameQueryBuilder builder() {
+    return new GameQueryBuilder();
+  }
+
+  /**
+   * Builder class for the GameQuery class. The parts of the query that are not set match
+   * every game.
+   */
+  public static final class GameQueryBuilder {
+    private String playerNamePrefix;
+    private String storyTitle;
+    private String currentPassageTitle;
+    private Integer minScore;
+    private Integer maxScore;
+    private int limit = Integer.MAX_VALUE;
+
+    /**
+     * Constructs a GameQueryBuilder object.
+     */
+    private GameQueryBuilder() {
+    }
+
+    /**
+     * The method sets the start of the name of the player.
+     *
+     * @param playerNamePrefix the start of the player name.
+     * @return this builder object.
+     */
+    public GameQueryBuilder playerNamePrefix(String playerNamePrefix) {
+      this.playerNamePrefix = playerNamePrefix;
+      return this;
+    }
+
+    /**
+     * The method sets the title of the story.
+     *
+     * @param storyTitle the story title.
+     * @return this builder object.
+     */
+    public GameQueryBuilder storyTitle(String storyTitle) {
+      this.storyTitle = storyTitle;
+      return this;
+    }
+
+    /**
+     * The method sets the title of the current passage.
+     *
+     * @param currentPassageTitle the title of the current passage.
+     * @return this builder object.
+     */
+    public GameQueryBuilder currentPassageTitle(String currentPassageTitle) {
+      this.currentPassageTitle = currentPassageTitle;
+      return this;
+    }
+
+    /**
+     * The method sets the lowest score of the range of scores.
+     *
+     * @param minScore the lowest score, inclusive.
+     * @return this builder object.
+     */
+    public GameQueryBuilder minScore(int minScore) {
+      this.minScore = minScore;
+      return this;
+    }
+
+    /**
+     * The method sets the highest score of the range of scores.
+     *
+     * @param maxScore the highest score, inclusive.
+     * @return this builder object.
+     */
+    public GameQueryBuilder maxScore(int maxScore) {
+      this.maxScore = maxScore;
+      return this;
+    }
+
+    /**
+     * The method sets the maximum number of games to find.
+     *
+     * @param limit the maximum number of games.
+     * @return this builder object.
+     */
+    public GameQueryBuilder limit(int limit) {
+      this.limit = limit;
+      return this;
+    }
+
+    /**
+     * Constructs a GameQuery object with the set values.
+     *
+     * @return the query.
+     * @throws IllegalArgumentException if the lowest score is greater than the highest score,
+     *                                  or the limit is not positive.
+     */
+    public GameQuery build() throws IllegalArgumentException {
+      if (minScore != null && maxScore != null && minScore > maxScore) {
+        throw new IllegalArgumentException("The lowest score cannot be greater than the "
+            + "highest score.");
+      }
+      if (limit <= 0) {
+        throw new IllegalArgumentException("The limit must be positive.");
+      }
+      return new GameQuery(this);
+    }
+  }
+}
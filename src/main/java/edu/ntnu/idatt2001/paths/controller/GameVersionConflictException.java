@@ -0,0 +1,63 @@
+package edu.ntnu.idatt2001.paths.controller;
+
+/**
+ * The GameVersionConflictException class is thrown when a game is saved, but the saved game
+ * is no longer the version the game was created from, because the game has been saved or
+ * deleted by someone else since. The game is not saved, so the caller can retrieve the saved
+ * game and decide what to keep.
+ *
+ * @author Ramtin Samavat
+ * @author Tobias Oftedal
+ * @version 1.0
+ * @since May 26, 2023.
+ */
+public class GameVersionConflictException extends IllegalStateException {
+
+  private static final long serialVersionUID = 1L;
+  private final String gameId;
+  private final long expectedVersion;
+  private final long actualVersion;
+
+  /**
+   * Constructor for the GameVersionConflictException class.
+   *
+   * @param gameId          the ID of the game.
+   * @param expectedVersion the version the game was created from.
+   * @param actualVersion   the version of the saved game, or 0 if the game is not saved.
+   */
+  public GameVersionConflictException(String gameId, long expectedVersion, long actualVersion) {
+    super("The game " + gameId + " was loaded as version " + expectedVersion
+        + ", but the saved game is " + (actualVersion == 0 ? "missing"
+        : "version " + actualVersion) + ".");
+    this.gameId = gameId;
+    this.expectedVersion = expectedVersion;
+    this.actualVersion = actualVersion;
+  }
+
+  /**
+   * The method retrieves the ID of the game.
+   *
+   * @return the game ID.
+   */
+  public String getGameId() {
+    return gameId;
+  }
+
+  /**
+   * The method retrieves the version the game was created from.
+   *
+   * @return the expected version.
+   */
+  public long getExpectedVersion() {
+    return expectedVersion;
+  }
+
+  /**
+   * The method retrieves the version of the saved game.
+   *
+   * @return the actual version, or 0 if the game is not saved.
+   */
+  public long getActualVersion() {
+    return actualVersion;
+  }
+}
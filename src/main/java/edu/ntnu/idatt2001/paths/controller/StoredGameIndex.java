@@ -0,0 +1,303 @@
+package edu.ntnu.idatt2001.paths.controller;
+
+import edu.ntnu.idatt2001.paths.model.filehandling.StoredGame;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BooleanSupplier;
+
+/**
+ * The StoredGameIndex class indexes the summaries of the stored games of a GameManager, so
+ * that games can be found without going through every game, see {@link GameQuery}. The games
+ * are indexed by the title of the story and the title of the current passage, and kept sorted
+ * by the name of the player, for finding the names that start with a prefix, and by score,
+ * for finding a range of scores. The games of a score, and the games as a whole, are kept in
+ * the order they were first saved, so games with the same score are found in the same order
+ * whichever index a query goes through.
+ *
+ * <p>A query goes through the games of one index only, and checks the rest of the query
+ * against the summary of each game. An exact title is used first, as it usually matches the
+ * fewest games, then the prefix of the player name, and then the range of scores.
+ *
+ * <p>The index is changed when a game is saved or deleted, and can be queried by many threads
+ * at once while it is not being changed. A change can be given a condition, which is checked
+ * while the index is locked, so that a change that has been overtaken by a newer save or
+ * delete of the game is not applied after it.
+ *
+ * @author Ramtin Samavat
+ * @author Tobias Oftedal
+ * @version 1.0
+ * @since May 26, 2023.
+ */
+final class StoredGameIndex {
+
+  private final ReentrantReadWriteLock lock;
+  private final Map<String, IndexedGame> games;
+  private final NavigableMap<Long, String> byOrder;
+  private final NavigableMap<String, Set<String>> byPlayerName;
+  private final Map<String, Set<String>> byStoryTitle;
+  private final Map<String, Set<String>> byCurrentPassage;
+  private final NavigableMap<Integer, NavigableMap<Long, String>> byScore;
+
+  /**
+   * Constructor for the StoredGameIndex class, creating an empty index.
+   */
+  StoredGameIndex() {
+    this.lock = new ReentrantReadWriteLock();
+    this.games = new HashMap<>();
+    this.byOrder = new TreeMap<>();
+    this.byPlayerName = new TreeMap<>();
+    this.byStoryTitle = new HashMap<>();
+    this.byCurrentPassage = new HashMap<>();
+    this.byScore = new TreeMap<>();
+  }
+
+  /**
+   * The method indexes a stored game, replacing the stored game with the same key.
+   *
+   * @param key        the key of the game.
+   * @param storedGame the stored game.
+   * @param order      the position of the game in the list of games.
+   */
+  void put(String key, StoredGame storedGame, long order) {
+    put(key, storedGame, order, () -> true);
+  }
+
+  /**
+   * The method indexes a stored game, replacing the stored game with the same key, if the
+   * condition holds.
+   *
+   * @param key        the key of the game.
+   * @param storedGame the stored game.
+   * @param order      the position of the game in the list of games.
+   * @param current    the condition, as whether the stored game is still the latest save.
+   */
+  void put(String key, StoredGame storedGame, long order, BooleanSupplier current) {
+    IndexedGame indexedGame = new IndexedGame(storedGame, order);
+    lock.writeLock().lock();
+    try {
+      if (!current.getAsBoolean()) {
+        return;
+      }
+      IndexedGame replacedGame = games.put(key, indexedGame);
+      if (replacedGame != null) {
+        unindex(key, replacedGame);
+      }
+      byOrder.put(indexedGame.order, key);
+      index(byPlayerName, indexedGame.playerName, key);
+      index(byStoryTitle, indexedGame.storyTitle, key);
+      index(byCurrentPassage, indexedGame.currentPassageTitle, key);
+      byScore.computeIfAbsent(indexedGame.score, score -> new TreeMap<>())
+          .put(indexedGame.order, key);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * The method removes the stored game with the given key from the index, if the condition
+   * holds.
+   *
+   * @param key     the key of the game.
+   * @param current the condition, as whether the game is still deleted.
+   */
+  void remove(String key, BooleanSupplier current) {
+    lock.writeLock().lock();
+    try {
+      if (!current.getAsBoolean()) {
+        return;
+      }
+      IndexedGame removedGame = games.remove(key);
+      if (removedGame != null) {
+        unindex(key, removedGame);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * The method finds the stored games matching a query, in order of score if the query has a
+   * range of scores, and in the order they were first saved otherwise.
+   *
+   * @param query the query.
+   * @return the stored games, at most the limit of the query.
+   */
+  List<StoredGame> find(GameQuery query) {
+    List<IndexedGame> found = new ArrayList<>();
+    boolean sorted;
+    lock.readLock().lock();
+    try {
+      Collection<? extends Collection<String>> candidates = getCandidates(query);
+      if (candidates == null) {
+        sorted = !query.hasScoreRange();
+        addMatches(query, byOrder.values().stream().map(games::get).toList(), found, sorted);
+      } else {
+        sorted = query.hasScoreRange() && query.getStoryTitle() == null
+            && query.getCurrentPassageTitle() == null && query.getPlayerNamePrefix() == null;
+        for (Collection<String> keys : candidates) {
+          if (sorted && found.size() >= query.getLimit()) {
+            break;
+          }
+          addMatches(query, keys.stream().map(games::get).toList(), found, sorted);
+        }
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+
+    if (!sorted) {
+      found.sort(query.hasScoreRange()
+          ? Comparator.comparingInt((IndexedGame game) -> game.score)
+              .thenComparingLong(game -> game.order)
+          : Comparator.comparingLong(game -> game.order));
+    }
+    return found.stream()
+        .limit(query.getLimit())
+        .map(game -> game.storedGame)
+        .toList();
+  }
+
+  /**
+   * Helper method to retrieve the keys of the games that can match a query, from the index
+   * likely to hold the fewest games.
+   *
+   * @param query the query.
+   * @return the keys of the games, grouped by the value they are indexed by, or null if every
+   *         game must be checked. The keys of a score are in the order the games were first
+   *         saved.
+   */
+  private Collection<? extends Collection<String>> getCandidates(GameQuery query) {
+    Set<String> titleKeys = null;
+    if (query.getStoryTitle() != null) {
+      titleKeys = byStoryTitle.getOrDefault(query.getStoryTitle(), Set.of());
+    }
+    if (query.getCurrentPassageTitle() != null) {
+      Set<String> passageKeys = byCurrentPassage.getOrDefault(query.getCurrentPassageTitle(),
+          Set.of());
+      if (titleKeys == null || passageKeys.size() < titleKeys.size()) {
+        titleKeys = passageKeys;
+      }
+    }
+    if (titleKeys != null) {
+      return List.of(titleKeys);
+    }
+    if (query.getPlayerNamePrefix() != null) {
+      String prefix = query.getPlayerNamePrefix();
+      return byPlayerName.subMap(prefix, true, prefix + Character.MAX_VALUE, true).values();
+    }
+    if (query.hasScoreRange()) {
+      return byScore.subMap(query.getMinScore(), true, query.getMaxScore(), true).values()
+          .stream()
+          .map(Map::values)
+          .toList();
+    }
+    return null;
+  }
+
+  /**
+   * Helper method to add the games matching a query to a list.
+   *
+   * @param query   the query.
+   * @param games   the games to check.
+   * @param found   the list of games found.
+   * @param limited true if no more games should be added when the limit is reached.
+   */
+  private static void addMatches(GameQuery query, Collection<IndexedGame> games,
+                                 List<IndexedGame> found, boolean limited) {
+    for (IndexedGame game : games) {
+      if (limited && found.size() >= query.getLimit()) {
+        return;
+      }
+      if (query.matches(game.playerName, game.storyTitle, game.currentPassageTitle,
+          game.score)) {
+        found.add(game);
+      }
+    }
+  }
+
+  /**
+   * Helper method to remove the key of a game from the indexes.
+   *
+   * @param key  the key of the game.
+   * @param game the indexed game.
+   */
+  private void unindex(String key, IndexedGame game) {
+    unindex(byPlayerName, game.playerName, key);
+    unindex(byStoryTitle, game.storyTitle, key);
+    unindex(byCurrentPassage, game.currentPassageTitle, key);
+    byOrder.remove(game.order);
+    Map<Long, String> scoreKeys = byScore.get(game.score);
+    if (scoreKeys != null && scoreKeys.remove(game.order) != null && scoreKeys.isEmpty()) {
+      byScore.remove(game.score);
+    }
+  }
+
+  /**
+   * Helper method to add the key of a game to an index.
+   *
+   * @param index the index.
+   * @param value the value the game is indexed by, or null if it is not indexed.
+   * @param key   the key of the game.
+   * @param <V>   the type of the value.
+   */
+  private static <V> void index(Map<V, Set<String>> index, V value, String key) {
+    if (value != null) {
+      index.computeIfAbsent(value, v -> new LinkedHashSet<>()).add(key);
+    }
+  }
+
+  /**
+   * Helper method to remove the key of a game from an index.
+   *
+   * @param index the index.
+   * @param value the value the game is indexed by, or null if it is not indexed.
+   * @param key   the key of the game.
+   * @param <V>   the type of the value.
+   */
+  private static <V> void unindex(Map<V, Set<String>> index, V value, String key) {
+    if (value == null) {
+      return;
+    }
+    Set<String> keys = index.get(value);
+    if (keys != null && keys.remove(key) && keys.isEmpty()) {
+      index.remove(value);
+    }
+  }
+
+  /**
+   * The IndexedGame class holds a stored game, its position in the list of games, and the
+   * normalized values it is indexed by.
+   */
+  private static final class IndexedGame {
+    private final StoredGame storedGame;
+    private final long order;
+    private final String playerName;
+    private final String storyTitle;
+    private final String currentPassageTitle;
+    private final int score;
+
+    /**
+     * Constructs an IndexedGame object.
+     *
+     * @param storedGame the stored game.
+     * @param order      the position of the game.
+     */
+    IndexedGame(StoredGame storedGame, long order) {
+      this.storedGame = storedGame;
+      this.order = order;
+      this.playerName = GameQuery.normalize(storedGame.getPlayerName());
+      this.storyTitle = GameQuery.normalize(storedGame.getStoryTitle());
+      this.currentPassageTitle = GameQuery.normalize(storedGame.getCurrentPassageTitle());
+      this.score = storedGame.getPlayerScore();
+    }
+  }
+}
@@ -0,0 +1,240 @@
+package edu.ntnu.idatt2001.paths.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * The CompiledStory class represents an immutable, compiled version of a story.
+ * Every passage is given a dense integer ID, where the opening passage always has
+ * the ID zero, and the links of all passages are stored in one array in the order
+ * of their passages. The links of a passage are found between the offsets of the
+ * passage and the next passage, and every link stores the ID of the passage it
+ * references. This makes it possible to walk the story without resolving the
+ * reference of a link by its title.
+ *
+ * <p>The Story class is still used to create and edit stories. A compiled story
+ * is a snapshot of the story at the time it was compiled.
+ *
+ * @author Ramtin Samavat and Tobias Oftedal.
+ * @version 1.0
+ * @since May 22, 2023.
+ */
+public final class CompiledStory {
+  /**
+   * The target of a link that references a non-existent passage.
+   */
+  public static final int BROKEN_LINK = -1;
+  /**
+   * The index of a link that is not part of the story.
+   */
+  public static final int UNKNOWN_LINK = -1;
+  private static final int OPENING_PASSAGE_ID = 0;
+
+  private final String title;
+  private final int modificationCount;
+  private final Passage[] passages;
+  private final int[] linkOffsets;
+  private final Link[] links;
+  private final int[] linkTargets;
+  private final Map<PassageKey, Integer> passageIds;
+  private final Map<Link, Integer> linkIndexes;
+
+  /**
+   * Constructs a compiled story from the given story.
+   *
+   * @param story the story to compile.
+   * @throws NullPointerException if the story is null.
+   */
+  public CompiledStory(Story story) throws NullPointerException {
+    Objects.requireNonNull(story, "Story cannot be null.");
+    this.title = story.getTitle();
+    this.modificationCount = story.getModificationCount();
+
+    List<Passage> passageList = new ArrayList<>(story.getPassages().size() + 1);
+    passageList.add(story.getOpeningPassage());
+    passageList.addAll(story.getPassages());
+    this.passages = passageList.toArray(new Passage[0]);
+
+    this.passageIds = new HashMap<>();
+    for (int id = passages.length - 1; id >= 0; id--) {
+      passageIds.put(passages[id].getKey(), id);
+    }
+
+    this.linkOffsets = new int[passages.length + 1];
+    for (int id = 0; id < passages.length; id++) {
+      linkOffsets[id + 1] = linkOffsets[id] + passages[id].getLinks().size();
+    }
+
+    this.links = new Link[linkOffsets[passages.length]];
+    this.linkTargets = new int[links.length];
+    this.linkIndexes = new IdentityHashMap<>(links.length);
+    int linkIndex = 0;
+    for (Passage passage : passages) {
+      for (Link link : passage.getLinks()) {
+        links[linkIndex] = link;
+        linkIndexes.putIfAbsent(link, linkIndex);
+        linkTargets[linkIndex] = passageIds.getOrDefault(link.getReferenceKey(), BROKEN_LINK);
+        linkIndex++;
+      }
+    }
+  }
+
+  /**
+   * The method retrieves the title of the story.
+   *
+   * @return the title of the story.
+   */
+  public String getTitle() {
+    return title;
+  }
+
+  /**
+   * The method checks if the compiled story is still up to date with the given story,
+   * meaning that no passages or links have been added or removed since it was compiled.
+   *
+   * @param story the story that was compiled.
+   * @return true if the compiled story is up to date, false otherwise.
+   */
+  boolean isUpToDate(Story story) {
+    return story.getModificationCount() == modificationCount;
+  }
+
+  /**
+   * The method retrieves the ID of the opening passage.
+   *
+   * @return the ID of the opening passage.
+   */
+  public int getOpeningPassageId() {
+    return OPENING_PASSAGE_ID;
+  }
+
+  /**
+   * The method retrieves the number of passages, including the opening passage.
+   *
+   * @return the number of passages.
+   */
+  public int getPassageCount() {
+    return passages.length;
+  }
+
+  /**
+   * The method retrieves the total number of links in the story.
+   *
+   * @return the number of links.
+   */
+  public int getLinkCount() {
+    return links.length;
+  }
+
+  /**
+   * The method retrieves the passage with the given ID.
+   *
+   * @param passageId the ID of the passage.
+   * @return the passage with the given ID.
+   * @throws IndexOutOfBoundsException if the passage ID is not valid.
+   */
+  public Passage getPassage(int passageId) throws IndexOutOfBoundsException {
+    return passages[Objects.checkIndex(passageId, passages.length)];
+  }
+
+  /**
+   * The method retrieves the ID of the passage with the given title.
+   *
+   * @param title the title of the passage.
+   * @return the ID of the passage.
+   * @throws NullPointerException   if the title is null.
+   * @throws NoSuchElementException if the passage is not found.
+   */
+  public int getPassageId(String title) throws NullPointerException, NoSuchElementException {
+    if (title == null) {
+      throw new NullPointerException("Title cannot be null.");
+    }
+    Integer passageId = passageIds.get(PassageKey.of(title));
+    if (passageId == null) {
+      throw new NoSuchElementException("Passage not found: " + title);
+    }
+    return passageId;
+  }
+
+  /**
+   * The method retrieves the index of the first link of the given passage.
+   *
+   * @param passageId the ID of the passage.
+   * @return the index of the first link of the passage.
+   * @throws IndexOutOfBoundsException if the passage ID is not valid.
+   */
+  public int getFirstLinkIndex(int passageId) throws IndexOutOfBoundsException {
+    return linkOffsets[Objects.checkIndex(passageId, passages.length)];
+  }
+
+  /**
+   * The method retrieves the index after the last link of the given passage.
+   *
+   * @param passageId the ID of the passage.
+   * @return the index after the last link of the passage.
+   * @throws IndexOutOfBoundsException if the passage ID is not valid.
+   */
+  public int getEndLinkIndex(int passageId) throws IndexOutOfBoundsException {
+    return linkOffsets[Objects.checkIndex(passageId, passages.length) + 1];
+  }
+
+  /**
+   * The method retrieves the link with the given index.
+   *
+   * @param linkIndex the index of the link.
+   * @return the link with the given index.
+   * @throws IndexOutOfBoundsException if the link index is not valid.
+   */
+  public Link getLink(int linkIndex) throws IndexOutOfBoundsException {
+    return links[Objects.checkIndex(linkIndex, links.length)];
+  }
+
+  /**
+   * The method retrieves the index of the given link. The link must be the same
+   * object as the link in the story, equal links are not matched.
+   *
+   * @param link the link to find the index of.
+   * @return the index of the link, or {@link #UNKNOWN_LINK} if the link is not in the story.
+   * @throws NullPointerException if the link is null.
+   */
+  public int getLinkIndex(Link link) throws NullPointerException {
+    if (link == null) {
+      throw new NullPointerException("Link cannot be null.");
+    }
+    return linkIndexes.getOrDefault(link, UNKNOWN_LINK);
+  }
+
+  /**
+   * The method retrieves the ID of the passage referenced by the link with the given
+   * index.
+   *
+   * @param linkIndex the index of the link.
+   * @return the ID of the referenced passage, or {@link #BROKEN_LINK} if the link is broken.
+   * @throws IndexOutOfBoundsException if the link index is not valid.
+   */
+  public int getLinkTarget(int linkIndex) throws IndexOutOfBoundsException {
+    return linkTargets[Objects.checkIndex(linkIndex, links.length)];
+  }
+
+  /**
+   * The method retrieves the ID of the passage that the link with the given index
+   * leads to.
+   *
+   * @param linkIndex the index of the link to follow.
+   * @return the ID of the referenced passage.
+   * @throws IndexOutOfBoundsException if the link index is not valid.
+   * @throws NoSuchElementException    if the link is broken.
+   */
+  public int go(int linkIndex) throws IndexOutOfBoundsException, NoSuchElementException {
+    int target = getLinkTarget(linkIndex);
+    if (target == BROKEN_LINK) {
+      throw new NoSuchElementException("Passage not found: " + links[linkIndex].getReference());
+    }
+    return target;
+  }
+}
@@ -1,14 +1,19 @@
 package edu.ntnu.idatt2001.paths.model;
 
+import edu.ntnu.idatt2001.paths.model.actions.Action;
 import edu.ntnu.idatt2001.paths.model.goals.Goal;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.OptionalInt;
 
 /**
  * The Game class represents a game, which is played by a player
- * and contains a story and a list of goals.
+ * and contains a story and a list of goals. The story is never changed
+ * by the game, so the same story can be shared by many games. The current
+ * passage and the links whose actions have been consumed are kept by the game.
  *
  * @author Ramtin Samavat and Tobias Oftedal.
  * @version 1.0
@@ -19,6 +24,9 @@ public class Game {
   private final Player player;
   private Story story;
   private final List<Goal> goals;
+  private final BitSet consumedLinks;
+  private Passage currentPassage;
+  private long version;
 
   /**
    * Constructor to create an object of the type Game.
@@ -39,6 +47,8 @@ public class Game {
     this.story = Objects.requireNonNull(story, "Story cannot be null.");
     this.goals = new ArrayList<>();
     this.goals.addAll(Objects.requireNonNull(goals, "Goals cannot be null."));
+    this.consumedLinks = new BitSet();
+    this.currentPassage = story.getCurrentPassage();
   }
 
   /**
@@ -51,6 +61,20 @@ public class Game {
     this.story = Objects.requireNonNull(story, "Story cannot be null.");
   }
 
+  /**
+   * Helper method to find the index of a link in the compiled story. Stories that can find
+   * the index on their own are not compiled.
+   *
+   * @param link the link to find the index of.
+   * @return the index of the link, or {@link CompiledStory#UNKNOWN_LINK} if the link is not
+   *         in the story.
+   */
+  private int getLinkIndex(Link link) {
+    OptionalInt linkIndex = story.findLinkIndex(link);
+    return linkIndex.isPresent() ? linkIndex.getAsInt()
+        : story.getCompiledStory().getLinkIndex(link);
+  }
+
   /**
    * The method retrieves the game ID.
    *
@@ -87,18 +111,138 @@ public class Game {
     return goals;
   }
 
+  /**
+   * The method retrieves the passage the player is currently at.
+   *
+   * @return the current passage.
+   */
+  public Passage getCurrentPassage() {
+    return currentPassage;
+  }
+
+  /**
+   * The method sets the passage the player is currently at.
+   *
+   * @param currentPassage the new current passage.
+   * @throws NullPointerException if the current passage is null.
+   */
+  public void setCurrentPassage(Passage currentPassage) throws NullPointerException {
+    this.currentPassage = Objects.requireNonNull(currentPassage,
+            "Current passage cannot be null.");
+  }
+
+  /**
+   * The method retrieves the ordinals of the links whose actions have been
+   * consumed in this game. The ordinals are the link indexes of the compiled story.
+   *
+   * @return a copy of the consumed links.
+   */
+  public BitSet getConsumedLinks() {
+    return (BitSet) consumedLinks.clone();
+  }
+
+  /**
+   * The method marks the links with the given ordinals as consumed.
+   *
+   * @param consumedLinks the ordinals of the consumed links.
+   * @throws NullPointerException if the consumed links are null.
+   */
+  public void setConsumedLinks(BitSet consumedLinks) throws NullPointerException {
+    Objects.requireNonNull(consumedLinks, "Consumed links cannot be null.");
+    this.consumedLinks.clear();
+    this.consumedLinks.or(consumedLinks);
+  }
+
+  /**
+   * The method retrieves the version of the saved game this game was created from, or was
+   * last saved as. A game that has not been saved has version 0.
+   *
+   * @return the version of the game.
+   */
+  public long getVersion() {
+    return version;
+  }
+
+  /**
+   * The method sets the version of the saved game this game was created from, or was last
+   * saved as.
+   *
+   * @param version the version of the game.
+   * @throws IllegalArgumentException if the version is negative.
+   */
+  public void setVersion(long version) throws IllegalArgumentException {
+    if (version < 0) {
+      throw new IllegalArgumentException("Version cannot be negative.");
+    }
+    this.version = version;
+  }
+
+  /**
+   * The method checks if the actions of the given link have been consumed.
+   *
+   * @param link the link to check.
+   * @return true if the actions have been consumed, false otherwise.
+   * @throws NullPointerException if the link is null.
+   */
+  public boolean isConsumed(Link link) throws NullPointerException {
+    if (link == null) {
+      throw new NullPointerException("Link cannot be null.");
+    }
+    int linkIndex = getLinkIndex(link);
+    return linkIndex != CompiledStory.UNKNOWN_LINK && consumedLinks.get(linkIndex);
+  }
+
+  /**
+   * The method executes the actions of the given link on the player, unless they
+   * have already been consumed in this game. The link is then marked as consumed.
+   * The actions of a link that is not part of the story are always executed.
+   *
+   * @param link the link whose actions will be executed.
+   * @return true if the actions were executed, false if they were already consumed.
+   * @throws NullPointerException if the link is null.
+   */
+  public boolean executeActions(Link link) throws NullPointerException {
+    if (link == null) {
+      throw new NullPointerException("Link cannot be null.");
+    }
+    int linkIndex = getLinkIndex(link);
+    if (linkIndex != CompiledStory.UNKNOWN_LINK) {
+      if (consumedLinks.get(linkIndex)) {
+        return false;
+      }
+      consumedLinks.set(linkIndex);
+    }
+    for (Action action : link.getActions()) {
+      action.execute(player);
+    }
+    return true;
+  }
+
   /**
    * The method returns the start passage of the game.
    *
    * @return the start passage of the game.
    */
   public Passage begin() {
-    return story.getCurrentPassage();
+    return currentPassage;
   }
 
   /**
-   * The method resets the game by resetting the
-   * player and returning the opening passage of the story.
+   * The method resets the game by resetting the player and the consumed
+   * links, and returning the opening passage of the story.
+   *
+   * @return the opening passage of the story.
+   */
+  public Passage resetGame() {
+    player.resetPlayer();
+    consumedLinks.clear();
+    currentPassage = story.getOpeningPassage();
+    return currentPassage;
+  }
+
+  /**
+   * The method resets the game with a new instance of the story, by resetting the
+   * player and the consumed links, and returning the opening passage of the story.
    *
    * @param originalStory new instance of the original story of the game.
    * @return the opening passage of the story.
@@ -106,9 +250,7 @@ public class Game {
    */
   public Passage resetGame(Story originalStory) throws NullPointerException {
     setStory(originalStory);
-    player.resetPlayer();
-    story.setCurrentPassage(story.getOpeningPassage());
-    return story.getOpeningPassage();
+    return resetGame();
   }
 
   /**
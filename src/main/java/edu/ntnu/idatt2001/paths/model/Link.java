@@ -19,6 +19,7 @@ public class Link {
   private final String text;
   private final String reference;
   private final List<Action> actions;
+  private transient PassageKey referenceKey;
 
   /**
    * Constructs a Link object with the given text and reference.
@@ -58,6 +59,19 @@ public class Link {
     return reference;
   }
 
+  /**
+   * The method retrieves the key of the passage the link references. The key is
+   * created the first time it is needed.
+   *
+   * @return the key of the referenced passage.
+   */
+  PassageKey getReferenceKey() {
+    if (referenceKey == null) {
+      referenceKey = PassageKey.of(reference);
+    }
+    return referenceKey;
+  }
+
   /**
    * The method adds an action to the list of actions.
    *
@@ -96,7 +110,8 @@ public class Link {
   }
 
   /**
-   * The method checks for equality between link objects.
+   * The method checks for equality between link objects. The actions are
+   * only compared if the text and reference are equal.
    *
    * @param o the object to which it is being compared.
    * @return a boolean value which indicate whether they are equal or not.
@@ -116,12 +131,14 @@ public class Link {
   }
 
   /**
-   * The method generates a hash value for the object.
+   * The method generates a hash value for the object. The hash value is
+   * generated from the text and reference only, so that it does not change
+   * when actions are added.
    *
    * @return hash value for the object.
    */
   @Override
   public int hashCode() {
-    return Objects.hash(getText(), getReference(), getActions());
+    return 31 * getText().hashCode() + getReference().hashCode();
   }
 }
@@ -1,6 +1,7 @@
 package edu.ntnu.idatt2001.paths.model;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 
@@ -16,6 +17,8 @@ public class Passage {
   private final String title;
   private final String content;
   private final List<Link> links;
+  private transient PassageKey key;
+  private transient List<Story> stories;
 
   /**
    * Constructor to create an object of the type passage.
@@ -47,6 +50,19 @@ public class Passage {
     return title;
   }
 
+  /**
+   * The method retrieves the key identifying the passage in a story. The key is
+   * created the first time it is needed.
+   *
+   * @return the key of the passage.
+   */
+  PassageKey getKey() {
+    if (key == null) {
+      key = PassageKey.of(title);
+    }
+    return key;
+  }
+
   /**
    * The method retrieves the content of the passage.
    *
@@ -67,16 +83,47 @@ public class Passage {
     if (link == null) {
       throw new NullPointerException("Link cannot be null");
     }
-    return links.add(link);
+    boolean added = links.add(link);
+    if (stories != null) {
+      for (Story story : stories) {
+        story.onLinkAdded(link);
+      }
+    }
+    return added;
   }
 
   /**
-   * The method retrieves the list of links.
+   * The method retrieves the list of links. The list cannot be modified
+   * directly, links are added with {@link #addLink(Link)}.
    *
    * @return the list links.
    */
   public List<Link> getLinks() {
-    return links;
+    return Collections.unmodifiableList(links);
+  }
+
+  /**
+   * The method registers a story that contains the passage, so that the story
+   * is notified when links are added to the passage.
+   *
+   * @param story the story that contains the passage.
+   */
+  void addStory(Story story) {
+    if (stories == null) {
+      stories = new ArrayList<>(1);
+    }
+    stories.add(story);
+  }
+
+  /**
+   * The method unregisters a story that no longer contains the passage.
+   *
+   * @param story the story that no longer contains the passage.
+   */
+  void removeStory(Story story) {
+    if (stories != null) {
+      stories.remove(story);
+    }
   }
 
   /**
@@ -102,7 +149,8 @@ public class Passage {
   }
 
   /**
-   * The method checks for equality between objects.
+   * The method checks for equality between objects. The links are only
+   * compared if the title and content are equal.
    *
    * @param o The object that this object will be compared to.
    * @return true if the objects are equal, false if they are not.
@@ -122,12 +170,14 @@ public class Passage {
   }
 
   /**
-   * The method generates a hash value for the object.
+   * The method generates a hash value for the object. The hash value is
+   * generated from the title only, so that it does not change when links
+   * or actions are added.
    *
    * @return hash value for the object.
    */
   @Override
   public int hashCode() {
-    return Objects.hash(getTitle(), getContent(), getLinks());
+    return getTitle().hashCode();
   }
 }
\ No newline at end of file
@@ -0,0 +1,88 @@
+package edu.ntnu.idatt2001.paths.model;
+
+import java.util.Locale;
+
+/**
+ * The PassageKey class identifies a passage in a story by its normalized title.
+ * Titles are compared case-insensitively and without surrounding whitespace,
+ * and the hash value is computed once when the key is created.
+ *
+ * @author Ramtin Samavat and Tobias Oftedal.
+ * @version 1.0
+ * @since May 22, 2023.
+ */
+public final class PassageKey {
+  private final String title;
+  private final int hash;
+
+  /**
+   * Private constructor that constructs a PassageKey from a normalized title.
+   *
+   * @param title the normalized title.
+   */
+  private PassageKey(String title) {
+    this.title = title;
+    this.hash = title.hashCode();
+  }
+
+  /**
+   * The method creates the key of the passage with the given title or link reference.
+   *
+   * @param title the title of the passage or the reference of a link.
+   * @return the key identifying the passage.
+   * @throws NullPointerException if the title is null.
+   */
+  public static PassageKey of(String title) throws NullPointerException {
+    if (title == null) {
+      throw new NullPointerException("Title cannot be null.");
+    }
+    return new PassageKey(title.trim().toLowerCase(Locale.ROOT));
+  }
+
+  /**
+   * The method retrieves the normalized title of the key.
+   *
+   * @return the normalized title.
+   */
+  public String getTitle() {
+    return title;
+  }
+
+  /**
+   * The method returns the normalized title of the key.
+   *
+   * @return the normalized title.
+   */
+  @Override
+  public String toString() {
+    return title;
+  }
+
+  /**
+   * The method checks for equality between PassageKey objects.
+   *
+   * @param o the object to which it is being compared.
+   * @return a boolean value which indicate whether they are equal or not.
+   */
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    PassageKey that = (PassageKey) o;
+    return hash == that.hash && title.equals(that.title);
+  }
+
+  /**
+   * The method retrieves the hash value computed when the key was created.
+   *
+   * @return hash value for the object.
+   */
+  @Override
+  public int hashCode() {
+    return hash;
+  }
+}
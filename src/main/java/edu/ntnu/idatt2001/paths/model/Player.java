@@ -47,6 +47,33 @@ public class Player {
     return this.name;
   }
 
+  /**
+   * The method retrieves the health the player started with.
+   *
+   * @return The start health of the player.
+   */
+  public int getStartHealth() {
+    return startHealth;
+  }
+
+  /**
+   * The method retrieves the score the player started with.
+   *
+   * @return The start score of the player.
+   */
+  public int getStartScore() {
+    return startScore;
+  }
+
+  /**
+   * The method retrieves the amount of gold the player started with.
+   *
+   * @return The start gold of the player.
+   */
+  public int getStartGold() {
+    return startGold;
+  }
+
   /**
    * The method increases the health of the player.
    *
@@ -1,18 +1,27 @@
 package edu.ntnu.idatt2001.paths.model;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.OptionalInt;
+import java.util.Set;
 
 /**
  * The Story class represents a story in the game. A story is
  * made up of a collection of passages. The Story object has title,
  * a map of all passages that make up the story, an opening passage,
  * and a current passage which keeps track of where in the story the player is.
+ * The passages are indexed by their normalized title, so that adding, retrieving
+ * and removing a passage does not depend on the size of the story. The story also
+ * keeps track of which links reference each title, and which referenced titles
+ * have no passage, so that broken links can be found without scanning the story.
  *
  * @author Ramtin Samavat and Tobias Oftedal.
  * @version 1.0
@@ -20,9 +29,16 @@ import java.util.stream.Collectors;
  */
 public class Story {
   private final String title;
-  private final Map<Link, Passage> passages;
+  private final Map<PassageKey, Passage> passages;
   private final Passage openingPassage;
+  private final PassageKey openingPassageKey;
+  private final Map<PassageKey, List<Link>> referencedBy;
+  private final Set<PassageKey> unresolvedReferences;
   private Passage currentPassage;
+  private int modificationCount;
+  private volatile CompiledStory compiledStory;
+  private String sourcePath;
+  private String sourceFingerprint;
 
   /**
    * Constructs a story object with the given title and opening passage.
@@ -40,7 +56,10 @@ public class Story {
     this.title = Objects.requireNonNull(title.trim(), "Title cannot be blank.");
     this.openingPassage = Objects.requireNonNull(openingPassage, "Opening passage cannot be null.");
     this.currentPassage = Objects.requireNonNull(openingPassage, "Opening passage cannot be null.");
-    this.passages = new HashMap<>();
+    this.openingPassageKey = openingPassage.getKey();
+    this.passages = new LinkedHashMap<>();
+    this.referencedBy = new HashMap<>();
+    this.unresolvedReferences = new LinkedHashSet<>();
   }
 
   /**
@@ -70,6 +89,17 @@ public class Story {
     return currentPassage;
   }
 
+  /**
+   * The method retrieves the number of times passages or links have been added
+   * to or removed from the story. It is used to detect that a compiled version
+   * of the story is out of date.
+   *
+   * @return the number of modifications.
+   */
+  int getModificationCount() {
+    return modificationCount;
+  }
+
   /**
    * The method sets a new current passage.
    *
@@ -83,6 +113,38 @@ public class Story {
     this.currentPassage = currentPassage;
   }
 
+  /**
+   * The method retrieves the path of the file the story was read from.
+   *
+   * @return the path of the file, or null if the story was not read from a file.
+   */
+  public String getSourcePath() {
+    return sourcePath;
+  }
+
+  /**
+   * The method retrieves the fingerprint of the content of the file the story was read from.
+   *
+   * @return the fingerprint of the file, or null if the story was not read from a file.
+   */
+  public String getSourceFingerprint() {
+    return sourceFingerprint;
+  }
+
+  /**
+   * The method sets the file the story was read from.
+   *
+   * @param sourcePath        the path of the file.
+   * @param sourceFingerprint the fingerprint of the content of the file.
+   * @throws NullPointerException if the sourcePath or sourceFingerprint is null.
+   */
+  public void setSource(String sourcePath, String sourceFingerprint)
+      throws NullPointerException {
+    this.sourcePath = Objects.requireNonNull(sourcePath, "Source path cannot be null.");
+    this.sourceFingerprint = Objects.requireNonNull(sourceFingerprint,
+        "Source fingerprint cannot be null.");
+  }
+
   /**
    * The method adds a passage to the list of passages.
    *
@@ -94,12 +156,79 @@ public class Story {
     if (passage == null) {
       throw new NullPointerException("Passage cannot be null.");
     }
-    if (getPassages().stream()
-            .anyMatch(p -> p.getTitle().equalsIgnoreCase(passage.getTitle().trim()))) {
+    PassageKey key = passage.getKey();
+    if (passages.containsKey(key)) {
       throw new IllegalArgumentException("A passage with the same title already exists.");
     }
-    Link link = new Link(passage.getTitle(), passage.getTitle());
-    passages.put(link, passage);
+    passages.put(key, passage);
+    modificationCount++;
+    unresolvedReferences.remove(key);
+    for (Link link : passage.getLinks()) {
+      indexLink(link);
+    }
+    passage.addStory(this);
+  }
+
+  /**
+   * The method registers a link that was added to one of the passages of the story.
+   *
+   * @param link the link that was added.
+   */
+  void onLinkAdded(Link link) {
+    modificationCount++;
+    indexLink(link);
+  }
+
+  /**
+   * Helper method to add a link to the reference index.
+   *
+   * @param link the link to add.
+   */
+  private void indexLink(Link link) {
+    PassageKey key = link.getReferenceKey();
+    referencedBy.computeIfAbsent(key, k -> new ArrayList<>()).add(link);
+    if (!key.equals(openingPassageKey) && !passages.containsKey(key)) {
+      unresolvedReferences.add(key);
+    }
+  }
+
+  /**
+   * Helper method to remove a link from the reference index.
+   *
+   * @param link the link to remove.
+   */
+  private void unindexLink(Link link) {
+    PassageKey key = link.getReferenceKey();
+    List<Link> links = referencedBy.get(key);
+    if (links == null) {
+      return;
+    }
+    for (int i = 0; i < links.size(); i++) {
+      if (links.get(i) == link) {
+        links.remove(i);
+        break;
+      }
+    }
+    if (links.isEmpty()) {
+      referencedBy.remove(key);
+      unresolvedReferences.remove(key);
+    }
+  }
+
+  /**
+   * The method checks if the story contains a passage with the given title.
+   * The opening passage is included in the check.
+   *
+   * @param title the title of the passage.
+   * @return true if a passage with the title exists, false otherwise.
+   * @throws NullPointerException if the title is null.
+   */
+  public boolean hasPassage(String title) throws NullPointerException {
+    if (title == null) {
+      throw new NullPointerException("Title cannot be null.");
+    }
+    PassageKey key = PassageKey.of(title);
+    return key.equals(openingPassageKey) || passages.containsKey(key);
   }
 
   /**
@@ -114,15 +243,29 @@ public class Story {
     if (link == null) {
       throw new NullPointerException("Link cannot be null.");
     }
-    Link passageLink = new Link(link.getReference(), link.getReference());
+    return getPassageByKey(link.getReferenceKey());
+  }
+
+  /**
+   * The method retrieves a passage with the specified key.
+   *
+   * @param key The key of the passage.
+   * @return The passage corresponding to the key.
+   * @throws NullPointerException If the key is null.
+   * @throws NoSuchElementException If the passage is not found.
+   */
+  public Passage getPassageByKey(PassageKey key) throws NullPointerException, NoSuchElementException {
+    if (key == null) {
+      throw new NullPointerException("Key cannot be null.");
+    }
     Passage passage;
-    if (link.getReference().equalsIgnoreCase(openingPassage.getTitle())) {
+    if (key.equals(openingPassageKey)) {
       passage = getOpeningPassage();
     } else {
-      passage = this.passages.get(passageLink);
+      passage = this.passages.get(key);
     }
     if (passage == null) {
-      throw new NoSuchElementException("Passage not found: " + link.getReference());
+      throw new NoSuchElementException("Passage not found: " + key.getTitle());
     }
     return passage;
   }
@@ -133,7 +276,7 @@ public class Story {
    * @return A collection of all passages.
    */
   public Collection<Passage> getPassages() {
-    return this.passages.values();
+    return Collections.unmodifiableCollection(this.passages.values());
   }
 
   /**
@@ -148,17 +291,60 @@ public class Story {
     if (link == null) {
       throw new NullPointerException("Link cannot be null");
     }
-    boolean invalidLink = getPassages()
+    PassageKey key = link.getReferenceKey();
+    boolean invalidLink = referencedBy.getOrDefault(key, Collections.emptyList())
             .stream()
-            .anyMatch(p -> p.getLinks()
-                    .stream()
-                    .anyMatch(l -> !l.equals(link)
-                            && l.getReference().equalsIgnoreCase(link.getReference())));
+            .anyMatch(l -> !l.equals(link));
     if (invalidLink) {
       throw new IllegalStateException("Passage cannot be removed since other passages link to it.");
     }
-    Link validLink = new Link(link.getReference(), link.getReference());
-    this.passages.remove(validLink);
+    Passage passage = this.passages.remove(key);
+    if (passage == null) {
+      return;
+    }
+    modificationCount++;
+    passage.removeStory(this);
+    for (Link passageLink : passage.getLinks()) {
+      unindexLink(passageLink);
+    }
+    if (referencedBy.containsKey(key) && !key.equals(openingPassageKey)) {
+      unresolvedReferences.add(key);
+    }
+  }
+
+  /**
+   * The method retrieves the compiled version of the story, which is used to find the ordinal
+   * of a link. The story is compiled the first time it is needed, and again if passages or
+   * links have been added or removed since, so that the games sharing the story also share
+   * its compiled version.
+   *
+   * @return the compiled story.
+   */
+  CompiledStory getCompiledStory() {
+    CompiledStory compiled = compiledStory;
+    if (compiled == null || !compiled.isUpToDate(this)) {
+      synchronized (this) {
+        compiled = compiledStory;
+        if (compiled == null || !compiled.isUpToDate(this)) {
+          compiled = new CompiledStory(this);
+          compiledStory = compiled;
+        }
+      }
+    }
+    return compiled;
+  }
+
+  /**
+   * The method finds the index of a link in the order of the compiled story, for stories that
+   * can find it without compiling every passage. Stories that do not keep all of their
+   * passages in memory override the method.
+   *
+   * @param link the link to find the index of.
+   * @return the index of the link, or {@link CompiledStory#UNKNOWN_LINK} if the link is not
+   *         in the story, or an empty value if the story must be compiled to find it.
+   */
+  protected OptionalInt findLinkIndex(Link link) {
+    return OptionalInt.empty();
   }
 
   /**
@@ -168,13 +354,11 @@ public class Story {
    * @return a list of broken links.
    */
   public List<Link> getBrokenLinks() {
-    return getPassages().stream()
-            .flatMap(passage -> passage.getLinks().stream()
-                    .filter(link -> getPassages().stream()
-                            .noneMatch(p -> p.getTitle().equalsIgnoreCase(link.getReference())
-                                    || openingPassage.getTitle()
-                                    .equalsIgnoreCase(link.getReference()))))
-            .collect(Collectors.toList());
+    List<Link> brokenLinks = new ArrayList<>();
+    for (PassageKey reference : unresolvedReferences) {
+      brokenLinks.addAll(referencedBy.get(reference));
+    }
+    return brokenLinks;
   }
 }
 
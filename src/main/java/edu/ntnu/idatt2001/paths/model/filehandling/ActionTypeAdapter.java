@@ -0,0 +1,133 @@
+package edu.ntnu.idatt2001.paths.model.filehandling;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import edu.ntnu.idatt2001.paths.model.actions.Action;
+import edu.ntnu.idatt2001.paths.model.actions.ActionFactory;
+import edu.ntnu.idatt2001.paths.model.actions.ActionType;
+import edu.ntnu.idatt2001.paths.model.actions.GoldAction;
+import edu.ntnu.idatt2001.paths.model.actions.HealthAction;
+import edu.ntnu.idatt2001.paths.model.actions.InventoryAction;
+import edu.ntnu.idatt2001.paths.model.actions.ScoreAction;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The ActionTypeAdapter class converts Action objects to and from JSON without reflection.
+ * An action is written with its type under the type key, followed by its value under the
+ * value description of the ActionType, e.g. {"type": "INVENTORY", "item": "Sword"}. Actions
+ * written without a type are recognized by the key of their value.
+ *
+ * @author Ramtin Samavat
+ * @author Tobias Oftedal
+ * @version 1.0
+ * @since May 24, 2023.
+ */
+public class ActionTypeAdapter extends TypeAdapter<Action> {
+
+  private static final Map<String, ActionType> actionTypesByValueKey = new HashMap<>();
+
+  static {
+    for (ActionType actionType : ActionType.values()) {
+      actionTypesByValueKey.put(actionType.getActionValueDescription(), actionType);
+    }
+  }
+
+  /**
+   * The method writes an Action object as a JSON object.
+   *
+   * @param out    the writer to write to.
+   * @param action the action to write.
+   * @throws IOException              if there is an error writing the action.
+   * @throws IllegalArgumentException if the action is not of a type in the ActionType enum.
+   */
+  @Override
+  public void write(JsonWriter out, Action action) throws IOException, IllegalArgumentException {
+    if (action == null) {
+      out.nullValue();
+      return;
+    }
+    out.beginObject();
+    if (action instanceof GoldAction goldAction) {
+      writeType(out, ActionType.GOLD).value(goldAction.getGold());
+    } else if (action instanceof HealthAction healthAction) {
+      writeType(out, ActionType.HEALTH).value(healthAction.getHealth());
+    } else if (action instanceof InventoryAction inventoryAction) {
+      writeType(out, ActionType.INVENTORY).value(inventoryAction.getItem());
+    } else if (action instanceof ScoreAction scoreAction) {
+      writeType(out, ActionType.SCORE).value(scoreAction.getPoints());
+    } else {
+      throw new IllegalArgumentException("Unknown action type: " + action.getClass() + ".");
+    }
+    out.endObject();
+  }
+
+  /**
+   * Helper method to write the type of an action, and the key of its value.
+   *
+   * @param out        the writer to write to.
+   * @param actionType the type of the action.
+   * @return the writer, ready for the value of the action.
+   * @throws IOException if there is an error writing the type.
+   */
+  private static JsonWriter writeType(JsonWriter out, ActionType actionType) throws IOException {
+    return out.name(GameGson.TYPE_KEY).value(actionType.name())
+        .name(actionType.getActionValueDescription());
+  }
+
+  /**
+   * The method reads an Action object from a JSON object. The action is created with the
+   * ActionFactory, so that the value is validated as when reading a story.
+   *
+   * @param in the reader to read from.
+   * @return the action, or null if the JSON value is null.
+   * @throws IOException              if there is an error reading the action.
+   * @throws JsonParseException       if the type of the action is unknown or the value is
+   *                                  missing.
+   * @throws IllegalArgumentException if the value of the action is invalid.
+   */
+  @Override
+  public Action read(JsonReader in) throws IOException, JsonParseException,
+      IllegalArgumentException {
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+    ActionType type = null;
+    ActionType valueType = null;
+    Map<ActionType, String> values = new EnumMap<>(ActionType.class);
+
+    in.beginObject();
+    while (in.hasNext()) {
+      String key = in.nextName();
+      ActionType keyType = actionTypesByValueKey.get(key);
+      if (key.equals(GameGson.TYPE_KEY)) {
+        type = ActionType.getActionType(in.nextString());
+      } else if (keyType != null && in.peek() != JsonToken.NULL) {
+        valueType = keyType;
+        values.put(keyType, in.nextString());
+      } else {
+        in.skipValue();
+      }
+    }
+    in.endObject();
+
+    if (type == null) {
+      type = valueType;
+    }
+    if (type == null) {
+      throw new JsonParseException("Unknown action type at " + in.getPath() + ".");
+    }
+    String value = values.get(type);
+    if (value == null) {
+      throw new JsonParseException("Missing value of the " + type + " action at "
+          + in.getPath() + ".");
+    }
+    return ActionFactory.createAction(type.toString(), value);
+  }
+}
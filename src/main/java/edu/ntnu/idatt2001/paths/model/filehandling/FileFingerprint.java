@@ -0,0 +1,111 @@
+package edu.ntnu.idatt2001.paths.model.filehandling;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Objects;
+
+/**
+ * The FileFingerprint class provides a method to compute a hash of the content of a file,
+ * which is used to check if the content of a file has changed.
+ *
+ * @author Ramtin Samavat
+ * @author Tobias Oftedal
+ * @version 1.0
+ * @since May 23, 2023.
+ */
+public class FileFingerprint {
+
+  private static final String HASH_ALGORITHM = "SHA-256";
+
+  /**
+   * Private constructor for the FileFingerprint.
+   *
+   * @throws IllegalStateException If the constructor is used.
+   */
+  private FileFingerprint() throws IllegalStateException {
+    throw new IllegalStateException("Cannot instantiate a FileFingerprint object");
+  }
+
+  /**
+   * The method computes a hash of the given file content.
+   *
+   * @param content the content of the file.
+   * @return the hash of the content as a hexadecimal string.
+   * @throws NullPointerException if the content is null.
+   */
+  public static String computeContentHash(byte[] content) throws NullPointerException {
+    Objects.requireNonNull(content, "The content cannot be null.");
+    return toHexString(createDigest().digest(content));
+  }
+
+  /**
+   * The method computes a hash of the given file content, from the position to the limit of
+   * the buffer. The position of the buffer is not changed.
+   *
+   * @param content the content of the file.
+   * @return the hash of the content as a hexadecimal string.
+   * @throws NullPointerException if the content is null.
+   */
+  public static String computeContentHash(ByteBuffer content) throws NullPointerException {
+    Objects.requireNonNull(content, "The content cannot be null.");
+    MessageDigest digest = createDigest();
+    digest.update(content.duplicate());
+    return toHexString(digest.digest());
+  }
+
+  /**
+   * The method computes a hash of the content of a file, reading the file in blocks so that
+   * large files are not held in memory. The hash is the same as the hash of the content.
+   *
+   * @param path the path of the file.
+   * @return the hash of the content as a hexadecimal string.
+   * @throws NullPointerException if the path is null.
+   * @throws IOException          if the file cannot be read.
+   */
+  public static String computeFileHash(Path path) throws NullPointerException, IOException {
+    Objects.requireNonNull(path, "The path cannot be null.");
+    MessageDigest digest = createDigest();
+    byte[] buffer = new byte[64 * 1024];
+    try (InputStream in = Files.newInputStream(path)) {
+      int read;
+      while ((read = in.read(buffer)) != -1) {
+        digest.update(buffer, 0, read);
+      }
+    }
+    return toHexString(digest.digest());
+  }
+
+  /**
+   * The method creates the message digest used to compute the hash of a file, for files that
+   * are hashed while they are read or written.
+   *
+   * @return the message digest.
+   */
+  static MessageDigest createDigest() {
+    try {
+      return MessageDigest.getInstance(HASH_ALGORITHM);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(HASH_ALGORITHM + " is not supported.", e);
+    }
+  }
+
+  /**
+   * The method converts a digest to a hexadecimal string.
+   *
+   * @param digest the digest to convert.
+   * @return the digest as a hexadecimal string.
+   */
+  static String toHexString(byte[] digest) {
+    StringBuilder stringBuilder = new StringBuilder(digest.length * 2);
+    for (byte b : digest) {
+      stringBuilder.append(Character.forDigit((b >> 4) & 0xF, 16))
+          .append(Character.forDigit(b & 0xF, 16));
+    }
+    return stringBuilder.toString();
+  }
+}
@@ -1,32 +1,51 @@
 package edu.ntnu.idatt2001.paths.model.filehandling;
 
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
+import com.google.gson.JsonIOException;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
 import com.google.gson.JsonSyntaxException;
 import com.google.gson.reflect.TypeToken;
-import edu.ntnu.idatt2001.paths.model.actions.Action;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.google.gson.stream.MalformedJsonException;
 import edu.ntnu.idatt2001.paths.model.goals.Goal;
 import edu.ntnu.idatt2001.paths.model.Game;
 import edu.ntnu.idatt2001.paths.model.Passage;
+import edu.ntnu.idatt2001.paths.model.PassageKey;
 import edu.ntnu.idatt2001.paths.model.Player;
 import edu.ntnu.idatt2001.paths.model.Story;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
-import java.io.FileReader;
-import java.io.FileWriter;
+import java.io.EOFException;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * The FileGameHandler class provides methods to write and read a list of Game objects to/from a
- * JSON file.
+ * JSON file. A game whose story was read from a file that still exists is stored as a
+ * reference to the file, together with the state of the game. The story file is also copied
+ * to a {@link StoryArchive}, so that the game can be loaded if the file is later moved, deleted
+ * or changed. Other games are stored with the whole story embedded.
  *
  * @author Ramtin Samavat
  * @author Tobias Oftedal
@@ -36,7 +55,6 @@ import java.util.logging.Logger;
 public class FileGameHandler {
 
   private static final Logger logger = Logger.getLogger(FileGameHandler.class.getName());
-  private static final List<String> invalidGames = new ArrayList<>();
   private static final String FILE_EXTENSION = ".json";
   private static final String GAME_ID_KEY = "game ID";
   private static final String PLAYER_KEY = "player";
@@ -45,6 +63,16 @@ public class FileGameHandler {
   private static final String STORY_CURRENT_PASSAGE_KEY = "story current passage";
   private static final String STORY_PASSAGES_KEY = "story passages";
   private static final String GOALS_KEY = "goals";
+  private static final String CONSUMED_LINKS_KEY = "consumed links";
+  private static final String STORY_FILE_KEY = "story file";
+  private static final String STORY_FINGERPRINT_KEY = "story fingerprint";
+  private static final String STORY_ARCHIVE_KEY = "story archive";
+  private static final String CURRENT_PASSAGE_KEY = "current passage";
+  private static final String VERSION_KEY = "version";
+  private static final Type GOAL_LIST_TYPE = new TypeToken<List<Goal>>() {
+  }.getType();
+  private static final Type PASSAGE_LIST_TYPE = new TypeToken<List<Passage>>() {
+  }.getType();
 
   /**
    * Private constructor for the FileGameHandler.
@@ -66,40 +94,67 @@ public class FileGameHandler {
    */
   public static void writeGamesToFile(List<Game> games, String pathOfFile)
       throws NullPointerException, IllegalArgumentException, IOException {
+    writeGamesToFile(games, pathOfFile, SaveCompression.NONE);
+  }
+
+  /**
+   * The method writes a list of Game objects to a JSON file with the given compression. A
+   * compressed file is written as compact JSON, and is read by the same methods as an
+   * uncompressed file, since the format is detected when the file is read.
+   *
+   * @param games       the list of Game objects to write to the file.
+   * @param pathOfFile  the path to the file to write to.
+   * @param compression the compression of the file.
+   * @throws NullPointerException     if games, pathOfFile or compression is null.
+   * @throws IllegalArgumentException if pathOfFile is blank or does not end with FILE_EXTENSION.
+   * @throws IOException              if there is an error writing list of games to file
+   */
+  public static void writeGamesToFile(List<Game> games, String pathOfFile,
+      SaveCompression compression)
+      throws NullPointerException, IllegalArgumentException, IOException {
     if (games == null) {
       throw new NullPointerException("The list of games cannot be null.");
     }
+    if (compression == null) {
+      throw new NullPointerException("The compression cannot be null.");
+    }
     FilePathValidator.validatePathOfFile(pathOfFile, FILE_EXTENSION);
 
-    Gson gson = new GsonBuilder().setPrettyPrinting().setLenient().create();
-
-    JsonArray jsonArray = new JsonArray();
+    List<JsonObject> records = new ArrayList<>();
     for (Game game : games) {
-      JsonObject jsonObject = new JsonObject();
-
-      jsonObject.addProperty(GAME_ID_KEY, game.getGameId());
-
-      jsonObject.add(PLAYER_KEY, gson.toJsonTree(game.getPlayer()));
-
-      jsonObject.addProperty(STORY_TITLE_KEY, game.getStory().getTitle());
-
-      jsonObject.add(STORY_OPENING_PASSAGE_KEY,
-          gson.toJsonTree(game.getStory().getOpeningPassage()));
-
-      jsonObject.add(STORY_CURRENT_PASSAGE_KEY,
-          gson.toJsonTree(game.getStory().getCurrentPassage()));
-
-      List<Passage> passages = new ArrayList<>(game.getStory().getPassages());
-      jsonObject.add(STORY_PASSAGES_KEY, gson.toJsonTree(passages));
-
-      jsonObject.add(GOALS_KEY, gson.toJsonTree(game.getGoals()));
-
-      jsonArray.add(jsonObject);
+      records.add(serializeGame(game));
     }
-    try (BufferedWriter writer = new BufferedWriter(
-        new FileWriter(pathOfFile.toLowerCase().trim()))) {
-      writer.write(gson.toJson(jsonArray));
-    } catch (IOException e) {
+    writeRecordsToFile(records, pathOfFile, compression);
+  }
+
+  /**
+   * The method writes a list of game records to a JSON file. The records are written to a
+   * temporary file that replaces the file once it has been forced to the disk, so that a crash
+   * while writing leaves the previous games intact.
+   *
+   * @param records     the game records to write to the file.
+   * @param pathOfFile  the path to the file to write to.
+   * @param compression the compression of the file.
+   * @throws IOException if there is an error writing the records to the file.
+   */
+  static void writeRecordsToFile(Collection<JsonObject> records, String pathOfFile,
+      SaveCompression compression) throws IOException {
+    Gson gson = GameGson.getGson();
+    try {
+      SafeFiles.writeAtomically(Paths.get(pathOfFile.toLowerCase().trim()), out -> {
+        try (JsonWriter writer = new JsonWriter(new BufferedWriter(new OutputStreamWriter(
+            compression.compress(out), Charset.defaultCharset())))) {
+          if (compression.isPrettyPrinted()) {
+            writer.setIndent("  ");
+          }
+          writer.beginArray();
+          for (JsonObject record : records) {
+            gson.toJson(record, writer);
+          }
+          writer.endArray();
+        }
+      });
+    } catch (IOException | JsonIOException e) {
       String errorMessage = "Error writing the list of games to the file: " + e.getMessage();
       logger.log(Level.SEVERE, errorMessage, e);
       throw new IOException(errorMessage);
@@ -107,7 +162,8 @@ public class FileGameHandler {
   }
 
   /**
-   * The method parses a list of Game objects from a JSON file.
+   * The method parses a list of Game objects from a JSON file. Invalid games are skipped, see
+   * {@link #parseGamesWithDiagnostics(String)} to retrieve them.
    *
    * @param pathOfFile the path ot the file to read from.
    * @return the list of Game objects read from the file.
@@ -118,83 +174,427 @@ public class FileGameHandler {
    */
   public static List<Game> parseGamesFromFile(String pathOfFile)
       throws NullPointerException, IllegalArgumentException, IOException, JsonSyntaxException {
+    return parseGamesWithDiagnostics(pathOfFile).getValue();
+  }
+
+  /**
+   * The method parses a list of Game objects from a JSON file, together with the diagnostics
+   * of the games that could not be parsed and were skipped. The diagnostics hold the line and
+   * column where the record of the game starts. The file is read one game at a time, so that
+   * only the records of the games being parsed are held in memory. The method can be called
+   * on many threads at once.
+   *
+   * @param pathOfFile the path ot the file to read from.
+   * @return the games read from the file and the diagnostics of the invalid games.
+   * @throws NullPointerException     if the pathOfFile is null.
+   * @throws IllegalArgumentException if pathOfFile is blank or does not end with FILE_EXTENSION.
+   * @throws IOException              if there is an error reading list of games from file.
+   * @throws JsonSyntaxException      if the file does not have the correct JSON syntax.
+   */
+  public static ParseResult<List<Game>> parseGamesWithDiagnostics(String pathOfFile)
+      throws NullPointerException, IllegalArgumentException, IOException, JsonSyntaxException {
 
     FilePathValidator.validatePathOfFile(pathOfFile, FILE_EXTENSION);
-    invalidGames.clear();
 
-    Gson gson = new GsonBuilder().registerTypeAdapter(Action.class, new ActionDeserializer())
-        .registerTypeAdapter(Goal.class, new GoalDeserializer()).setPrettyPrinting().setLenient()
-        .create();
+    List<Game> games = new ArrayList<>();
+    List<ParseDiagnostic> diagnostics = new ArrayList<>();
+    readRecordsFromFile(pathOfFile, (jsonObject, line, column) -> {
+      try {
+        games.add(deserializeGame(jsonObject));
+      } catch (JsonParseException | NullPointerException | IllegalArgumentException e) {
+        diagnostics.add(createInvalidGameDiagnostic(jsonObject.get(GAME_ID_KEY), line, column,
+            e));
+      }
+    });
+    return new ParseResult<>(games, diagnostics);
+  }
+
+  /**
+   * The method reads the stored games of a JSON file, without creating the Game objects. The
+   * file is read in a single pass, and the summary of each game is available as soon as it
+   * has been read. The Game objects are created when they are requested from the stored games.
+   *
+   * @param pathOfFile the path ot the file to read from.
+   * @return the list of stored games read from the file.
+   * @throws NullPointerException     if the pathOfFile is null.
+   * @throws IllegalArgumentException if pathOfFile is blank or does not end with FILE_EXTENSION.
+   * @throws IOException              if there is an error reading list of games from file.
+   * @throws JsonSyntaxException      if the file does not have the correct JSON syntax.
+   */
+  public static List<StoredGame> readStoredGamesFromFile(String pathOfFile)
+      throws NullPointerException, IllegalArgumentException, IOException, JsonSyntaxException {
+    List<StoredGame> storedGames = new ArrayList<>();
+    readStoredGamesFromFile(pathOfFile, storedGames::add);
+    return storedGames;
+  }
+
+  /**
+   * The method reads the stored games of a JSON file, and passes each stored game to the
+   * given consumer as soon as it has been read.
+   *
+   * @param pathOfFile the path ot the file to read from.
+   * @param consumer   the consumer of the stored games.
+   * @throws NullPointerException     if the pathOfFile or consumer is null.
+   * @throws IllegalArgumentException if pathOfFile is blank or does not end with FILE_EXTENSION.
+   * @throws IOException              if there is an error reading list of games from file.
+   * @throws JsonSyntaxException      if the file does not have the correct JSON syntax.
+   */
+  public static void readStoredGamesFromFile(String pathOfFile, Consumer<StoredGame> consumer)
+      throws NullPointerException, IllegalArgumentException, IOException, JsonSyntaxException {
+    if (consumer == null) {
+      throw new NullPointerException("The consumer cannot be null.");
+    }
+    FilePathValidator.validatePathOfFile(pathOfFile, FILE_EXTENSION);
+    readRecordsFromFile(pathOfFile,
+        (jsonObject, line, column) -> consumer.accept(new StoredGame(jsonObject)));
+  }
+
+  /**
+   * Helper method to read the game records of a JSON file one at a time. The compression of
+   * the file is detected from its first bytes.
+   *
+   * @param pathOfFile the path ot the file to read from.
+   * @param consumer   the consumer of the game records.
+   * @throws IOException         if there is an error reading the file.
+   * @throws JsonSyntaxException if the file does not have the correct JSON syntax.
+   */
+  private static void readRecordsFromFile(String pathOfFile, RecordConsumer consumer)
+      throws IOException, JsonSyntaxException {
+    Path path = Paths.get(pathOfFile.toLowerCase().trim());
+    try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+        SaveCompression.decompress(Files.newInputStream(path)), Charset.defaultCharset()))) {
+      readRecords(reader, pathOfFile, consumer);
+    } catch (IOException e) {
+      String errorMessage = "Error reading the list of games from the file: " + e.getMessage();
+      logger.log(Level.SEVERE, errorMessage, e);
+      throw new IOException(errorMessage);
+    }
+  }
+
+  /**
+   * The method reads the game records of a JSON array one at a time, without creating the
+   * Game objects.
+   *
+   * @param reader     the reader of the JSON array.
+   * @param pathOfFile the path of the file, used in error messages.
+   * @param consumer   the consumer of the game records.
+   * @throws IOException         if there is an error reading from the reader.
+   * @throws JsonSyntaxException if the file does not have the correct JSON syntax.
+   */
+  static void readRecords(Reader reader, String pathOfFile, Consumer<JsonObject> consumer)
+      throws IOException, JsonSyntaxException {
+    readRecords(reader, pathOfFile, (jsonObject, line, column) -> consumer.accept(jsonObject));
+  }
+
+  /**
+   * The method reads the game records of a JSON array one at a time, together with the line
+   * and column where each record starts.
+   *
+   * @param reader     the reader of the JSON array.
+   * @param pathOfFile the path of the file, used in error messages.
+   * @param consumer   the consumer of the game records.
+   * @throws IOException         if there is an error reading from the reader.
+   * @throws JsonSyntaxException if the file does not have the correct JSON syntax.
+   */
+  static void readRecords(Reader reader, String pathOfFile, RecordConsumer consumer)
+      throws IOException, JsonSyntaxException {
+    RecordLocationReader locationReader = new RecordLocationReader(reader);
+    JsonReader jsonReader = new JsonReader(locationReader);
+    jsonReader.setLenient(true);
+    try {
+      if (jsonReader.peek() == JsonToken.END_DOCUMENT) {
+        return;
+      }
+      jsonReader.beginArray();
+      while (jsonReader.hasNext()) {
+        consumer.accept(JsonParser.parseReader(jsonReader).getAsJsonObject(),
+            locationReader.getRecordLine(), locationReader.getRecordColumn());
+      }
+      jsonReader.endArray();
+    } catch (JsonIOException e) {
+      throw new IOException(e.getMessage(), e);
+    } catch (MalformedJsonException | EOFException | JsonParseException
+             | IllegalStateException e) {
+      String errorMessage = "The file " + pathOfFile + " does not have the correct JSON syntax.";
+      logger.log(Level.SEVERE, errorMessage, e);
+      throw new JsonSyntaxException(errorMessage);
+    }
+  }
+
+  /**
+   * The method creates the Game objects of a list of stored games. Games that cannot be
+   * created are skipped, see {@link #loadGamesWithDiagnostics(Collection)} to retrieve them.
+   *
+   * @param storedGames the stored games.
+   * @return the list of Game objects.
+   */
+  public static List<Game> loadGames(Collection<StoredGame> storedGames) {
+    return loadGamesWithDiagnostics(storedGames).getValue();
+  }
 
+  /**
+   * The method creates the Game objects of a list of stored games, together with the
+   * diagnostics of the games that could not be created and were skipped. The stored games do
+   * not know their location in the file, so the diagnostics have no location.
+   *
+   * @param storedGames the stored games.
+   * @return the games and the diagnostics of the invalid games.
+   */
+  public static ParseResult<List<Game>> loadGamesWithDiagnostics(
+      Collection<StoredGame> storedGames) {
     List<Game> games = new ArrayList<>();
+    List<ParseDiagnostic> diagnostics = new ArrayList<>();
+    for (StoredGame storedGame : storedGames) {
+      try {
+        games.add(storedGame.getGame());
+      } catch (JsonParseException e) {
+        String gameId = storedGame.getGameId();
+        diagnostics.add(createInvalidGameDiagnostic(
+            gameId == null ? null : new JsonPrimitive(gameId), 0, 0, e));
+      }
+    }
+    return new ParseResult<>(games, diagnostics);
+  }
 
-    try (BufferedReader reader = new BufferedReader(
-        new FileReader(pathOfFile.toLowerCase().trim()))) {
-      JsonArray jsonArray = gson.fromJson(reader, JsonArray.class);
-      if (jsonArray != null) {
-        for (JsonElement jsonElement : jsonArray) {
-          JsonObject jsonObject = jsonElement.getAsJsonObject();
+  /**
+   * Helper method to create the diagnostic of a game that could not be created.
+   *
+   * @param gameId the game ID of the record of the game.
+   * @param line   the line where the record starts, or 0 if it is unknown.
+   * @param column the column where the record starts, or 0 if it is unknown.
+   * @param e      the exception thrown when creating the game.
+   * @return the diagnostic of the game.
+   */
+  private static ParseDiagnostic createInvalidGameDiagnostic(JsonElement gameId, int line,
+                                                             int column, RuntimeException e) {
+    String errorMessage =
+        "Failed to load game: " + gameId + ". " + e.getMessage()
+            + " The current game cannot be played before it is fixed.";
+
+    logger.log(Level.WARNING, errorMessage, e);
+    return new ParseDiagnostic(line, column, errorMessage);
+  }
 
-          try {
-            String gameId = gson.fromJson(jsonObject.get(GAME_ID_KEY), String.class);
+  /**
+   * The method converts a Game object to a game record.
+   *
+   * @param game the game to convert.
+   * @return the game record.
+   */
+  static JsonObject serializeGame(Game game) {
+    return serializeGame(game, game.getVersion());
+  }
 
-            Player player = gson.fromJson(jsonObject.get(PLAYER_KEY), Player.class);
+  /**
+   * The method converts a Game object to a game record of the given version. The version is
+   * left out of the record if it is 0.
+   *
+   * @param game    the game to convert.
+   * @param version the version of the record.
+   * @return the game record.
+   */
+  static JsonObject serializeGame(Game game, long version) {
+    Gson gson = GameGson.getGson();
+    JsonObject jsonObject = new JsonObject();
 
-            String storyTitle = gson.fromJson(jsonObject.get(STORY_TITLE_KEY), String.class);
+    jsonObject.addProperty(GAME_ID_KEY, game.getGameId());
 
-            Passage openingPassage = gson.fromJson(jsonObject.get(STORY_OPENING_PASSAGE_KEY),
-                Passage.class);
+    if (version > 0) {
+      jsonObject.addProperty(VERSION_KEY, version);
+    }
 
-            Passage currentPassage = gson.fromJson(jsonObject.get(STORY_CURRENT_PASSAGE_KEY),
-                Passage.class);
+    jsonObject.add(PLAYER_KEY, gson.toJsonTree(game.getPlayer()));
 
-            Story story = new Story(storyTitle, openingPassage);
+    jsonObject.addProperty(STORY_TITLE_KEY, game.getStory().getTitle());
 
-            story.setCurrentPassage(currentPassage);
+    Story story = game.getStory();
+    String archivedStory = isSourceAvailable(story) ? StoryArchive.archive(story) : null;
+    if (archivedStory != null) {
+      jsonObject.addProperty(STORY_FILE_KEY, story.getSourcePath());
 
-            List<Passage> passages = gson.fromJson(jsonObject.get(STORY_PASSAGES_KEY),
-                new TypeToken<List<Passage>>() {
-                }.getType());
-            for (Passage passage : passages) {
-              story.addPassage(passage);
-            }
+      jsonObject.addProperty(STORY_FINGERPRINT_KEY, story.getSourceFingerprint());
 
-            List<Goal> goals = gson.fromJson(jsonObject.get(GOALS_KEY),
-                new TypeToken<List<Goal>>() {
-                }.getType());
+      jsonObject.addProperty(STORY_ARCHIVE_KEY, archivedStory);
 
-            Game game = new Game(gameId, player, story, goals);
-            games.add(game);
-          } catch (JsonParseException | NullPointerException | IllegalArgumentException e) {
-            String errorMessage =
-                "Failed to load game: " + jsonObject.get(GAME_ID_KEY) + ". " + e.getMessage()
-                    + " The current game cannot be played before it is fixed.";
+      jsonObject.addProperty(CURRENT_PASSAGE_KEY, game.getCurrentPassage().getTitle());
+    } else {
+      jsonObject.add(STORY_OPENING_PASSAGE_KEY, gson.toJsonTree(story.getOpeningPassage()));
 
-            logger.log(Level.WARNING, errorMessage, e);
-            invalidGames.add(errorMessage);
-          }
-        }
+      jsonObject.add(STORY_CURRENT_PASSAGE_KEY, gson.toJsonTree(game.getCurrentPassage()));
+
+      List<Passage> passages = new ArrayList<>(story.getPassages());
+      jsonObject.add(STORY_PASSAGES_KEY, gson.toJsonTree(passages));
+    }
+
+    jsonObject.add(GOALS_KEY, gson.toJsonTree(game.getGoals()));
+
+    BitSet consumedLinks = game.getConsumedLinks();
+    if (!consumedLinks.isEmpty()) {
+      jsonObject.add(CONSUMED_LINKS_KEY, gson.toJsonTree(consumedLinks.stream().toArray()));
+    }
+    return jsonObject;
+  }
+
+  /**
+   * The method converts a game record to a Game object.
+   *
+   * @param jsonObject the game record.
+   * @return the Game object.
+   * @throws JsonParseException       if the record does not describe a valid game.
+   * @throws NullPointerException     if a required part of the game is missing.
+   * @throws IllegalArgumentException if a part of the game is invalid.
+   */
+  static Game deserializeGame(JsonObject jsonObject)
+      throws JsonParseException, NullPointerException, IllegalArgumentException {
+    Gson gson = GameGson.getGson();
+    String gameId = gson.fromJson(jsonObject.get(GAME_ID_KEY), String.class);
+
+    Player player = gson.fromJson(jsonObject.get(PLAYER_KEY), Player.class);
+
+    List<Goal> goals = gson.fromJson(jsonObject.get(GOALS_KEY), GOAL_LIST_TYPE);
+
+    Game game;
+    boolean storyUnchanged = true;
+    if (jsonObject.has(STORY_FILE_KEY)) {
+      String storyFile = gson.fromJson(jsonObject.get(STORY_FILE_KEY), String.class);
+
+      String storyFingerprint = gson.fromJson(jsonObject.get(STORY_FINGERPRINT_KEY),
+          String.class);
+
+      String currentPassageTitle = gson.fromJson(jsonObject.get(CURRENT_PASSAGE_KEY),
+          String.class);
+
+      String archivedStory = jsonObject.has(STORY_ARCHIVE_KEY)
+          ? gson.fromJson(jsonObject.get(STORY_ARCHIVE_KEY), String.class) : null;
+
+      Story story = readReferencedStory(gameId, storyFile, storyFingerprint, archivedStory);
+      game = new Game(gameId, player, story, goals);
+
+      storyUnchanged = story.getSourceFingerprint().equals(storyFingerprint);
+      if (!storyUnchanged) {
+        logger.log(Level.WARNING, "The story file " + storyFile + " of the game " + gameId
+            + " has changed since the game was saved. The used links of the game are reset.");
       }
-    } catch (IOException e) {
-      String errorMessage = "Error reading the list of games from the file: " + e.getMessage();
-      logger.log(Level.SEVERE, errorMessage, e);
-      throw new IOException(errorMessage);
-    } catch (JsonSyntaxException e) {
-      String errorMessage = "The file " + pathOfFile + " does not have the correct JSON syntax.";
-      logger.log(Level.SEVERE, errorMessage, e);
-      throw new JsonSyntaxException(errorMessage);
+
+      Passage currentPassage = findStoryPassage(story, currentPassageTitle, null);
+      if (currentPassage == null) {
+        currentPassage = story.getOpeningPassage();
+        logger.log(Level.WARNING, "The passage " + currentPassageTitle + " of the game "
+            + gameId + " is no longer in the story file " + storyFile + ". The player is moved "
+            + "to the opening passage " + currentPassage.getTitle() + ".");
+      }
+      game.setCurrentPassage(currentPassage);
+    } else {
+      String storyTitle = gson.fromJson(jsonObject.get(STORY_TITLE_KEY), String.class);
+
+      Passage openingPassage = gson.fromJson(jsonObject.get(STORY_OPENING_PASSAGE_KEY),
+          Passage.class);
+
+      Passage currentPassage = gson.fromJson(jsonObject.get(STORY_CURRENT_PASSAGE_KEY),
+          Passage.class);
+
+      Story story = new Story(storyTitle, openingPassage);
+
+      story.setCurrentPassage(currentPassage);
+
+      List<Passage> passages = gson.fromJson(jsonObject.get(STORY_PASSAGES_KEY),
+          PASSAGE_LIST_TYPE);
+      for (Passage passage : passages) {
+        story.addPassage(passage);
+      }
+
+      game = new Game(gameId, player, story, goals);
+      game.setCurrentPassage(findStoryPassage(story, currentPassage.getTitle(), currentPassage));
+    }
+
+    if (storyUnchanged && jsonObject.has(CONSUMED_LINKS_KEY)) {
+      int[] consumedLinks = gson.fromJson(jsonObject.get(CONSUMED_LINKS_KEY), int[].class);
+      BitSet consumedLinkSet = new BitSet();
+      for (int consumedLink : consumedLinks) {
+        consumedLinkSet.set(consumedLink);
+      }
+      game.setConsumedLinks(consumedLinkSet);
+    }
+
+    if (jsonObject.has(VERSION_KEY)) {
+      game.setVersion(gson.fromJson(jsonObject.get(VERSION_KEY), long.class));
+    }
+    return game;
+  }
+
+  /**
+   * Helper method to find the passage of the story with the given title, so that the game
+   * refers to the same passage and link objects as the story.
+   *
+   * @param story    the story to search.
+   * @param title    the title of the passage.
+   * @param fallback the passage to use if the story does not contain the title.
+   * @return the passage of the story, or the fallback if the story does not contain it.
+   */
+  private static Passage findStoryPassage(Story story, String title, Passage fallback) {
+    try {
+      return story.getPassageByKey(PassageKey.of(title));
+    } catch (NoSuchElementException e) {
+      return fallback;
     }
-    return games;
   }
 
   /**
-   * The method retrieves a list containing information about the invalid games that were not
-   * successfully read from the file.
+   * Helper method to check if the story was read from a file that still exists, so that the
+   * game can refer to the file instead of embedding the story.
    *
-   * @return list of invalid games.
+   * @param story the story of the game.
+   * @return true if the file of the story exists, false otherwise.
    */
-  public static List<String> getInvalidGames() {
-    return invalidGames;
+  private static boolean isSourceAvailable(Story story) {
+    return story.getSourcePath() != null && Files.isRegularFile(Paths.get(story.getSourcePath()));
+  }
+
+  /**
+   * Helper method to read the story a game refers to. The copy of the story archived when the
+   * game was saved is read if the story file is missing, cannot be read or has changed since.
+   * The copy is used only if its content has the fingerprint of the story of the game.
+   *
+   * @param gameId        the ID of the game.
+   * @param storyFile     the path of the file of the story.
+   * @param fingerprint   the fingerprint of the story when the game was saved.
+   * @param archivedStory the path of the archived copy of the story, or null if there is none.
+   * @return the story read from the file or the archive.
+   * @throws JsonParseException if the story can be read from neither the file nor the archive.
+   */
+  private static Story readReferencedStory(String gameId, String storyFile, String fingerprint,
+                                           String archivedStory) throws JsonParseException {
+    Story story = null;
+    try {
+      story = FileStoryHandler.readStoryFromFile(storyFile);
+      if (story.getSourceFingerprint().equals(fingerprint)) {
+        return story;
+      }
+    } catch (IOException e) {
+      logger.log(Level.WARNING, "The story file " + storyFile + " of the game " + gameId
+          + " could not be read.", e);
+    }
+    if (archivedStory != null && Files.isRegularFile(Paths.get(archivedStory))) {
+      try {
+        Story archived = FileStoryHandler.readStoryFromFile(archivedStory);
+        if (archived.getSourceFingerprint().equals(fingerprint)) {
+          logger.log(Level.WARNING, "The story file " + storyFile + " of the game " + gameId
+              + (story == null ? " is missing" : " has changed since the game was saved")
+              + ". The game is loaded with the archived copy " + archivedStory + ".");
+          return archived;
+        }
+        logger.log(Level.WARNING, "The archived story " + archivedStory + " of the game "
+            + gameId + " does not match the fingerprint of the game, and is not used.");
+      } catch (IOException e) {
+        logger.log(Level.WARNING, "The archived story " + archivedStory + " of the game "
+            + gameId + " could not be read.", e);
+      }
+    }
+    if (story == null) {
+      throw new JsonParseException("The story file " + storyFile + " of the game " + gameId
+          + " is missing, and the story has no archived copy.");
+    }
+    return story;
   }
 
   /**
@@ -205,4 +605,43 @@ public class FileGameHandler {
   public static String getFileExtension() {
     return FILE_EXTENSION;
   }
+
+  /**
+   * The method parses a list of goals from a JSON array, in the format of the goals in the
+   * file of games.
+   *
+   * @param jsonElement the JSON array of goals.
+   * @return the list of goals.
+   * @throws NullPointerException     if the jsonElement is null.
+   * @throws JsonParseException       if the array does not hold valid goals.
+   * @throws IllegalArgumentException if the value of a goal is invalid.
+   */
+  public static List<Goal> parseGoals(JsonElement jsonElement)
+      throws NullPointerException, JsonParseException, IllegalArgumentException {
+    if (jsonElement == null) {
+      throw new NullPointerException("The goals cannot be null.");
+    }
+    List<Goal> goals = GameGson.getGson().fromJson(jsonElement, GOAL_LIST_TYPE);
+    if (goals == null || goals.contains(null)) {
+      throw new JsonParseException("The goals must be a list of goals.");
+    }
+    return goals;
+  }
+
+  /**
+   * The RecordConsumer interface receives the game records read from a JSON array, together
+   * with the line and column where each record starts.
+   */
+  @FunctionalInterface
+  interface RecordConsumer {
+
+    /**
+     * The method receives a game record.
+     *
+     * @param jsonObject the game record.
+     * @param line       the line where the record starts, or 0 if it is unknown.
+     * @param column     the column where the record starts, or 0 if it is unknown.
+     */
+    void accept(JsonObject jsonObject, int line, int column);
+  }
 }
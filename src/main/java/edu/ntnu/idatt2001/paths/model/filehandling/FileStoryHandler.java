@@ -5,11 +5,20 @@ import edu.ntnu.idatt2001.paths.model.actions.ActionFactory;
 import edu.ntnu.idatt2001.paths.model.Link;
 import edu.ntnu.idatt2001.paths.model.Passage;
 import edu.ntnu.idatt2001.paths.model.Story;
-import java.io.BufferedReader;
+import edu.ntnu.idatt2001.paths.model.filehandling.StoryCache.CachedStory;
 import java.io.BufferedWriter;
-import java.io.FileReader;
-import java.io.FileWriter;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.LineNumberReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Level;
@@ -28,7 +37,7 @@ public class FileStoryHandler {
 
   private static final Logger logger = Logger.getLogger(FileStoryHandler.class.getName());
   private static final String FILE_EXTENSION = ".paths";
-  private static final List<String> invalidActions = new ArrayList<>();
+  private static final long MAPPING_THRESHOLD = 1024 * 1024;
 
   /**
    * Private constructor for the factory.
@@ -56,20 +65,11 @@ public class FileStoryHandler {
     }
     FilePathValidator.validatePathOfFile(pathOfFile, FILE_EXTENSION);
 
-    try (BufferedWriter writer = new BufferedWriter(
-        new FileWriter(pathOfFile.toLowerCase().trim()))) {
-      writer.write(story.getTitle() + "\n\n");
-      writer.write("::" + story.getOpeningPassage().getTitle() + "\n");
-      writer.write(story.getOpeningPassage().getContent() + "\n");
-      for (Link link : story.getOpeningPassage().getLinks()) {
-        writeLinkWithActions(writer, link);
-      }
+    try (PassageWriter writer = new PassageWriter(Paths.get(pathOfFile.toLowerCase().trim()),
+        story.getTitle())) {
+      writer.write(story.getOpeningPassage());
       for (Passage passage : story.getPassages()) {
-        writer.write("\n::" + passage.getTitle() + "\n");
-        writer.write(passage.getContent() + "\n");
-        for (Link link : passage.getLinks()) {
-          writeLinkWithActions(writer, link);
-        }
+        writer.write(passage);
       }
     } catch (IOException e) {
       String errorMessage = "Error writing story to file: " + e.getMessage();
@@ -78,6 +78,60 @@ public class FileStoryHandler {
     }
   }
 
+  /**
+   * The method opens a story file for writing its passages one at a time, so that stories
+   * can be written without building them in memory. The first passage written is the opening
+   * passage of the story.
+   *
+   * @param pathOfFile the path of the file to write the story to.
+   * @param storyTitle the title of the story.
+   * @return the writer of the passages, which must be closed.
+   * @throws NullPointerException     if the pathOfFile or storyTitle is null.
+   * @throws IllegalArgumentException if pathOfFile is blank or does not end with FILE_EXTENSION,
+   *                                  or the storyTitle is blank.
+   * @throws IOException              if the file cannot be opened.
+   */
+  public static PassageWriter openPassageWriter(String pathOfFile, String storyTitle)
+      throws NullPointerException, IllegalArgumentException, IOException {
+    FilePathValidator.validatePathOfFile(pathOfFile, FILE_EXTENSION);
+    return new PassageWriter(Paths.get(pathOfFile.toLowerCase().trim()), storyTitle);
+  }
+
+  /**
+   * The method opens a story file for reading its passages one at a time, so that stories
+   * larger than the memory can be processed. The passages are read as by
+   * {@link #readStoryFromFile(String)}, but they are not added to a story, and the story cache
+   * is not used.
+   *
+   * @param pathOfFile the path of the file to read the story from.
+   * @return the reader of the passages, which must be closed.
+   * @throws NullPointerException     if the pathOfFile is null.
+   * @throws IllegalArgumentException if pathOfFile is blank or does not end with FILE_EXTENSION.
+   * @throws IOException              if the file cannot be opened.
+   */
+  public static PassageReader openPassageReader(String pathOfFile)
+      throws NullPointerException, IllegalArgumentException, IOException {
+    FilePathValidator.validatePathOfFile(pathOfFile, FILE_EXTENSION);
+    Path path = Paths.get(pathOfFile.toLowerCase().trim());
+    return new PassageReader(new InputStreamReader(Files.newInputStream(path),
+        Charset.defaultCharset()));
+  }
+
+  /**
+   * The method writes a passage with its links to a story file.
+   *
+   * @param writer  the BufferedWriter object to write to.
+   * @param passage the Passage object to write.
+   * @throws IOException if there is an error writing to the BufferedWriter.
+   */
+  static void writePassage(BufferedWriter writer, Passage passage) throws IOException {
+    writer.write("::" + passage.getTitle() + "\n");
+    writer.write(passage.getContent() + "\n");
+    for (Link link : passage.getLinks()) {
+      writeLinkWithActions(writer, link);
+    }
+  }
+
   /**
    * Helper method to write the given Link object with its associated actions.
    *
@@ -94,7 +148,8 @@ public class FileStoryHandler {
   }
 
   /**
-   * The method reads a story object from a text file.
+   * The method reads a story object from a text file. Invalid actions are skipped, see
+   * {@link #parseStoryWithDiagnostics(String)} to retrieve them.
    *
    * @param pathOfFile the path of the file to read the story from.
    * @return the story object read from the file.
@@ -104,49 +159,171 @@ public class FileStoryHandler {
    */
   public static Story readStoryFromFile(String pathOfFile)
       throws NullPointerException, IllegalArgumentException, IOException {
+    return parseStoryWithDiagnostics(pathOfFile).getValue();
+  }
+
+  /**
+   * The method reads a story object from a text file, together with the diagnostics of the
+   * invalid actions that were skipped. Stories are served from the {@link StoryCache} as long
+   * as the file has not changed since it was last read, so the returned story may be shared
+   * and should not be modified. The story remembers the path and fingerprint of the file, so
+   * that games can refer to the file instead of storing the whole story. The method can be
+   * called on many threads at once.
+   *
+   * @param pathOfFile the path of the file to read the story from.
+   * @return the story read from the file and the diagnostics of the invalid actions.
+   * @throws NullPointerException     if the pathOfFile is null.
+   * @throws IllegalArgumentException if pathOfFile is blank or does not end with FILE_EXTENSION.
+   * @throws IOException              if there is an error reading story from file.
+   */
+  public static ParseResult<Story> parseStoryWithDiagnostics(String pathOfFile)
+      throws NullPointerException, IllegalArgumentException, IOException {
 
     FilePathValidator.validatePathOfFile(pathOfFile, FILE_EXTENSION);
-    invalidActions.clear();
 
     Story story;
-    try (BufferedReader reader = new BufferedReader(
-        new FileReader(pathOfFile.toLowerCase().trim()))) {
-      String storyTitle = reader.readLine();
-      List<Passage> passages = readPassagesFromFile(reader);
-      Passage openingPassage = passages.get(0);
-      story = new Story(storyTitle, openingPassage);
-      for (int i = 1; i < passages.size(); i++) {
-        story.addPassage(passages.get(i));
+    List<ParseDiagnostic> diagnostics;
+    try {
+      Path canonicalPath = Paths.get(pathOfFile.toLowerCase().trim()).toRealPath();
+      BasicFileAttributes attributes = Files.readAttributes(canonicalPath,
+          BasicFileAttributes.class);
+      long lastModified = attributes.lastModifiedTime().toMillis();
+
+      CachedStory cachedStory = StoryCache.get(canonicalPath);
+      if (cachedStory != null && cachedStory.matches(lastModified, attributes.size())) {
+        story = cachedStory.getStory();
+        if (story != null) {
+          return new ParseResult<>(story, cachedStory.getDiagnostics());
+        }
+      }
+
+      Charset charset = Charset.defaultCharset();
+      ByteBuffer content = readContent(canonicalPath, attributes.size(), charset);
+      String contentHash = FileFingerprint.computeContentHash(content);
+      story = cachedStory != null && cachedStory.getContentHash().equals(contentHash)
+          ? cachedStory.getStory() : null;
+      if (story != null) {
+        diagnostics = cachedStory.getDiagnostics();
+      } else {
+        diagnostics = new ArrayList<>();
+        if (MappedStoryParser.supports(charset)) {
+          story = MappedStoryParser.parse(content, charset, diagnostics);
+        } else {
+          try (LineNumberReader reader = new LineNumberReader(new InputStreamReader(
+              new ByteArrayInputStream(content.array()), charset))) {
+            story = parseStory(reader, diagnostics);
+          }
+        }
+        story.setSource(canonicalPath.toString(), contentHash);
       }
+      StoryCache.put(canonicalPath, new CachedStory(lastModified, content.remaining(),
+          contentHash, story, diagnostics));
     } catch (IOException e) {
       String errorMessage = "Error reading story from file: " + e.getMessage();
       logger.log(Level.SEVERE, errorMessage, e);
       throw new IOException(errorMessage);
     }
+    return new ParseResult<>(story, diagnostics);
+  }
+
+  /**
+   * The method reads the content of a story file. Large files are memory-mapped when
+   * they can be parsed by the {@link MappedStoryParser}, so that they are not copied to the
+   * heap. Smaller files are read into an array, since a mapped file cannot be replaced on
+   * some platforms until the mapping has been garbage collected.
+   *
+   * @param path    the path of the file.
+   * @param size    the size of the file in bytes.
+   * @param charset the character set of the file.
+   * @return the content of the file.
+   * @throws IOException if there is an error reading the file.
+   */
+  static ByteBuffer readContent(Path path, long size, Charset charset)
+      throws IOException {
+    if (size < MAPPING_THRESHOLD || !MappedStoryParser.supports(charset)) {
+      return ByteBuffer.wrap(Files.readAllBytes(path));
+    }
+    if (size > Integer.MAX_VALUE) {
+      throw new IOException("The file " + path + " is too large to be read.");
+    }
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+  }
+
+  /**
+   * Helper method to parse a story line by line.
+   *
+   * @param reader      the LineNumberReader object to read from.
+   * @param diagnostics the list to add the diagnostics of invalid actions to.
+   * @return the story read from the LineNumberReader.
+   * @throws IOException if there is an error reading from the LineNumberReader.
+   */
+  static Story parseStory(LineNumberReader reader, List<ParseDiagnostic> diagnostics)
+      throws IOException {
+    String storyTitle = reader.readLine();
+    return createStory(storyTitle, readPassagesFromFile(reader, diagnostics));
+  }
+
+  /**
+   * Helper method to create a story from its title and passages, where the first passage is
+   * the opening passage.
+   *
+   * @param storyTitle the title of the story.
+   * @param passages   the passages of the story.
+   * @return the story.
+   */
+  static Story createStory(String storyTitle, List<Passage> passages) {
+    Passage openingPassage = passages.get(0);
+    Story story = new Story(storyTitle, openingPassage);
+    for (int i = 1; i < passages.size(); i++) {
+      story.addPassage(passages.get(i));
+    }
     return story;
   }
 
   /**
    * Helper method to read passages.
    *
-   * @param reader the BufferedReader object to read from.
-   * @return a list of Passage objects read from the BufferedReader.
-   * @throws IOException if there is an error reading from the BufferedReader.
+   * @param reader      the LineNumberReader object to read from.
+   * @param diagnostics the list to add the diagnostics of invalid actions to.
+   * @return a list of Passage objects read from the LineNumberReader.
+   * @throws IOException if there is an error reading from the LineNumberReader.
    */
-  private static List<Passage> readPassagesFromFile(BufferedReader reader) throws IOException {
+  private static List<Passage> readPassagesFromFile(LineNumberReader reader,
+                                                    List<ParseDiagnostic> diagnostics)
+      throws IOException {
     List<Passage> passages = new ArrayList<>();
+    Passage passage;
+    while ((passage = readNextPassage(reader, diagnostics)) != null) {
+      passages.add(passage);
+    }
+    return passages;
+  }
+
+  /**
+   * The method reads the next passage. Lines before the title line of the passage are
+   * skipped, and the line ending the links of the passage is consumed.
+   *
+   * @param reader      the LineNumberReader object to read from.
+   * @param diagnostics the list to add the diagnostics of invalid actions to.
+   * @return the next passage, or null if there are no more passages.
+   * @throws IOException if there is an error reading from the LineNumberReader.
+   */
+  static Passage readNextPassage(LineNumberReader reader, List<ParseDiagnostic> diagnostics)
+      throws IOException {
     String line;
     while ((line = reader.readLine()) != null) {
       if (line.startsWith("::")) {
         Passage passage = parsePassage(line, reader.readLine());
         while ((line = reader.readLine()) != null && line.contains("[")) {
-          Link link = parseLink(line);
+          Link link = parseLink(line, reader.getLineNumber(), diagnostics);
           passage.addLink(link);
         }
-        passages.add(passage);
+        return passage;
       }
     }
-    return passages;
+    return null;
   }
 
   /**
@@ -165,26 +342,36 @@ public class FileStoryHandler {
   /**
    * Helper method to parse a link.
    *
-   * @param line the string to parse.
+   * @param line        the string to parse.
+   * @param lineNumber  the number of the line in the file.
+   * @param diagnostics the list to add the diagnostics of invalid actions to.
    * @return a link object created from the string.
    */
-  private static Link parseLink(String line) {
+  static Link parseLink(String line, int lineNumber, List<ParseDiagnostic> diagnostics) {
     String[] linkParts = line.split("[])}]");
     String linkText = linkParts[0].substring(1).trim();
     String linkReference = linkParts[1].substring(1).trim();
     Link link = new Link(linkText, linkReference);
-    parseLinkActions(link, linkParts);
+    parseLinkActions(link, line, linkParts, lineNumber, diagnostics);
     return link;
   }
 
   /**
-   * Helper method to parse actions from a link string and add them to a Link object.
+   * Helper method to parse actions from a link string and add them to a Link object. Invalid
+   * actions are skipped, and reported with the line and column of the action.
    *
-   * @param link      the link object to add actions to.
-   * @param linkParts array of strings representing the link and its actions.
+   * @param link        the link object to add actions to.
+   * @param line        the string the link was parsed from.
+   * @param linkParts   array of strings representing the link and its actions.
+   * @param lineNumber  the number of the line in the file.
+   * @param diagnostics the list to add the diagnostics of invalid actions to.
    */
-  private static void parseLinkActions(Link link, String[] linkParts) {
+  private static void parseLinkActions(Link link, String line, String[] linkParts,
+                                       int lineNumber, List<ParseDiagnostic> diagnostics) {
+    int searchIndex = 0;
     for (String linkPart : linkParts) {
+      int partIndex = line.indexOf(linkPart, searchIndex);
+      searchIndex = partIndex + linkPart.length();
       if (linkPart.startsWith("{")) {
         try {
           String[] actionParts = linkPart.split(":");
@@ -199,19 +386,9 @@ public class FileStoryHandler {
           link.addAction(action);
         } catch (IllegalArgumentException | NullPointerException e) {
           logger.log(Level.WARNING, e.getMessage(), e);
-          invalidActions.add(e.getMessage());
+          diagnostics.add(new ParseDiagnostic(lineNumber, partIndex + 1, e.getMessage()));
         }
       }
     }
   }
-
-  /**
-   * The method retrieves the list with information about invalid actions which was not parsed from
-   * the file.
-   *
-   * @return list of invalid and non parsed actions.
-   */
-  public static List<String> getInvalidActions() {
-    return invalidActions;
-  }
 }
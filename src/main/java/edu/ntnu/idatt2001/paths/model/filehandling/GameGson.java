@@ -0,0 +1,84 @@
+package edu.ntnu.idatt2001.paths.model.filehandling;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import edu.ntnu.idatt2001.paths.model.Link;
+import edu.ntnu.idatt2001.paths.model.Passage;
+import edu.ntnu.idatt2001.paths.model.Player;
+import edu.ntnu.idatt2001.paths.model.actions.Action;
+import edu.ntnu.idatt2001.paths.model.goals.Goal;
+import java.io.IOException;
+
+/**
+ * The GameGson class holds the Gson object used to read and write games. The type adapters
+ * of the game model are registered once, and the Gson object is shared, since it is
+ * thread-safe.
+ *
+ * @author Ramtin Samavat
+ * @author Tobias Oftedal
+ * @version 1.0
+ * @since May 24, 2023.
+ */
+final class GameGson {
+
+  static final String TYPE_KEY = "type";
+  private static final Gson gson = new GsonBuilder()
+      .registerTypeAdapter(Player.class, new PlayerTypeAdapter())
+      .registerTypeAdapter(Passage.class, new PassageTypeAdapter())
+      .registerTypeAdapter(Link.class, new LinkTypeAdapter())
+      .registerTypeHierarchyAdapter(Action.class, new ActionTypeAdapter())
+      .registerTypeHierarchyAdapter(Goal.class, new GoalTypeAdapter())
+      .setPrettyPrinting().setLenient().create();
+
+  /**
+   * Private constructor for the GameGson.
+   *
+   * @throws IllegalStateException If the constructor is used.
+   */
+  private GameGson() throws IllegalStateException {
+    throw new IllegalStateException("Cannot instantiate a GameGson object");
+  }
+
+  /**
+   * The method retrieves the shared Gson object used to read and write games.
+   *
+   * @return the Gson object.
+   */
+  static Gson getGson() {
+    return gson;
+  }
+
+  /**
+   * The method reads an integer value.
+   *
+   * @param in the reader positioned at the value.
+   * @return the integer value.
+   * @throws IOException        if there is an error reading the value.
+   * @throws JsonParseException if the value is not an integer.
+   */
+  static int readInt(JsonReader in) throws IOException, JsonParseException {
+    try {
+      return in.nextInt();
+    } catch (NumberFormatException e) {
+      throw new JsonParseException("Expected an integer at " + in.getPath() + ".", e);
+    }
+  }
+
+  /**
+   * The method reads a string value.
+   *
+   * @param in the reader positioned at the value.
+   * @return the string, or null if the value is null.
+   * @throws IOException if there is an error reading the value.
+   */
+  static String readString(JsonReader in) throws IOException {
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+    return in.nextString();
+  }
+}
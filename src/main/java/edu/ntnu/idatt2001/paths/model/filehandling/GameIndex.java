@@ -0,0 +1,327 @@
+package edu.ntnu.idatt2001.paths.model.filehandling;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The GameIndex class reads and writes the summary index of a games file. The index is a
+ * file next to the games file, with one line per game holding the summary of the game and
+ * the position of its record in the games file. The position is both the number of the record
+ * in the array of games, and, if the games file was written by a {@link GameJournal}, the
+ * offset of the block of the games file where the record starts, so that the record can be
+ * read without reading the records before it. The first line of the index holds the size,
+ * modification time and hash of the games file it belongs to, so that the index is only used
+ * as long as the games file has not been changed.
+ *
+ * @author Ramtin Samavat
+ * @author Tobias Oftedal
+ * @version 1.0
+ * @since May 23, 2023.
+ */
+final class GameIndex {
+
+  private static final Logger logger = Logger.getLogger(GameIndex.class.getName());
+  private static final String SIZE_KEY = "size";
+  private static final String MODIFIED_KEY = "modified";
+  private static final String HASH_KEY = "hash";
+  private static final String GAME_ID_KEY = "game ID";
+  private static final String PLAYER_NAME_KEY = "player";
+  private static final String PLAYER_SCORE_KEY = "score";
+  private static final String STORY_TITLE_KEY = "story title";
+  private static final String CURRENT_PASSAGE_KEY = "current passage";
+  private static final String VERSION_KEY = "version";
+  private static final String RECORD_KEY = "record";
+  private static final String OFFSET_KEY = "offset";
+  private static final String SKIP_KEY = "skip";
+  private static final Gson gson = new Gson();
+
+  private final String snapshotHash;
+  private final List<Row> rows;
+
+  /**
+   * Constructs a GameIndex object.
+   *
+   * @param snapshotHash the hash of the games file.
+   * @param rows         the rows of the index.
+   */
+  GameIndex(String snapshotHash, List<Row> rows) {
+    this.snapshotHash = snapshotHash;
+    this.rows = rows;
+  }
+
+  /**
+   * The method retrieves the hash of the games file the index belongs to.
+   *
+   * @return the hash of the games file.
+   */
+  String getSnapshotHash() {
+    return snapshotHash;
+  }
+
+  /**
+   * The method retrieves the rows of the index.
+   *
+   * @return the rows of the index.
+   */
+  List<Row> getRows() {
+    return Collections.unmodifiableList(rows);
+  }
+
+  /**
+   * The method reads the index, if it belongs to a games file with the given size and
+   * modification time.
+   *
+   * @param indexPath the path of the index.
+   * @param size      the size of the games file.
+   * @param modified  the modification time of the games file.
+   * @return the index, or null if the index is missing, invalid or belongs to another version
+   *         of the games file.
+   */
+  static GameIndex read(Path indexPath, long size, String modified) {
+    try (BufferedReader reader = Files.newBufferedReader(indexPath, StandardCharsets.UTF_8)) {
+      String headerLine = reader.readLine();
+      if (headerLine == null) {
+        return null;
+      }
+      JsonObject header = JsonParser.parseString(headerLine).getAsJsonObject();
+      if (header.get(SIZE_KEY).getAsLong() != size
+          || !header.get(MODIFIED_KEY).getAsString().equals(modified)) {
+        return null;
+      }
+
+      List<Row> rows = new ArrayList<>();
+      String line;
+      while ((line = reader.readLine()) != null) {
+        JsonObject row = JsonParser.parseString(line).getAsJsonObject();
+        rows.add(new Row(getString(row, GAME_ID_KEY), getString(row, PLAYER_NAME_KEY),
+            row.get(PLAYER_SCORE_KEY).getAsInt(), getString(row, STORY_TITLE_KEY),
+            getString(row, CURRENT_PASSAGE_KEY),
+            row.has(VERSION_KEY) ? row.get(VERSION_KEY).getAsLong() : 0,
+            row.get(RECORD_KEY).getAsInt(), row.get(OFFSET_KEY).getAsLong(),
+            row.get(SKIP_KEY).getAsInt()));
+      }
+      return new GameIndex(header.get(HASH_KEY).getAsString(), rows);
+    } catch (NoSuchFileException e) {
+      return null;
+    } catch (IOException | JsonParseException | IllegalStateException
+             | NullPointerException | UnsupportedOperationException e) {
+      logger.log(Level.WARNING, "Ignoring the invalid index " + indexPath, e);
+      return null;
+    }
+  }
+
+  /**
+   * The method writes the index of a games file with the given size, modification time and
+   * hash. The index is replaced atomically, so that a crash never leaves an index that lists
+   * only some of the games.
+   *
+   * @param indexPath the path of the index.
+   * @param size      the size of the games file.
+   * @param modified  the modification time of the games file.
+   * @throws IOException if there is an error writing the index.
+   */
+  void write(Path indexPath, long size, String modified) throws IOException {
+    JsonObject header = new JsonObject();
+    header.addProperty(SIZE_KEY, size);
+    header.addProperty(MODIFIED_KEY, modified);
+    header.addProperty(HASH_KEY, snapshotHash);
+
+    try {
+      SafeFiles.writeAtomically(indexPath, out -> {
+        try (BufferedWriter writer = new BufferedWriter(
+            new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
+          writer.write(gson.toJson(header));
+          writer.newLine();
+          for (Row row : rows) {
+            JsonObject jsonObject = new JsonObject();
+            jsonObject.addProperty(GAME_ID_KEY, row.getGameId());
+            jsonObject.addProperty(PLAYER_NAME_KEY, row.getPlayerName());
+            jsonObject.addProperty(PLAYER_SCORE_KEY, row.getPlayerScore());
+            jsonObject.addProperty(STORY_TITLE_KEY, row.getStoryTitle());
+            jsonObject.addProperty(CURRENT_PASSAGE_KEY, row.getCurrentPassageTitle());
+            jsonObject.addProperty(VERSION_KEY, row.getVersion());
+            jsonObject.addProperty(RECORD_KEY, row.getRecord());
+            jsonObject.addProperty(OFFSET_KEY, row.getOffset());
+            jsonObject.addProperty(SKIP_KEY, row.getSkip());
+            writer.write(gson.toJson(jsonObject));
+            writer.newLine();
+          }
+        }
+      });
+    } catch (IOException e) {
+      String errorMessage = "Error writing the index: " + e.getMessage();
+      logger.log(Level.SEVERE, errorMessage, e);
+      throw new IOException(errorMessage);
+    }
+  }
+
+  /**
+   * Helper method to retrieve a string property of a JSON object.
+   *
+   * @param jsonObject the JSON object.
+   * @param key        the key of the property.
+   * @return the string, or null if the property is missing or null.
+   */
+  private static String getString(JsonObject jsonObject, String key) {
+    JsonElement element = jsonObject.get(key);
+    return element == null || element.isJsonNull() ? null : element.getAsString();
+  }
+
+  /**
+   * The Row class holds the summary of a game, and the position of its record in the games
+   * file.
+   */
+  static final class Row {
+    private final String gameId;
+    private final String playerName;
+    private final int playerScore;
+    private final String storyTitle;
+    private final String currentPassageTitle;
+    private final long version;
+    private final int record;
+    private final long offset;
+    private final int skip;
+
+    /**
+     * Constructs a Row object.
+     *
+     * @param gameId              the ID of the game.
+     * @param playerName          the name of the player.
+     * @param playerScore         the score of the player.
+     * @param storyTitle          the title of the story.
+     * @param currentPassageTitle the title of the current passage.
+     * @param version             the version of the game.
+     * @param record              the position of the record in the games file.
+     * @param offset              the offset of the block where the record starts, or -1 if
+     *                            it is unknown.
+     * @param skip                the number of uncompressed bytes from the start of the
+     *                            block to the record.
+     */
+    Row(String gameId, String playerName, int playerScore, String storyTitle,
+        String currentPassageTitle, long version, int record, long offset, int skip) {
+      this.gameId = gameId;
+      this.playerName = playerName;
+      this.playerScore = playerScore;
+      this.storyTitle = storyTitle;
+      this.currentPassageTitle = currentPassageTitle;
+      this.version = version;
+      this.record = record;
+      this.offset = offset;
+      this.skip = skip;
+    }
+
+    /**
+     * Constructs a Row object from a stored game.
+     *
+     * @param storedGame the stored game.
+     * @param record     the position of the record in the games file.
+     * @param offset     the offset of the block where the record starts, or -1 if it is
+     *                   unknown.
+     * @param skip       the number of uncompressed bytes from the start of the block to the
+     *                   record.
+     */
+    Row(StoredGame storedGame, int record, long offset, int skip) {
+      this(storedGame.getGameId(), storedGame.getPlayerName(), storedGame.getPlayerScore(),
+          storedGame.getStoryTitle(), storedGame.getCurrentPassageTitle(),
+          storedGame.getVersion(), record, offset, skip);
+    }
+
+    /**
+     * The method retrieves the ID of the game.
+     *
+     * @return the game ID.
+     */
+    String getGameId() {
+      return gameId;
+    }
+
+    /**
+     * The method retrieves the name of the player.
+     *
+     * @return the name of the player.
+     */
+    String getPlayerName() {
+      return playerName;
+    }
+
+    /**
+     * The method retrieves the score of the player.
+     *
+     * @return the score of the player.
+     */
+    int getPlayerScore() {
+      return playerScore;
+    }
+
+    /**
+     * The method retrieves the title of the story.
+     *
+     * @return the title of the story.
+     */
+    String getStoryTitle() {
+      return storyTitle;
+    }
+
+    /**
+     * The method retrieves the title of the current passage.
+     *
+     * @return the title of the current passage.
+     */
+    String getCurrentPassageTitle() {
+      return currentPassageTitle;
+    }
+
+    /**
+     * The method retrieves the version of the game.
+     *
+     * @return the version of the game.
+     */
+    long getVersion() {
+      return version;
+    }
+
+    /**
+     * The method retrieves the position of the record in the games file.
+     *
+     * @return the position of the record.
+     */
+    int getRecord() {
+      return record;
+    }
+
+    /**
+     * The method retrieves the offset of the block of the games file where the record starts.
+     *
+     * @return the offset of the block, or -1 if it is unknown.
+     */
+    long getOffset() {
+      return offset;
+    }
+
+    /**
+     * The method retrieves the number of uncompressed bytes from the start of the block to
+     * the record.
+     *
+     * @return the number of bytes to skip.
+     */
+    int getSkip() {
+      return skip;
+    }
+  }
+}
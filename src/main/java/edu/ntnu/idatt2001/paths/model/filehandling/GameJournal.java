@@ -0,0 +1,988 @@
+package edu.ntnu.idatt2001.paths.model.filehandling;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonSyntaxException;
+import edu.ntnu.idatt2001.paths.model.Game;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.DigestInputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The GameJournal class stores games as a snapshot file and an append-only journal. The
+ * snapshot is a JSON file in the format written by the FileGameHandler, and the journal is a
+ * file next to it where every save and delete is appended as a single compact JSON line.
+ * When the games are loaded, the snapshot is read and the journal is replayed on top of it.
+ * When the journal has grown to a fraction of the size of the snapshot, the journal is
+ * compacted in the background by rewriting the snapshot, so that the cost of rewriting the
+ * snapshot is spread over a number of records that grows with the snapshot.
+ *
+ * <p>A compaction rotates the journal to a new segment when it starts, and writes the snapshot
+ * from a copy of the games without holding the lock of the journal, so that saves and deletes
+ * are appended to the new segment while the snapshot is written. Only the previous segment,
+ * which the new snapshot covers, is deleted when the snapshot has been replaced.
+ *
+ * <p>The first line of a segment holds a hash of the snapshot it belongs to. A segment that
+ * receives records while the snapshot is written is marked with the hash of the new snapshot
+ * before the snapshot is replaced, so that the segment belongs to both snapshots. If the
+ * snapshot has been replaced otherwise, for example by writing it with the FileGameHandler,
+ * the journal no longer matches the snapshot and is discarded. A previous segment left by a
+ * compaction that did not finish is replayed before the journal when the games are loaded.
+ *
+ * <p>The snapshot can be written compressed, see {@link SaveCompression}. The compression of
+ * the snapshot is detected when it is read, so a journal can take over a snapshot written with
+ * another compression, and the snapshot is rewritten with the compression of the journal at
+ * the next compaction.
+ *
+ * <p>A summary index of the snapshot is kept next to it, so that the games can be listed
+ * without reading the snapshot. The games of the snapshot are loaded as summaries, and the
+ * record of a game is only read from the snapshot when the game is requested. A snapshot
+ * written by the journal is compressed in blocks, and the index holds the block where each
+ * record starts, so that a record is read without reading the records before it. The records
+ * of a snapshot written by someone else are found by reading the snapshot from the start,
+ * until the snapshot is rewritten at the next compaction.
+ *
+ * @author Ramtin Samavat
+ * @author Tobias Oftedal
+ * @version 1.0
+ * @since May 23, 2023.
+ */
+public class GameJournal {
+
+  private static final Logger logger = Logger.getLogger(GameJournal.class.getName());
+  private static final String JOURNAL_EXTENSION = ".journal";
+  private static final String PREVIOUS_SEGMENT_EXTENSION = ".previous";
+  private static final String INDEX_EXTENSION = ".index";
+  private static final String SNAPSHOT_KEY = "snapshot";
+  private static final String COMPACTED_KEY = "compacted";
+  private static final String OPERATION_KEY = "operation";
+  private static final String GAME_KEY = "game";
+  private static final String GAME_ID_KEY = "game ID";
+  private static final String SAVE_OPERATION = "save";
+  private static final String DELETE_OPERATION = "delete";
+  private static final double COMPACTION_RATIO = 0.5;
+  private static final long MIN_COMPACTION_BYTES = 64 * 1024;
+  private static final int BLOCK_SIZE = 64 * 1024;
+  private static final ExecutorService compactor = Executors.newSingleThreadExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "game-journal-compactor");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  private final String pathOfFile;
+  private final Path snapshotPath;
+  private final Path journalPath;
+  private final Path previousJournalPath;
+  private final Path indexPath;
+  private final SaveCompression compression;
+  private final Gson recordGson;
+  private final Map<String, StoredGame> records;
+  private final Map<String, GameIndex.Row> snapshotRows;
+  private final Object compactionLock;
+  private String snapshotHash;
+  private long snapshotBytes;
+  private int pendingRecords;
+  private long journalBytes;
+  private int rotatedRecords;
+  private long rotatedBytes;
+  private boolean compactionScheduled;
+  private boolean closed;
+
+  /**
+   * Constructor for the GameJournal class, which writes the snapshot uncompressed.
+   *
+   * @param pathOfFile the path to the snapshot file.
+   * @throws NullPointerException     if the pathOfFile is null.
+   * @throws IllegalArgumentException if the pathOfFile is blank or has an incorrect file
+   *                                  extension.
+   */
+  public GameJournal(String pathOfFile) throws NullPointerException, IllegalArgumentException {
+    this(pathOfFile, SaveCompression.NONE);
+  }
+
+  /**
+   * Constructor for the GameJournal class.
+   *
+   * @param pathOfFile  the path to the snapshot file.
+   * @param compression the compression used when writing the snapshot.
+   * @throws NullPointerException     if the pathOfFile or compression is null.
+   * @throws IllegalArgumentException if the pathOfFile is blank or has an incorrect file
+   *                                  extension.
+   */
+  public GameJournal(String pathOfFile, SaveCompression compression)
+      throws NullPointerException, IllegalArgumentException {
+    FilePathValidator.validatePathOfFile(pathOfFile, FileGameHandler.getFileExtension());
+    if (compression == null) {
+      throw new NullPointerException("The compression cannot be null.");
+    }
+    this.pathOfFile = pathOfFile;
+    this.compression = compression;
+    this.snapshotPath = Paths.get(pathOfFile.toLowerCase().trim());
+    this.journalPath = Paths.get(getJournalPath(pathOfFile));
+    this.previousJournalPath = Paths.get(getJournalPath(pathOfFile)
+        + PREVIOUS_SEGMENT_EXTENSION);
+    this.indexPath = Paths.get(getIndexPath(pathOfFile));
+    this.recordGson = new Gson();
+    this.records = new LinkedHashMap<>();
+    this.snapshotRows = new HashMap<>();
+    this.compactionLock = new Object();
+  }
+
+  /**
+   * The method retrieves the path of the journal belonging to the given snapshot file.
+   *
+   * @param pathOfFile the path to the snapshot file.
+   * @return the path to the journal.
+   * @throws NullPointerException if the pathOfFile is null.
+   */
+  public static String getJournalPath(String pathOfFile) throws NullPointerException {
+    if (pathOfFile == null) {
+      throw new NullPointerException("The path of the file cannot be null.");
+    }
+    return pathOfFile.toLowerCase().trim() + JOURNAL_EXTENSION;
+  }
+
+  /**
+   * The method retrieves the path of the summary index belonging to the given snapshot file.
+   *
+   * @param pathOfFile the path to the snapshot file.
+   * @return the path to the index.
+   * @throws NullPointerException if the pathOfFile is null.
+   */
+  public static String getIndexPath(String pathOfFile) throws NullPointerException {
+    if (pathOfFile == null) {
+      throw new NullPointerException("The path of the file cannot be null.");
+    }
+    return pathOfFile.toLowerCase().trim() + INDEX_EXTENSION;
+  }
+
+  /**
+   * The method loads the games by reading the snapshot and replaying the journal. A journal
+   * that does not belong to the snapshot is discarded, and an incomplete last record, left by
+   * a crash while appending, is ignored. A previous segment of the journal that the snapshot
+   * does not cover is replayed first, and merged into the journal.
+   *
+   * <p>The games are returned as stored games, so that a game is only created when it is
+   * requested.
+   *
+   * @return the list of stored games.
+   * @throws IOException         if there is an error reading the snapshot or the journal.
+   * @throws JsonSyntaxException if the snapshot does not have the correct JSON syntax.
+   */
+  public List<StoredGame> load() throws IOException, JsonSyntaxException {
+    synchronized (compactionLock) {
+      synchronized (this) {
+        BasicFileAttributes attributes = readSnapshotAttributes();
+        records.clear();
+        snapshotRows.clear();
+
+        GameIndex index = GameIndex.read(indexPath, attributes.size(),
+            attributes.lastModifiedTime().toString());
+        if (index == null) {
+          index = readSnapshot();
+          index.write(indexPath, attributes.size(), attributes.lastModifiedTime().toString());
+        }
+        snapshotHash = index.getSnapshotHash();
+        snapshotBytes = attributes.size();
+        for (GameIndex.Row row : index.getRows()) {
+          String key = row.getGameId() == null ? "#" + records.size() : row.getGameId();
+          snapshotRows.put(key, row);
+          records.put(key, new StoredGame(row.getGameId(), row.getPlayerName(),
+              row.getPlayerScore(), row.getStoryTitle(), row.getCurrentPassageTitle(),
+              row.getVersion(), () -> readSnapshotRecord(key)));
+        }
+
+        replayJournal();
+        return new ArrayList<>(records.values());
+      }
+    }
+  }
+
+  /**
+   * The method appends a record saving the given game to the journal.
+   *
+   * @param game the game to save.
+   * @return the stored game.
+   * @throws NullPointerException  if the game is null.
+   * @throws IllegalStateException if the games have not been loaded.
+   * @throws IOException           if there is an error writing to the journal.
+   */
+  public synchronized StoredGame appendSave(Game game)
+      throws NullPointerException, IllegalStateException, IOException {
+    if (game == null) {
+      throw new NullPointerException("Game cannot be null.");
+    }
+    StoredGame storedGame = StoredGame.of(game);
+    appendStoredGame(storedGame);
+    return storedGame;
+  }
+
+  /**
+   * The method appends a record saving the given stored game to the journal. The record of
+   * the stored game is written as it was when the stored game was created, so the game may
+   * have changed since.
+   *
+   * @param storedGame the stored game to save.
+   * @throws NullPointerException  if the stored game is null.
+   * @throws IllegalStateException if the games have not been loaded.
+   * @throws IOException           if there is an error writing to the journal.
+   */
+  synchronized void appendStoredGame(StoredGame storedGame)
+      throws NullPointerException, IllegalStateException, IOException {
+    if (storedGame == null) {
+      throw new NullPointerException("Stored game cannot be null.");
+    }
+    JsonObject journalRecord = new JsonObject();
+    journalRecord.addProperty(OPERATION_KEY, SAVE_OPERATION);
+    journalRecord.add(GAME_KEY, storedGame.getRecord());
+    append(journalRecord);
+
+    records.put(storedGame.getGameId(), storedGame);
+  }
+
+  /**
+   * The method appends a record deleting the game with the given game ID to the journal.
+   *
+   * @param gameId the ID of the game to delete.
+   * @throws NullPointerException  if the gameId is null.
+   * @throws IllegalStateException if the games have not been loaded.
+   * @throws IOException           if there is an error writing to the journal.
+   */
+  public synchronized void appendDelete(String gameId)
+      throws NullPointerException, IllegalStateException, IOException {
+    if (gameId == null) {
+      throw new NullPointerException("Game ID cannot be null.");
+    }
+    JsonObject journalRecord = new JsonObject();
+    journalRecord.addProperty(OPERATION_KEY, DELETE_OPERATION);
+    journalRecord.addProperty(GAME_ID_KEY, gameId);
+    append(journalRecord);
+
+    records.remove(gameId);
+  }
+
+  /**
+   * The method compacts the journal by writing the current games to the snapshot. The journal
+   * is rotated to a new segment when the compaction starts, and the snapshot is written from a
+   * copy of the games without holding the lock of the journal, so that records can be appended
+   * to the new segment while the snapshot is written. The snapshot is written to a temporary
+   * file and forced to the disk, before the temporary file replaces the snapshot and the
+   * previous segment is deleted. The records of the games that have not been saved since the
+   * last compaction are copied from the old snapshot. A new block of the snapshot is started
+   * at the first record after every {@value #BLOCK_SIZE} uncompressed bytes, or at every
+   * record if the snapshot is not compressed.
+   *
+   * @throws IOException if there is an error writing the snapshot, the index or the journal.
+   */
+  public void compact() throws IOException {
+    synchronized (compactionLock) {
+      Map<String, StoredGame> compactedRecords;
+      Map<String, GameIndex.Row> compactedRows;
+      synchronized (this) {
+        compactedRecords = new LinkedHashMap<>(records);
+        compactedRows = new HashMap<>(snapshotRows);
+        rotateJournal();
+      }
+      MessageDigest digest = FileFingerprint.createDigest();
+      Map<String, GameIndex.Row> writtenRows;
+      try {
+        writtenRows = writeSnapshot(compactedRecords, compactedRows, digest);
+      } catch (IOException e) {
+        synchronized (this) {
+          restorePendingRecords();
+        }
+        throw e;
+      }
+      String compactedHash = FileFingerprint.toHexString(digest.digest());
+      BasicFileAttributes attributes = installSnapshot(compactedHash, writtenRows);
+      new GameIndex(compactedHash, new ArrayList<>(writtenRows.values())).write(indexPath,
+          attributes.size(), attributes.lastModifiedTime().toString());
+    }
+  }
+
+  /**
+   * Helper method to write the games to the temporary file of the snapshot, and force it to
+   * the disk.
+   *
+   * @param compactedRecords the games to write.
+   * @param compactedRows    the rows of the current snapshot, where the records of the games
+   *                         that do not hold their records are read.
+   * @param digest           the digest updated with the bytes of the new snapshot.
+   * @return the rows of the new snapshot, by the key of the game.
+   * @throws IOException if there is an error reading the current snapshot or writing the new.
+   */
+  private Map<String, GameIndex.Row> writeSnapshot(Map<String, StoredGame> compactedRecords,
+                                                   Map<String, GameIndex.Row> compactedRows,
+                                                   MessageDigest digest) throws IOException {
+    Gson gson = GameGson.getGson();
+    Map<String, GameIndex.Row> writtenRows = new LinkedHashMap<>();
+    try (SnapshotCursor cursor = new SnapshotCursor()) {
+      SafeFiles.writeTemporary(snapshotPath, out -> {
+        CountingOutputStream storedBytes = new CountingOutputStream(
+            new DigestOutputStream(out, digest));
+        OutputStream compressedOut = compression.compressInBlocks(storedBytes);
+        CountingOutputStream uncompressedBytes = new CountingOutputStream(compressedOut);
+        try (JsonWriter writer = new JsonWriter(new BufferedWriter(new OutputStreamWriter(
+            uncompressedBytes, Charset.defaultCharset())))) {
+          if (compression.isPrettyPrinted()) {
+            writer.setIndent("  ");
+          }
+          writer.beginArray();
+          long blockOffset = -1;
+          long blockStart = 0;
+          for (Map.Entry<String, StoredGame> entry : compactedRecords.entrySet()) {
+            StoredGame storedGame = entry.getValue();
+            GameIndex.Row snapshotRow = compactedRows.get(entry.getKey());
+            JsonObject record = storedGame.hasRecord() || snapshotRow == null
+                ? storedGame.getRecord() : cursor.read(snapshotRow);
+            writer.flush();
+            if (blockOffset < 0 || compression == SaveCompression.NONE
+                || uncompressedBytes.getCount() - blockStart >= BLOCK_SIZE) {
+              compressedOut.flush();
+              blockOffset = storedBytes.getCount();
+              blockStart = uncompressedBytes.getCount();
+            }
+            GameIndex.Row row = new GameIndex.Row(storedGame, writtenRows.size(), blockOffset,
+                (int) (uncompressedBytes.getCount() - blockStart));
+            gson.toJson(record, writer);
+            writtenRows.put(entry.getKey(), row);
+          }
+          writer.endArray();
+        }
+      });
+    } catch (IOException | JsonParseException e) {
+      String errorMessage = "Error writing the list of games to the file: " + e.getMessage();
+      logger.log(Level.SEVERE, errorMessage, e);
+      throw new IOException(errorMessage);
+    }
+    return writtenRows;
+  }
+
+  /**
+   * Helper method to replace the snapshot with the new snapshot written by a compaction, and
+   * delete the previous segment of the journal. If records have been appended to the journal
+   * while the snapshot was written, the journal is marked as belonging to the new snapshot
+   * before the snapshot is replaced, otherwise the journal is replaced with an empty journal.
+   * The index of the new snapshot is written by the caller, without holding the lock.
+   *
+   * @param compactedHash the hash of the new snapshot.
+   * @param writtenRows   the rows of the new snapshot, by the key of the game.
+   * @return the attributes of the new snapshot.
+   * @throws IOException if there is an error replacing the snapshot or writing the journal.
+   */
+  private synchronized BasicFileAttributes installSnapshot(String compactedHash,
+      Map<String, GameIndex.Row> writtenRows) throws IOException {
+    Path temporaryPath = SafeFiles.getTemporaryPath(snapshotPath);
+    try {
+      if (pendingRecords > 0) {
+        JsonObject marker = new JsonObject();
+        marker.addProperty(COMPACTED_KEY, compactedHash);
+        byte[] line = toLine(marker);
+        SafeFiles.append(journalPath, line);
+        journalBytes += line.length;
+      }
+      SafeFiles.replace(temporaryPath, snapshotPath);
+    } catch (IOException e) {
+      Files.deleteIfExists(temporaryPath);
+      restorePendingRecords();
+      String errorMessage = "Error writing the list of games to the file: " + e.getMessage();
+      logger.log(Level.SEVERE, errorMessage, e);
+      throw new IOException(errorMessage);
+    }
+
+    snapshotHash = compactedHash;
+    snapshotRows.clear();
+    snapshotRows.putAll(writtenRows);
+    rotatedRecords = 0;
+    rotatedBytes = 0;
+    Files.deleteIfExists(previousJournalPath);
+    BasicFileAttributes attributes = readSnapshotAttributes();
+    snapshotBytes = attributes.size();
+    if (pendingRecords == 0) {
+      writeJournalHeader();
+      journalBytes = 0;
+    }
+    return attributes;
+  }
+
+  /**
+   * Helper method to rotate the journal to a new segment, holding only the header with the
+   * hash of the snapshot. A previous segment left by a compaction that did not finish is
+   * merged into the journal first, so that no records are lost by the rotation.
+   *
+   * @throws IOException if there is an error writing the journal.
+   */
+  private void rotateJournal() throws IOException {
+    mergePreviousSegment();
+    if (Files.exists(journalPath)) {
+      SafeFiles.replace(journalPath, previousJournalPath);
+    }
+    try {
+      writeJournalHeader();
+    } catch (IOException e) {
+      if (Files.exists(previousJournalPath)) {
+        SafeFiles.replace(previousJournalPath, journalPath);
+      }
+      throw e;
+    }
+    rotatedRecords = pendingRecords;
+    rotatedBytes = journalBytes;
+    pendingRecords = 0;
+    journalBytes = 0;
+  }
+
+  /**
+   * Helper method to count the records of the previous segment as pending again, when a
+   * compaction fails before the snapshot is replaced. The previous segment is merged into
+   * the journal at the next compaction or load.
+   */
+  private void restorePendingRecords() {
+    pendingRecords += rotatedRecords;
+    journalBytes += rotatedBytes;
+    rotatedRecords = 0;
+    rotatedBytes = 0;
+  }
+
+  /**
+   * The method stops compacting the journal in the background, and waits until a running
+   * compaction has finished, so that the files of the journal are not changed after the
+   * method returns. Records can still be appended, and the journal compacted with
+   * {@link #compact()}.
+   */
+  public void close() {
+    synchronized (this) {
+      closed = true;
+    }
+    synchronized (compactionLock) {
+      logger.log(Level.FINE, "Closed the journal " + journalPath);
+    }
+  }
+
+  /**
+   * The method retrieves the number of records appended to the journal since it was last
+   * compacted, or since the running compaction started.
+   *
+   * @return the number of pending records.
+   */
+  public synchronized int getPendingRecords() {
+    return pendingRecords;
+  }
+
+  /**
+   * Helper method to read the attributes of the snapshot.
+   *
+   * @return the attributes of the snapshot.
+   * @throws IOException if there is an error reading the attributes.
+   */
+  private BasicFileAttributes readSnapshotAttributes() throws IOException {
+    try {
+      return Files.readAttributes(snapshotPath, BasicFileAttributes.class);
+    } catch (IOException e) {
+      String errorMessage = "Error reading the list of games from the file: " + e.getMessage();
+      logger.log(Level.SEVERE, errorMessage, e);
+      throw new IOException(errorMessage);
+    }
+  }
+
+  /**
+   * Helper method to read the snapshot in a single pass, building the summary index of the
+   * snapshot and computing its hash.
+   *
+   * @return the index of the snapshot.
+   * @throws IOException         if there is an error reading the snapshot.
+   * @throws JsonSyntaxException if the snapshot does not have the correct JSON syntax.
+   */
+  private GameIndex readSnapshot() throws IOException, JsonSyntaxException {
+    MessageDigest digest = FileFingerprint.createDigest();
+    List<GameIndex.Row> rows = new ArrayList<>();
+    try (InputStream inputStream = new DigestInputStream(Files.newInputStream(snapshotPath),
+        digest); BufferedReader reader = new BufferedReader(new InputStreamReader(
+        SaveCompression.decompress(inputStream), Charset.defaultCharset()))) {
+      FileGameHandler.readRecords(reader, pathOfFile, jsonObject ->
+          rows.add(new GameIndex.Row(new StoredGame(jsonObject), rows.size(), -1, 0)));
+      inputStream.transferTo(OutputStream.nullOutputStream());
+    } catch (IOException e) {
+      String errorMessage = "Error reading the list of games from the file: " + e.getMessage();
+      logger.log(Level.SEVERE, errorMessage, e);
+      throw new IOException(errorMessage);
+    }
+    return new GameIndex(FileFingerprint.toHexString(digest.digest()), rows);
+  }
+
+  /**
+   * Helper method to read the record of a game from the snapshot. The snapshot is opened
+   * while holding the lock of the journal, so that the snapshot cannot be replaced before it
+   * is opened, but the record is read without holding the lock.
+   *
+   * @param key the key of the game.
+   * @return the record of the game.
+   * @throws JsonParseException if the record cannot be read from the snapshot.
+   */
+  private JsonObject readSnapshotRecord(String key) throws JsonParseException {
+    GameIndex.Row row;
+    FileChannel channel;
+    synchronized (this) {
+      row = snapshotRows.get(key);
+      if (row == null) {
+        throw new JsonParseException("The game " + key + " is not stored in " + pathOfFile);
+      }
+      try {
+        if (row.getOffset() < 0) {
+          try (SnapshotCursor cursor = new SnapshotCursor()) {
+            return cursor.read(row);
+          }
+        }
+        channel = FileChannel.open(snapshotPath, StandardOpenOption.READ);
+      } catch (IOException e) {
+        throw new JsonIOException("Error reading the game " + key + " from the file: "
+            + e.getMessage(), e);
+      }
+    }
+    try (channel) {
+      return readRecordAt(channel, row);
+    } catch (IOException e) {
+      throw new JsonIOException("Error reading the game " + key + " from the file: "
+          + e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Helper method to read a record from the block of the snapshot where it starts. The
+   * compression of the snapshot is detected from its first bytes.
+   *
+   * @param channel the channel of the snapshot.
+   * @param row     the row of the index of the record.
+   * @return the record.
+   * @throws IOException        if there is an error reading the snapshot.
+   * @throws JsonParseException if the snapshot has no valid record at the position.
+   */
+  private JsonObject readRecordAt(FileChannel channel, GameIndex.Row row)
+      throws IOException, JsonParseException {
+    ByteBuffer header = ByteBuffer.allocate(2);
+    channel.read(header, 0);
+    SaveCompression snapshotCompression = SaveCompression.detect(
+        header.position() > 0 ? header.get(0) & 0xff : -1,
+        header.position() > 1 ? header.get(1) & 0xff : -1);
+    channel.position(row.getOffset());
+    InputStream in = snapshotCompression.decompressBlock(Channels.newInputStream(channel));
+    try (BufferedReader reader = new BufferedReader(new InputStreamReader(in,
+        Charset.defaultCharset()))) {
+      in.skipNBytes(row.getSkip());
+      int character;
+      do {
+        reader.mark(1);
+        character = reader.read();
+      } while (character == ',' || Character.isWhitespace(character));
+      reader.reset();
+      JsonReader jsonReader = new JsonReader(reader);
+      jsonReader.setLenient(true);
+      return JsonParser.parseReader(jsonReader).getAsJsonObject();
+    } catch (IllegalStateException e) {
+      throw new JsonParseException("The record " + row.getRecord() + " is not a game.", e);
+    }
+  }
+
+  /**
+   * Helper method to replay the segments of the journal that belong to the snapshot. A
+   * previous segment is left only by a compaction that did not finish, and is replayed before
+   * the journal and merged into it. A journal that does not belong to the snapshot is
+   * replaced with an empty journal, and a journal with an incomplete record is rewritten
+   * without it, so that the records appended later are not lost behind it.
+   *
+   * @throws IOException if there is an error reading or writing the journal.
+   */
+  private void replayJournal() throws IOException {
+    pendingRecords = 0;
+    rotatedRecords = 0;
+    rotatedBytes = 0;
+    Segment previousSegment = readSegment(previousJournalPath);
+    Segment segment = readSegment(journalPath);
+    if (previousSegment != null) {
+      replaySegment(previousSegment);
+    }
+    if (segment != null) {
+      replaySegment(segment);
+    }
+
+    if (previousSegment != null) {
+      if (segment != null) {
+        previousSegment.lines.addAll(segment.lines.subList(1, segment.lines.size()));
+      }
+      writeSegment(previousSegment.lines);
+      Files.deleteIfExists(previousJournalPath);
+    } else {
+      Files.deleteIfExists(previousJournalPath);
+      if (segment == null) {
+        writeJournalHeader();
+      } else if (!segment.complete) {
+        writeSegment(segment.lines);
+      }
+    }
+    journalBytes = Files.size(journalPath);
+  }
+
+  /**
+   * Helper method to merge the previous segment of the journal into the journal, if it
+   * belongs to the snapshot, and delete it. The records of the journal follow the records
+   * of the previous segment.
+   *
+   * @throws IOException if there is an error reading or writing the journal.
+   */
+  private void mergePreviousSegment() throws IOException {
+    Segment previousSegment = readSegment(previousJournalPath);
+    if (previousSegment == null) {
+      Files.deleteIfExists(previousJournalPath);
+      return;
+    }
+    Segment segment = readSegment(journalPath);
+    if (segment != null) {
+      previousSegment.lines.addAll(segment.lines.subList(1, segment.lines.size()));
+    }
+    writeSegment(previousSegment.lines);
+    Files.deleteIfExists(previousJournalPath);
+  }
+
+  /**
+   * Helper method to read a segment of the journal, up to the first incomplete record.
+   *
+   * @param path the path of the segment.
+   * @return the segment, or null if the segment is missing or does not belong to the
+   *         snapshot.
+   * @throws IOException if there is an error reading the segment.
+   */
+  private Segment readSegment(Path path) throws IOException {
+    Segment segment = new Segment();
+    try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (line.isBlank()) {
+          continue;
+        }
+        try {
+          segment.lines.add(JsonParser.parseString(line).getAsJsonObject());
+        } catch (JsonParseException | IllegalStateException e) {
+          logger.log(Level.WARNING, "Ignoring the incomplete journal record: " + line, e);
+          segment.complete = false;
+          break;
+        }
+      }
+    } catch (NoSuchFileException e) {
+      return null;
+    }
+    if (!belongsToSnapshot(segment)) {
+      logger.log(Level.INFO, "Discarding the journal " + path
+          + ", since it does not belong to the snapshot.");
+      return null;
+    }
+    return segment;
+  }
+
+  /**
+   * Helper method to check if a segment of the journal belongs to the snapshot, either by its
+   * header or by the mark of the compaction that wrote the snapshot.
+   *
+   * @param segment the segment.
+   * @return true if the segment belongs to the snapshot, false otherwise.
+   */
+  private boolean belongsToSnapshot(Segment segment) {
+    for (int i = 0; i < segment.lines.size(); i++) {
+      String hash = readHash(segment.lines.get(i), i == 0 ? SNAPSHOT_KEY : COMPACTED_KEY);
+      if (hash != null && hash.equals(snapshotHash)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Helper method to replay the records of a segment of the journal. The segment is cut at
+   * the first record that is not a valid journal record.
+   *
+   * @param segment the segment.
+   */
+  private void replaySegment(Segment segment) {
+    for (int i = 1; i < segment.lines.size(); i++) {
+      JsonObject journalRecord = segment.lines.get(i);
+      if (journalRecord.has(COMPACTED_KEY)) {
+        continue;
+      }
+      try {
+        replayRecord(journalRecord);
+        pendingRecords++;
+      } catch (JsonParseException | IllegalStateException | UnsupportedOperationException e) {
+        logger.log(Level.WARNING, "Ignoring the incomplete journal record: " + journalRecord,
+            e);
+        segment.lines.subList(i, segment.lines.size()).clear();
+        segment.complete = false;
+        return;
+      }
+    }
+  }
+
+  /**
+   * Helper method to apply a single journal record to the records of the games.
+   *
+   * @param journalRecord the journal record.
+   * @throws JsonParseException if the record is not a valid journal record.
+   */
+  private void replayRecord(JsonObject journalRecord) throws JsonParseException {
+    String operation = journalRecord.get(OPERATION_KEY).getAsString();
+    if (SAVE_OPERATION.equals(operation)) {
+      StoredGame storedGame = new StoredGame(journalRecord.getAsJsonObject(GAME_KEY));
+      if (storedGame.getGameId() == null) {
+        throw new JsonParseException("The saved game has no game ID.");
+      }
+      records.put(storedGame.getGameId(), storedGame);
+    } else if (DELETE_OPERATION.equals(operation)) {
+      records.remove(journalRecord.get(GAME_ID_KEY).getAsString());
+    } else {
+      throw new JsonParseException("Unknown journal operation: " + operation);
+    }
+  }
+
+  /**
+   * Helper method to read a hash of a snapshot from a line of the journal.
+   *
+   * @param line the line of the journal.
+   * @param key  the key of the hash.
+   * @return the hash of the snapshot, or null if the line has no hash with the key.
+   */
+  private static String readHash(JsonObject line, String key) {
+    JsonElement hash = line.get(key);
+    return hash != null && hash.isJsonPrimitive() ? hash.getAsString() : null;
+  }
+
+  /**
+   * Helper method to replace the journal with an empty journal, holding only the header with
+   * the hash of the snapshot.
+   *
+   * @throws IOException if there is an error writing the journal.
+   */
+  private void writeJournalHeader() throws IOException {
+    JsonObject header = new JsonObject();
+    header.addProperty(SNAPSHOT_KEY, snapshotHash);
+    writeSegment(List.of(header));
+  }
+
+  /**
+   * Helper method to replace the journal with the given lines.
+   *
+   * @param lines the lines of the journal, starting with the header.
+   * @throws IOException if there is an error writing the journal.
+   */
+  private void writeSegment(List<JsonObject> lines) throws IOException {
+    try {
+      SafeFiles.writeAtomically(journalPath, out -> {
+        for (JsonObject line : lines) {
+          out.write(toLine(line));
+        }
+      });
+    } catch (IOException e) {
+      String errorMessage = "Error writing the journal: " + e.getMessage();
+      logger.log(Level.SEVERE, errorMessage, e);
+      throw new IOException(errorMessage);
+    }
+  }
+
+  /**
+   * Helper method to append a record to the journal, and schedule a compaction if the journal
+   * has grown to {@value #COMPACTION_RATIO} of the size of the snapshot, and at least
+   * {@value #MIN_COMPACTION_BYTES} bytes. The record is forced to the disk before the method
+   * returns.
+   *
+   * @param journalRecord the record to append.
+   * @throws IllegalStateException if the games have not been loaded.
+   * @throws IOException           if there is an error writing to the journal.
+   */
+  private void append(JsonObject journalRecord) throws IllegalStateException, IOException {
+    if (snapshotHash == null) {
+      throw new IllegalStateException("The games must be loaded before writing to the journal.");
+    }
+    byte[] line = toLine(journalRecord);
+    try {
+      SafeFiles.append(journalPath, line);
+    } catch (IOException e) {
+      String errorMessage = "Error writing to the journal: " + e.getMessage();
+      logger.log(Level.SEVERE, errorMessage, e);
+      throw new IOException(errorMessage);
+    }
+
+    pendingRecords++;
+    journalBytes += line.length;
+    if (journalBytes >= Math.max(MIN_COMPACTION_BYTES, (long) (snapshotBytes * COMPACTION_RATIO))
+        && !compactionScheduled && !closed) {
+      compactionScheduled = true;
+      compactor.execute(this::compactInBackground);
+    }
+  }
+
+  /**
+   * Helper method to convert a record to a single line of the journal.
+   *
+   * @param record the record.
+   * @return the line, encoded in UTF-8.
+   */
+  private byte[] toLine(JsonObject record) {
+    return (recordGson.toJson(record) + System.lineSeparator()).getBytes(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Helper method to compact the journal on the background thread.
+   */
+  private void compactInBackground() {
+    synchronized (this) {
+      compactionScheduled = false;
+      if (closed) {
+        return;
+      }
+    }
+    try {
+      compact();
+    } catch (IOException e) {
+      logger.log(Level.WARNING, "Failed to compact the journal " + journalPath, e);
+    }
+  }
+
+  /**
+   * The Segment class holds the lines of a segment of the journal that has been read, starting
+   * with the header.
+   */
+  private static final class Segment {
+    private final List<JsonObject> lines = new ArrayList<>();
+    private boolean complete = true;
+  }
+
+  /**
+   * The CountingOutputStream class counts the bytes written through it. Flushing the stream
+   * does not flush the stream it writes to, so that the bytes buffered before it can be
+   * counted without ending a block of the compressed snapshot.
+   */
+  private static final class CountingOutputStream extends FilterOutputStream {
+    private long count;
+
+    /**
+     * Constructs a CountingOutputStream object.
+     *
+     * @param out the stream to write to.
+     */
+    CountingOutputStream(OutputStream out) {
+      super(out);
+    }
+
+    /**
+     * The method retrieves the number of bytes written.
+     *
+     * @return the number of bytes.
+     */
+    long getCount() {
+      return count;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      out.write(b);
+      count++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      out.write(b, off, len);
+      count += len;
+    }
+
+    @Override
+    public void flush() {
+      // The bytes are counted when they are written, so there is nothing to flush.
+    }
+  }
+
+  /**
+   * The SnapshotCursor class reads records from the snapshot in increasing order, skipping
+   * the records in between without parsing them. The snapshot is opened when the first record
+   * is read.
+   */
+  private final class SnapshotCursor implements Closeable {
+    private JsonReader reader;
+    private int position;
+
+    /**
+     * The method reads the record of the given row of the index.
+     *
+     * @param row the row of the record.
+     * @return the record.
+     * @throws IOException        if there is an error reading the snapshot.
+     * @throws JsonParseException if the snapshot has no valid record at the position.
+     */
+    JsonObject read(GameIndex.Row row) throws IOException, JsonParseException {
+      if (row == null || row.getRecord() < position) {
+        throw new JsonParseException("The record " + (row == null ? null : row.getRecord())
+            + " cannot be read from " + pathOfFile);
+      }
+      int ordinal = row.getRecord();
+      if (reader == null) {
+        reader = new JsonReader(new BufferedReader(new InputStreamReader(
+            SaveCompression.decompress(Files.newInputStream(snapshotPath)),
+            Charset.defaultCharset())));
+        reader.setLenient(true);
+        reader.beginArray();
+      }
+      while (position < ordinal) {
+        reader.skipValue();
+        position++;
+      }
+      position++;
+      try {
+        return JsonParser.parseReader(reader).getAsJsonObject();
+      } catch (IllegalStateException e) {
+        throw new JsonParseException("The record " + ordinal + " is not a game.", e);
+      }
+    }
+
+    /**
+     * The method closes the snapshot.
+     *
+     * @throws IOException if there is an error closing the snapshot.
+     */
+    @Override
+    public void close() throws IOException {
+      if (reader != null) {
+        reader.close();
+      }
+    }
+  }
+}
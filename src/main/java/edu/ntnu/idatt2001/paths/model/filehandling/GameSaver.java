@@ -0,0 +1,268 @@
+package edu.ntnu.idatt2001.paths.model.filehandling;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The GameSaver class writes saves and deletes to a game journal on a dedicated thread, so
+ * that the caller does not wait for the disk. The saves and deletes are written in the order
+ * they are requested. A save of a game that is still waiting to be written is replaced by a
+ * newer save of the same game, so rapid saves of a game are written once.
+ *
+ * <p>A save or delete can be given a condition, which is checked when it is about to be
+ * written, and the save or delete is skipped if the condition no longer holds. This lets the
+ * caller request the writing after the change has been applied elsewhere, without holding a
+ * lock, as a save or delete that has been overtaken by a newer change is not written over
+ * the record of that change.
+ *
+ * <p>Every save and delete returns a future that completes when the journal record has been
+ * forced to the disk, or completes exceptionally if it could not be written.
+ *
+ * @author Ramtin Samavat
+ * @author Tobias Oftedal
+ * @version 1.0
+ * @since May 24, 2023.
+ */
+public class GameSaver implements AutoCloseable {
+
+  private static final Logger logger = Logger.getLogger(GameSaver.class.getName());
+
+  private final GameJournal journal;
+  private final Executor executor;
+  private final Map<String, PendingSave> pendingSaves;
+  private boolean closed;
+
+  /**
+   * Constructor for the GameSaver class. The saves are written on a new daemon thread.
+   *
+   * @param journal the journal to write to.
+   * @throws NullPointerException if the journal is null.
+   */
+  public GameSaver(GameJournal journal) throws NullPointerException {
+    this(journal, Executors.newSingleThreadExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "game-saver");
+      thread.setDaemon(true);
+      return thread;
+    }));
+  }
+
+  /**
+   * Constructor for the GameSaver class, writing the saves with the given executor. The
+   * executor must run the tasks one at a time, in the order they are submitted.
+   *
+   * @param journal  the journal to write to.
+   * @param executor the executor writing the saves.
+   * @throws NullPointerException if the journal or executor is null.
+   */
+  GameSaver(GameJournal journal, Executor executor) throws NullPointerException {
+    if (journal == null) {
+      throw new NullPointerException("Journal cannot be null.");
+    }
+    if (executor == null) {
+      throw new NullPointerException("Executor cannot be null.");
+    }
+    this.journal = journal;
+    this.executor = executor;
+    this.pendingSaves = new HashMap<>();
+  }
+
+  /**
+   * The method saves the given stored game on the saver thread. If a save of the same game is
+   * waiting to be written, it is replaced by this save, and the same future is returned.
+   *
+   * @param storedGame the stored game to save.
+   * @return a future that completes when the game has been written.
+   * @throws NullPointerException  if the stored game is null.
+   * @throws IllegalStateException if the saver has been closed.
+   */
+  public CompletableFuture<Void> save(StoredGame storedGame)
+      throws NullPointerException, IllegalStateException {
+    return save(storedGame, () -> true);
+  }
+
+  /**
+   * The method saves the given stored game on the saver thread, if the condition still holds
+   * when the save is about to be written. If a save of the same game is waiting to be
+   * written, it is replaced by this save and the same future is returned, unless the waiting
+   * save still holds its condition and this save does not.
+   *
+   * @param storedGame the stored game to save.
+   * @param current    the condition of the save, as whether the stored game is still the
+   *                   latest save of the game.
+   * @return a future that completes when the game has been written or skipped.
+   * @throws NullPointerException  if the stored game or condition is null.
+   * @throws IllegalStateException if the saver has been closed.
+   */
+  public synchronized CompletableFuture<Void> save(StoredGame storedGame,
+                                                   BooleanSupplier current)
+      throws NullPointerException, IllegalStateException {
+    if (storedGame == null) {
+      throw new NullPointerException("Stored game cannot be null.");
+    }
+    if (current == null) {
+      throw new NullPointerException("Condition cannot be null.");
+    }
+    validateOpen();
+    PendingSave pendingSave = pendingSaves.get(storedGame.getGameId());
+    if (pendingSave != null) {
+      if (!pendingSave.current.getAsBoolean() || current.getAsBoolean()) {
+        pendingSave.storedGame = storedGame;
+        pendingSave.current = current;
+      }
+      return pendingSave.future;
+    }
+    PendingSave newSave = new PendingSave(storedGame, current);
+    pendingSaves.put(storedGame.getGameId(), newSave);
+    executor.execute(() -> write(newSave));
+    return newSave.future;
+  }
+
+  /**
+   * The method deletes the game with the given game ID on the saver thread, after the saves
+   * requested before it.
+   *
+   * @param gameId the ID of the game to delete.
+   * @return a future that completes when the deletion has been written.
+   * @throws NullPointerException  if the gameId is null.
+   * @throws IllegalStateException if the saver has been closed.
+   */
+  public CompletableFuture<Void> delete(String gameId)
+      throws NullPointerException, IllegalStateException {
+    return delete(gameId, () -> true);
+  }
+
+  /**
+   * The method deletes the game with the given game ID on the saver thread, after the saves
+   * requested before it, if the condition still holds when the deletion is about to be
+   * written.
+   *
+   * @param gameId  the ID of the game to delete.
+   * @param current the condition of the deletion, as whether the game is still deleted.
+   * @return a future that completes when the deletion has been written or skipped.
+   * @throws NullPointerException  if the gameId or condition is null.
+   * @throws IllegalStateException if the saver has been closed.
+   */
+  public synchronized CompletableFuture<Void> delete(String gameId, BooleanSupplier current)
+      throws NullPointerException, IllegalStateException {
+    if (gameId == null) {
+      throw new NullPointerException("Game ID cannot be null.");
+    }
+    if (current == null) {
+      throw new NullPointerException("Condition cannot be null.");
+    }
+    validateOpen();
+    pendingSaves.remove(gameId);
+    CompletableFuture<Void> future = new CompletableFuture<>();
+    executor.execute(() -> {
+      try {
+        if (current.getAsBoolean()) {
+          journal.appendDelete(gameId);
+        }
+        future.complete(null);
+      } catch (IOException | RuntimeException e) {
+        logger.log(Level.SEVERE, "Failed to delete the game " + gameId, e);
+        future.completeExceptionally(e);
+      }
+    });
+    return future;
+  }
+
+  /**
+   * The method retrieves a future that completes when every save and delete requested before
+   * it has been written.
+   *
+   * @return the future.
+   * @throws IllegalStateException if the saver has been closed.
+   */
+  public synchronized CompletableFuture<Void> flush() throws IllegalStateException {
+    validateOpen();
+    return CompletableFuture.runAsync(() -> {
+    }, executor);
+  }
+
+  /**
+   * The method waits until every requested save and delete has been written, and stops the
+   * saver thread. Closing a closed saver has no effect.
+   */
+  @Override
+  public void close() {
+    CompletableFuture<Void> flushed;
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      flushed = flush();
+      closed = true;
+    }
+    flushed.join();
+    if (executor instanceof ExecutorService executorService) {
+      executorService.shutdown();
+    }
+  }
+
+  /**
+   * Helper method to write a pending save, with the latest stored game requested for it,
+   * unless its condition no longer holds.
+   *
+   * @param pendingSave the pending save.
+   */
+  private void write(PendingSave pendingSave) {
+    StoredGame storedGame;
+    BooleanSupplier current;
+    synchronized (this) {
+      pendingSaves.remove(pendingSave.storedGame.getGameId(), pendingSave);
+      storedGame = pendingSave.storedGame;
+      current = pendingSave.current;
+    }
+    try {
+      if (current.getAsBoolean()) {
+        journal.appendStoredGame(storedGame);
+      }
+      pendingSave.future.complete(null);
+    } catch (IOException | RuntimeException e) {
+      logger.log(Level.SEVERE, "Failed to save the game " + storedGame.getGameId(), e);
+      pendingSave.future.completeExceptionally(e);
+    }
+  }
+
+  /**
+   * Helper method to check that the saver has not been closed.
+   *
+   * @throws IllegalStateException if the saver has been closed.
+   */
+  private void validateOpen() throws IllegalStateException {
+    if (closed) {
+      throw new IllegalStateException("The game saver has been closed.");
+    }
+  }
+
+  /**
+   * The PendingSave class holds a save that is waiting to be written, its condition, and the
+   * future of the save.
+   */
+  private static final class PendingSave {
+    private final CompletableFuture<Void> future;
+    private StoredGame storedGame;
+    private BooleanSupplier current;
+
+    /**
+     * Constructs a PendingSave object.
+     *
+     * @param storedGame the stored game to save.
+     * @param current    the condition of the save.
+     */
+    PendingSave(StoredGame storedGame, BooleanSupplier current) {
+      this.future = new CompletableFuture<>();
+      this.storedGame = storedGame;
+      this.current = current;
+    }
+  }
+}
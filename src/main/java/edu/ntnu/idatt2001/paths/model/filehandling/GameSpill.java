@@ -0,0 +1,148 @@
+package edu.ntnu.idatt2001.paths.model.filehandling;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * The GameSpill class stores the games that have been evicted from memory while they were
+ * being played, so that they can be created again as they were when they are requested. Each
+ * game is written to its own file, as a compact record compressed with gzip, in a directory
+ * next to the file of games.
+ *
+ * <p>The spilled games hold the state of games that have not been saved, like the games kept
+ * in memory, so the directory is emptied when the spill is created and when it is closed.
+ *
+ * @author Ramtin Samavat
+ * @author Tobias Oftedal
+ * @version 1.0
+ * @since May 26, 2023.
+ */
+public final class GameSpill implements AutoCloseable {
+
+  private static final Logger logger = Logger.getLogger(GameSpill.class.getName());
+  private static final String SPILL_EXTENSION = ".spill";
+  private static final String RECORD_EXTENSION = ".json.gz";
+
+  private final Path directory;
+  private final AtomicLong nextRecord;
+
+  /**
+   * Constructor for the GameSpill class. Records left in the directory by an earlier spill of
+   * the file of games are deleted.
+   *
+   * @param pathOfFile the path to the file of games.
+   * @throws NullPointerException if the pathOfFile is null.
+   * @throws IOException          if the records left in the directory cannot be deleted.
+   */
+  public GameSpill(String pathOfFile) throws NullPointerException, IOException {
+    this.directory = Paths.get(getSpillPath(pathOfFile));
+    this.nextRecord = new AtomicLong();
+    clear();
+  }
+
+  /**
+   * The method retrieves the path of the spill directory belonging to the given file of
+   * games.
+   *
+   * @param pathOfFile the path to the file of games.
+   * @return the path to the spill directory.
+   * @throws NullPointerException if the pathOfFile is null.
+   */
+  public static String getSpillPath(String pathOfFile) throws NullPointerException {
+    if (pathOfFile == null) {
+      throw new NullPointerException("The path of the file cannot be null.");
+    }
+    return pathOfFile.toLowerCase().trim() + SPILL_EXTENSION;
+  }
+
+  /**
+   * The method writes a record to a new file of the spill.
+   *
+   * @param record the record of the game.
+   * @return the path to the file of the record.
+   * @throws IOException if the record cannot be written.
+   */
+  Path write(JsonObject record) throws IOException {
+    Files.createDirectories(directory);
+    Path path = directory.resolve(nextRecord.incrementAndGet() + RECORD_EXTENSION);
+    try (OutputStream out = SaveCompression.GZIP.compress(Files.newOutputStream(path));
+         Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8)) {
+      writer.write(record.toString());
+    }
+    return path;
+  }
+
+  /**
+   * The method reads a record from a file of the spill.
+   *
+   * @param path the path to the file of the record.
+   * @return the record of the game.
+   * @throws IOException        if the record cannot be read.
+   * @throws JsonParseException if the file does not hold a record.
+   */
+  JsonObject read(Path path) throws IOException, JsonParseException {
+    try (InputStream in = SaveCompression.decompress(Files.newInputStream(path));
+         Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+      return JsonParser.parseReader(reader).getAsJsonObject();
+    } catch (IllegalStateException e) {
+      throw new JsonParseException("The spilled record " + path + " is not a game.", e);
+    }
+  }
+
+  /**
+   * The method deletes a file of the spill. A file that cannot be deleted is left until the
+   * spill is closed.
+   *
+   * @param path the path to the file of the record.
+   */
+  void delete(Path path) {
+    try {
+      Files.deleteIfExists(path);
+    } catch (IOException e) {
+      logger.log(Level.WARNING, "Failed to delete the spilled record " + path, e);
+    }
+  }
+
+  /**
+   * The method deletes the directory of the spill, with the records in it.
+   *
+   * @throws IOException if the directory cannot be deleted.
+   */
+  @Override
+  public void close() throws IOException {
+    clear();
+  }
+
+  /**
+   * Helper method to delete the directory of the spill, with the records in it.
+   *
+   * @throws IOException if the directory cannot be deleted.
+   */
+  private void clear() throws IOException {
+    if (Files.notExists(directory)) {
+      return;
+    }
+    try (Stream<Path> files = Files.list(directory)) {
+      for (Path file : files.toList()) {
+        Files.delete(file);
+      }
+    }
+    Files.deleteIfExists(directory);
+  }
+}
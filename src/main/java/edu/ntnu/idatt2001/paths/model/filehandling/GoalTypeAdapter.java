@@ -0,0 +1,164 @@
+package edu.ntnu.idatt2001.paths.model.filehandling;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import edu.ntnu.idatt2001.paths.model.goals.Goal;
+import edu.ntnu.idatt2001.paths.model.goals.GoalType;
+import edu.ntnu.idatt2001.paths.model.goals.GoldGoal;
+import edu.ntnu.idatt2001.paths.model.goals.HealthGoal;
+import edu.ntnu.idatt2001.paths.model.goals.InventoryGoal;
+import edu.ntnu.idatt2001.paths.model.goals.ScoreGoal;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The GoalTypeAdapter class converts Goal objects to and from JSON without reflection.
+ * A goal is written with its type under the type key, followed by its value under the
+ * value description of the GoalType, e.g. {"type": "GOLD", "minimumGold": 100}. Goals
+ * written without a type are recognized by the key of their value.
+ *
+ * @author Ramtin Samavat
+ * @author Tobias Oftedal
+ * @version 1.0
+ * @since May 24, 2023.
+ */
+public class GoalTypeAdapter extends TypeAdapter<Goal> {
+
+  private static final Map<String, GoalType> goalTypesByValueKey = new HashMap<>();
+
+  static {
+    for (GoalType goalType : GoalType.values()) {
+      goalTypesByValueKey.put(goalType.getGoalValueDescription(), goalType);
+    }
+  }
+
+  /**
+   * The method writes a Goal object as a JSON object.
+   *
+   * @param out  the writer to write to.
+   * @param goal the goal to write.
+   * @throws IOException              if there is an error writing the goal.
+   * @throws IllegalArgumentException if the goal is not of a type in the GoalType enum.
+   */
+  @Override
+  public void write(JsonWriter out, Goal goal) throws IOException, IllegalArgumentException {
+    if (goal == null) {
+      out.nullValue();
+      return;
+    }
+    out.beginObject();
+    if (goal instanceof GoldGoal goldGoal) {
+      writeType(out, GoalType.GOLD).value(goldGoal.getMinimumGold());
+    } else if (goal instanceof HealthGoal healthGoal) {
+      writeType(out, GoalType.HEALTH).value(healthGoal.getMinimumHealth());
+    } else if (goal instanceof InventoryGoal inventoryGoal) {
+      writeType(out, GoalType.INVENTORY).beginArray();
+      for (String item : inventoryGoal.getMandatoryItems()) {
+        out.value(item);
+      }
+      out.endArray();
+    } else if (goal instanceof ScoreGoal scoreGoal) {
+      writeType(out, GoalType.SCORE).value(scoreGoal.getMinimumPoints());
+    } else {
+      throw new IllegalArgumentException("Unknown goal type: " + goal.getClass() + ".");
+    }
+    out.endObject();
+  }
+
+  /**
+   * Helper method to write the type of a goal, and the key of its value.
+   *
+   * @param out      the writer to write to.
+   * @param goalType the type of the goal.
+   * @return the writer, ready for the value of the goal.
+   * @throws IOException if there is an error writing the type.
+   */
+  private static JsonWriter writeType(JsonWriter out, GoalType goalType) throws IOException {
+    return out.name(GameGson.TYPE_KEY).value(goalType.name())
+        .name(goalType.getGoalValueDescription());
+  }
+
+  /**
+   * The method reads a Goal object from a JSON object.
+   *
+   * @param in the reader to read from.
+   * @return the goal, or null if the JSON value is null.
+   * @throws IOException              if there is an error reading the goal.
+   * @throws JsonParseException       if the type of the goal is unknown or the value is
+   *                                  missing.
+   * @throws IllegalArgumentException if the value of the goal is invalid.
+   */
+  @Override
+  public Goal read(JsonReader in) throws IOException, JsonParseException,
+      IllegalArgumentException {
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+    GoalType type = null;
+    GoalType valueType = null;
+    Map<GoalType, Integer> minimumValues = new EnumMap<>(GoalType.class);
+    List<String> mandatoryItems = null;
+
+    in.beginObject();
+    while (in.hasNext()) {
+      String key = in.nextName();
+      GoalType keyType = goalTypesByValueKey.get(key);
+      if (key.equals(GameGson.TYPE_KEY)) {
+        type = GoalType.getGoalType(in.nextString());
+      } else if (keyType == GoalType.INVENTORY && in.peek() == JsonToken.BEGIN_ARRAY) {
+        valueType = keyType;
+        mandatoryItems = readItems(in);
+      } else if (keyType != null && keyType != GoalType.INVENTORY
+          && in.peek() != JsonToken.NULL) {
+        valueType = keyType;
+        minimumValues.put(keyType, GameGson.readInt(in));
+      } else {
+        in.skipValue();
+      }
+    }
+    in.endObject();
+
+    if (type == null) {
+      type = valueType;
+    }
+    if (type == null) {
+      throw new JsonParseException("Unknown goal type at " + in.getPath() + ".");
+    }
+    Integer minimumValue = minimumValues.get(type);
+    if (type == GoalType.INVENTORY ? mandatoryItems == null : minimumValue == null) {
+      throw new JsonParseException("Missing value of the " + type + " goal at "
+          + in.getPath() + ".");
+    }
+    return switch (type) {
+      case GOLD -> new GoldGoal(minimumValue);
+      case HEALTH -> new HealthGoal(minimumValue);
+      case INVENTORY -> new InventoryGoal(mandatoryItems);
+      case SCORE -> new ScoreGoal(minimumValue);
+    };
+  }
+
+  /**
+   * Helper method to read the mandatory items of an inventory goal.
+   *
+   * @param in the reader positioned at the array of items.
+   * @return the list of items.
+   * @throws IOException if there is an error reading the items.
+   */
+  private static List<String> readItems(JsonReader in) throws IOException {
+    List<String> items = new ArrayList<>();
+    in.beginArray();
+    while (in.hasNext()) {
+      items.add(in.nextString());
+    }
+    in.endArray();
+    return items;
+  }
+}
@@ -0,0 +1,350 @@
+package edu.ntnu.idatt2001.paths.model.filehandling;
+
+import edu.ntnu.idatt2001.paths.model.CompiledStory;
+import edu.ntnu.idatt2001.paths.model.Link;
+import edu.ntnu.idatt2001.paths.model.Passage;
+import edu.ntnu.idatt2001.paths.model.PassageKey;
+import edu.ntnu.idatt2001.paths.model.Story;
+import java.io.IOException;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The LazyStory class is a story whose passages are read from its file when they are first
+ * needed, instead of parsing the whole file. The passages are found with the
+ * {@link StoryIndex} of the file, and only a limited number of the passages that have been
+ * read are kept in memory. The least recently used passage is dropped when the limit is
+ * reached, and is read again if it is needed later.
+ *
+ * <p>The story cannot be modified. Retrieving all passages or the broken links reads the
+ * whole file, so it should be avoided for large stories. The story can be used by several
+ * threads at once.
+ *
+ * @author Ramtin Samavat
+ * @author Tobias Oftedal
+ * @version 1.0
+ * @since May 26, 2023.
+ */
+public final class LazyStory extends Story {
+
+  private static final Logger logger = Logger.getLogger(LazyStory.class.getName());
+
+  private final StoryIndex index;
+  private final Path path;
+  private final long lastModified;
+  private final long size;
+  private final Map<Integer, Passage> residentPassages;
+  private final Map<Link, Integer> linkIndexes;
+  private final Set<PassageReference> passageReferences;
+  private final ReferenceQueue<Passage> collectedPassages;
+
+  /**
+   * Constructs a LazyStory object.
+   *
+   * @param index               the index of the story file.
+   * @param path                the path of the story file.
+   * @param attributes          the attributes of the story file when it was indexed.
+   * @param openingPassage      the opening passage of the story.
+   * @param maxResidentPassages the maximum number of passages kept in memory.
+   */
+  private LazyStory(StoryIndex index, Path path, BasicFileAttributes attributes,
+                    Passage openingPassage, int maxResidentPassages) {
+    super(index.getTitle(), openingPassage);
+    this.index = index;
+    this.path = path;
+    this.lastModified = attributes.lastModifiedTime().toMillis();
+    this.size = attributes.size();
+    this.residentPassages = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Integer, Passage> eldest) {
+        return size() > maxResidentPassages;
+      }
+    };
+    this.linkIndexes = new IdentityHashMap<>();
+    this.passageReferences = new HashSet<>();
+    this.collectedPassages = new ReferenceQueue<>();
+    registerLinks(0, openingPassage);
+  }
+
+  /**
+   * The method opens a story file for lazy reading. The index of the file is built if it
+   * does not exist or is out of date, and the opening passage is read.
+   *
+   * @param pathOfFile          the path of the story file.
+   * @param maxResidentPassages the maximum number of passages kept in memory, not counting the
+   *                            opening passage.
+   * @return the story.
+   * @throws NullPointerException     if the pathOfFile is null.
+   * @throws IllegalArgumentException if pathOfFile is blank or does not end with .paths, if
+   *                                  maxResidentPassages is not positive, or if the story has
+   *                                  passages with the same title.
+   * @throws IOException              if the story file cannot be read or indexed.
+   */
+  public static LazyStory open(String pathOfFile, int maxResidentPassages)
+      throws NullPointerException, IllegalArgumentException, IOException {
+    if (maxResidentPassages <= 0) {
+      throw new IllegalArgumentException("The maximum number of passages must be positive.");
+    }
+    StoryIndex index = StoryIndex.open(pathOfFile);
+    Path path = Paths.get(pathOfFile.toLowerCase().trim()).toRealPath();
+    BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+    Passage openingPassage;
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      openingPassage = index.readPassage(channel, 0, new ArrayList<>());
+    }
+    LazyStory story = new LazyStory(index, path, attributes, openingPassage,
+        maxResidentPassages);
+    story.setSource(path.toString(), index.getFingerprint());
+    return story;
+  }
+
+  /**
+   * The method retrieves the number of passages kept in memory, not counting the opening
+   * passage.
+   *
+   * @return the number of resident passages.
+   */
+  public synchronized int getResidentPassageCount() {
+    return residentPassages.size();
+  }
+
+  /**
+   * The method checks if the story contains a passage with the given title, without reading
+   * the passage.
+   *
+   * @param title the title of the passage.
+   * @return true if a passage with the title exists, false otherwise.
+   * @throws NullPointerException if the title is null.
+   */
+  @Override
+  public boolean hasPassage(String title) throws NullPointerException {
+    if (title == null) {
+      throw new NullPointerException("Title cannot be null.");
+    }
+    return index.find(PassageKey.of(title)) >= 0;
+  }
+
+  /**
+   * The method retrieves a passage with the specified key, reading it from the file if it is
+   * not kept in memory.
+   *
+   * @param key The key of the passage.
+   * @return The passage corresponding to the key.
+   * @throws NullPointerException   If the key is null.
+   * @throws NoSuchElementException If the passage is not found.
+   * @throws IllegalStateException  If the passage cannot be read from the file.
+   */
+  @Override
+  public synchronized Passage getPassageByKey(PassageKey key)
+      throws NullPointerException, NoSuchElementException, IllegalStateException {
+    if (key == null) {
+      throw new NullPointerException("Key cannot be null.");
+    }
+    int position = index.find(key);
+    if (position < 0) {
+      throw new NoSuchElementException("Passage not found: " + key.getTitle());
+    }
+    if (position == 0) {
+      return getOpeningPassage();
+    }
+    Passage passage = residentPassages.get(position);
+    if (passage == null) {
+      try (FileChannel channel = openChannel()) {
+        passage = index.readPassage(channel, position, new ArrayList<>());
+      } catch (IOException e) {
+        String errorMessage = "Error reading passage " + key.getTitle() + ": " + e.getMessage();
+        logger.log(Level.SEVERE, errorMessage, e);
+        throw new IllegalStateException(errorMessage, e);
+      }
+      residentPassages.put(position, passage);
+      registerLinks(position, passage);
+    }
+    return passage;
+  }
+
+  /**
+   * The method reads every passage except the opening passage from the file. The passages are
+   * not kept in memory, so the method should be avoided for large stories.
+   *
+   * @return A collection of all passages.
+   * @throws IllegalStateException If the passages cannot be read from the file.
+   */
+  @Override
+  public Collection<Passage> getPassages() throws IllegalStateException {
+    List<Passage> passages = readAllPassages();
+    return Collections.unmodifiableList(passages.subList(1, passages.size()));
+  }
+
+  /**
+   * The method finds the broken links by reading every passage from the file, so it should
+   * be avoided for large stories.
+   *
+   * @return a list of broken links.
+   * @throws IllegalStateException If the passages cannot be read from the file.
+   */
+  @Override
+  public List<Link> getBrokenLinks() throws IllegalStateException {
+    List<Link> brokenLinks = new ArrayList<>();
+    for (Passage passage : readAllPassages()) {
+      for (Link link : passage.getLinks()) {
+        if (index.find(PassageKey.of(link.getReference())) < 0) {
+          brokenLinks.add(link);
+        }
+      }
+    }
+    return brokenLinks;
+  }
+
+  /**
+   * The method cannot be used, since the story cannot be modified.
+   *
+   * @param passage The passage that will be added to the story.
+   * @throws UnsupportedOperationException always.
+   */
+  @Override
+  public void addPassage(Passage passage) throws UnsupportedOperationException {
+    throw new UnsupportedOperationException("A lazily read story cannot be modified.");
+  }
+
+  /**
+   * The method cannot be used, since the story cannot be modified.
+   *
+   * @param link the link representing the passage to be removed.
+   * @throws UnsupportedOperationException always.
+   */
+  @Override
+  public void removePassage(Link link) throws UnsupportedOperationException {
+    throw new UnsupportedOperationException("A lazily read story cannot be modified.");
+  }
+
+  /**
+   * The method finds the index of a link from the index of the first link of its passage,
+   * so that the story is never compiled. Links of passages that are no longer used are
+   * forgotten.
+   *
+   * @param link the link to find the index of.
+   * @return the index of the link, or {@link CompiledStory#UNKNOWN_LINK} if the link is not
+   *         in the story.
+   */
+  @Override
+  protected synchronized OptionalInt findLinkIndex(Link link) {
+    forgetCollectedPassages();
+    return OptionalInt.of(linkIndexes.getOrDefault(link, CompiledStory.UNKNOWN_LINK));
+  }
+
+  /**
+   * Helper method to remember the indexes of the links of a passage that has been read. The
+   * indexes are kept for as long as the passage is used, even after it has been dropped from
+   * the resident passages.
+   *
+   * @param position the position of the passage in the index.
+   * @param passage  the passage.
+   */
+  private void registerLinks(int position, Passage passage) {
+    forgetCollectedPassages();
+    List<Link> links = passage.getLinks();
+    int firstLinkIndex = index.getFirstLinkIndex(position);
+    for (int i = 0; i < links.size(); i++) {
+      linkIndexes.putIfAbsent(links.get(i), firstLinkIndex + i);
+    }
+    passageReferences.add(new PassageReference(passage, links, collectedPassages));
+  }
+
+  /**
+   * Helper method to forget the indexes of the links of passages that have been garbage
+   * collected.
+   */
+  private void forgetCollectedPassages() {
+    Reference<? extends Passage> reference;
+    while ((reference = collectedPassages.poll()) != null) {
+      PassageReference passageReference = (PassageReference) reference;
+      passageReferences.remove(passageReference);
+      for (Link link : passageReference.links) {
+        linkIndexes.remove(link);
+      }
+    }
+  }
+
+  /**
+   * Helper method to read every passage from the file, in the order of the file.
+   *
+   * @return the passages, starting with the opening passage.
+   * @throws IllegalStateException if the passages cannot be read from the file.
+   */
+  private List<Passage> readAllPassages() throws IllegalStateException {
+    List<Passage> passages = new ArrayList<>(index.getPassageCount());
+    passages.add(getOpeningPassage());
+    try (FileChannel channel = openChannel()) {
+      for (int position = 1; position < index.getPassageCount(); position++) {
+        Passage passage;
+        synchronized (this) {
+          passage = residentPassages.get(position);
+        }
+        passages.add(passage != null ? passage
+            : index.readPassage(channel, position, new ArrayList<>()));
+      }
+    } catch (IOException e) {
+      String errorMessage = "Error reading the passages of " + path + ": " + e.getMessage();
+      logger.log(Level.SEVERE, errorMessage, e);
+      throw new IllegalStateException(errorMessage, e);
+    }
+    return passages;
+  }
+
+  /**
+   * Helper method to open the story file, checking that it has not changed since it was
+   * indexed.
+   *
+   * @return the channel of the story file.
+   * @throws IOException if the file cannot be opened or has changed.
+   */
+  private FileChannel openChannel() throws IOException {
+    BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+    if (attributes.lastModifiedTime().toMillis() != lastModified || attributes.size() != size) {
+      throw new IOException("The story file " + path + " has changed since it was opened.");
+    }
+    return FileChannel.open(path, StandardOpenOption.READ);
+  }
+
+  /**
+   * The PassageReference class refers to a passage that has been read without keeping it in
+   * memory, and holds its links so that their indexes can be forgotten when the passage is
+   * garbage collected.
+   */
+  private static final class PassageReference extends WeakReference<Passage> {
+    private final List<Link> links;
+
+    /**
+     * Constructs a PassageReference object.
+     *
+     * @param passage the passage.
+     * @param links   the links of the passage.
+     * @param queue   the queue the reference is added to when the passage is collected.
+     */
+    private PassageReference(Passage passage, List<Link> links,
+                             ReferenceQueue<Passage> queue) {
+      super(passage, queue);
+      this.links = new ArrayList<>(links);
+    }
+  }
+}
@@ -0,0 +1,107 @@
+package edu.ntnu.idatt2001.paths.model.filehandling;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import edu.ntnu.idatt2001.paths.model.Link;
+import edu.ntnu.idatt2001.paths.model.actions.Action;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The LinkTypeAdapter class converts Link objects to and from JSON without reflection.
+ * The actions of the link are converted with the ActionTypeAdapter.
+ *
+ * @author Ramtin Samavat
+ * @author Tobias Oftedal
+ * @version 1.0
+ * @since May 24, 2023.
+ */
+public class LinkTypeAdapter extends TypeAdapter<Link> {
+
+  private static final String TEXT_KEY = "text";
+  private static final String REFERENCE_KEY = "reference";
+  private static final String ACTIONS_KEY = "actions";
+
+  private final ActionTypeAdapter actionTypeAdapter = new ActionTypeAdapter();
+
+  /**
+   * The method writes a Link object as a JSON object.
+   *
+   * @param out  the writer to write to.
+   * @param link the link to write.
+   * @throws IOException if there is an error writing the link.
+   */
+  @Override
+  public void write(JsonWriter out, Link link) throws IOException {
+    if (link == null) {
+      out.nullValue();
+      return;
+    }
+    out.beginObject();
+    out.name(TEXT_KEY).value(link.getText());
+    out.name(REFERENCE_KEY).value(link.getReference());
+    out.name(ACTIONS_KEY).beginArray();
+    for (Action action : link.getActions()) {
+      actionTypeAdapter.write(out, action);
+    }
+    out.endArray();
+    out.endObject();
+  }
+
+  /**
+   * The method reads a Link object from a JSON object.
+   *
+   * @param in the reader to read from.
+   * @return the link, or null if the JSON value is null.
+   * @throws IOException              if there is an error reading the link.
+   * @throws JsonParseException       if an action of the link cannot be read.
+   * @throws NullPointerException     if the text, reference or an action is missing.
+   * @throws IllegalArgumentException if the text or reference is blank.
+   */
+  @Override
+  public Link read(JsonReader in) throws IOException, JsonParseException, NullPointerException,
+      IllegalArgumentException {
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+    String text = null;
+    String reference = null;
+    List<Action> actions = new ArrayList<>();
+
+    in.beginObject();
+    while (in.hasNext()) {
+      switch (in.nextName()) {
+        case TEXT_KEY -> text = GameGson.readString(in);
+        case REFERENCE_KEY -> reference = GameGson.readString(in);
+        case ACTIONS_KEY -> {
+          if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+          } else {
+            in.beginArray();
+            while (in.hasNext()) {
+              actions.add(actionTypeAdapter.read(in));
+            }
+            in.endArray();
+          }
+        }
+        default -> in.skipValue();
+      }
+    }
+    in.endObject();
+
+    if (text == null || reference == null) {
+      throw new NullPointerException("The link at " + in.getPath()
+          + " must have a text and a reference.");
+    }
+    Link link = new Link(text, reference);
+    for (Action action : actions) {
+      link.addAction(action);
+    }
+    return link;
+  }
+}
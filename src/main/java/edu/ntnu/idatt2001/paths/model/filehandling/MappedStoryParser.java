@@ -0,0 +1,535 @@
+package edu.ntnu.idatt2001.paths.model.filehandling;
+
+import edu.ntnu.idatt2001.paths.model.Link;
+import edu.ntnu.idatt2001.paths.model.Passage;
+import edu.ntnu.idatt2001.paths.model.Story;
+import edu.ntnu.idatt2001.paths.model.actions.Action;
+import edu.ntnu.idatt2001.paths.model.actions.ActionFactory;
+import edu.ntnu.idatt2001.paths.model.actions.GoldAction;
+import edu.ntnu.idatt2001.paths.model.actions.HealthAction;
+import edu.ntnu.idatt2001.paths.model.actions.InventoryAction;
+import edu.ntnu.idatt2001.paths.model.actions.ScoreAction;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The MappedStoryParser class parses a story from the bytes of a .paths file, such as a
+ * memory-mapped file. The bytes are scanned once, without splitting lines or links into
+ * intermediate strings, and only the strings of the titles, contents, links and actions are
+ * created. The parser gives the same story and diagnostics as the line-based parser of
+ * {@link FileStoryHandler}. Links and actions the parser cannot handle on its own, such as
+ * malformed links or values that are not plain integers, are handed to the line-based parser,
+ * so that they fail in the same way.
+ *
+ * <p>The bytes are scanned for ASCII delimiters, so the parser only supports character sets
+ * in which ASCII characters are single bytes that never occur inside other characters.
+ *
+ * @author Ramtin Samavat
+ * @author Tobias Oftedal
+ * @version 1.0
+ * @since May 25, 2023.
+ */
+final class MappedStoryParser {
+
+  private static final Logger logger = Logger.getLogger(MappedStoryParser.class.getName());
+  private static final List<Charset> SUPPORTED_CHARSETS = List.of(StandardCharsets.UTF_8,
+      StandardCharsets.ISO_8859_1, StandardCharsets.US_ASCII);
+  private static final byte[] GOLD = "GOLD".getBytes(StandardCharsets.US_ASCII);
+  private static final byte[] HEALTH = "HEALTH".getBytes(StandardCharsets.US_ASCII);
+  private static final byte[] INVENTORY = "INVENTORY".getBytes(StandardCharsets.US_ASCII);
+  private static final byte[] SCORE = "SCORE".getBytes(StandardCharsets.US_ASCII);
+
+  private final ByteBuffer content;
+  private final Charset charset;
+  private final List<ParseDiagnostic> diagnostics;
+  private final int limit;
+  private int position;
+  private int lineNumber;
+  private int lineStart;
+  private int lineEnd;
+  private int[] delimiters;
+  private byte[] scratch;
+
+  /**
+   * Constructs a MappedStoryParser object.
+   *
+   * @param content     the bytes of the file, from the position to the limit of the buffer.
+   * @param charset     the character set of the file.
+   * @param diagnostics the list to add the diagnostics of invalid actions to.
+   */
+  private MappedStoryParser(ByteBuffer content, Charset charset,
+                            List<ParseDiagnostic> diagnostics) {
+    this.content = content;
+    this.charset = charset;
+    this.diagnostics = diagnostics;
+    this.limit = content.limit();
+    this.position = content.position();
+    this.delimiters = new int[8];
+    this.scratch = new byte[256];
+  }
+
+  /**
+   * The method checks if the parser supports files in the given character set.
+   *
+   * @param charset the character set of the file.
+   * @return true if the parser supports the character set, false otherwise.
+   */
+  static boolean supports(Charset charset) {
+    return SUPPORTED_CHARSETS.contains(charset);
+  }
+
+  /**
+   * The PassageVisitor interface is notified of every passage read by the parser, together
+   * with the position of the passage in the file.
+   */
+  @FunctionalInterface
+  interface PassageVisitor {
+
+    /**
+     * The method is called for every passage, in the order of the file.
+     *
+     * @param passage    the passage.
+     * @param offset     the index of the first byte of the title line of the passage.
+     * @param lineNumber the number of the title line of the passage.
+     */
+    void visit(Passage passage, int offset, int lineNumber);
+  }
+
+  /**
+   * The method parses a story from the bytes of a .paths file. The position of the buffer is
+   * not changed.
+   *
+   * @param content     the bytes of the file, from the position to the limit of the buffer.
+   * @param charset     the character set of the file.
+   * @param diagnostics the list to add the diagnostics of invalid actions to.
+   * @return the story parsed from the bytes.
+   * @throws IllegalArgumentException if the character set is not supported, or the story is
+   *                                  invalid.
+   */
+  static Story parse(ByteBuffer content, Charset charset, List<ParseDiagnostic> diagnostics)
+      throws IllegalArgumentException {
+    List<Passage> passages = new ArrayList<>();
+    String storyTitle = parsePassages(content, charset, diagnostics,
+        (passage, offset, lineNumber) -> passages.add(passage));
+    return FileStoryHandler.createStory(storyTitle, passages);
+  }
+
+  /**
+   * The method parses the passages of a .paths file one by one, and passes each passage to
+   * the visitor instead of building the story. The position of the buffer is not changed.
+   *
+   * @param content     the bytes of the file, from the position to the limit of the buffer.
+   * @param charset     the character set of the file.
+   * @param diagnostics the list to add the diagnostics of invalid actions to.
+   * @param visitor     the visitor of the passages.
+   * @return the title of the story, or null if the file is empty.
+   * @throws IllegalArgumentException if the character set is not supported, or a passage is
+   *                                  invalid.
+   */
+  static String parsePassages(ByteBuffer content, Charset charset,
+                              List<ParseDiagnostic> diagnostics, PassageVisitor visitor)
+      throws IllegalArgumentException {
+    MappedStoryParser parser = createParser(content, charset, diagnostics);
+    String storyTitle = parser.nextLine() ? parser.decode(parser.lineStart, parser.lineEnd)
+        : null;
+    while (parser.nextLine()) {
+      if (parser.isPassageTitle()) {
+        int offset = parser.lineStart - content.position();
+        int lineNumber = parser.lineNumber;
+        visitor.visit(parser.readPassage(), offset, lineNumber);
+      }
+    }
+    return storyTitle;
+  }
+
+  /**
+   * The method parses a single passage, whose title line starts at the position of the
+   * buffer. The position of the buffer is not changed.
+   *
+   * @param content     the bytes of the passage, from the position to the limit of the buffer.
+   * @param charset     the character set of the file.
+   * @param lineNumber  the number of the title line of the passage in the file.
+   * @param diagnostics the list to add the diagnostics of invalid actions to.
+   * @return the passage parsed from the bytes.
+   * @throws IllegalArgumentException if the character set is not supported, the bytes do not
+   *                                  start with a passage, or the passage is invalid.
+   */
+  static Passage parsePassage(ByteBuffer content, Charset charset, int lineNumber,
+                              List<ParseDiagnostic> diagnostics) throws IllegalArgumentException {
+    MappedStoryParser parser = createParser(content, charset, diagnostics);
+    parser.lineNumber = lineNumber - 1;
+    if (!parser.nextLine() || !parser.isPassageTitle()) {
+      throw new IllegalArgumentException("There is no passage at line " + lineNumber + ".");
+    }
+    return parser.readPassage();
+  }
+
+  /**
+   * Helper method to create a parser for a supported character set.
+   *
+   * @param content     the bytes to parse.
+   * @param charset     the character set of the bytes.
+   * @param diagnostics the list to add the diagnostics of invalid actions to.
+   * @return the parser.
+   * @throws IllegalArgumentException if the character set is not supported.
+   */
+  private static MappedStoryParser createParser(ByteBuffer content, Charset charset,
+                                                List<ParseDiagnostic> diagnostics)
+      throws IllegalArgumentException {
+    if (!supports(charset)) {
+      throw new IllegalArgumentException("The character set " + charset + " is not supported.");
+    }
+    return new MappedStoryParser(content, charset, diagnostics);
+  }
+
+  /**
+   * Helper method to check if the current line is the title line of a passage.
+   *
+   * @return true if the line starts with "::", false otherwise.
+   */
+  private boolean isPassageTitle() {
+    return lineEnd - lineStart >= 2 && content.get(lineStart) == ':'
+        && content.get(lineStart + 1) == ':';
+  }
+
+  /**
+   * Helper method to read the passage of the current title line. The lines are handled as by
+   * the line-based parser: the line after the title is the content, and the following lines
+   * with a "[" are the links. The line ending the links is skipped.
+   *
+   * @return the passage.
+   */
+  private Passage readPassage() {
+    String title = decodeTrimmed(lineStart + 2, lineEnd);
+    if (!nextLine()) {
+      throw new NullPointerException("The passage " + title + " has no content.");
+    }
+    Passage passage = new Passage(title, decodeTrimmed(lineStart, lineEnd));
+    while (nextLine() && indexOf((byte) '[', lineStart, lineEnd) >= 0) {
+      passage.addLink(parseLink());
+    }
+    return passage;
+  }
+
+  /**
+   * Helper method to move to the next line. Lines end with a line feed, a carriage return or
+   * both, as for {@link java.io.BufferedReader#readLine()}.
+   *
+   * @return true if there was another line, false at the end of the file.
+   */
+  private boolean nextLine() {
+    if (position >= limit) {
+      return false;
+    }
+    int index = position;
+    while (index < limit) {
+      byte b = content.get(index);
+      if (b == '\n' || b == '\r') {
+        break;
+      }
+      index++;
+    }
+    lineStart = position;
+    lineEnd = index;
+    if (index < limit) {
+      boolean crlf = content.get(index) == '\r' && index + 1 < limit
+          && content.get(index + 1) == '\n';
+      index += crlf ? 2 : 1;
+    }
+    position = index;
+    lineNumber++;
+    return true;
+  }
+
+  /**
+   * Helper method to parse the link of the current line. The line is divided at every "]",
+   * ")" and "}", as the line-based parser does, where the first part is the text, the second
+   * part is the reference, and the parts starting with "{" are actions.
+   *
+   * @return the parsed link.
+   */
+  private Link parseLink() {
+    int delimiterCount = 0;
+    for (int index = lineStart; index < lineEnd; index++) {
+      byte b = content.get(index);
+      if (b == ']' || b == ')' || b == '}') {
+        if (delimiterCount == delimiters.length) {
+          delimiters = Arrays.copyOf(delimiters, delimiterCount * 2);
+        }
+        delimiters[delimiterCount++] = index;
+      }
+    }
+    int partCount = delimiterCount + 1;
+    while (partCount > 1 && partStart(partCount - 1) == partEnd(partCount - 1, delimiterCount)) {
+      partCount--;
+    }
+    if (partCount < 2 || !startsWithAsciiCharacter(partStart(0), partEnd(0, delimiterCount))
+        || !startsWithAsciiCharacter(partStart(1), partEnd(1, delimiterCount))) {
+      return FileStoryHandler.parseLink(decode(lineStart, lineEnd), lineNumber, diagnostics);
+    }
+
+    Link link = new Link(decodeTrimmed(partStart(0) + 1, partEnd(0, delimiterCount)),
+        decodeTrimmed(partStart(1) + 1, partEnd(1, delimiterCount)));
+    for (int part = 0; part < partCount; part++) {
+      int start = partStart(part);
+      int end = partEnd(part, delimiterCount);
+      if (start < end && content.get(start) == '{') {
+        try {
+          link.addAction(parseAction(start, end));
+        } catch (IllegalArgumentException | NullPointerException e) {
+          logger.log(Level.WARNING, e.getMessage(), e);
+          diagnostics.add(new ParseDiagnostic(lineNumber, columnOf(start), e.getMessage()));
+        }
+      }
+    }
+    return link;
+  }
+
+  /**
+   * Helper method to parse an action from a part of a link starting with "{". Actions with
+   * a known type and a plain value are created directly, and other actions are created by the
+   * {@link ActionFactory} from their strings, so that they fail in the same way as in the
+   * line-based parser.
+   *
+   * @param start the index of the "{" of the action.
+   * @param end   the end of the part of the action.
+   * @return the parsed action.
+   * @throws IllegalArgumentException if the action is invalid.
+   * @throws NullPointerException     if a part of the action is missing.
+   */
+  private Action parseAction(int start, int end)
+      throws IllegalArgumentException, NullPointerException {
+    int colon = indexOf((byte) ':', start, end);
+    int valueEnd = colon < 0 ? end : indexOf((byte) ':', colon + 1, end);
+    valueEnd = valueEnd < 0 ? end : valueEnd;
+    if (colon < 0 || !containsOtherThan((byte) ':', colon + 1, end)) {
+      throw new IllegalArgumentException(
+          "Invalid action format: " + decode(start, end).replace("{", "") + ". Action "
+              + "description and action value must be separated by a colon.");
+    }
+
+    int descriptionStart = skipWhitespace(start + 1, colon);
+    int descriptionEnd = trimWhitespace(descriptionStart, colon);
+    int valueStart = skipWhitespace(colon + 1, valueEnd);
+    valueEnd = trimWhitespace(valueStart, valueEnd);
+    try {
+      if (equalsIgnoreAsciiCase(descriptionStart, descriptionEnd, INVENTORY)) {
+        return new InventoryAction(decode(valueStart, valueEnd));
+      }
+      long value = parseInt(valueStart, valueEnd);
+      if (value != Long.MIN_VALUE) {
+        if (equalsIgnoreAsciiCase(descriptionStart, descriptionEnd, GOLD)) {
+          return new GoldAction((int) value);
+        } else if (equalsIgnoreAsciiCase(descriptionStart, descriptionEnd, HEALTH)) {
+          return new HealthAction((int) value);
+        } else if (equalsIgnoreAsciiCase(descriptionStart, descriptionEnd, SCORE)) {
+          return new ScoreAction((int) value);
+        }
+      }
+    } catch (IllegalArgumentException e) {
+      // The factory creates the same exception as the line-based parser.
+    }
+    return ActionFactory.createAction(decode(descriptionStart, descriptionEnd),
+        decode(valueStart, valueEnd));
+  }
+
+  /**
+   * Helper method to find the start of a part of the current line.
+   *
+   * @param part the index of the part.
+   * @return the index of the first byte of the part.
+   */
+  private int partStart(int part) {
+    return part == 0 ? lineStart : delimiters[part - 1] + 1;
+  }
+
+  /**
+   * Helper method to find the end of a part of the current line.
+   *
+   * @param part           the index of the part.
+   * @param delimiterCount the number of delimiters of the line.
+   * @return the index after the last byte of the part.
+   */
+  private int partEnd(int part, int delimiterCount) {
+    return part < delimiterCount ? delimiters[part] : lineEnd;
+  }
+
+  /**
+   * Helper method to check that a part is not empty and starts with an ASCII character, so
+   * that skipping its first character is the same as skipping its first byte.
+   *
+   * @param start the start of the part.
+   * @param end   the end of the part.
+   * @return true if the part starts with an ASCII character, false otherwise.
+   */
+  private boolean startsWithAsciiCharacter(int start, int end) {
+    return start < end && content.get(start) >= 0;
+  }
+
+  /**
+   * Helper method to find the column of a byte of the current line, counted in characters
+   * as in the line-based parser.
+   *
+   * @param index the index of the byte.
+   * @return the column of the byte, counted from 1.
+   */
+  private int columnOf(int index) {
+    for (int i = lineStart; i < index; i++) {
+      if (content.get(i) < 0) {
+        return decode(lineStart, index).length() + 1;
+      }
+    }
+    return index - lineStart + 1;
+  }
+
+  /**
+   * Helper method to parse a plain decimal integer, as {@link Integer#parseInt(String)} does
+   * for ASCII digits.
+   *
+   * @param start the start of the integer.
+   * @param end   the end of the integer.
+   * @return the integer, or Long.MIN_VALUE if it is not a plain integer in the range of int.
+   */
+  private long parseInt(int start, int end) {
+    int index = start;
+    boolean negative = false;
+    if (index < end && (content.get(index) == '-' || content.get(index) == '+')) {
+      negative = content.get(index) == '-';
+      index++;
+    }
+    if (index == end || end - index > 10) {
+      return Long.MIN_VALUE;
+    }
+    long value = 0;
+    for (; index < end; index++) {
+      byte b = content.get(index);
+      if (b < '0' || b > '9') {
+        return Long.MIN_VALUE;
+      }
+      value = value * 10 + (b - '0');
+    }
+    value = negative ? -value : value;
+    return value < Integer.MIN_VALUE || value > Integer.MAX_VALUE ? Long.MIN_VALUE : value;
+  }
+
+  /**
+   * Helper method to compare bytes with an upper case ASCII word, ignoring the case of the
+   * bytes.
+   *
+   * @param start the start of the bytes.
+   * @param end   the end of the bytes.
+   * @param word  the upper case word.
+   * @return true if the bytes are the word, false otherwise.
+   */
+  private boolean equalsIgnoreAsciiCase(int start, int end, byte[] word) {
+    if (end - start != word.length) {
+      return false;
+    }
+    for (int i = 0; i < word.length; i++) {
+      byte b = content.get(start + i);
+      if (b != word[i] && b - ('a' - 'A') != word[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Helper method to find a byte.
+   *
+   * @param b     the byte to find.
+   * @param start the index to search from.
+   * @param end   the index to search to.
+   * @return the index of the byte, or -1 if it was not found.
+   */
+  private int indexOf(byte b, int start, int end) {
+    for (int index = start; index < end; index++) {
+      if (content.get(index) == b) {
+        return index;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Helper method to check if the bytes contain a byte other than the given byte.
+   *
+   * @param b     the byte.
+   * @param start the index to search from.
+   * @param end   the index to search to.
+   * @return true if another byte was found, false otherwise.
+   */
+  private boolean containsOtherThan(byte b, int start, int end) {
+    for (int index = start; index < end; index++) {
+      if (content.get(index) != b) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Helper method to skip the leading whitespace removed by {@link String#trim()}.
+   *
+   * @param start the start of the bytes.
+   * @param end   the end of the bytes.
+   * @return the index of the first byte that is not whitespace, or the end.
+   */
+  private int skipWhitespace(int start, int end) {
+    while (start < end && (content.get(start) & 0xFF) <= ' ') {
+      start++;
+    }
+    return start;
+  }
+
+  /**
+   * Helper method to skip the trailing whitespace removed by {@link String#trim()}.
+   *
+   * @param start the start of the bytes.
+   * @param end   the end of the bytes.
+   * @return the index after the last byte that is not whitespace, or the start.
+   */
+  private int trimWhitespace(int start, int end) {
+    while (end > start && (content.get(end - 1) & 0xFF) <= ' ') {
+      end--;
+    }
+    return end;
+  }
+
+  /**
+   * Helper method to decode bytes to a string, without leading and trailing whitespace.
+   *
+   * @param start the start of the bytes.
+   * @param end   the end of the bytes.
+   * @return the trimmed string.
+   */
+  private String decodeTrimmed(int start, int end) {
+    start = skipWhitespace(start, end);
+    return decode(start, trimWhitespace(start, end));
+  }
+
+  /**
+   * Helper method to decode bytes to a string.
+   *
+   * @param start the start of the bytes.
+   * @param end   the end of the bytes.
+   * @return the string.
+   */
+  private String decode(int start, int end) {
+    int length = end - start;
+    if (content.hasArray()) {
+      return new String(content.array(), content.arrayOffset() + start, length, charset);
+    }
+    if (scratch.length < length) {
+      scratch = new byte[Math.max(length, scratch.length * 2)];
+    }
+    content.get(start, scratch, 0, length);
+    return new String(scratch, 0, length, charset);
+  }
+}
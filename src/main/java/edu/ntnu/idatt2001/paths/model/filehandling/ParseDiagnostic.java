@@ -0,0 +1,121 @@
+package edu.ntnu.idatt2001.paths.model.filehandling;
+
+import java.util.Objects;
+
+/**
+ * The ParseDiagnostic class describes a problem found when parsing a file, such as an action
+ * or a game that could not be parsed and was skipped. The diagnostic holds the line and column
+ * in the file where the problem was found, if the location is known. Lines and columns are
+ * counted from 1, and a line of 0 means that the location is unknown.
+ *
+ * @author Ramtin Samavat
+ * @author Tobias Oftedal
+ * @version 1.0
+ * @since May 25, 2023.
+ */
+public final class ParseDiagnostic {
+
+  private final int line;
+  private final int column;
+  private final String message;
+
+  /**
+   * Constructor for the ParseDiagnostic class.
+   *
+   * @param line    the line of the problem, or 0 if the location is unknown.
+   * @param column  the column of the problem, or 0 if the column is unknown.
+   * @param message the description of the problem.
+   * @throws NullPointerException     if the message is null.
+   * @throws IllegalArgumentException if the line or column is negative.
+   */
+  public ParseDiagnostic(int line, int column, String message)
+      throws NullPointerException, IllegalArgumentException {
+    if (message == null) {
+      throw new NullPointerException("The message cannot be null.");
+    }
+    if (line < 0 || column < 0) {
+      throw new IllegalArgumentException("The line and column cannot be negative.");
+    }
+    this.line = line;
+    this.column = column;
+    this.message = message;
+  }
+
+  /**
+   * The method retrieves the line of the problem.
+   *
+   * @return the line, or 0 if the location is unknown.
+   */
+  public int getLine() {
+    return line;
+  }
+
+  /**
+   * The method retrieves the column of the problem.
+   *
+   * @return the column, or 0 if the column is unknown.
+   */
+  public int getColumn() {
+    return column;
+  }
+
+  /**
+   * The method retrieves the description of the problem.
+   *
+   * @return the message.
+   */
+  public String getMessage() {
+    return message;
+  }
+
+  /**
+   * The method checks if the location of the problem is known.
+   *
+   * @return true if the line is known, false otherwise.
+   */
+  public boolean hasLocation() {
+    return line > 0;
+  }
+
+  /**
+   * The method returns the diagnostic as a string, with the location before the message if
+   * the location is known.
+   *
+   * @return the diagnostic as a string.
+   */
+  @Override
+  public String toString() {
+    if (!hasLocation()) {
+      return message;
+    }
+    return "Line " + line + (column > 0 ? ", column " + column : "") + ": " + message;
+  }
+
+  /**
+   * The method checks for equality between diagnostics.
+   *
+   * @param o the object to which it is being compared.
+   * @return a boolean value which indicate whether they are equal or not.
+   */
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    ParseDiagnostic that = (ParseDiagnostic) o;
+    return line == that.line && column == that.column && message.equals(that.message);
+  }
+
+  /**
+   * The method generates a hash value for the object.
+   *
+   * @return hash value for the object.
+   */
+  @Override
+  public int hashCode() {
+    return Objects.hash(line, column, message);
+  }
+}
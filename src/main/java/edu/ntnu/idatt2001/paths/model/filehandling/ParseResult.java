@@ -0,0 +1,62 @@
+package edu.ntnu.idatt2001.paths.model.filehandling;
+
+import java.util.List;
+
+/**
+ * The ParseResult class holds the result of parsing a file, together with the diagnostics of
+ * the parts of the file that could not be parsed and were skipped. Every parse creates its own
+ * result, and the result cannot be modified, so files can be parsed on many threads at once.
+ *
+ * @param <T> the type of the parsed value.
+ * @author Ramtin Samavat
+ * @author Tobias Oftedal
+ * @version 1.0
+ * @since May 25, 2023.
+ */
+public final class ParseResult<T> {
+
+  private final T value;
+  private final List<ParseDiagnostic> diagnostics;
+
+  /**
+   * Constructor for the ParseResult class.
+   *
+   * @param value       the parsed value.
+   * @param diagnostics the diagnostics found when parsing.
+   * @throws NullPointerException if the value or diagnostics is null.
+   */
+  ParseResult(T value, List<ParseDiagnostic> diagnostics) throws NullPointerException {
+    if (value == null) {
+      throw new NullPointerException("The parsed value cannot be null.");
+    }
+    this.value = value;
+    this.diagnostics = List.copyOf(diagnostics);
+  }
+
+  /**
+   * The method retrieves the parsed value.
+   *
+   * @return the parsed value.
+   */
+  public T getValue() {
+    return value;
+  }
+
+  /**
+   * The method retrieves the diagnostics found when parsing. The list cannot be modified.
+   *
+   * @return the diagnostics.
+   */
+  public List<ParseDiagnostic> getDiagnostics() {
+    return diagnostics;
+  }
+
+  /**
+   * The method checks if any diagnostics were found when parsing.
+   *
+   * @return true if there are diagnostics, false otherwise.
+   */
+  public boolean hasDiagnostics() {
+    return !diagnostics.isEmpty();
+  }
+}
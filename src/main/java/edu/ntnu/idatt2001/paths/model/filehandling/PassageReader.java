@@ -0,0 +1,135 @@
+package edu.ntnu.idatt2001.paths.model.filehandling;
+
+import edu.ntnu.idatt2001.paths.model.Passage;
+import java.io.IOException;
+import java.io.LineNumberReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The PassageReader class reads the passages of a story file one at a time, as they are
+ * requested. Only the passage being read is held in memory, so stories larger than the memory
+ * can be validated, converted or indexed. The passages are read in the same way as by
+ * {@link FileStoryHandler#readStoryFromFile(String)}, where the first passage is the opening
+ * passage, but they are not added to a story, so duplicate titles and broken links are not
+ * detected.
+ *
+ * <p>Readers are opened with {@link FileStoryHandler#openPassageReader(String)}.
+ *
+ * @author Ramtin Samavat
+ * @author Tobias Oftedal
+ * @version 1.0
+ * @since May 26, 2023.
+ */
+public final class PassageReader implements Iterator<Passage>, AutoCloseable {
+
+  private static final Logger logger = Logger.getLogger(PassageReader.class.getName());
+
+  private final LineNumberReader reader;
+  private final String storyTitle;
+  private final List<ParseDiagnostic> diagnostics;
+  private Passage nextPassage;
+  private boolean finished;
+
+  /**
+   * Constructs a PassageReader object, and reads the title of the story.
+   *
+   * @param reader the reader of the story file.
+   * @throws IOException if the title cannot be read.
+   */
+  PassageReader(Reader reader) throws IOException {
+    this.reader = new LineNumberReader(reader);
+    this.diagnostics = new ArrayList<>();
+    try {
+      this.storyTitle = this.reader.readLine();
+    } catch (IOException e) {
+      this.reader.close();
+      throw e;
+    }
+  }
+
+  /**
+   * The method retrieves the title of the story.
+   *
+   * @return the title of the story, or null if the file is empty.
+   */
+  public String getStoryTitle() {
+    return storyTitle;
+  }
+
+  /**
+   * The method retrieves the diagnostics of the invalid actions that have been skipped in
+   * the passages read so far.
+   *
+   * @return a copy of the diagnostics.
+   */
+  public List<ParseDiagnostic> getDiagnostics() {
+    return List.copyOf(diagnostics);
+  }
+
+  /**
+   * The method retrieves the number of the last line read.
+   *
+   * @return the line number.
+   */
+  public int getLineNumber() {
+    return reader.getLineNumber();
+  }
+
+  /**
+   * The method checks if the file has more passages, reading the next passage if it has not
+   * been read.
+   *
+   * @return true if there is another passage, false otherwise.
+   * @throws IllegalStateException if the file cannot be read.
+   */
+  @Override
+  public boolean hasNext() throws IllegalStateException {
+    if (nextPassage == null && !finished) {
+      try {
+        nextPassage = FileStoryHandler.readNextPassage(reader, diagnostics);
+      } catch (IOException e) {
+        String errorMessage = "Error reading passage at line " + reader.getLineNumber() + ": "
+            + e.getMessage();
+        logger.log(Level.SEVERE, errorMessage, e);
+        throw new IllegalStateException(errorMessage, e);
+      }
+      finished = nextPassage == null;
+    }
+    return nextPassage != null;
+  }
+
+  /**
+   * The method reads the next passage.
+   *
+   * @return the next passage.
+   * @throws NoSuchElementException if there are no more passages.
+   * @throws IllegalStateException  if the file cannot be read.
+   */
+  @Override
+  public Passage next() throws NoSuchElementException, IllegalStateException {
+    if (!hasNext()) {
+      throw new NoSuchElementException("There are no more passages.");
+    }
+    Passage passage = nextPassage;
+    nextPassage = null;
+    return passage;
+  }
+
+  /**
+   * The method closes the file.
+   *
+   * @throws IOException if the file cannot be closed.
+   */
+  @Override
+  public void close() throws IOException {
+    finished = true;
+    nextPassage = null;
+    reader.close();
+  }
+}
@@ -0,0 +1,107 @@
+package edu.ntnu.idatt2001.paths.model.filehandling;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import edu.ntnu.idatt2001.paths.model.Link;
+import edu.ntnu.idatt2001.paths.model.Passage;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The PassageTypeAdapter class converts Passage objects to and from JSON without reflection.
+ * The links of the passage are converted with the LinkTypeAdapter.
+ *
+ * @author Ramtin Samavat
+ * @author Tobias Oftedal
+ * @version 1.0
+ * @since May 24, 2023.
+ */
+public class PassageTypeAdapter extends TypeAdapter<Passage> {
+
+  private static final String TITLE_KEY = "title";
+  private static final String CONTENT_KEY = "content";
+  private static final String LINKS_KEY = "links";
+
+  private final LinkTypeAdapter linkTypeAdapter = new LinkTypeAdapter();
+
+  /**
+   * The method writes a Passage object as a JSON object.
+   *
+   * @param out     the writer to write to.
+   * @param passage the passage to write.
+   * @throws IOException if there is an error writing the passage.
+   */
+  @Override
+  public void write(JsonWriter out, Passage passage) throws IOException {
+    if (passage == null) {
+      out.nullValue();
+      return;
+    }
+    out.beginObject();
+    out.name(TITLE_KEY).value(passage.getTitle());
+    out.name(CONTENT_KEY).value(passage.getContent());
+    out.name(LINKS_KEY).beginArray();
+    for (Link link : passage.getLinks()) {
+      linkTypeAdapter.write(out, link);
+    }
+    out.endArray();
+    out.endObject();
+  }
+
+  /**
+   * The method reads a Passage object from a JSON object.
+   *
+   * @param in the reader to read from.
+   * @return the passage, or null if the JSON value is null.
+   * @throws IOException              if there is an error reading the passage.
+   * @throws JsonParseException       if a link of the passage cannot be read.
+   * @throws NullPointerException     if the title, content or a link is missing.
+   * @throws IllegalArgumentException if the title or content is blank.
+   */
+  @Override
+  public Passage read(JsonReader in) throws IOException, JsonParseException,
+      NullPointerException, IllegalArgumentException {
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+    String title = null;
+    String content = null;
+    List<Link> links = new ArrayList<>();
+
+    in.beginObject();
+    while (in.hasNext()) {
+      switch (in.nextName()) {
+        case TITLE_KEY -> title = GameGson.readString(in);
+        case CONTENT_KEY -> content = GameGson.readString(in);
+        case LINKS_KEY -> {
+          if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+          } else {
+            in.beginArray();
+            while (in.hasNext()) {
+              links.add(linkTypeAdapter.read(in));
+            }
+            in.endArray();
+          }
+        }
+        default -> in.skipValue();
+      }
+    }
+    in.endObject();
+
+    if (title == null || content == null) {
+      throw new NullPointerException("The passage at " + in.getPath()
+          + " must have a title and a content.");
+    }
+    Passage passage = new Passage(title, content);
+    for (Link link : links) {
+      passage.addLink(link);
+    }
+    return passage;
+  }
+}
@@ -0,0 +1,104 @@
+package edu.ntnu.idatt2001.paths.model.filehandling;
+
+import edu.ntnu.idatt2001.paths.model.Passage;
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * The PassageWriter class writes a story file one passage at a time, in the format read by
+ * {@link FileStoryHandler}. The title of the story is written when the writer is opened, and
+ * the first passage written is the opening passage. Only the passage being written is held in
+ * memory, so stories larger than the memory can be written.
+ *
+ * <p>Writers are opened with {@link FileStoryHandler#openPassageWriter(String, String)}.
+ *
+ * @author Ramtin Samavat
+ * @author Tobias Oftedal
+ * @version 1.0
+ * @since May 26, 2023.
+ */
+public final class PassageWriter implements AutoCloseable {
+
+  private final Path path;
+  private final BufferedWriter writer;
+  private int passageCount;
+  private boolean closed;
+
+  /**
+   * Constructs a PassageWriter object, and writes the title of the story.
+   *
+   * @param path       the path of the story file.
+   * @param storyTitle the title of the story.
+   * @throws NullPointerException     if the storyTitle is null.
+   * @throws IllegalArgumentException if the storyTitle is blank.
+   * @throws IOException              if the file cannot be opened.
+   */
+  PassageWriter(Path path, String storyTitle)
+      throws NullPointerException, IllegalArgumentException, IOException {
+    if (storyTitle == null) {
+      throw new NullPointerException("The story title cannot be null.");
+    }
+    if (storyTitle.isBlank()) {
+      throw new IllegalArgumentException("The story title cannot be blank.");
+    }
+    this.path = path;
+    this.writer = new BufferedWriter(new FileWriter(path.toFile()));
+    try {
+      writer.write(storyTitle + "\n\n");
+    } catch (IOException e) {
+      writer.close();
+      throw e;
+    }
+  }
+
+  /**
+   * The method writes a passage with its links. The first passage is the opening passage of
+   * the story.
+   *
+   * @param passage the passage to write.
+   * @throws NullPointerException  if the passage is null.
+   * @throws IllegalStateException if the writer has been closed.
+   * @throws IOException           if the passage cannot be written.
+   */
+  public void write(Passage passage)
+      throws NullPointerException, IllegalStateException, IOException {
+    if (passage == null) {
+      throw new NullPointerException("The passage cannot be null.");
+    }
+    if (closed) {
+      throw new IllegalStateException("The passage writer has been closed.");
+    }
+    if (passageCount > 0) {
+      writer.write("\n");
+    }
+    FileStoryHandler.writePassage(writer, passage);
+    passageCount++;
+  }
+
+  /**
+   * The method retrieves the number of passages written.
+   *
+   * @return the number of passages.
+   */
+  public int getPassageCount() {
+    return passageCount;
+  }
+
+  /**
+   * The method closes the file, and removes the story previously read from it from the
+   * {@link StoryCache}.
+   *
+   * @throws IOException if the file cannot be closed.
+   */
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    writer.close();
+    StoryCache.invalidate(path.toRealPath());
+  }
+}
@@ -0,0 +1,150 @@
+package edu.ntnu.idatt2001.paths.model.filehandling;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import edu.ntnu.idatt2001.paths.model.Player;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The PlayerTypeAdapter class converts Player objects to and from JSON without reflection.
+ * The player is created with the PlayerBuilder from the start values, and then brought to
+ * its stored health, score, gold and inventory, so that the player is validated as when it
+ * is created in the game.
+ *
+ * @author Ramtin Samavat
+ * @author Tobias Oftedal
+ * @version 1.0
+ * @since May 24, 2023.
+ */
+public class PlayerTypeAdapter extends TypeAdapter<Player> {
+
+  private static final String NAME_KEY = "name";
+  private static final String START_HEALTH_KEY = "startHealth";
+  private static final String START_SCORE_KEY = "startScore";
+  private static final String START_GOLD_KEY = "startGold";
+  private static final String HEALTH_KEY = "health";
+  private static final String SCORE_KEY = "score";
+  private static final String GOLD_KEY = "gold";
+  private static final String INVENTORY_KEY = "inventory";
+
+  /**
+   * The method writes a Player object as a JSON object.
+   *
+   * @param out    the writer to write to.
+   * @param player the player to write.
+   * @throws IOException if there is an error writing the player.
+   */
+  @Override
+  public void write(JsonWriter out, Player player) throws IOException {
+    if (player == null) {
+      out.nullValue();
+      return;
+    }
+    out.beginObject();
+    out.name(NAME_KEY).value(player.getName());
+    out.name(START_HEALTH_KEY).value(player.getStartHealth());
+    out.name(START_SCORE_KEY).value(player.getStartScore());
+    out.name(START_GOLD_KEY).value(player.getStartGold());
+    out.name(HEALTH_KEY).value(player.getHealth());
+    out.name(SCORE_KEY).value(player.getScore());
+    out.name(GOLD_KEY).value(player.getGold());
+    out.name(INVENTORY_KEY).beginArray();
+    for (String item : player.getInventory()) {
+      out.value(item);
+    }
+    out.endArray();
+    out.endObject();
+  }
+
+  /**
+   * The method reads a Player object from a JSON object. Missing start values are taken from
+   * the current values, and missing current values from the start values.
+   *
+   * @param in the reader to read from.
+   * @return the player, or null if the JSON value is null.
+   * @throws IOException              if there is an error reading the player.
+   * @throws JsonParseException       if a value of the player is not a number.
+   * @throws NullPointerException     if the name of the player or an item is missing.
+   * @throws IllegalArgumentException if a value of the player is invalid.
+   */
+  @Override
+  public Player read(JsonReader in) throws IOException, JsonParseException,
+      NullPointerException, IllegalArgumentException {
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+    String name = null;
+    Integer startHealth = null;
+    Integer startScore = null;
+    Integer startGold = null;
+    Integer health = null;
+    Integer score = null;
+    Integer gold = null;
+    List<String> inventory = new ArrayList<>();
+
+    in.beginObject();
+    while (in.hasNext()) {
+      String key = in.nextName();
+      if (in.peek() == JsonToken.NULL) {
+        in.skipValue();
+        continue;
+      }
+      switch (key) {
+        case NAME_KEY -> name = in.nextString();
+        case START_HEALTH_KEY -> startHealth = GameGson.readInt(in);
+        case START_SCORE_KEY -> startScore = GameGson.readInt(in);
+        case START_GOLD_KEY -> startGold = GameGson.readInt(in);
+        case HEALTH_KEY -> health = GameGson.readInt(in);
+        case SCORE_KEY -> score = GameGson.readInt(in);
+        case GOLD_KEY -> gold = GameGson.readInt(in);
+        case INVENTORY_KEY -> {
+          in.beginArray();
+          while (in.hasNext()) {
+            inventory.add(GameGson.readString(in));
+          }
+          in.endArray();
+        }
+        default -> in.skipValue();
+      }
+    }
+    in.endObject();
+
+    Player.PlayerBuilder builder = new Player.PlayerBuilder(name);
+    if (startHealth != null || health != null) {
+      builder.health(startHealth != null ? startHealth : health);
+    }
+    if (startScore != null || score != null) {
+      builder.score(startScore != null ? startScore : score);
+    }
+    if (startGold != null || gold != null) {
+      builder.gold(startGold != null ? startGold : gold);
+    }
+    Player player = builder.build();
+
+    if (health != null && health > player.getHealth()) {
+      player.increaseHealth(health - player.getHealth());
+    } else if (health != null) {
+      player.decreaseHealth(health - player.getHealth());
+    }
+    if (score != null && score > player.getScore()) {
+      player.increaseScore(score - player.getScore());
+    } else if (score != null) {
+      player.decreaseScore(score - player.getScore());
+    }
+    if (gold != null && gold > player.getGold()) {
+      player.increaseGold(gold - player.getGold());
+    } else if (gold != null) {
+      player.decreaseGold(gold - player.getGold());
+    }
+    for (String item : inventory) {
+      player.addToInventory(item);
+    }
+    return player;
+  }
+}
@@ -0,0 +1,133 @@
+package edu.ntnu.idatt2001.paths.model.filehandling;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * The RecordLocationReader class reads a JSON array of records, and keeps the line and column
+ * where the last record started. The characters between the records are handed out one at a
+ * time, and a record is never handed out together with the characters after it, so a parser
+ * reading ahead cannot read past the start of the next record before it has read the current
+ * one.
+ *
+ * @author Ramtin Samavat
+ * @author Tobias Oftedal
+ * @version 1.0
+ * @since May 26, 2023.
+ */
+final class RecordLocationReader extends Reader {
+
+  private static final int BUFFER_SIZE = 8192;
+
+  private final Reader in;
+  private final char[] buffer;
+  private int position;
+  private int limit;
+  private int depth;
+  private boolean inString;
+  private boolean escaped;
+  private int line;
+  private int column;
+  private int recordLine;
+  private int recordColumn;
+
+  /**
+   * Constructs a RecordLocationReader object.
+   *
+   * @param in the reader of the JSON array.
+   */
+  RecordLocationReader(Reader in) {
+    this.in = in;
+    this.buffer = new char[BUFFER_SIZE];
+    this.line = 1;
+  }
+
+  /**
+   * The method retrieves the line where the last record started.
+   *
+   * @return the line of the record, or 0 if no record has been read.
+   */
+  int getRecordLine() {
+    return recordLine;
+  }
+
+  /**
+   * The method retrieves the column where the last record started.
+   *
+   * @return the column of the record, or 0 if no record has been read.
+   */
+  int getRecordColumn() {
+    return recordColumn;
+  }
+
+  @Override
+  public int read(char[] chars, int offset, int length) throws IOException {
+    if (length == 0) {
+      return 0;
+    }
+    if (position == limit) {
+      limit = Math.max(in.read(buffer, 0, buffer.length), 0);
+      position = 0;
+      if (limit == 0) {
+        return -1;
+      }
+    }
+    int count = 0;
+    while (count < length && position < limit) {
+      char character = buffer[position++];
+      chars[offset + count++] = character;
+      if (track(character) || depth <= 1) {
+        break;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Helper method to follow the structure of the JSON array through a character.
+   *
+   * @param character the character.
+   * @return true if the character ends a record, false otherwise.
+   */
+  private boolean track(char character) {
+    if (character == '\n') {
+      line++;
+      column = 0;
+    } else {
+      column++;
+    }
+    if (inString) {
+      if (escaped) {
+        escaped = false;
+      } else if (character == '\\') {
+        escaped = true;
+      } else if (character == '"') {
+        inString = false;
+      }
+      return false;
+    }
+    switch (character) {
+      case '"' -> inString = true;
+      case '{', '[' -> {
+        depth++;
+        if (depth == 2) {
+          recordLine = line;
+          recordColumn = column;
+        }
+      }
+      case '}', ']' -> {
+        depth--;
+        return depth == 1;
+      }
+      default -> {
+        return false;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public void close() throws IOException {
+    in.close();
+  }
+}
@@ -0,0 +1,162 @@
+package edu.ntnu.idatt2001.paths.model.filehandling;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The SafeFiles class writes files so that a crash while writing never leaves a file half
+ * written. A file is replaced by writing the new content to a temporary file next to it,
+ * forcing the content to the disk, and then renaming the temporary file over the file. Records
+ * appended to a file are forced to the disk before the append returns.
+ *
+ * @author Ramtin Samavat
+ * @author Tobias Oftedal
+ * @version 1.0
+ * @since May 24, 2023.
+ */
+final class SafeFiles {
+
+  static final String TEMPORARY_EXTENSION = ".tmp";
+
+  /**
+   * Private constructor for the SafeFiles.
+   *
+   * @throws IllegalStateException If the constructor is used.
+   */
+  private SafeFiles() throws IllegalStateException {
+    throw new IllegalStateException("Cannot instantiate a SafeFiles object");
+  }
+
+  /**
+   * The ContentWriter interface writes the content of a file to an output stream.
+   */
+  @FunctionalInterface
+  interface ContentWriter {
+
+    /**
+     * The method writes the content of the file. The stream may be closed by the writer.
+     *
+     * @param out the stream to write to.
+     * @throws IOException if there is an error writing the content.
+     */
+    void write(OutputStream out) throws IOException;
+  }
+
+  /**
+   * The method retrieves the temporary file used when replacing the given file.
+   *
+   * @param path the path of the file.
+   * @return the path of the temporary file.
+   */
+  static Path getTemporaryPath(Path path) {
+    return path.resolveSibling(path.getFileName() + TEMPORARY_EXTENSION);
+  }
+
+  /**
+   * The method replaces the content of a file. The content is written to a temporary file and
+   * forced to the disk, before the temporary file is renamed over the file. If writing fails,
+   * the temporary file is deleted and the file is left unchanged.
+   *
+   * @param path          the path of the file.
+   * @param contentWriter the writer of the new content.
+   * @throws IOException if there is an error writing or renaming the file.
+   */
+  static void writeAtomically(Path path, ContentWriter contentWriter) throws IOException {
+    replace(writeTemporary(path, contentWriter), path);
+  }
+
+  /**
+   * The method writes the new content of a file to the temporary file of the file and forces
+   * it to the disk, without replacing the file. The file is replaced by renaming the temporary
+   * file over it with {@link #replace(Path, Path)}. If writing fails, the temporary file is
+   * deleted.
+   *
+   * @param path          the path of the file.
+   * @param contentWriter the writer of the new content.
+   * @return the path of the temporary file.
+   * @throws IOException if there is an error writing the temporary file.
+   */
+  static Path writeTemporary(Path path, ContentWriter contentWriter) throws IOException {
+    Path temporaryPath = getTemporaryPath(path);
+    try (FileChannel channel = FileChannel.open(temporaryPath, StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel)) {
+        @Override
+        public void close() throws IOException {
+          flush();
+        }
+      };
+      contentWriter.write(out);
+      out.flush();
+      channel.force(true);
+    } catch (IOException | RuntimeException e) {
+      Files.deleteIfExists(temporaryPath);
+      throw e;
+    }
+    return temporaryPath;
+  }
+
+  /**
+   * The method replaces the content of a file with the given bytes.
+   *
+   * @param path    the path of the file.
+   * @param content the new content of the file.
+   * @throws IOException if there is an error writing or renaming the file.
+   */
+  static void writeAtomically(Path path, byte[] content) throws IOException {
+    writeAtomically(path, out -> out.write(content));
+  }
+
+  /**
+   * The method appends the given bytes to a file, creating the file if it does not exist. The
+   * bytes are forced to the disk before the method returns.
+   *
+   * @param path    the path of the file.
+   * @param content the bytes to append.
+   * @throws IOException if there is an error writing to the file.
+   */
+  static void append(Path path, byte[] content) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+      ByteBuffer buffer = ByteBuffer.wrap(content);
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      channel.force(false);
+    }
+  }
+
+  /**
+   * The method renames a file over another file, atomically if the file system supports it,
+   * and forces the rename to the disk where the platform allows it.
+   *
+   * @param temporaryPath the file to rename.
+   * @param path          the file to replace.
+   * @throws IOException if the file cannot be replaced.
+   */
+  static void replace(Path temporaryPath, Path path) throws IOException {
+    try {
+      Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING);
+    }
+    Path directory = path.toAbsolutePath().getParent();
+    if (directory != null) {
+      try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+        channel.force(true);
+      } catch (IOException e) {
+        // Not every platform allows a directory to be opened, and the rename is still done.
+      }
+    }
+  }
+}
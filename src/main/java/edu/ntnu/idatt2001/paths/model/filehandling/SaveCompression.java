@@ -0,0 +1,222 @@
+package edu.ntnu.idatt2001.paths.model.filehandling;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * The SaveCompression enum describes how a file of games is compressed. Uncompressed files
+ * are written as pretty-printed JSON, while compressed files are written as compact JSON in
+ * the gzip or zlib format of java.util.zip.
+ *
+ * <p>The format of a file is detected from its first two bytes when it is read, so that files
+ * written with any of the formats, including uncompressed files written before compression
+ * was supported, can be read regardless of the compression used for writing. A gzip file
+ * starts with the bytes 0x1f 0x8b, and a zlib file starts with a header whose first byte
+ * names the deflate method and whose two bytes are a multiple of 31. A JSON file cannot
+ * start with either.
+ *
+ * @author Ramtin Samavat
+ * @author Tobias Oftedal
+ * @version 1.0
+ * @since May 26, 2023.
+ */
+public enum SaveCompression {
+  NONE,
+  GZIP,
+  DEFLATE;
+
+  private static final int GZIP_MAGIC = 0x8b1f;
+  private static final int DEFLATE_METHOD = 8;
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  /**
+   * The method wraps an output stream, so that the bytes written to it are compressed.
+   * The returned stream must be closed to finish the compressed data.
+   *
+   * @param out the stream to write the compressed bytes to.
+   * @return the stream to write the uncompressed bytes to.
+   * @throws NullPointerException if the out is null.
+   * @throws IOException          if there is an error writing the header of the format.
+   */
+  public OutputStream compress(OutputStream out) throws NullPointerException, IOException {
+    if (out == null) {
+      throw new NullPointerException("The output stream cannot be null.");
+    }
+    return switch (this) {
+      case NONE -> out;
+      case GZIP -> new GZIPOutputStream(out, BUFFER_SIZE);
+      case DEFLATE -> new DeflaterOutputStream(out, new Deflater(), BUFFER_SIZE) {
+        @Override
+        public void close() throws IOException {
+          try {
+            super.close();
+          } finally {
+            def.end();
+          }
+        }
+      };
+    };
+  }
+
+  /**
+   * The method wraps an output stream like {@link #compress(OutputStream)}, but flushing the
+   * returned stream ends a block of the compressed data. A block does not refer to the data
+   * before it, so the data can be decompressed from the start of any block with
+   * {@link #decompressBlock(InputStream)}. Uncompressed data can be read from any position.
+   *
+   * @param out the stream to write the compressed bytes to.
+   * @return the stream to write the uncompressed bytes to.
+   * @throws NullPointerException if the out is null.
+   * @throws IOException          if there is an error writing the header of the format.
+   */
+  public OutputStream compressInBlocks(OutputStream out) throws NullPointerException,
+      IOException {
+    if (out == null) {
+      throw new NullPointerException("The output stream cannot be null.");
+    }
+    return switch (this) {
+      case NONE -> out;
+      case GZIP -> new GZIPOutputStream(out, BUFFER_SIZE) {
+        @Override
+        public void flush() throws IOException {
+          endBlock(def, buf, out);
+        }
+      };
+      case DEFLATE -> new DeflaterOutputStream(out, new Deflater(), BUFFER_SIZE) {
+        @Override
+        public void flush() throws IOException {
+          endBlock(def, buf, out);
+        }
+
+        @Override
+        public void close() throws IOException {
+          try {
+            super.close();
+          } finally {
+            def.end();
+          }
+        }
+      };
+    };
+  }
+
+  /**
+   * The method wraps an input stream positioned at the start of a block written with
+   * {@link #compressInBlocks(OutputStream)}, so that the bytes read from it are decompressed.
+   *
+   * @param in the stream to read the stored bytes from, positioned at the start of a block.
+   * @return the stream to read the uncompressed bytes from.
+   * @throws NullPointerException if the in is null.
+   */
+  public InputStream decompressBlock(InputStream in) throws NullPointerException {
+    if (in == null) {
+      throw new NullPointerException("The input stream cannot be null.");
+    }
+    if (this == NONE) {
+      return in;
+    }
+    return new InflaterInputStream(in, new Inflater(true), BUFFER_SIZE) {
+      @Override
+      public void close() throws IOException {
+        try {
+          super.close();
+        } finally {
+          inf.end();
+        }
+      }
+    };
+  }
+
+  /**
+   * Helper method to end a block of compressed data, by writing the data compressed so far
+   * and resetting the compression, so that the next block does not refer to the data before.
+   *
+   * @param deflater the compressor of the data.
+   * @param buffer   the buffer of the compressed bytes.
+   * @param out      the stream to write the compressed bytes to.
+   * @throws IOException if there is an error writing the compressed bytes.
+   */
+  private static void endBlock(Deflater deflater, byte[] buffer, OutputStream out)
+      throws IOException {
+    if (!deflater.finished()) {
+      int length;
+      while ((length = deflater.deflate(buffer, 0, buffer.length, Deflater.FULL_FLUSH)) > 0) {
+        out.write(buffer, 0, length);
+      }
+    }
+    out.flush();
+  }
+
+  /**
+   * The method checks if the files of the compression are pretty-printed. Only uncompressed
+   * files are meant to be read by people, so compressed files are written as compact JSON.
+   *
+   * @return true if the files are pretty-printed, false otherwise.
+   */
+  public boolean isPrettyPrinted() {
+    return this == NONE;
+  }
+
+  /**
+   * The method detects the compression of a file from its first two bytes.
+   *
+   * @param first  the first byte of the file, or -1 if the file is empty.
+   * @param second the second byte of the file, or -1 if the file has one byte.
+   * @return the compression of the file.
+   */
+  public static SaveCompression detect(int first, int second) {
+    if (first < 0 || second < 0) {
+      return NONE;
+    }
+    if ((first | second << 8) == GZIP_MAGIC) {
+      return GZIP;
+    }
+    if ((first & 0x0f) == DEFLATE_METHOD && (first >> 4) <= 7
+        && ((first << 8) | second) % 31 == 0) {
+      return DEFLATE;
+    }
+    return NONE;
+  }
+
+  /**
+   * The method wraps an input stream, so that the bytes read from it are decompressed with
+   * the compression detected from its first two bytes.
+   *
+   * @param in the stream to read the stored bytes from.
+   * @return the stream to read the uncompressed bytes from.
+   * @throws NullPointerException if the in is null.
+   * @throws IOException          if there is an error reading the stream.
+   */
+  public static InputStream decompress(InputStream in) throws NullPointerException, IOException {
+    if (in == null) {
+      throw new NullPointerException("The input stream cannot be null.");
+    }
+    InputStream buffered = in.markSupported() ? in : new BufferedInputStream(in, BUFFER_SIZE);
+    buffered.mark(2);
+    int first = buffered.read();
+    int second = buffered.read();
+    buffered.reset();
+    return switch (detect(first, second)) {
+      case NONE -> buffered;
+      case GZIP -> new GZIPInputStream(buffered, BUFFER_SIZE);
+      case DEFLATE -> new InflaterInputStream(buffered, new Inflater(), BUFFER_SIZE) {
+        @Override
+        public void close() throws IOException {
+          try {
+            super.close();
+          } finally {
+            inf.end();
+          }
+        }
+      };
+    };
+  }
+}
@@ -0,0 +1,405 @@
+package edu.ntnu.idatt2001.paths.model.filehandling;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonIOException;
+import edu.ntnu.idatt2001.paths.model.Game;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * The StoredGame class represents a game stored in a file. It holds a summary of the game,
+ * which is available as soon as the game has been read, and the stored record of the game.
+ * The Game object, with its player, story and goals, is only created the first time it is
+ * requested. A stored game read from a summary index does not hold its record, but reads it
+ * from the file when the game is requested.
+ *
+ * <p>A created game can be evicted from memory, see {@link #evict(GameSpill)}. A game that
+ * has changed since it was created is written to a spill first, and is created from the
+ * spill the next time it is requested, so the changes that have not been saved are kept.
+ *
+ * @author Ramtin Samavat
+ * @author Tobias Oftedal
+ * @version 1.0
+ * @since May 23, 2023.
+ */
+public final class StoredGame {
+
+  private static final String GAME_ID_KEY = "game ID";
+  private static final String PLAYER_KEY = "player";
+  private static final String PLAYER_NAME_KEY = "name";
+  private static final String PLAYER_SCORE_KEY = "score";
+  private static final String STORY_TITLE_KEY = "story title";
+  private static final String CURRENT_PASSAGE_KEY = "current passage";
+  private static final String STORY_CURRENT_PASSAGE_KEY = "story current passage";
+  private static final String PASSAGE_TITLE_KEY = "title";
+  private static final String VERSION_KEY = "version";
+
+  private final String gameId;
+  private final String playerName;
+  private final int playerScore;
+  private final String storyTitle;
+  private final String currentPassageTitle;
+  private final long version;
+  private final String record;
+  private final Supplier<JsonObject> recordLoader;
+  private Game game;
+  private String loadedHash;
+  private GameSpill spill;
+  private Path spillPath;
+
+  /**
+   * Constructs a StoredGame object from a stored record of a game.
+   *
+   * @param record the stored record of the game.
+   * @throws NullPointerException if the record is null.
+   */
+  StoredGame(JsonObject record) throws NullPointerException {
+    this(record, null);
+  }
+
+  /**
+   * Constructs a StoredGame object from a stored record of a game and the game it was
+   * created from.
+   *
+   * @param record the stored record of the game.
+   * @param game   the game, or null if the game should be created from the record.
+   * @throws NullPointerException if the record is null.
+   */
+  StoredGame(JsonObject record, Game game) throws NullPointerException {
+    Objects.requireNonNull(record, "The record cannot be null.");
+    this.gameId = getString(record, GAME_ID_KEY);
+    this.playerName = getPlayerName(record);
+    this.playerScore = getPlayerScore(record);
+    this.storyTitle = getString(record, STORY_TITLE_KEY);
+    this.currentPassageTitle = getCurrentPassageTitle(record);
+    this.version = getVersion(record);
+    this.record = record.toString();
+    this.recordLoader = null;
+    this.game = game;
+    this.loadedHash = game == null ? null : hash(this.record);
+  }
+
+  /**
+   * Constructs a StoredGame object from the summary of a game. The record of the game is
+   * read with the given record loader when the game is requested.
+   *
+   * @param gameId              the ID of the game.
+   * @param playerName          the name of the player.
+   * @param playerScore         the score of the player.
+   * @param storyTitle          the title of the story.
+   * @param currentPassageTitle the title of the current passage.
+   * @param version             the version of the game.
+   * @param recordLoader        the loader of the record of the game.
+   * @throws NullPointerException if the recordLoader is null.
+   */
+  StoredGame(String gameId, String playerName, int playerScore, String storyTitle,
+             String currentPassageTitle, long version, Supplier<JsonObject> recordLoader)
+      throws NullPointerException {
+    this.gameId = gameId;
+    this.playerName = playerName;
+    this.playerScore = playerScore;
+    this.storyTitle = storyTitle;
+    this.currentPassageTitle = currentPassageTitle;
+    this.version = version;
+    this.record = null;
+    this.recordLoader = Objects.requireNonNull(recordLoader, "The record loader cannot be null.");
+  }
+
+  /**
+   * The method creates a stored game from a game, with a record of the game as it is now.
+   * Later changes to the game are not part of the record.
+   *
+   * @param game the game.
+   * @return the stored game.
+   * @throws NullPointerException if the game is null.
+   */
+  public static StoredGame of(Game game) throws NullPointerException {
+    Objects.requireNonNull(game, "Game cannot be null.");
+    return new StoredGame(FileGameHandler.serializeGame(game), game);
+  }
+
+  /**
+   * The method creates a stored game from a game, with a record of the game as it is now,
+   * saved as the given version. The version of the game itself is not changed.
+   *
+   * @param game    the game.
+   * @param version the version of the stored game.
+   * @return the stored game.
+   * @throws NullPointerException     if the game is null.
+   * @throws IllegalArgumentException if the version is not positive.
+   */
+  public static StoredGame of(Game game, long version)
+      throws NullPointerException, IllegalArgumentException {
+    Objects.requireNonNull(game, "Game cannot be null.");
+    if (version <= 0) {
+      throw new IllegalArgumentException("The version of a stored game must be positive.");
+    }
+    return new StoredGame(FileGameHandler.serializeGame(game, version), game);
+  }
+
+  /**
+   * Helper method to retrieve the version of a record.
+   *
+   * @param record the stored record of the game.
+   * @return the version, or 0 if the record has no version.
+   */
+  private static long getVersion(JsonObject record) {
+    JsonElement element = record.get(VERSION_KEY);
+    try {
+      return element == null || !element.isJsonPrimitive() ? 0 : element.getAsLong();
+    } catch (NumberFormatException e) {
+      return 0;
+    }
+  }
+
+  /**
+   * Helper method to retrieve the name of the player of a record.
+   *
+   * @param record the stored record of the game.
+   * @return the name of the player, or null if the record has no player name.
+   */
+  private static String getPlayerName(JsonObject record) {
+    return record.has(PLAYER_KEY) && record.get(PLAYER_KEY).isJsonObject()
+        ? getString(record.getAsJsonObject(PLAYER_KEY), PLAYER_NAME_KEY) : null;
+  }
+
+  /**
+   * Helper method to retrieve the score of the player of a record.
+   *
+   * @param record the stored record of the game.
+   * @return the score of the player, or 0 if the record has no player score.
+   */
+  private static int getPlayerScore(JsonObject record) {
+    if (!record.has(PLAYER_KEY) || !record.get(PLAYER_KEY).isJsonObject()) {
+      return 0;
+    }
+    JsonElement element = record.getAsJsonObject(PLAYER_KEY).get(PLAYER_SCORE_KEY);
+    try {
+      return element == null || !element.isJsonPrimitive() ? 0 : element.getAsInt();
+    } catch (NumberFormatException e) {
+      return 0;
+    }
+  }
+
+  /**
+   * Helper method to retrieve the title of the current passage of a record.
+   *
+   * @param record the stored record of the game.
+   * @return the title of the current passage, or null if the record has no current passage.
+   */
+  private static String getCurrentPassageTitle(JsonObject record) {
+    if (record.has(CURRENT_PASSAGE_KEY)) {
+      return getString(record, CURRENT_PASSAGE_KEY);
+    }
+    if (record.has(STORY_CURRENT_PASSAGE_KEY)
+        && record.get(STORY_CURRENT_PASSAGE_KEY).isJsonObject()) {
+      return getString(record.getAsJsonObject(STORY_CURRENT_PASSAGE_KEY), PASSAGE_TITLE_KEY);
+    }
+    return null;
+  }
+
+  /**
+   * Helper method to retrieve a string property of a JSON object.
+   *
+   * @param jsonObject the JSON object.
+   * @param key        the key of the property.
+   * @return the string, or null if the property is missing or not a string.
+   */
+  private static String getString(JsonObject jsonObject, String key) {
+    JsonElement element = jsonObject.get(key);
+    return element == null || !element.isJsonPrimitive() ? null : element.getAsString();
+  }
+
+  /**
+   * The method retrieves the ID of the game.
+   *
+   * @return the game ID, or null if the record has no game ID.
+   */
+  public String getGameId() {
+    return gameId;
+  }
+
+  /**
+   * The method retrieves the name of the player of the game.
+   *
+   * @return the name of the player, or null if the record has no player name.
+   */
+  public String getPlayerName() {
+    return playerName;
+  }
+
+  /**
+   * The method retrieves the score of the player of the game, as it was when the game was
+   * stored.
+   *
+   * @return the score of the player, or 0 if the record has no player score.
+   */
+  public int getPlayerScore() {
+    return playerScore;
+  }
+
+  /**
+   * The method retrieves the title of the story of the game.
+   *
+   * @return the story title, or null if the record has no story title.
+   */
+  public String getStoryTitle() {
+    return storyTitle;
+  }
+
+  /**
+   * The method retrieves the title of the passage the player is at.
+   *
+   * @return the title of the current passage, or null if the record has no current passage.
+   */
+  public String getCurrentPassageTitle() {
+    return currentPassageTitle;
+  }
+
+  /**
+   * The method retrieves the version of the stored game. The version is increased every time
+   * the game is saved, starting at 1. A game stored before games had versions has version 0.
+   *
+   * @return the version of the game.
+   */
+  public long getVersion() {
+    return version;
+  }
+
+  /**
+   * The method retrieves the game, creating it from the stored record the first time it is
+   * requested, or from the spill if the game has been evicted with changes.
+   *
+   * @return the game.
+   * @throws JsonParseException if the record does not describe a valid game, or the spilled
+   *                            record cannot be read.
+   */
+  public synchronized Game getGame() throws JsonParseException {
+    if (game == null) {
+      boolean spilled = spillPath != null;
+      JsonObject gameRecord = spilled ? readSpill() : getRecord();
+      try {
+        game = FileGameHandler.deserializeGame(gameRecord);
+      } catch (NullPointerException | IllegalArgumentException e) {
+        throw new JsonParseException(e.getMessage(), e);
+      }
+      loadedHash = spilled ? null : hash(gameRecord.toString());
+      if (spilled) {
+        spill.delete(spillPath);
+        spillPath = null;
+      }
+    }
+    return game;
+  }
+
+  /**
+   * The method evicts the created game from memory, so that it is created again the next time
+   * it is requested. A game that has changed since it was created is written to the spill
+   * first, while a game that is unchanged since it was created or stored is created from the
+   * stored record again. A game created from the spill differs from the stored record, so it
+   * is written to the spill again when it is evicted.
+   *
+   * @param spill the spill to write the changed game to.
+   * @return true if the game was written to the spill, false otherwise.
+   * @throws NullPointerException if the spill is null.
+   * @throws IOException          if the game cannot be written to the spill, in which case
+   *                              the game is kept in memory.
+   */
+  public synchronized boolean evict(GameSpill spill) throws NullPointerException, IOException {
+    Objects.requireNonNull(spill, "The spill cannot be null.");
+    if (game == null) {
+      return false;
+    }
+    JsonObject gameRecord = FileGameHandler.serializeGame(game);
+    boolean changed = !hash(gameRecord.toString()).equals(loadedHash);
+    if (changed) {
+      spillPath = spill.write(gameRecord);
+      this.spill = spill;
+    }
+    game = null;
+    loadedHash = null;
+    return changed;
+  }
+
+  /**
+   * The method deletes the spilled record of the game, if the game has been evicted with
+   * changes. The method is used when the stored game is replaced or deleted.
+   */
+  public synchronized void discardSpill() {
+    if (spillPath != null) {
+      spill.delete(spillPath);
+      spillPath = null;
+    }
+  }
+
+  /**
+   * The method checks if the game has been evicted with changes, which are kept in the spill.
+   *
+   * @return true if the game is spilled, false otherwise.
+   */
+  public synchronized boolean isSpilled() {
+    return spillPath != null;
+  }
+
+  /**
+   * Helper method to read the spilled record of the game.
+   *
+   * @return the spilled record.
+   * @throws JsonParseException if the spilled record cannot be read.
+   */
+  private JsonObject readSpill() throws JsonParseException {
+    try {
+      return spill.read(spillPath);
+    } catch (IOException e) {
+      throw new JsonIOException("Error reading the spilled game " + gameId + ": "
+          + e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Helper method to compute the hash of a record, to detect if a game has changed.
+   *
+   * @param gameRecord the record of the game, as compact JSON.
+   * @return the hash of the record.
+   */
+  private static String hash(String gameRecord) {
+    return FileFingerprint.computeContentHash(gameRecord.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * The method checks if the game has been created.
+   *
+   * @return true if the game has been created, false otherwise.
+   */
+  public synchronized boolean isLoaded() {
+    return game != null;
+  }
+
+  /**
+   * The method checks if the stored game holds its record, or reads it from the file.
+   *
+   * @return true if the stored game holds its record, false otherwise.
+   */
+  boolean hasRecord() {
+    return record != null;
+  }
+
+  /**
+   * The method retrieves the stored record of the game.
+   *
+   * @return a copy of the stored record.
+   * @throws JsonParseException if the record cannot be read.
+   */
+  JsonObject getRecord() throws JsonParseException {
+    if (record == null) {
+      return recordLoader.get();
+    }
+    return JsonParser.parseString(record).getAsJsonObject();
+  }
+}
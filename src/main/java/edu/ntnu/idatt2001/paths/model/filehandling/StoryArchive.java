@@ -0,0 +1,179 @@
+package edu.ntnu.idatt2001.paths.model.filehandling;
+
+import edu.ntnu.idatt2001.paths.model.Story;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The StoryArchive class keeps a copy of every version of a story file that a game has been
+ * saved with, so that the game can still be loaded when the story file is moved, deleted or
+ * changed. The copies are stored in a directory named ".archive" next to the story file, in a
+ * file named by the fingerprint of the content, so each version of a story is copied only
+ * once.
+ *
+ * @author Ramtin Samavat
+ * @author Tobias Oftedal
+ * @version 1.0
+ * @since May 26, 2023.
+ */
+public final class StoryArchive {
+
+  private static final Logger logger = Logger.getLogger(StoryArchive.class.getName());
+  private static final String ARCHIVE_DIRECTORY = ".archive";
+  private static final String FILE_EXTENSION = ".paths";
+  private static final Map<String, ArchivedCopy> archivedStories = new ConcurrentHashMap<>();
+
+  /**
+   * Private constructor for the StoryArchive.
+   *
+   * @throws IllegalStateException If the constructor is used.
+   */
+  private StoryArchive() throws IllegalStateException {
+    throw new IllegalStateException("Cannot instantiate a StoryArchive object");
+  }
+
+  /**
+   * The method retrieves the path of the archive directory belonging to a story file. A copy
+   * in the archive belongs to the archive it is in.
+   *
+   * @param pathOfFile the path of the story file.
+   * @return the path of the archive directory.
+   * @throws NullPointerException if the pathOfFile is null.
+   */
+  public static Path getArchivePath(Path pathOfFile) throws NullPointerException {
+    if (pathOfFile == null) {
+      throw new NullPointerException("The path of the file cannot be null.");
+    }
+    Path directory = pathOfFile.toAbsolutePath().getParent();
+    if (directory.getFileName() != null
+        && directory.getFileName().toString().equals(ARCHIVE_DIRECTORY)) {
+      return directory;
+    }
+    return directory.resolve(ARCHIVE_DIRECTORY);
+  }
+
+  /**
+   * The method copies the file a story was read from to the archive, unless the same version
+   * of the story is already archived. The story is not archived if the file has changed since
+   * the story was read, as the copy would not match the story. The copy is forced to the disk
+   * before it is used, and an existing copy is used only if its content has the fingerprint.
+   *
+   * @param story the story to archive.
+   * @return the canonical path of the archived copy, or null if the story could not be
+   *         archived.
+   * @throws NullPointerException if the story is null.
+   */
+  public static String archive(Story story) throws NullPointerException {
+    if (story == null) {
+      throw new NullPointerException("The story cannot be null.");
+    }
+    String fingerprint = story.getSourceFingerprint();
+    if (story.getSourcePath() == null || fingerprint == null) {
+      return null;
+    }
+    Path sourcePath = Paths.get(story.getSourcePath());
+    Path archivedPath = getArchivePath(sourcePath).resolve(fingerprint + FILE_EXTENSION);
+    ArchivedCopy knownCopy = archivedStories.get(fingerprint);
+    if (knownCopy != null && knownCopy.isUnchanged()) {
+      return knownCopy.getPath().toString();
+    }
+    synchronized (archivedStories) {
+      try {
+        if (!isArchived(archivedPath, fingerprint)) {
+          byte[] content = Files.readAllBytes(sourcePath);
+          if (!FileFingerprint.computeContentHash(content).equals(fingerprint)) {
+            logger.log(Level.WARNING, "The story file " + sourcePath + " has changed since "
+                + "the story was read, and is not archived.");
+            return null;
+          }
+          Files.createDirectories(archivedPath.getParent());
+          SafeFiles.writeAtomically(archivedPath, content);
+        }
+        archivedPath = archivedPath.toRealPath();
+        archivedStories.put(fingerprint, new ArchivedCopy(archivedPath));
+      } catch (IOException e) {
+        logger.log(Level.WARNING, "Error archiving the story file " + sourcePath + ".", e);
+        return null;
+      }
+      return archivedPath.toString();
+    }
+  }
+
+  /**
+   * Helper method to check if a complete copy of a version of a story is in the archive. A
+   * copy whose content does not have the fingerprint of its name is not a complete copy, and
+   * is replaced when the story is archived.
+   *
+   * @param archivedPath the path of the archived copy.
+   * @param fingerprint  the fingerprint of the content of the story file.
+   * @return true if the copy exists and has the fingerprint, false otherwise.
+   * @throws IOException if the copy cannot be read.
+   */
+  private static boolean isArchived(Path archivedPath, String fingerprint) throws IOException {
+    if (!Files.isRegularFile(archivedPath)) {
+      return false;
+    }
+    if (FileFingerprint.computeFileHash(archivedPath).equals(fingerprint)) {
+      return true;
+    }
+    logger.log(Level.WARNING, "The archived story " + archivedPath + " does not match its "
+        + "fingerprint, and is replaced.");
+    return false;
+  }
+
+  /**
+   * The ArchivedCopy class holds a copy in the archive whose content has been checked, with
+   * the modification time and size of the copy when it was checked, so that the copy is
+   * checked again only if the file has changed.
+   */
+  private static final class ArchivedCopy {
+    private final Path path;
+    private final long lastModified;
+    private final long size;
+
+    /**
+     * Constructs an ArchivedCopy object from the current attributes of the copy.
+     *
+     * @param path the canonical path of the copy.
+     * @throws IOException if the attributes of the copy cannot be read.
+     */
+    ArchivedCopy(Path path) throws IOException {
+      BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+      this.path = path;
+      this.lastModified = attributes.lastModifiedTime().toMillis();
+      this.size = attributes.size();
+    }
+
+    /**
+     * The method retrieves the canonical path of the copy.
+     *
+     * @return the path.
+     */
+    Path getPath() {
+      return path;
+    }
+
+    /**
+     * The method checks if the copy still exists with the same modification time and size.
+     *
+     * @return true if the copy is unchanged, false otherwise.
+     */
+    boolean isUnchanged() {
+      try {
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        return attributes.isRegularFile()
+            && attributes.lastModifiedTime().toMillis() == lastModified
+            && attributes.size() == size;
+      } catch (IOException e) {
+        return false;
+      }
+    }
+  }
+}
@@ -0,0 +1,168 @@
+package edu.ntnu.idatt2001.paths.model.filehandling;
+
+import edu.ntnu.idatt2001.paths.model.Story;
+import java.lang.ref.SoftReference;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The StoryCache class is a process-wide cache of stories read from files. The stories are
+ * stored by the canonical path of the file, together with the time the file was last
+ * modified, the size of the file and a hash of the content, so that a story is only
+ * served from the cache as long as the file has not changed. The cache holds a limited
+ * number of stories, and the least recently used story is evicted first. The stories
+ * are held by soft references, so that they can be evicted if memory is low.
+ *
+ * <p>The stories in the cache are shared by everyone reading the same file, and should
+ * not be modified.
+ *
+ * @author Ramtin Samavat
+ * @author Tobias Oftedal
+ * @version 1.0
+ * @since May 22, 2023.
+ */
+public final class StoryCache {
+
+  private static final int MAX_CACHED_STORIES = 32;
+  private static final Map<Path, CachedStory> stories =
+      new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Path, CachedStory> eldest) {
+          return size() > MAX_CACHED_STORIES;
+        }
+      };
+
+  /**
+   * Private constructor for the StoryCache.
+   *
+   * @throws IllegalStateException If the constructor is used.
+   */
+  private StoryCache() throws IllegalStateException {
+    throw new IllegalStateException("Cannot instantiate a StoryCache object");
+  }
+
+  /**
+   * The method retrieves the cached story of the file with the given canonical path.
+   * Entries whose story has been cleared by the garbage collector are removed.
+   *
+   * @param canonicalPath the canonical path of the file.
+   * @return the cached story, or null if the file has no cached story.
+   */
+  static synchronized CachedStory get(Path canonicalPath) {
+    CachedStory cachedStory = stories.get(canonicalPath);
+    if (cachedStory != null && cachedStory.getStory() == null) {
+      stories.remove(canonicalPath);
+      return null;
+    }
+    return cachedStory;
+  }
+
+  /**
+   * The method stores the cached story of the file with the given canonical path.
+   *
+   * @param canonicalPath the canonical path of the file.
+   * @param cachedStory   the cached story.
+   */
+  static synchronized void put(Path canonicalPath, CachedStory cachedStory) {
+    stories.put(canonicalPath, cachedStory);
+  }
+
+  /**
+   * The method removes the cached story of the file with the given canonical path.
+   *
+   * @param canonicalPath the canonical path of the file.
+   * @throws NullPointerException if the path is null.
+   */
+  public static synchronized void invalidate(Path canonicalPath) throws NullPointerException {
+    stories.remove(Objects.requireNonNull(canonicalPath, "The path cannot be null."));
+  }
+
+  /**
+   * The method removes all stories from the cache.
+   */
+  public static synchronized void clear() {
+    stories.clear();
+  }
+
+  /**
+   * The method retrieves the number of stories in the cache.
+   *
+   * @return the number of cached stories.
+   */
+  public static synchronized int size() {
+    return stories.size();
+  }
+
+  /**
+   * The CachedStory class holds a story read from a file, together with the information
+   * used to check if the file has changed, and the diagnostics of the invalid actions found
+   * when the story was read.
+   */
+  static final class CachedStory {
+    private final long lastModified;
+    private final long size;
+    private final String contentHash;
+    private final SoftReference<Story> story;
+    private final List<ParseDiagnostic> diagnostics;
+
+    /**
+     * Constructs a CachedStory object.
+     *
+     * @param lastModified the time the file was last modified, in milliseconds.
+     * @param size         the size of the file in bytes.
+     * @param contentHash  the hash of the content of the file.
+     * @param story        the story read from the file.
+     * @param diagnostics  the diagnostics of the invalid actions found when reading the story.
+     */
+    CachedStory(long lastModified, long size, String contentHash, Story story,
+                List<ParseDiagnostic> diagnostics) {
+      this.lastModified = lastModified;
+      this.size = size;
+      this.contentHash = contentHash;
+      this.story = new SoftReference<>(story);
+      this.diagnostics = List.copyOf(diagnostics);
+    }
+
+    /**
+     * The method checks if the file still has the same modification time and size.
+     *
+     * @param lastModified the time the file was last modified, in milliseconds.
+     * @param size         the size of the file in bytes.
+     * @return true if the modification time and size are unchanged, false otherwise.
+     */
+    boolean matches(long lastModified, long size) {
+      return this.lastModified == lastModified && this.size == size;
+    }
+
+    /**
+     * The method retrieves the hash of the content of the file.
+     *
+     * @return the hash of the content.
+     */
+    String getContentHash() {
+      return contentHash;
+    }
+
+    /**
+     * The method retrieves the cached story.
+     *
+     * @return the story, or null if it has been cleared by the garbage collector.
+     */
+    Story getStory() {
+      return story.get();
+    }
+
+    /**
+     * The method retrieves the diagnostics of the invalid actions found when the story was
+     * read.
+     *
+     * @return the diagnostics, which cannot be modified.
+     */
+    List<ParseDiagnostic> getDiagnostics() {
+      return diagnostics;
+    }
+  }
+}
@@ -0,0 +1,335 @@
+package edu.ntnu.idatt2001.paths.model.filehandling;
+
+import edu.ntnu.idatt2001.paths.model.Passage;
+import edu.ntnu.idatt2001.paths.model.PassageKey;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The StoryIndex class maps the titles of the passages of a .paths file to the positions of
+ * the passages in the file, so that a passage can be read without parsing the rest of the
+ * story. The index is built once by parsing the file, and is stored next to it in a
+ * ".paths.idx" file together with the fingerprint of the story file. The stored index is used
+ * as long as the fingerprint matches the story file, and is built again otherwise.
+ *
+ * <p>Passages are numbered in the order of the file, where the opening passage has number
+ * zero. The index also stores the index of the first link of every passage, in the order of
+ * {@link edu.ntnu.idatt2001.paths.model.CompiledStory}, so that the links of a passage can be
+ * numbered without reading the passages before it.
+ *
+ * @author Ramtin Samavat
+ * @author Tobias Oftedal
+ * @version 1.0
+ * @since May 26, 2023.
+ */
+public final class StoryIndex {
+
+  static final String INDEX_EXTENSION = ".idx";
+  private static final Logger logger = Logger.getLogger(StoryIndex.class.getName());
+  private static final String FILE_EXTENSION = ".paths";
+  private static final int MAGIC = 0x50494458;
+  private static final int VERSION = 1;
+
+  private final String title;
+  private final String fingerprint;
+  private final Charset charset;
+  private final String[] titles;
+  private final long[] offsets;
+  private final int[] lengths;
+  private final int[] lineNumbers;
+  private final int[] firstLinkIndexes;
+  private final Map<PassageKey, Integer> positions;
+
+  /**
+   * Constructs a StoryIndex object.
+   *
+   * @param title            the title of the story.
+   * @param fingerprint      the fingerprint of the story file.
+   * @param charset          the character set of the story file.
+   * @param titles           the titles of the passages.
+   * @param offsets          the byte offsets of the passages in the file.
+   * @param lengths          the lengths of the passages in bytes.
+   * @param lineNumbers      the numbers of the title lines of the passages.
+   * @param firstLinkIndexes the indexes of the first links of the passages.
+   * @throws IllegalArgumentException if two passages after the opening passage have the same
+   *                                  title.
+   */
+  private StoryIndex(String title, String fingerprint, Charset charset, String[] titles,
+                     long[] offsets, int[] lengths, int[] lineNumbers, int[] firstLinkIndexes)
+      throws IllegalArgumentException {
+    this.title = title;
+    this.fingerprint = fingerprint;
+    this.charset = charset;
+    this.titles = titles;
+    this.offsets = offsets;
+    this.lengths = lengths;
+    this.lineNumbers = lineNumbers;
+    this.firstLinkIndexes = firstLinkIndexes;
+    this.positions = new HashMap<>();
+    Set<PassageKey> passageKeys = new HashSet<>();
+    for (int position = 0; position < titles.length; position++) {
+      PassageKey key = PassageKey.of(titles[position]);
+      if (position > 0 && !passageKeys.add(key)) {
+        throw new IllegalArgumentException("A passage with the same title already exists.");
+      }
+      positions.putIfAbsent(key, position);
+    }
+  }
+
+  /**
+   * The method retrieves the index of a story file. The stored index is used if its
+   * fingerprint matches the story file, otherwise the index is built from the story file and
+   * stored. An index that cannot be stored is still returned.
+   *
+   * @param pathOfFile the path of the story file.
+   * @return the index of the story file.
+   * @throws NullPointerException     if the pathOfFile is null.
+   * @throws IllegalArgumentException if pathOfFile is blank or does not end with .paths, or
+   *                                  the story has passages with the same title.
+   * @throws IOException              if the story file cannot be read or indexed.
+   */
+  public static StoryIndex open(String pathOfFile)
+      throws NullPointerException, IllegalArgumentException, IOException {
+    FilePathValidator.validatePathOfFile(pathOfFile, FILE_EXTENSION);
+    Charset charset = Charset.defaultCharset();
+    if (!MappedStoryParser.supports(charset)) {
+      throw new IOException("Stories in the character set " + charset + " cannot be indexed.");
+    }
+    Path path = Paths.get(pathOfFile.toLowerCase().trim()).toRealPath();
+    Path indexPath = getIndexPath(path);
+    try {
+      StoryIndex index = read(indexPath);
+      if (index.charset.equals(charset)
+          && index.fingerprint.equals(FileFingerprint.computeFileHash(path))) {
+        return index;
+      }
+      logger.log(Level.INFO, "The index " + indexPath + " is out of date and is rebuilt.");
+    } catch (NoSuchFileException e) {
+      logger.log(Level.FINE, "The story " + path + " has not been indexed.");
+    } catch (IOException e) {
+      logger.log(Level.WARNING, "The index " + indexPath + " cannot be read and is rebuilt.", e);
+    }
+
+    StoryIndex index = build(path, charset);
+    try {
+      index.write(indexPath);
+    } catch (IOException e) {
+      logger.log(Level.WARNING, "The index " + indexPath + " cannot be written.", e);
+    }
+    return index;
+  }
+
+  /**
+   * The method retrieves the path of the index of a story file.
+   *
+   * @param path the path of the story file.
+   * @return the path of the index.
+   */
+  static Path getIndexPath(Path path) {
+    return path.resolveSibling(path.getFileName() + INDEX_EXTENSION);
+  }
+
+  /**
+   * The method builds the index of a story file by parsing it. The passages are not kept, so
+   * that the whole story is never held in memory.
+   *
+   * @param path    the path of the story file.
+   * @param charset the character set of the story file.
+   * @return the index of the story file.
+   * @throws IllegalArgumentException if the story has passages with the same title.
+   * @throws IOException              if the story file cannot be read or contains no passages.
+   */
+  static StoryIndex build(Path path, Charset charset) throws IOException {
+    ByteBuffer content = FileStoryHandler.readContent(path, Files.size(path), charset);
+    String fingerprint = FileFingerprint.computeContentHash(content);
+    List<String> titles = new ArrayList<>();
+    List<Integer> offsets = new ArrayList<>();
+    List<Integer> lineNumbers = new ArrayList<>();
+    List<Integer> linkCounts = new ArrayList<>();
+    String title = MappedStoryParser.parsePassages(content, charset, new ArrayList<>(),
+        (passage, offset, lineNumber) -> {
+          titles.add(passage.getTitle());
+          offsets.add(offset);
+          lineNumbers.add(lineNumber);
+          linkCounts.add(passage.getLinks().size());
+        });
+    if (title == null || title.isBlank() || titles.isEmpty()) {
+      throw new IOException("The story " + path + " has no title or no passages.");
+    }
+
+    int passageCount = titles.size();
+    long[] passageOffsets = new long[passageCount];
+    int[] passageLengths = new int[passageCount];
+    int[] passageLineNumbers = new int[passageCount];
+    int[] firstLinkIndexes = new int[passageCount];
+    int linkIndex = 0;
+    for (int position = 0; position < passageCount; position++) {
+      int end = position + 1 < passageCount ? offsets.get(position + 1) : content.remaining();
+      passageOffsets[position] = offsets.get(position);
+      passageLengths[position] = end - offsets.get(position);
+      passageLineNumbers[position] = lineNumbers.get(position);
+      firstLinkIndexes[position] = linkIndex;
+      linkIndex += linkCounts.get(position);
+    }
+    return new StoryIndex(title.trim(), fingerprint, charset, titles.toArray(new String[0]),
+        passageOffsets, passageLengths, passageLineNumbers, firstLinkIndexes);
+  }
+
+  /**
+   * The method writes the index to a file, replacing the file atomically.
+   *
+   * @param indexPath the path of the index file.
+   * @throws IOException if the index cannot be written.
+   */
+  void write(Path indexPath) throws IOException {
+    SafeFiles.writeAtomically(indexPath, out -> {
+      DataOutputStream data = new DataOutputStream(out);
+      data.writeInt(MAGIC);
+      data.writeInt(VERSION);
+      data.writeUTF(fingerprint);
+      data.writeUTF(charset.name());
+      data.writeUTF(title);
+      data.writeInt(titles.length);
+      for (int position = 0; position < titles.length; position++) {
+        data.writeUTF(titles[position]);
+        data.writeLong(offsets[position]);
+        data.writeInt(lengths[position]);
+        data.writeInt(lineNumbers[position]);
+        data.writeInt(firstLinkIndexes[position]);
+      }
+      data.flush();
+    });
+  }
+
+  /**
+   * The method reads an index from a file.
+   *
+   * @param indexPath the path of the index file.
+   * @return the index.
+   * @throws NoSuchFileException if the index file does not exist.
+   * @throws IOException         if the index file cannot be read or is not a valid index.
+   */
+  static StoryIndex read(Path indexPath) throws IOException {
+    try (DataInputStream data = new DataInputStream(new BufferedInputStream(
+        Files.newInputStream(indexPath)))) {
+      if (data.readInt() != MAGIC || data.readInt() != VERSION) {
+        throw new IOException("The file " + indexPath + " is not a story index.");
+      }
+      String fingerprint = data.readUTF();
+      Charset charset = Charset.forName(data.readUTF());
+      String title = data.readUTF();
+      int passageCount = data.readInt();
+      if (passageCount <= 0) {
+        throw new IOException("The index " + indexPath + " has no passages.");
+      }
+      String[] titles = new String[passageCount];
+      long[] offsets = new long[passageCount];
+      int[] lengths = new int[passageCount];
+      int[] lineNumbers = new int[passageCount];
+      int[] firstLinkIndexes = new int[passageCount];
+      for (int position = 0; position < passageCount; position++) {
+        titles[position] = data.readUTF();
+        offsets[position] = data.readLong();
+        lengths[position] = data.readInt();
+        lineNumbers[position] = data.readInt();
+        firstLinkIndexes[position] = data.readInt();
+      }
+      return new StoryIndex(title, fingerprint, charset, titles, offsets, lengths, lineNumbers,
+          firstLinkIndexes);
+    } catch (IllegalArgumentException e) {
+      throw new IOException("The index " + indexPath + " is not valid: " + e.getMessage(), e);
+    }
+  }
+
+  /**
+   * The method reads the passage at the given position from the story file.
+   *
+   * @param channel     the channel of the story file.
+   * @param position    the position of the passage.
+   * @param diagnostics the list to add the diagnostics of invalid actions to.
+   * @return the passage.
+   * @throws IOException if the passage cannot be read.
+   */
+  Passage readPassage(FileChannel channel, int position, List<ParseDiagnostic> diagnostics)
+      throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(lengths[position]);
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, offsets[position] + buffer.position()) < 0) {
+        throw new EOFException("The passage " + titles[position] + " ends after the file.");
+      }
+    }
+    buffer.flip();
+    try {
+      return MappedStoryParser.parsePassage(buffer, charset, lineNumbers[position],
+          diagnostics);
+    } catch (IllegalArgumentException | NullPointerException e) {
+      throw new IOException("The passage " + titles[position] + " cannot be read: "
+          + e.getMessage(), e);
+    }
+  }
+
+  /**
+   * The method finds the position of the passage with the given key.
+   *
+   * @param key the key of the passage.
+   * @return the position of the passage, or -1 if the story has no such passage.
+   */
+  int find(PassageKey key) {
+    return positions.getOrDefault(key, -1);
+  }
+
+  /**
+   * The method retrieves the index of the first link of the passage at the given position.
+   *
+   * @param position the position of the passage.
+   * @return the index of the first link.
+   */
+  int getFirstLinkIndex(int position) {
+    return firstLinkIndexes[position];
+  }
+
+  /**
+   * The method retrieves the title of the story.
+   *
+   * @return the title of the story.
+   */
+  public String getTitle() {
+    return title;
+  }
+
+  /**
+   * The method retrieves the fingerprint of the indexed story file.
+   *
+   * @return the fingerprint of the story file.
+   */
+  public String getFingerprint() {
+    return fingerprint;
+  }
+
+  /**
+   * The method retrieves the number of passages, including the opening passage.
+   *
+   * @return the number of passages.
+   */
+  public int getPassageCount() {
+    return titles.length;
+  }
+}
@@ -0,0 +1,375 @@
+package edu.ntnu.idatt2001.paths.model.filehandling;
+
+import edu.ntnu.idatt2001.paths.model.Story;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * The StoryLibrary class loads the stories of a directory. The directory is scanned and the
+ * story files are parsed in parallel on a limited number of threads, and each story is
+ * passed to a listener as soon as it has been parsed. The parsed stories are kept until their
+ * files change, so scanning the directory again only parses the files that have changed.
+ *
+ * @author Ramtin Samavat
+ * @author Tobias Oftedal
+ * @version 1.0
+ * @since May 25, 2023.
+ */
+public final class StoryLibrary {
+
+  private static final Logger logger = Logger.getLogger(StoryLibrary.class.getName());
+  private static final String FILE_EXTENSION = ".paths";
+  private static final int MAX_THREADS = 4;
+
+  private final Path directory;
+  private final Executor executor;
+  private final Map<Path, StoryEntry> entries;
+
+  /**
+   * Constructor for the StoryLibrary class. The stories are parsed on a pool of daemon
+   * threads, no larger than the number of processors.
+   *
+   * @param directory the path of the directory of the stories.
+   * @throws NullPointerException     if the directory is null.
+   * @throws IllegalArgumentException if the directory is blank.
+   */
+  public StoryLibrary(String directory) throws NullPointerException, IllegalArgumentException {
+    this(directory, createExecutor());
+  }
+
+  /**
+   * Constructor for the StoryLibrary class, parsing the stories with the given executor.
+   *
+   * @param directory the path of the directory of the stories.
+   * @param executor  the executor parsing the stories.
+   * @throws NullPointerException     if the directory or executor is null.
+   * @throws IllegalArgumentException if the directory is blank.
+   */
+  StoryLibrary(String directory, Executor executor)
+      throws NullPointerException, IllegalArgumentException {
+    if (directory == null) {
+      throw new NullPointerException("The directory cannot be null.");
+    }
+    if (directory.isBlank()) {
+      throw new IllegalArgumentException("The directory cannot be blank.");
+    }
+    if (executor == null) {
+      throw new NullPointerException("Executor cannot be null.");
+    }
+    this.directory = Paths.get(directory);
+    this.executor = executor;
+    this.entries = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * The method scans the directory and parses every story file in it, in parallel. Each
+   * story is passed to the listener as soon as it has been parsed, on the thread that parsed
+   * it. Stories whose files have not changed since they were last parsed are not parsed
+   * again, and stories whose files have been removed are forgotten.
+   *
+   * @param listener the listener of the stories.
+   * @return a future that completes with every story of the directory, ordered by file name.
+   * @throws NullPointerException if the listener is null.
+   */
+  public CompletableFuture<List<StoryEntry>> scan(Consumer<StoryEntry> listener)
+      throws NullPointerException {
+    if (listener == null) {
+      throw new NullPointerException("The listener cannot be null.");
+    }
+    return CompletableFuture.supplyAsync(this::listStoryFiles, executor)
+        .thenCompose(files -> {
+          entries.keySet().retainAll(files);
+          List<CompletableFuture<StoryEntry>> futures = new ArrayList<>();
+          for (Path file : files) {
+            futures.add(CompletableFuture.supplyAsync(() -> {
+              StoryEntry entry = load(file, false);
+              publish(listener, entry);
+              return entry;
+            }, executor));
+          }
+          return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+              .thenApply(result -> futures.stream().map(CompletableFuture::join).toList());
+        });
+  }
+
+  /**
+   * The method retrieves the story of a file in the directory. The story is parsed if it
+   * has not been parsed before or if the file has changed, otherwise the parsed story is
+   * returned.
+   *
+   * @param fileName the name of the story file.
+   * @return the story and the diagnostics of the invalid actions.
+   * @throws NullPointerException if the fileName is null.
+   * @throws IOException          if the story cannot be read from the file.
+   */
+  public ParseResult<Story> getStory(String fileName) throws NullPointerException, IOException {
+    if (fileName == null) {
+      throw new NullPointerException("The file name cannot be null.");
+    }
+    StoryEntry entry = load(directory.resolve(fileName), false);
+    if (!entry.isValid()) {
+      throw new IOException(entry.getErrorMessage());
+    }
+    return entry.getParseResult();
+  }
+
+  /**
+   * The method parses the story of a file in the directory again, in the background, even if
+   * the modification time and size of the file are unchanged. The new story replaces the
+   * story of the file in the library and in the {@link StoryCache}, while games that already
+   * use the previous story keep it.
+   *
+   * @param fileName the name of the story file.
+   * @return a future that completes with the entry of the parsed story.
+   * @throws NullPointerException if the fileName is null.
+   */
+  public CompletableFuture<StoryEntry> reload(String fileName) throws NullPointerException {
+    if (fileName == null) {
+      throw new NullPointerException("The file name cannot be null.");
+    }
+    Path file = directory.resolve(fileName);
+    return CompletableFuture.supplyAsync(() -> {
+      invalidateCachedStory(file);
+      return load(file, true);
+    }, executor);
+  }
+
+  /**
+   * The method forgets the story of a file in the directory, and removes it from the
+   * {@link StoryCache}.
+   *
+   * @param fileName the name of the story file.
+   * @return true if the library held the story, false otherwise.
+   * @throws NullPointerException if the fileName is null.
+   */
+  public boolean remove(String fileName) throws NullPointerException {
+    if (fileName == null) {
+      throw new NullPointerException("The file name cannot be null.");
+    }
+    Path file = directory.resolve(fileName);
+    invalidateCachedStory(file);
+    return entries.remove(file) != null;
+  }
+
+  /**
+   * The method retrieves the directory of the stories.
+   *
+   * @return the path of the directory.
+   */
+  Path getDirectory() {
+    return directory;
+  }
+
+  /**
+   * The method retrieves the stories kept by the library, without scanning the directory or
+   * checking if the files have changed. The stories are those of the last scan, kept up to
+   * date by a {@link StoryWatcher}.
+   *
+   * @return the stories, ordered by file name.
+   */
+  public List<StoryEntry> getEntries() {
+    return entries.entrySet().stream()
+        .sorted(Map.Entry.comparingByKey())
+        .map(Map.Entry::getValue)
+        .toList();
+  }
+
+  /**
+   * The method retrieves the number of stories kept by the library.
+   *
+   * @return the number of stories.
+   */
+  public int size() {
+    return entries.size();
+  }
+
+  /**
+   * Helper method to list the story files of the directory.
+   *
+   * @return the paths of the story files, ordered by file name.
+   * @throws IllegalStateException if the directory cannot be listed.
+   */
+  private List<Path> listStoryFiles() throws IllegalStateException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.filter(file -> file.getFileName().toString().endsWith(FILE_EXTENSION))
+          .sorted()
+          .toList();
+    } catch (IOException e) {
+      String errorMessage = "Error listing the stories of " + directory + ": " + e.getMessage();
+      logger.log(Level.SEVERE, errorMessage, e);
+      throw new IllegalStateException(errorMessage, e);
+    }
+  }
+
+  /**
+   * Helper method to load the story of a file, parsing it only if the file has changed since
+   * it was last parsed. A file that cannot be parsed gives an invalid entry.
+   *
+   * @param file    the path of the story file.
+   * @param reparse true to parse the file even if it has not changed.
+   * @return the entry of the story.
+   */
+  private StoryEntry load(Path file, boolean reparse) {
+    long lastModified = 0;
+    long size = 0;
+    StoryEntry entry;
+    try {
+      BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+      lastModified = attributes.lastModifiedTime().toMillis();
+      size = attributes.size();
+
+      StoryEntry cachedEntry = entries.get(file);
+      if (!reparse && cachedEntry != null && cachedEntry.matches(lastModified, size)) {
+        return cachedEntry;
+      }
+      entry = new StoryEntry(file, lastModified, size,
+          FileStoryHandler.parseStoryWithDiagnostics(file.toString()), null);
+    } catch (IOException | RuntimeException e) {
+      String errorMessage = "The story " + file.getFileName() + " could not be read: "
+          + e.getMessage();
+      logger.log(Level.WARNING, errorMessage, e);
+      entry = new StoryEntry(file, lastModified, size, null, errorMessage);
+    }
+    entries.put(file, entry);
+    return entry;
+  }
+
+  /**
+   * Helper method to remove the story of a file from the {@link StoryCache}. The cache holds
+   * stories by the canonical path of the file, which cannot be found once the file is
+   * deleted, so the normalized absolute path is used instead.
+   *
+   * @param file the path of the story file.
+   */
+  private static void invalidateCachedStory(Path file) {
+    Path path = Paths.get(file.toString().toLowerCase().trim());
+    try {
+      StoryCache.invalidate(path.toRealPath());
+    } catch (IOException e) {
+      StoryCache.invalidate(path.toAbsolutePath().normalize());
+    }
+  }
+
+  /**
+   * Helper method to pass a story to the listener. Errors thrown by the listener are logged,
+   * so that they do not stop the other stories from being published.
+   *
+   * @param listener the listener of the stories.
+   * @param entry    the entry of the story.
+   */
+  private static void publish(Consumer<StoryEntry> listener, StoryEntry entry) {
+    try {
+      listener.accept(entry);
+    } catch (RuntimeException e) {
+      logger.log(Level.WARNING, "Error publishing the story " + entry.getFileName(), e);
+    }
+  }
+
+  /**
+   * Helper method to create the executor parsing the stories.
+   *
+   * @return the executor.
+   */
+  private static Executor createExecutor() {
+    int threads = Math.max(1, Math.min(MAX_THREADS, Runtime.getRuntime().availableProcessors()));
+    AtomicInteger threadNumber = new AtomicInteger();
+    return Executors.newFixedThreadPool(threads, runnable -> {
+      Thread thread = new Thread(runnable, "story-library-" + threadNumber.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * The StoryEntry class holds the story parsed from a file of the library, or the reason the
+   * file could not be parsed, together with the information used to check if the file has
+   * changed.
+   */
+  public static final class StoryEntry {
+    private final Path file;
+    private final long lastModified;
+    private final long size;
+    private final ParseResult<Story> parseResult;
+    private final String errorMessage;
+
+    /**
+     * Constructs a StoryEntry object.
+     *
+     * @param file         the path of the story file.
+     * @param lastModified the time the file was last modified, in milliseconds.
+     * @param size         the size of the file in bytes.
+     * @param parseResult  the parsed story, or null if the file could not be parsed.
+     * @param errorMessage the reason the file could not be parsed, or null if it was parsed.
+     */
+    StoryEntry(Path file, long lastModified, long size, ParseResult<Story> parseResult,
+               String errorMessage) {
+      this.file = file;
+      this.lastModified = lastModified;
+      this.size = size;
+      this.parseResult = parseResult;
+      this.errorMessage = errorMessage;
+    }
+
+    /**
+     * The method checks if the file still has the same modification time and size.
+     *
+     * @param lastModified the time the file was last modified, in milliseconds.
+     * @param size         the size of the file in bytes.
+     * @return true if the modification time and size are unchanged, false otherwise.
+     */
+    boolean matches(long lastModified, long size) {
+      return this.lastModified == lastModified && this.size == size;
+    }
+
+    /**
+     * The method retrieves the name of the story file.
+     *
+     * @return the file name.
+     */
+    public String getFileName() {
+      return file.getFileName().toString();
+    }
+
+    /**
+     * The method checks if the story was parsed from the file.
+     *
+     * @return true if the story was parsed, false otherwise.
+     */
+    public boolean isValid() {
+      return parseResult != null;
+    }
+
+    /**
+     * The method retrieves the parsed story and the diagnostics of its invalid actions.
+     *
+     * @return the parsed story, or null if the file could not be parsed.
+     */
+    public ParseResult<Story> getParseResult() {
+      return parseResult;
+    }
+
+    /**
+     * The method retrieves the reason the file could not be parsed.
+     *
+     * @return the error message, or null if the story was parsed.
+     */
+    public String getErrorMessage() {
+      return errorMessage;
+    }
+  }
+}
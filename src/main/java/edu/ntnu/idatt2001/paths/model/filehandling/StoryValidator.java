@@ -0,0 +1,330 @@
+package edu.ntnu.idatt2001.paths.model.filehandling;
+
+import edu.ntnu.idatt2001.paths.model.Link;
+import edu.ntnu.idatt2001.paths.model.Passage;
+import edu.ntnu.idatt2001.paths.model.PassageKey;
+import edu.ntnu.idatt2001.paths.model.filehandling.ValidationIssue.Type;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.LineNumberReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * The StoryValidator class checks a story file in one pass over its lines, without building
+ * the story. The lines are read with the same rules as {@link FileStoryHandler}, and the
+ * validator reports malformed passages and links, duplicate titles, broken links and invalid
+ * actions as errors, and passages that cannot be reached from the opening passage and passages
+ * without links to other passages as warnings. Only the titles of the passages and the
+ * references of the links are kept while the file is read.
+ *
+ * <p>The main method validates the story files given as arguments, or the story files of the
+ * given directories, and exits with a non-zero status if a file has errors, so that it can be
+ * run by continuous integration.
+ *
+ * @author Ramtin Samavat
+ * @author Tobias Oftedal
+ * @version 1.0
+ * @since May 26, 2023.
+ */
+public final class StoryValidator {
+
+  private static final String FILE_EXTENSION = ".paths";
+
+  private final List<ValidationIssue> issues;
+  private final Map<String, Integer> passageIds;
+  private final List<String> passageTitles;
+  private int[] titleLines;
+  private int linkCount;
+  private int[] linkSources;
+  private int[] linkLines;
+  private int[] linkColumns;
+  private final List<String> linkReferences;
+
+  /**
+   * Private constructor for the StoryValidator, which is created for every validation.
+   */
+  private StoryValidator() {
+    this.issues = new ArrayList<>();
+    this.passageIds = new HashMap<>();
+    this.passageTitles = new ArrayList<>();
+    this.titleLines = new int[16];
+    this.linkSources = new int[16];
+    this.linkLines = new int[16];
+    this.linkColumns = new int[16];
+    this.linkReferences = new ArrayList<>();
+  }
+
+  /**
+   * The method validates a story file.
+   *
+   * @param pathOfFile the path of the story file.
+   * @return the problems found in the file, ordered by their location.
+   * @throws NullPointerException     if the pathOfFile is null.
+   * @throws IllegalArgumentException if pathOfFile is blank or does not end with .paths.
+   * @throws IOException              if the file cannot be read.
+   */
+  public static List<ValidationIssue> validate(String pathOfFile)
+      throws NullPointerException, IllegalArgumentException, IOException {
+    FilePathValidator.validatePathOfFile(pathOfFile, FILE_EXTENSION);
+    Path path = Paths.get(pathOfFile.toLowerCase().trim());
+    try (Reader reader = new InputStreamReader(Files.newInputStream(path),
+        Charset.defaultCharset())) {
+      return validate(reader);
+    }
+  }
+
+  /**
+   * The method validates a story read from a reader.
+   *
+   * @param reader the reader of the story.
+   * @return the problems found in the story, ordered by their location.
+   * @throws IOException if the story cannot be read.
+   */
+  static List<ValidationIssue> validate(Reader reader) throws IOException {
+    StoryValidator validator = new StoryValidator();
+    validator.readLines(new LineNumberReader(reader));
+    validator.checkLinks();
+    validator.issues.sort(Comparator.comparingInt(
+            (ValidationIssue issue) -> issue.getDiagnostic().getLine())
+        .thenComparingInt(issue -> issue.getDiagnostic().getColumn()));
+    return List.copyOf(validator.issues);
+  }
+
+  /**
+   * The method validates the story files given as arguments, and the story files in the
+   * directories given as arguments, and prints the problems found. The program exits with
+   * status 1 if a file has errors or cannot be read, and with status 0 otherwise.
+   *
+   * @param args the paths of the story files and directories.
+   */
+  public static void main(String[] args) {
+    boolean failed = false;
+    int fileCount = 0;
+    for (String arg : args) {
+      List<Path> files = new ArrayList<>();
+      Path path = Paths.get(arg);
+      if (Files.isDirectory(path)) {
+        try (Stream<Path> directoryFiles = Files.list(path)) {
+          directoryFiles.filter(file -> file.toString().endsWith(FILE_EXTENSION)).sorted()
+              .forEach(files::add);
+        } catch (IOException e) {
+          System.out.println(arg + ": " + e.getMessage());
+          failed = true;
+        }
+      } else {
+        files.add(path);
+      }
+      for (Path file : files) {
+        fileCount++;
+        try {
+          for (ValidationIssue issue : validate(file.toString())) {
+            System.out.println(file + ": " + issue);
+            failed |= issue.isError();
+          }
+        } catch (IOException | IllegalArgumentException e) {
+          System.out.println(file + ": " + e.getMessage());
+          failed = true;
+        }
+      }
+    }
+    System.out.println("Validated " + fileCount + " story files" + (failed ? " with errors."
+        : "."));
+    System.exit(failed ? 1 : 0);
+  }
+
+  /**
+   * Helper method to read the lines of the story. A passage starts at a line beginning with
+   * "::", the next line is its content, and the following lines with a "[" are its links. The
+   * line ending the links is skipped, as by {@link FileStoryHandler}.
+   *
+   * @param reader the reader of the story.
+   * @throws IOException if the story cannot be read.
+   */
+  private void readLines(LineNumberReader reader) throws IOException {
+    String storyTitle = reader.readLine();
+    if (storyTitle == null || storyTitle.isBlank()) {
+      addIssue(Type.MALFORMED_STORY, 1, 0, "The story has no title.");
+    }
+    String line = reader.readLine();
+    while (line != null) {
+      if (line.startsWith("::")) {
+        int titleLine = reader.getLineNumber();
+        int passageId = addPassage(line.substring(2), reader.readLine(), titleLine);
+        while ((line = reader.readLine()) != null && line.contains("[")) {
+          addLink(passageId, line, reader.getLineNumber());
+        }
+        if (line != null && line.startsWith("::")) {
+          addIssue(Type.MALFORMED_PASSAGE, reader.getLineNumber(), 1, "The passage "
+              + line.substring(2).trim() + " is skipped, since it directly follows the links "
+              + "of the passage " + passageTitleOf(passageId, titleLine) + ".");
+        }
+      }
+      line = reader.readLine();
+    }
+    if (passageTitles.isEmpty()) {
+      addIssue(Type.MALFORMED_STORY, 1, 0, "The story has no passages.");
+    }
+  }
+
+  /**
+   * Helper method to register a passage.
+   *
+   * @param title     the title of the passage.
+   * @param content   the content of the passage, or null if the file ended.
+   * @param titleLine the line of the title of the passage.
+   * @return the ID of the passage, or -1 if the passage is invalid.
+   */
+  private int addPassage(String title, String content, int titleLine) {
+    if (content == null) {
+      addIssue(Type.MALFORMED_PASSAGE, titleLine, 1, "The passage " + title.trim()
+          + " has no content.");
+      return -1;
+    }
+    try {
+      new Passage(title, content);
+    } catch (IllegalArgumentException | NullPointerException e) {
+      addIssue(Type.MALFORMED_PASSAGE, titleLine, 1, "The passage " + title.trim()
+          + " is invalid: " + e.getMessage() + ".");
+      return -1;
+    }
+    int passageId = passageTitles.size();
+    Integer previousId = passageIds.putIfAbsent(PassageKey.of(title).getTitle(), passageId);
+    if (previousId != null) {
+      addIssue(Type.DUPLICATE_TITLE, titleLine, 1, "The passage title " + title.trim()
+          + " is already used at line " + titleLines[previousId] + ".");
+      return -1;
+    }
+    if (passageId == titleLines.length) {
+      titleLines = Arrays.copyOf(titleLines, passageId * 2);
+    }
+    titleLines[passageId] = titleLine;
+    passageTitles.add(title.trim());
+    return passageId;
+  }
+
+  /**
+   * Helper method to register a link, and report its invalid actions.
+   *
+   * @param passageId  the ID of the passage of the link, or -1 if the passage is invalid.
+   * @param line       the line of the link.
+   * @param lineNumber the number of the line.
+   */
+  private void addLink(int passageId, String line, int lineNumber) {
+    List<ParseDiagnostic> diagnostics = new ArrayList<>();
+    Link link;
+    try {
+      link = FileStoryHandler.parseLink(line, lineNumber, diagnostics);
+    } catch (RuntimeException e) {
+      addIssue(Type.MALFORMED_LINK, lineNumber, 1, "The link " + line.trim()
+          + " is malformed.");
+      return;
+    }
+    for (ParseDiagnostic diagnostic : diagnostics) {
+      issues.add(new ValidationIssue(Type.INVALID_ACTION, diagnostic));
+    }
+    if (linkCount == linkSources.length) {
+      linkSources = Arrays.copyOf(linkSources, linkCount * 2);
+      linkLines = Arrays.copyOf(linkLines, linkCount * 2);
+      linkColumns = Arrays.copyOf(linkColumns, linkCount * 2);
+    }
+    linkSources[linkCount] = passageId;
+    linkLines[linkCount] = lineNumber;
+    linkColumns[linkCount] = line.indexOf('(') + 1;
+    linkReferences.add(link.getReference());
+    linkCount++;
+  }
+
+  /**
+   * Helper method to resolve the references of the links, and report broken links, passages
+   * that cannot be reached from the opening passage, and passages without links to other
+   * passages.
+   */
+  private void checkLinks() {
+    int passageCount = passageTitles.size();
+    int[] targets = new int[linkCount];
+    int[] linkOffsets = new int[passageCount + 1];
+    for (int link = 0; link < linkCount; link++) {
+      Integer target = passageIds.get(PassageKey.of(linkReferences.get(link)).getTitle());
+      targets[link] = target == null ? -1 : target;
+      if (target == null) {
+        addIssue(Type.BROKEN_LINK, linkLines[link], linkColumns[link], "The link references "
+            + "the passage " + linkReferences.get(link) + ", which does not exist.");
+      } else if (linkSources[link] >= 0) {
+        linkOffsets[linkSources[link] + 1]++;
+      }
+    }
+    for (int passage = 0; passage < passageCount; passage++) {
+      linkOffsets[passage + 1] += linkOffsets[passage];
+    }
+    int[] edges = new int[linkOffsets[passageCount]];
+    int[] edgeCounts = new int[passageCount];
+    for (int link = 0; link < linkCount; link++) {
+      int source = linkSources[link];
+      if (source >= 0 && targets[link] >= 0) {
+        edges[linkOffsets[source] + edgeCounts[source]++] = targets[link];
+      }
+    }
+
+    boolean[] reachable = new boolean[passageCount];
+    if (passageCount > 0) {
+      int[] queue = new int[passageCount];
+      int head = 0;
+      int tail = 0;
+      reachable[0] = true;
+      queue[tail++] = 0;
+      while (head < tail) {
+        int passage = queue[head++];
+        for (int edge = linkOffsets[passage]; edge < linkOffsets[passage + 1]; edge++) {
+          if (!reachable[edges[edge]]) {
+            reachable[edges[edge]] = true;
+            queue[tail++] = edges[edge];
+          }
+        }
+      }
+    }
+    for (int passage = 0; passage < passageCount; passage++) {
+      if (!reachable[passage]) {
+        addIssue(Type.UNREACHABLE_PASSAGE, titleLines[passage], 1, "The passage "
+            + passageTitles.get(passage) + " cannot be reached from the opening passage.");
+      }
+      if (linkOffsets[passage] == linkOffsets[passage + 1]) {
+        addIssue(Type.DEAD_END, titleLines[passage], 1, "The passage "
+            + passageTitles.get(passage) + " has no links to other passages.");
+      }
+    }
+  }
+
+  /**
+   * Helper method to find the title of a passage for a message.
+   *
+   * @param passageId the ID of the passage, or -1 if the passage is invalid.
+   * @param titleLine the line of the title of the passage.
+   * @return the title of the passage, or its line if the passage is invalid.
+   */
+  private String passageTitleOf(int passageId, int titleLine) {
+    return passageId >= 0 ? passageTitles.get(passageId) : "at line " + titleLine;
+  }
+
+  /**
+   * Helper method to add a problem.
+   *
+   * @param type    the type of the problem.
+   * @param line    the line of the problem.
+   * @param column  the column of the problem, or 0 if the column is unknown.
+   * @param message the description of the problem.
+   */
+  private void addIssue(Type type, int line, int column, String message) {
+    issues.add(new ValidationIssue(type, new ParseDiagnostic(line, column, message)));
+  }
+}
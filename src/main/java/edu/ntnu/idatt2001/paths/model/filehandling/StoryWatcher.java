@@ -0,0 +1,216 @@
+package edu.ntnu.idatt2001.paths.model.filehandling;
+
+import edu.ntnu.idatt2001.paths.model.filehandling.StoryLibrary.StoryEntry;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The StoryWatcher class watches the directory of a story library, and reloads the stories
+ * whose files are created, modified or deleted while the application runs. Only the changed
+ * files are parsed again, in the background, and the new stories replace the old ones in the
+ * library and in the {@link StoryCache}. Games that are already running keep the story they
+ * were started with until they are loaded again.
+ *
+ * <p>A file is often written in several steps, so the watcher waits until the directory has
+ * been quiet for a short while before reloading the files that changed.
+ *
+ * @author Ramtin Samavat
+ * @author Tobias Oftedal
+ * @version 1.0
+ * @since May 25, 2023.
+ */
+public final class StoryWatcher implements AutoCloseable {
+
+  private static final Logger logger = Logger.getLogger(StoryWatcher.class.getName());
+  private static final String FILE_EXTENSION = ".paths";
+  private static final long SETTLE_MILLIS = 200;
+
+  private final StoryLibrary library;
+  private final WatchService watchService;
+  private final Thread thread;
+  private volatile Listener listener;
+
+  /**
+   * Constructor for the StoryWatcher class. The directory of the library is registered with
+   * the watch service of its file system, but it is not watched before the watcher is
+   * started.
+   *
+   * @param library the story library to reload.
+   * @throws NullPointerException if the library is null.
+   * @throws IOException          if the directory cannot be watched.
+   */
+  public StoryWatcher(StoryLibrary library) throws NullPointerException, IOException {
+    if (library == null) {
+      throw new NullPointerException("The story library cannot be null.");
+    }
+    this.library = library;
+    Path directory = library.getDirectory();
+    this.watchService = directory.getFileSystem().newWatchService();
+    try {
+      directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+          StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+    } catch (IOException e) {
+      watchService.close();
+      String errorMessage = "The directory " + directory + " cannot be watched: "
+          + e.getMessage();
+      logger.log(Level.WARNING, errorMessage, e);
+      throw new IOException(errorMessage, e);
+    }
+    this.thread = new Thread(this::watch, "story-watcher");
+    this.thread.setDaemon(true);
+  }
+
+  /**
+   * The Listener interface is notified when the watcher has reloaded or removed a story. The
+   * methods are called on a background thread.
+   */
+  public interface Listener {
+
+    /**
+     * The method is called when the story of a created or modified file has been parsed.
+     *
+     * @param entry the entry of the story, which is invalid if the file could not be parsed.
+     */
+    void storyChanged(StoryEntry entry);
+
+    /**
+     * The method is called when the file of a story has been deleted.
+     *
+     * @param fileName the name of the deleted story file.
+     */
+    void storyRemoved(String fileName);
+  }
+
+  /**
+   * The method starts watching the directory.
+   *
+   * @throws IllegalStateException if the watcher has already been started.
+   */
+  public void start() throws IllegalStateException {
+    thread.start();
+  }
+
+  /**
+   * The method sets the listener that is notified of the reloaded stories, replacing the
+   * previous listener.
+   *
+   * @param listener the listener, or null to stop notifying.
+   */
+  public void setListener(Listener listener) {
+    this.listener = listener;
+  }
+
+  /**
+   * The method stops watching the directory.
+   *
+   * @throws IOException if the watch service cannot be closed.
+   */
+  @Override
+  public void close() throws IOException {
+    watchService.close();
+  }
+
+  /**
+   * Helper method to watch the directory until the watcher is closed. The events are collected
+   * until the directory has been quiet for a while, and then the changed files are reloaded.
+   */
+  private void watch() {
+    try {
+      while (true) {
+        Set<String> changedFiles = new LinkedHashSet<>();
+        WatchKey key = watchService.take();
+        boolean overflow = false;
+        boolean valid = true;
+        while (key != null) {
+          overflow |= collectChangedFiles(key, changedFiles);
+          valid &= key.reset();
+          key = watchService.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS);
+        }
+        if (overflow) {
+          library.scan(this::notifyChanged);
+        } else {
+          changedFiles.forEach(this::reload);
+        }
+        if (!valid) {
+          logger.log(Level.WARNING, "The directory " + library.getDirectory()
+              + " can no longer be watched.");
+          return;
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ClosedWatchServiceException e) {
+      logger.log(Level.FINE, "Stopped watching " + library.getDirectory());
+    }
+  }
+
+  /**
+   * Helper method to collect the names of the story files that changed in the events of a
+   * watch key.
+   *
+   * @param key          the watch key.
+   * @param changedFiles the set to add the names of the changed files to.
+   * @return true if events were lost, false otherwise.
+   */
+  private static boolean collectChangedFiles(WatchKey key, Set<String> changedFiles) {
+    boolean overflow = false;
+    for (WatchEvent<?> event : key.pollEvents()) {
+      if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+        overflow = true;
+      } else if (event.context() instanceof Path path
+          && path.toString().endsWith(FILE_EXTENSION)) {
+        changedFiles.add(path.toString());
+      }
+    }
+    return overflow;
+  }
+
+  /**
+   * Helper method to reload the story of a changed file, or remove it if the file has been
+   * deleted.
+   *
+   * @param fileName the name of the changed file.
+   */
+  private void reload(String fileName) {
+    if (Files.exists(library.getDirectory().resolve(fileName))) {
+      library.reload(fileName).thenAccept(this::notifyChanged);
+    } else {
+      library.remove(fileName);
+      Listener currentListener = listener;
+      if (currentListener != null) {
+        try {
+          currentListener.storyRemoved(fileName);
+        } catch (RuntimeException e) {
+          logger.log(Level.WARNING, "Error publishing the removal of " + fileName, e);
+        }
+      }
+    }
+  }
+
+  /**
+   * Helper method to notify the listener of a reloaded story.
+   *
+   * @param entry the entry of the story.
+   */
+  private void notifyChanged(StoryEntry entry) {
+    Listener currentListener = listener;
+    if (currentListener != null) {
+      try {
+        currentListener.storyChanged(entry);
+      } catch (RuntimeException e) {
+        logger.log(Level.WARNING, "Error publishing the story " + entry.getFileName(), e);
+      }
+    }
+  }
+}
@@ -0,0 +1,131 @@
+package edu.ntnu.idatt2001.paths.model.filehandling;
+
+import java.util.Objects;
+
+/**
+ * The ValidationIssue class describes a problem found by the {@link StoryValidator} in a story
+ * file, with the type of the problem and its location in the file. Errors are problems that
+ * make the story fail to load or break the game, while warnings are problems in the structure
+ * of a story that can still be played.
+ *
+ * @author Ramtin Samavat
+ * @author Tobias Oftedal
+ * @version 1.0
+ * @since May 26, 2023.
+ */
+public final class ValidationIssue {
+
+  /**
+   * The types of problems found by the validator.
+   */
+  public enum Type {
+    MALFORMED_STORY(true),
+    MALFORMED_PASSAGE(true),
+    MALFORMED_LINK(true),
+    DUPLICATE_TITLE(true),
+    BROKEN_LINK(true),
+    INVALID_ACTION(true),
+    UNREACHABLE_PASSAGE(false),
+    DEAD_END(false);
+
+    private final boolean error;
+
+    /**
+     * Constructor for the Type enum.
+     *
+     * @param error true if the problems of the type are errors, false if they are warnings.
+     */
+    Type(boolean error) {
+      this.error = error;
+    }
+
+    /**
+     * The method checks if the problems of the type are errors.
+     *
+     * @return true if the problems are errors, false if they are warnings.
+     */
+    public boolean isError() {
+      return error;
+    }
+  }
+
+  private final Type type;
+  private final ParseDiagnostic diagnostic;
+
+  /**
+   * Constructor for the ValidationIssue class.
+   *
+   * @param type       the type of the problem.
+   * @param diagnostic the location and description of the problem.
+   * @throws NullPointerException if the type or diagnostic is null.
+   */
+  public ValidationIssue(Type type, ParseDiagnostic diagnostic) throws NullPointerException {
+    this.type = Objects.requireNonNull(type, "The type cannot be null.");
+    this.diagnostic = Objects.requireNonNull(diagnostic, "The diagnostic cannot be null.");
+  }
+
+  /**
+   * The method retrieves the type of the problem.
+   *
+   * @return the type.
+   */
+  public Type getType() {
+    return type;
+  }
+
+  /**
+   * The method retrieves the location and description of the problem.
+   *
+   * @return the diagnostic.
+   */
+  public ParseDiagnostic getDiagnostic() {
+    return diagnostic;
+  }
+
+  /**
+   * The method checks if the problem is an error.
+   *
+   * @return true if the problem is an error, false if it is a warning.
+   */
+  public boolean isError() {
+    return type.isError();
+  }
+
+  /**
+   * The method returns the location, severity and description of the problem.
+   *
+   * @return a textual representation of the problem.
+   */
+  @Override
+  public String toString() {
+    return (isError() ? "error " : "warning ") + type + ": " + diagnostic;
+  }
+
+  /**
+   * The method checks for equality between validation issues.
+   *
+   * @param o the object to which it is being compared.
+   * @return a boolean value which indicate whether they are equal or not.
+   */
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    ValidationIssue that = (ValidationIssue) o;
+    return type == that.type && diagnostic.equals(that.diagnostic);
+  }
+
+  /**
+   * The method generates a hash value for the object.
+   *
+   * @return hash value for the object.
+   */
+  @Override
+  public int hashCode() {
+    return Objects.hash(type, diagnostic);
+  }
+}
@@ -1,5 +1,7 @@
 package edu.ntnu.idatt2001.paths.model.goals;
 
+import java.util.Arrays;
+
 /**
  * Enum representing different types of goals.
  * Each goal type has a corresponding description and goal class.
@@ -47,5 +49,20 @@ public enum GoalType {
   public Class<? extends Goal> getGoalClass() {
     return goalClass;
   }
+
+  /**
+   * The method returns the GoalType corresponding to the given goal description.
+   *
+   * @param description the goal description.
+   * @return the GoalType corresponding to the goal description.
+   * @throws IllegalArgumentException if the GoalType does not exist.
+   */
+  public static GoalType getGoalType(String description)
+          throws IllegalArgumentException {
+    return Arrays.stream(GoalType.values())
+            .filter(goalType -> goalType.toString().equalsIgnoreCase(description))
+            .findFirst()
+            .orElseThrow(() -> new IllegalArgumentException("Invalid goal type: " + description));
+  }
 }
 
@@ -0,0 +1,128 @@
+package edu.ntnu.idatt2001.paths.server;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import edu.ntnu.idatt2001.paths.model.Game;
+import edu.ntnu.idatt2001.paths.model.Link;
+import edu.ntnu.idatt2001.paths.model.Passage;
+import edu.ntnu.idatt2001.paths.model.Player;
+import edu.ntnu.idatt2001.paths.model.goals.Goal;
+import java.util.NoSuchElementException;
+
+/**
+ * The GameState class plays the games of the server and describes them as JSON. The games are
+ * used through {@link edu.ntnu.idatt2001.paths.controller.GameManager#withGame}, so that the
+ * requests of a game are handled one at a time, while the requests of different games are
+ * handled in parallel.
+ *
+ * @author Ramtin Samavat
+ * @author Tobias Oftedal
+ * @version 1.0
+ * @since May 26, 2023.
+ */
+final class GameState {
+
+  /**
+   * Private constructor for the GameState utility class.
+   *
+   * @throws IllegalStateException If the constructor is used.
+   */
+  private GameState() throws IllegalStateException {
+    throw new IllegalStateException("Cannot instantiate a GameState object");
+  }
+
+  /**
+   * The method follows the link at the given position of the current passage. The actions
+   * of the link are executed on the player, unless they have been consumed before, and the
+   * player moves to the passage the link references.
+   *
+   * @param game      the game.
+   * @param linkIndex the position of the link in the current passage.
+   * @return the state of the game after following the link.
+   * @throws NoSuchElementException if the current passage has no link at the position, or
+   *                                the link references a passage that does not exist.
+   * @throws IllegalStateException  if the game is finished because the player has died.
+   */
+  static JsonObject followLink(Game game, int linkIndex)
+      throws NoSuchElementException, IllegalStateException {
+    if (isPlayerDead(game)) {
+      throw new IllegalStateException("The game is finished, the player has died.");
+    }
+    Passage passage = game.getCurrentPassage();
+    if (linkIndex < 0 || linkIndex >= passage.getLinks().size()) {
+      throw new NoSuchElementException("The passage " + passage.getTitle()
+          + " has no link " + linkIndex + ".");
+    }
+    Link link = passage.getLinks().get(linkIndex);
+    Passage nextPassage = game.go(link);
+    game.executeActions(link);
+    game.setCurrentPassage(nextPassage);
+    return toJson(game);
+  }
+
+  /**
+   * The method retrieves the state of the game, with the current passage and its links, the
+   * player, and whether each goal is fulfilled.
+   *
+   * @param game the game.
+   * @return the state of the game.
+   */
+  static JsonObject toJson(Game game) {
+    Passage passage = game.getCurrentPassage();
+    JsonArray links = new JsonArray();
+    for (int i = 0; i < passage.getLinks().size(); i++) {
+      Link link = passage.getLinks().get(i);
+      JsonObject linkObject = new JsonObject();
+      linkObject.addProperty("index", i);
+      linkObject.addProperty("text", link.getText());
+      linkObject.addProperty("reference", link.getReference());
+      linkObject.addProperty("consumed", game.isConsumed(link));
+      links.add(linkObject);
+    }
+    JsonObject passageObject = new JsonObject();
+    passageObject.addProperty("title", passage.getTitle());
+    passageObject.addProperty("content", passage.getContent());
+    passageObject.add("links", links);
+
+    Player player = game.getPlayer();
+    JsonObject playerObject = new JsonObject();
+    playerObject.addProperty("name", player.getName());
+    playerObject.addProperty("health", player.getHealth());
+    playerObject.addProperty("score", player.getScore());
+    playerObject.addProperty("gold", player.getGold());
+    JsonArray inventory = new JsonArray();
+    player.getInventory().forEach(inventory::add);
+    playerObject.add("inventory", inventory);
+
+    JsonArray goals = new JsonArray();
+    boolean allGoalsFulfilled = true;
+    for (Goal goal : game.getGoals()) {
+      boolean fulfilled = goal.isFulfilled(player);
+      allGoalsFulfilled &= fulfilled;
+      JsonObject goalObject = new JsonObject();
+      goalObject.addProperty("goal", goal.toString());
+      goalObject.addProperty("fulfilled", fulfilled);
+      goals.add(goalObject);
+    }
+
+    JsonObject state = new JsonObject();
+    state.addProperty("gameId", game.getGameId());
+    state.addProperty("story", game.getStory().getTitle());
+    state.add("passage", passageObject);
+    state.add("player", playerObject);
+    state.add("goals", goals);
+    state.addProperty("goalsFulfilled", allGoalsFulfilled);
+    state.addProperty("finished", isPlayerDead(game) || !passage.hasLinks());
+    return state;
+  }
+
+  /**
+   * Helper method to check if the player of a game has died.
+   *
+   * @param game the game.
+   * @return true if the player has no health left, false otherwise.
+   */
+  private static boolean isPlayerDead(Game game) {
+    return game.getPlayer().getHealth() <= 0;
+  }
+}
@@ -0,0 +1,547 @@
+package edu.ntnu.idatt2001.paths.server;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import edu.ntnu.idatt2001.paths.controller.GameManager;
+import edu.ntnu.idatt2001.paths.controller.GameQuery;
+import edu.ntnu.idatt2001.paths.controller.GameVersionConflictException;
+import edu.ntnu.idatt2001.paths.model.Game;
+import edu.ntnu.idatt2001.paths.model.Player;
+import edu.ntnu.idatt2001.paths.model.Story;
+import edu.ntnu.idatt2001.paths.model.filehandling.FileGameHandler;
+import edu.ntnu.idatt2001.paths.model.filehandling.StoredGame;
+import edu.ntnu.idatt2001.paths.model.filehandling.StoryLibrary;
+import edu.ntnu.idatt2001.paths.model.goals.Goal;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The PathsHandler class handles the HTTP requests of the server. The requests and responses
+ * are JSON objects, and the following requests are handled:
+ *
+ * <ul>
+ *   <li>GET /stories lists the stories that can be played.</li>
+ *   <li>GET /games finds the saved games, optionally by the query parameters player (the
+ *   start of the player name), story, passage, minScore, maxScore and limit.</li>
+ *   <li>POST /games creates a game, from a game ID, a player, the file name of a story and a
+ *   list of goals in the format of the file of games.</li>
+ *   <li>GET /games/{id} retrieves the current passage of a game, its links and the player.</li>
+ *   <li>POST /games/{id}/links/{index} follows a link of the current passage.</li>
+ *   <li>POST /games/{id}/save saves a game.</li>
+ * </ul>
+ *
+ * <p>A game is saved when it is created, so that the game manager holds every game of the
+ * server. The games are played through the game manager, which keeps a limited number of
+ * them in memory, and the changes of a game are kept until the game is saved, even if it is
+ * evicted from memory in between.
+ *
+ * @author Ramtin Samavat
+ * @author Tobias Oftedal
+ * @version 1.0
+ * @since May 26, 2023.
+ */
+final class PathsHandler implements HttpHandler {
+
+  private static final Logger logger = Logger.getLogger(PathsHandler.class.getName());
+  private static final String STORIES_PATH = "/stories";
+  private static final String GAMES_PATH = "/games";
+  private static final String LINKS_SEGMENT = "links";
+  private static final String SAVE_SEGMENT = "save";
+  private static final String STORY_FILE_EXTENSION = ".paths";
+  private static final int MAX_BODY_SIZE = 64 * 1024;
+  private static final Gson gson = new Gson();
+
+  private final GameManager gameManager;
+  private final StoryLibrary storyLibrary;
+
+  /**
+   * Constructor for the PathsHandler class.
+   *
+   * @param gameManager  the game manager creating and saving the games.
+   * @param storyLibrary the library of the stories that can be played.
+   * @throws NullPointerException if the gameManager or storyLibrary is null.
+   */
+  PathsHandler(GameManager gameManager, StoryLibrary storyLibrary)
+      throws NullPointerException {
+    if (gameManager == null) {
+      throw new NullPointerException("Game manager cannot be null.");
+    }
+    if (storyLibrary == null) {
+      throw new NullPointerException("Story library cannot be null.");
+    }
+    this.gameManager = gameManager;
+    this.storyLibrary = storyLibrary;
+  }
+
+  /**
+   * The method handles a request, and sends an error response if the request is invalid or
+   * cannot be handled. The errors of the client are sent with the status of the error, and
+   * any other error, such as a stored game that cannot be read, is sent as a server error.
+   *
+   * @param exchange the request and its response.
+   */
+  @Override
+  public void handle(HttpExchange exchange) {
+    try {
+      route(exchange);
+    } catch (RequestException e) {
+      sendError(exchange, e.getStatus(), e.getMessage());
+    } catch (GameVersionConflictException e) {
+      sendError(exchange, 409, e.getMessage());
+    } catch (NoSuchElementException e) {
+      sendError(exchange, 404, e.getMessage());
+    } catch (IOException | RuntimeException e) {
+      logger.log(Level.SEVERE, "Error handling " + exchange.getRequestURI(), e);
+      sendError(exchange, 500, e.getMessage());
+    }
+  }
+
+  /**
+   * Helper method to pass a request to the method handling its path and method.
+   *
+   * @param exchange the request and its response.
+   * @throws IOException if there is an error reading the request or writing the response.
+   */
+  private void route(HttpExchange exchange) throws IOException {
+    String method = exchange.getRequestMethod();
+    String path = exchange.getRequestURI().getPath();
+    if (path.equals(STORIES_PATH)) {
+      requireMethod(method, "GET");
+      sendJson(exchange, 200, listStories());
+      return;
+    }
+    if (path.equals(GAMES_PATH) || path.equals(GAMES_PATH + "/")) {
+      if (method.equals("GET")) {
+        sendJson(exchange, 200, findGames(exchange.getRequestURI().getRawQuery()));
+        return;
+      }
+      requireMethod(method, "POST");
+      createGame(exchange, readBody(exchange));
+      return;
+    }
+    if (!path.startsWith(GAMES_PATH + "/")) {
+      throw new RequestException(404, "No resource at " + path + ".");
+    }
+    String[] segments = path.substring(GAMES_PATH.length() + 1).split("/", -1);
+    String gameId = segments[0];
+    if (segments.length == 1) {
+      requireMethod(method, "GET");
+      sendJson(exchange, 200, gameManager.withGame(gameId, GameState::toJson));
+    } else if (segments.length == 3 && segments[1].equals(LINKS_SEGMENT)) {
+      requireMethod(method, "POST");
+      int linkIndex = parseLinkIndex(segments[2]);
+      sendJson(exchange, 200, gameManager.withGame(gameId,
+          game -> followLink(game, linkIndex)));
+    } else if (segments.length == 2 && segments[1].equals(SAVE_SEGMENT)) {
+      requireMethod(method, "POST");
+      sendWhenSaved(exchange, 200, gameManager.withGame(gameId, this::saveGame));
+    } else {
+      throw new RequestException(404, "No resource at " + path + ".");
+    }
+  }
+
+  /**
+   * Helper method to list the valid stories of the library, as they were when the library
+   * was last scanned or reloaded.
+   *
+   * @return the file names and titles of the stories.
+   */
+  private JsonArray listStories() {
+    JsonArray stories = new JsonArray();
+    storyLibrary.getEntries().stream()
+        .filter(StoryLibrary.StoryEntry::isValid)
+        .forEach(entry -> {
+          JsonObject story = new JsonObject();
+          story.addProperty("file", entry.getFileName());
+          story.addProperty("title", entry.getParseResult().getValue().getTitle());
+          stories.add(story);
+        });
+    return stories;
+  }
+
+  /**
+   * Helper method to find the saved games matching the parameters of a query string.
+   *
+   * @param rawQuery the query string of the request, or null if it has none.
+   * @return the summaries of the games found.
+   * @throws RequestException if a parameter is unknown or has an invalid value.
+   */
+  private JsonArray findGames(String rawQuery) throws RequestException {
+    JsonArray games = new JsonArray();
+    for (StoredGame storedGame : gameManager.findGames(parseQuery(rawQuery))) {
+      JsonObject game = new JsonObject();
+      game.addProperty("gameId", storedGame.getGameId());
+      game.addProperty("player", storedGame.getPlayerName());
+      game.addProperty("score", storedGame.getPlayerScore());
+      game.addProperty("story", storedGame.getStoryTitle());
+      game.addProperty("passage", storedGame.getCurrentPassageTitle());
+      game.addProperty("version", storedGame.getVersion());
+      games.add(game);
+    }
+    return games;
+  }
+
+  /**
+   * Helper method to parse the parameters of a query string to a query of the saved games.
+   *
+   * @param rawQuery the query string of the request, or null if it has none.
+   * @return the query.
+   * @throws RequestException if a parameter is unknown or has an invalid value.
+   */
+  private static GameQuery parseQuery(String rawQuery) throws RequestException {
+    GameQuery.GameQueryBuilder builder = GameQuery.builder();
+    if (rawQuery == null || rawQuery.isEmpty()) {
+      return builder.build();
+    }
+    try {
+      for (String parameter : rawQuery.split("&")) {
+        int separator = parameter.indexOf('=');
+        String name = URLDecoder.decode(separator < 0 ? parameter
+            : parameter.substring(0, separator), StandardCharsets.UTF_8);
+        String value = separator < 0 ? ""
+            : URLDecoder.decode(parameter.substring(separator + 1), StandardCharsets.UTF_8);
+        switch (name) {
+          case "player" -> builder.playerNamePrefix(value);
+          case "story" -> builder.storyTitle(value);
+          case "passage" -> builder.currentPassageTitle(value);
+          case "minScore" -> builder.minScore(Integer.parseInt(value));
+          case "maxScore" -> builder.maxScore(Integer.parseInt(value));
+          case "limit" -> builder.limit(Integer.parseInt(value));
+          default -> throw new RequestException(400, "Unknown query parameter " + name + ".");
+        }
+      }
+      return builder.build();
+    } catch (IllegalArgumentException e) {
+      throw new RequestException(400, "Invalid query: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Helper method to create a game and save it, and send the state of the game when it has
+   * been written.
+   *
+   * @param exchange the request and its response.
+   * @param body     the request, with the game ID, the player, the story file and the goals.
+   * @throws RequestException       if the request is not a valid game, or a game with the
+   *                                same ID already exists.
+   * @throws NoSuchElementException if the story cannot be read.
+   */
+  private void createGame(HttpExchange exchange, JsonObject body)
+      throws RequestException, NoSuchElementException {
+    String gameId = getString(body, "gameId");
+    if (gameId.isBlank()) {
+      throw new RequestException(400, "The game ID cannot be blank.");
+    }
+    Player player = parsePlayer(body.get("player"));
+    Story story = readStory(getString(body, "story"));
+    List<Goal> goals = body.has("goals") ? parseGoals(body.get("goals")) : new ArrayList<>();
+
+    Game game;
+    try {
+      game = gameManager.createGame(gameId, player, story, goals);
+    } catch (IllegalArgumentException e) {
+      throw new RequestException(409, e.getMessage());
+    }
+    CompletableFuture<JsonObject> saved;
+    try {
+      saved = saveGame(game);
+    } finally {
+      gameManager.releaseGame(game);
+    }
+    sendWhenSaved(exchange, 201, saved);
+  }
+
+  /**
+   * Helper method to parse the player of a game, in the format of the file of games.
+   *
+   * @param jsonElement the JSON object of the player.
+   * @return the player.
+   * @throws RequestException if the player is missing or invalid.
+   */
+  private static Player parsePlayer(JsonElement jsonElement) throws RequestException {
+    if (jsonElement == null || !jsonElement.isJsonObject()) {
+      throw new RequestException(400, "The game has no player.");
+    }
+    JsonObject playerObject = jsonElement.getAsJsonObject();
+    try {
+      Player.PlayerBuilder playerBuilder = new Player.PlayerBuilder(getString(playerObject,
+          "name"));
+      if (playerObject.has("health")) {
+        playerBuilder.health(getInt(playerObject, "health"));
+      }
+      if (playerObject.has("score")) {
+        playerBuilder.score(getInt(playerObject, "score"));
+      }
+      if (playerObject.has("gold")) {
+        playerBuilder.gold(getInt(playerObject, "gold"));
+      }
+      return playerBuilder.build();
+    } catch (IllegalArgumentException e) {
+      throw new RequestException(400, "Invalid player: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Helper method to parse the goals of a game, in the format of the file of games.
+   *
+   * @param jsonElement the JSON array of goals.
+   * @return the goals.
+   * @throws RequestException if the goals are invalid.
+   */
+  private static List<Goal> parseGoals(JsonElement jsonElement) throws RequestException {
+    try {
+      return FileGameHandler.parseGoals(jsonElement);
+    } catch (JsonParseException | IllegalArgumentException e) {
+      throw new RequestException(400, "Invalid goals: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Helper method to read a story of the library. Only the files of the directory of the
+   * library can be read.
+   *
+   * @param fileName the file name of the story.
+   * @return the story.
+   * @throws RequestException       if the file name is not the name of a story file.
+   * @throws NoSuchElementException if the story cannot be read.
+   */
+  private Story readStory(String fileName) throws RequestException, NoSuchElementException {
+    if (fileName.contains("/") || fileName.contains("\\") || fileName.startsWith(".")
+        || !fileName.endsWith(STORY_FILE_EXTENSION)) {
+      throw new RequestException(400, "The story " + fileName + " is not a story file.");
+    }
+    try {
+      return storyLibrary.getStory(fileName).getValue();
+    } catch (IOException e) {
+      throw new NoSuchElementException("The story " + fileName + " cannot be read: "
+          + e.getMessage());
+    }
+  }
+
+  /**
+   * Helper method to save a game as it is when the method is called. The thread handling the
+   * request is not held while the game is written.
+   *
+   * @param game the game to save.
+   * @return a future that completes with the state of the game when it has been written.
+   */
+  private CompletableFuture<JsonObject> saveGame(Game game) {
+    JsonObject state = GameState.toJson(game);
+    return gameManager.saveGameAsync(game, game.getCurrentPassage())
+        .thenApply(result -> state);
+  }
+
+  /**
+   * Helper method to send the state of a game when it has been saved, or an error if it
+   * could not be saved.
+   *
+   * @param exchange the request and its response.
+   * @param status   the status of the response when the game has been saved.
+   * @param saved    the future of the state of the saved game.
+   */
+  private static void sendWhenSaved(HttpExchange exchange, int status,
+                                    CompletableFuture<JsonObject> saved) {
+    saved.whenComplete((state, exception) -> {
+      if (exception == null) {
+        sendJson(exchange, status, state);
+      } else {
+        Throwable cause = exception instanceof CompletionException
+            ? exception.getCause() : exception;
+        logger.log(Level.SEVERE, "Error saving " + exchange.getRequestURI(), cause);
+        sendError(exchange, 500, cause.getMessage());
+      }
+    });
+  }
+
+  /**
+   * Helper method to follow a link of the current passage of a game.
+   *
+   * @param game      the game.
+   * @param linkIndex the position of the link in the current passage.
+   * @return the state of the game after the link is followed.
+   * @throws NoSuchElementException if the current passage has no link at the position.
+   * @throws RequestException       if the game is finished because the player has died.
+   */
+  private static JsonObject followLink(Game game, int linkIndex)
+      throws NoSuchElementException, RequestException {
+    try {
+      return GameState.followLink(game, linkIndex);
+    } catch (IllegalStateException e) {
+      throw new RequestException(409, e.getMessage());
+    }
+  }
+
+  /**
+   * Helper method to parse the position of a link.
+   *
+   * @param segment the segment of the path holding the position.
+   * @return the position of the link.
+   * @throws RequestException if the segment is not a number.
+   */
+  private static int parseLinkIndex(String segment) throws RequestException {
+    try {
+      return Integer.parseInt(segment);
+    } catch (NumberFormatException e) {
+      throw new RequestException(404, "No link " + segment + ".");
+    }
+  }
+
+  /**
+   * Helper method to check the method of a request.
+   *
+   * @param method         the method of the request.
+   * @param expectedMethod the method handled for the path of the request.
+   * @throws RequestException if the methods differ.
+   */
+  private static void requireMethod(String method, String expectedMethod)
+      throws RequestException {
+    if (!expectedMethod.equals(method)) {
+      throw new RequestException(405, "The method " + method + " is not allowed.");
+    }
+  }
+
+  /**
+   * Helper method to read a string value of a JSON object.
+   *
+   * @param jsonObject the JSON object.
+   * @param key        the key of the value.
+   * @return the value.
+   * @throws RequestException if the value is missing or not a string.
+   */
+  private static String getString(JsonObject jsonObject, String key) throws RequestException {
+    JsonElement value = jsonObject.get(key);
+    if (value == null || !value.isJsonPrimitive()) {
+      throw new RequestException(400, "The value of " + key + " is missing.");
+    }
+    return value.getAsString();
+  }
+
+  /**
+   * Helper method to read an integer value of a JSON object.
+   *
+   * @param jsonObject the JSON object.
+   * @param key        the key of the value.
+   * @return the value.
+   * @throws RequestException if the value is missing or not an integer.
+   */
+  private static int getInt(JsonObject jsonObject, String key) throws RequestException {
+    JsonElement value = jsonObject.get(key);
+    if (value == null || !value.isJsonPrimitive() || value.getAsJsonPrimitive().isBoolean()) {
+      throw new RequestException(400, "The value of " + key + " is not a number.");
+    }
+    try {
+      return value.getAsInt();
+    } catch (NumberFormatException e) {
+      throw new RequestException(400, "The value of " + key + " is not a number.");
+    }
+  }
+
+  /**
+   * Helper method to read the JSON object of a request.
+   *
+   * @param exchange the request.
+   * @return the JSON object.
+   * @throws IOException      if the request cannot be read.
+   * @throws RequestException if the request is too large or is not a JSON object.
+   */
+  private static JsonObject readBody(HttpExchange exchange)
+      throws IOException, RequestException {
+    byte[] body;
+    try (InputStream in = exchange.getRequestBody()) {
+      body = in.readNBytes(MAX_BODY_SIZE + 1);
+    }
+    if (body.length > MAX_BODY_SIZE) {
+      throw new RequestException(413, "The request is larger than " + MAX_BODY_SIZE
+          + " bytes.");
+    }
+    JsonElement jsonElement;
+    try {
+      jsonElement = JsonParser.parseString(new String(body, StandardCharsets.UTF_8));
+    } catch (JsonParseException e) {
+      throw new RequestException(400, "The request is not valid JSON: " + e.getMessage());
+    }
+    if (!jsonElement.isJsonObject()) {
+      throw new RequestException(400, "The request must be a JSON object.");
+    }
+    return jsonElement.getAsJsonObject();
+  }
+
+  /**
+   * Helper method to send an error response.
+   *
+   * @param exchange the request and its response.
+   * @param status   the status of the response.
+   * @param message  the description of the error.
+   */
+  private static void sendError(HttpExchange exchange, int status, String message) {
+    JsonObject error = new JsonObject();
+    error.addProperty("error", message);
+    sendJson(exchange, status, error);
+  }
+
+  /**
+   * Helper method to send a JSON response, and close the exchange.
+   *
+   * @param exchange    the request and its response.
+   * @param status      the status of the response.
+   * @param jsonElement the body of the response.
+   */
+  private static void sendJson(HttpExchange exchange, int status, JsonElement jsonElement) {
+    byte[] body = gson.toJson(jsonElement).getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+    try (OutputStream out = exchange.getResponseBody()) {
+      exchange.sendResponseHeaders(status, body.length);
+      out.write(body);
+    } catch (IOException e) {
+      logger.log(Level.FINE, "Error sending the response to " + exchange.getRemoteAddress(),
+          e);
+    } finally {
+      exchange.close();
+    }
+  }
+
+  /**
+   * The RequestException class is thrown when a request cannot be handled, with the status
+   * of the response.
+   */
+  private static final class RequestException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+    private final int status;
+
+    /**
+     * Constructs a RequestException object.
+     *
+     * @param status  the status of the response.
+     * @param message the description of the error.
+     */
+    RequestException(int status, String message) {
+      super(message);
+      this.status = status;
+    }
+
+    /**
+     * The method retrieves the status of the response.
+     *
+     * @return the status.
+     */
+    int getStatus() {
+      return status;
+    }
+  }
+}
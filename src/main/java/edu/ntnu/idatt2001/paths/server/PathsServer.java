@@ -0,0 +1,205 @@
+package edu.ntnu.idatt2001.paths.server;
+
+import com.sun.net.httpserver.HttpServer;
+import edu.ntnu.idatt2001.paths.controller.GameManager;
+import edu.ntnu.idatt2001.paths.model.filehandling.FileGameHandler;
+import edu.ntnu.idatt2001.paths.model.filehandling.StoryLibrary;
+import edu.ntnu.idatt2001.paths.model.filehandling.StoryWatcher;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The PathsServer class plays games over HTTP, without the graphical user interface. The
+ * games are created and saved with a game manager, and the stories are read from a story
+ * library. The requests are described in PathsHandler.
+ *
+ * <p>The requests are handled on a fixed pool of daemon threads. A request only holds its
+ * thread while the game is changed in memory, and saving a game does not hold a thread while
+ * the game is written, so a small pool serves thousands of concurrent sessions. The games
+ * in memory are limited by the game manager, see {@link GameManager}.
+ *
+ * <p>The stories of the library are scanned when the server starts, and a
+ * {@link StoryWatcher} reloads the stories whose files change while the server runs, so the
+ * stories are listed without reading the directory for every request.
+ *
+ * @author Ramtin Samavat
+ * @author Tobias Oftedal
+ * @version 1.0
+ * @since May 26, 2023.
+ */
+public final class PathsServer {
+
+  private static final Logger logger = Logger.getLogger(PathsServer.class.getName());
+  private static final int DEFAULT_THREADS = 64;
+  private static final int BACKLOG = 4096;
+  private static final int DEFAULT_PORT = 8080;
+  private static final String DEFAULT_GAMES_FILE = "src/main/resources/games/server_games.json";
+  private static final String DEFAULT_STORY_DIRECTORY = "src/main/resources/stories";
+
+  private final HttpServer httpServer;
+  private final ExecutorService executor;
+  private final StoryLibrary storyLibrary;
+  private final StoryWatcher storyWatcher;
+
+  /**
+   * Constructor for the PathsServer class, handling the requests on the default number of
+   * threads.
+   *
+   * @param address      the address to listen on, with port 0 for any free port.
+   * @param gameManager  the game manager creating and saving the games.
+   * @param storyLibrary the library of the stories that can be played.
+   * @throws NullPointerException if the address, gameManager or storyLibrary is null.
+   * @throws IOException          if the server cannot listen on the address.
+   */
+  public PathsServer(InetSocketAddress address, GameManager gameManager,
+                     StoryLibrary storyLibrary) throws NullPointerException, IOException {
+    this(address, gameManager, storyLibrary, DEFAULT_THREADS);
+  }
+
+  /**
+   * Constructor for the PathsServer class.
+   *
+   * @param address      the address to listen on, with port 0 for any free port.
+   * @param gameManager  the game manager creating and saving the games.
+   * @param storyLibrary the library of the stories that can be played.
+   * @param threads      the number of threads handling the requests.
+   * @throws NullPointerException     if the address, gameManager or storyLibrary is null.
+   * @throws IllegalArgumentException if the number of threads is less than one.
+   * @throws IOException              if the server cannot listen on the address.
+   */
+  public PathsServer(InetSocketAddress address, GameManager gameManager,
+                     StoryLibrary storyLibrary, int threads)
+      throws NullPointerException, IllegalArgumentException, IOException {
+    if (address == null) {
+      throw new NullPointerException("Address cannot be null.");
+    }
+    if (threads < 1) {
+      throw new IllegalArgumentException("The number of threads must be at least one.");
+    }
+    PathsHandler handler = new PathsHandler(gameManager, storyLibrary);
+    this.storyLibrary = storyLibrary;
+    this.storyWatcher = createStoryWatcher(storyLibrary);
+    this.executor = createExecutor(threads);
+    this.httpServer = HttpServer.create(address, BACKLOG);
+    this.httpServer.createContext("/", handler);
+    this.httpServer.setExecutor(executor);
+  }
+
+  /**
+   * The method scans the stories of the library and starts handling requests. A library
+   * that cannot be scanned is served without stories until its files change.
+   */
+  public void start() {
+    try {
+      storyLibrary.scan(entry -> {
+      }).join();
+    } catch (CompletionException e) {
+      logger.log(Level.WARNING, "The stories could not be scanned.", e.getCause());
+    }
+    if (storyWatcher != null) {
+      storyWatcher.start();
+    }
+    httpServer.start();
+    logger.log(Level.INFO, "Paths server listening on port " + getPort() + ".");
+  }
+
+  /**
+   * The method stops handling requests, waiting up to the given number of seconds for the
+   * requests being handled to finish. The game manager is not closed.
+   *
+   * @param delay the number of seconds to wait.
+   */
+  public void stop(int delay) {
+    httpServer.stop(delay);
+    if (storyWatcher != null) {
+      try {
+        storyWatcher.close();
+      } catch (IOException e) {
+        logger.log(Level.WARNING, "Failed to stop watching the stories.", e);
+      }
+    }
+    executor.shutdown();
+    try {
+      executor.awaitTermination(delay, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * The method retrieves the port the server listens on.
+   *
+   * @return the port.
+   */
+  public int getPort() {
+    return httpServer.getAddress().getPort();
+  }
+
+  /**
+   * Helper method to create the watcher reloading the stories whose files change while the
+   * server runs.
+   *
+   * @param storyLibrary the library of the stories.
+   * @return the story watcher, or null if the stories cannot be watched.
+   */
+  private static StoryWatcher createStoryWatcher(StoryLibrary storyLibrary) {
+    try {
+      return new StoryWatcher(storyLibrary);
+    } catch (IOException e) {
+      logger.log(Level.WARNING, "The story files will not be reloaded when they change.", e);
+      return null;
+    }
+  }
+
+  /**
+   * Helper method to create the pool of daemon threads handling the requests.
+   *
+   * @param threads the number of threads.
+   * @return the executor.
+   */
+  private static ExecutorService createExecutor(int threads) {
+    AtomicInteger threadCount = new AtomicInteger();
+    return Executors.newFixedThreadPool(threads, runnable -> {
+      Thread thread = new Thread(runnable, "paths-server-" + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * The method starts a server. The arguments are the file of games, the directory of the
+   * stories and the port, each of which has a default value if it is left out. The file of
+   * games is created if it does not exist.
+   *
+   * @param args the file of games, the directory of the stories and the port.
+   * @throws IOException if the file of games cannot be read or the server cannot listen on
+   *                     the port.
+   */
+  public static void main(String[] args) throws IOException {
+    String gamesFile = args.length > 0 ? args[0] : DEFAULT_GAMES_FILE;
+    String storyDirectory = args.length > 1 ? args[1] : DEFAULT_STORY_DIRECTORY;
+    int port = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_PORT;
+
+    if (Files.notExists(Path.of(gamesFile))) {
+      FileGameHandler.writeGamesToFile(new ArrayList<>(), gamesFile);
+    }
+    GameManager gameManager = new GameManager(gamesFile);
+    PathsServer server = new PathsServer(new InetSocketAddress(port), gameManager,
+        new StoryLibrary(storyDirectory));
+    Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+      server.stop(1);
+      gameManager.close();
+    }));
+    server.start();
+  }
+}
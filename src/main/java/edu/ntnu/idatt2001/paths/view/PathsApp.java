@@ -1,9 +1,7 @@
 package edu.ntnu.idatt2001.paths.view;
 
 import com.google.gson.JsonSyntaxException;
-import edu.ntnu.idatt2001.paths.model.actions.Action;
 import edu.ntnu.idatt2001.paths.controller.GameManager;
-import edu.ntnu.idatt2001.paths.model.filehandling.FileStoryHandler;
 import edu.ntnu.idatt2001.paths.model.goals.Goal;
 import edu.ntnu.idatt2001.paths.view.listeners.BaseFrameListener;
 import edu.ntnu.idatt2001.paths.view.listeners.CreateGameListener;
@@ -59,7 +57,6 @@ public class PathsApp extends Application {
       "file:src/main/resources/stylesheets/standard.css";
   private Game currentGame;
   private Passage currentPassage;
-  private String pathOfStoryFile;
   private TutorialListener loadTutorialListener;
   private MainMenuListener mainMenuListener;
   private BaseFrameListener baseFrameListener;
@@ -125,21 +122,6 @@ public class PathsApp extends Application {
     stage.setMaxHeight(FRAME_HEIGHT + 200.0);
   }
 
-  /**
-   * The method retrieves a new instance of the original story of the game.
-   *
-   * @return the original story.
-   */
-  private Story getOriginalStory() {
-    Story story = null;
-    try {
-      story = FileStoryHandler.readStoryFromFile(pathOfStoryFile);
-    } catch (NullPointerException | IllegalArgumentException | IOException e) {
-      logAndDisplayError(e, e.getMessage(), Level.SEVERE, AlertType.ERROR);
-    }
-    return story;
-  }
-
   /**
    * Sets a new {@link BaseFrameListener}.
    *
@@ -154,7 +136,7 @@ public class PathsApp extends Application {
       @Override
       public void onRestartClicked() {
         completedGoals.clear();
-        loadNewBaseFrame(stage, currentGame.resetGame(getOriginalStory()));
+        loadNewBaseFrame(stage, currentGame.resetGame());
       }
 
       /**
@@ -169,11 +151,17 @@ public class PathsApp extends Application {
         if (shouldSaveGame) {
           try {
 
-            GameManager.getInstance().saveGame(currentGame, currentPassage);
+            GameManager.getInstance().saveGameAsync(currentGame, currentPassage)
+                .whenComplete((result, e) -> {
+                  if (e instanceof Exception exception) {
+                    Platform.runLater(() -> logAndDisplayError(exception,
+                        "The game could not be saved due to an error: "
+                            + exception.getMessage(), Level.SEVERE, AlertType.ERROR));
+                  }
+                });
             loadMainMenu(stage);
 
-          } catch (IOException | NullPointerException | IllegalArgumentException
-                   | IllegalStateException e) {
+          } catch (NullPointerException | IllegalArgumentException | IllegalStateException e) {
 
             String errorMessage = "The game could not be saved due to an error: " + e.getMessage();
             logAndDisplayError(e, errorMessage, Level.SEVERE, AlertType.ERROR);
@@ -192,18 +180,18 @@ public class PathsApp extends Application {
       @Override
       public void onOptionButtonClicked(Link link) {
 
-        for (Action action : link.getActions()) {
-          action.execute(currentGame.getPlayer());
-        }
+        currentGame.executeActions(link);
 
         checkForGoals(currentGame.getGoals(), currentGame.getPlayer());
 
-        link.getActions().clear();
         BaseFrame newFrame;
+        Passage nextPassage;
         try {
-          newFrame = new BaseFrame(currentGame.getStory().getTitle(), currentGame.go(link),
+          nextPassage = currentGame.go(link);
+          newFrame = new BaseFrame(currentGame.getStory().getTitle(), nextPassage,
               currentGame.getPlayer(), FRAME_WIDTH, FRAME_HEIGHT, this);
-          currentPassage = currentGame.go(link);
+          currentPassage = nextPassage;
+          currentGame.setCurrentPassage(nextPassage);
         } catch (NullPointerException | NoSuchElementException e) {
           String errorMessage = "Unable to continue the story. " + e.getMessage();
           logAndDisplayError(e, errorMessage, Level.WARNING, AlertType.WARNING);
@@ -219,8 +207,8 @@ public class PathsApp extends Application {
           TextToSpeech.getInstance().resetSpeech();
           Alert alert = new Alert(AlertType.INFORMATION, "The game is finished, you have died.");
           alert.showAndWait();
-          loadNewBaseFrame(stage, currentGame.resetGame(getOriginalStory()));
-        } else if (currentGame.getStory().getPassage(link).getLinks().isEmpty()) {
+          loadNewBaseFrame(stage, currentGame.resetGame());
+        } else if (!nextPassage.hasLinks()) {
           Alert alert = new Alert(AlertType.INFORMATION, "Congratulations you have won the game.");
           alert.showAndWait();
         }
@@ -277,11 +265,11 @@ public class PathsApp extends Application {
       public void onCreateClicked(String pathOfFile, List<Goal> chosenGoals,
                                   String gameId, String playerName,
                                   Difficulty chosenDifficulty, Story selectedStory) {
-        pathOfStoryFile = pathOfFile;
         Player player = new Player.PlayerBuilder(playerName)
                 .health(chosenDifficulty.getHealth())
                 .build();
         try {
+          releaseCurrentGame();
           currentGame = GameManager.getInstance()
                   .createGame(gameId, player, selectedStory, chosenGoals);
           loadNewBaseFrame(stage, currentGame.getStory().getOpeningPassage());
@@ -337,8 +325,7 @@ public class PathsApp extends Application {
        */
       @Override
       public void onExitClicked() {
-        Platform.exit();
-        System.exit(0);
+        exitApplication();
       }
     };
   }
@@ -359,8 +346,9 @@ public class PathsApp extends Application {
        */
       @Override
       public void onSelectedGameClicked(Game game) {
+        releaseCurrentGame();
         currentGame = game;
-        loadNewBaseFrame(stage, game.getStory().getCurrentPassage());
+        loadNewBaseFrame(stage, game.getCurrentPassage());
       }
 
       /**
@@ -453,6 +441,16 @@ public class PathsApp extends Application {
     }
   }
 
+  /**
+   * Releases the game ID of the current game, so that a game with the same ID can be created
+   * when the current game has been created but not saved.
+   */
+  private void releaseCurrentGame() {
+    if (currentGame != null) {
+      GameManager.getInstance().releaseGame(currentGame);
+    }
+  }
+
   /**
    * Loads a new BaseFrame to the stage.
    *
@@ -463,6 +461,7 @@ public class PathsApp extends Application {
       BaseFrame currentFrame = new BaseFrame(currentGame.getStory().getTitle(), passage,
               currentGame.getPlayer(), FRAME_WIDTH, FRAME_HEIGHT, baseFrameListener);
       this.currentPassage = passage;
+      currentGame.setCurrentPassage(passage);
       loadScene(stage, currentFrame);
     } catch (NullPointerException e) {
       logAndDisplayError(e, e.getMessage(), Level.SEVERE, AlertType.ERROR);
@@ -506,10 +505,20 @@ public class PathsApp extends Application {
    * @param stage The stage to set the action binding to.
    */
   private void setCloseAction(Stage stage) {
-    stage.setOnCloseRequest(event -> {
-      Platform.exit();
-      System.exit(0);
-    });
+    stage.setOnCloseRequest(event -> exitApplication());
+  }
+
+  /**
+   * The method exits the application, after waiting for the games being saved to be written.
+   */
+  private void exitApplication() {
+    try {
+      GameManager.getInstance().close();
+    } catch (IllegalStateException e) {
+      logger.log(Level.WARNING, "No games to write before exiting.", e);
+    }
+    Platform.exit();
+    System.exit(0);
   }
 
   /**
@@ -2,6 +2,11 @@ package edu.ntnu.idatt2001.paths.view.menus;
 
 import edu.ntnu.idatt2001.paths.model.Difficulty;
 import edu.ntnu.idatt2001.paths.model.filehandling.FileStoryHandler;
+import edu.ntnu.idatt2001.paths.model.filehandling.ParseDiagnostic;
+import edu.ntnu.idatt2001.paths.model.filehandling.ParseResult;
+import edu.ntnu.idatt2001.paths.model.filehandling.StoryLibrary;
+import edu.ntnu.idatt2001.paths.model.filehandling.StoryLibrary.StoryEntry;
+import edu.ntnu.idatt2001.paths.model.filehandling.StoryWatcher;
 import edu.ntnu.idatt2001.paths.model.goals.Goal;
 import edu.ntnu.idatt2001.paths.model.goals.GoldGoal;
 import edu.ntnu.idatt2001.paths.model.goals.HealthGoal;
@@ -18,11 +23,13 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import javafx.application.Platform;
 import javafx.beans.binding.Bindings;
 import javafx.beans.binding.BooleanBinding;
 import javafx.geometry.Insets;
@@ -57,6 +64,8 @@ public class CreateGameMenu extends BorderPane {
 
   private static final Logger logger = Logger.getLogger(CreateGameMenu.class.getName());
   private static final String STORY_LOCATION = "src/main/resources/stories";
+  private static final StoryLibrary storyLibrary = new StoryLibrary(STORY_LOCATION);
+  private static final StoryWatcher storyWatcher = createStoryWatcher();
   private final Button inventoryButton;
   private final GridPane infoGrid;
   private final ComboBox<String> storyBox;
@@ -143,6 +152,7 @@ public class CreateGameMenu extends BorderPane {
     gameId.setShouldHaveText(true);
 
     updateStoryBox();
+    watchStories();
     difficultyBox = createDifficultyBox();
     createInventoryButton();
 
@@ -214,12 +224,82 @@ public class CreateGameMenu extends BorderPane {
   }
 
   /**
-   * Updates the {@link #storyBox} with all found stories.
+   * Updates the {@link #storyBox} with all found stories. The stories are loaded by the
+   * {@link StoryLibrary} in the background, and each story is added to the box as soon as it
+   * has been loaded.
    */
   private void updateStoryBox() {
-    storyBox.getItems().removeAll(storyBox.getItems());
-    storyBox.getItems().addAll(findAllDirectoryFiles(STORY_LOCATION));
+    storyBox.getItems().clear();
     storyBox.setPrefWidth(buttonWidth);
+    storyLibrary.scan(entry -> Platform.runLater(() -> addStoryToBox(entry)))
+        .exceptionally(e -> {
+          Throwable cause = e.getCause() == null ? e : e.getCause();
+          Platform.runLater(() -> logAndDisplayError(new IOException(cause.getMessage(), cause),
+              "The stories could not be loaded: " + cause.getMessage(), Level.SEVERE,
+              AlertType.ERROR));
+          return null;
+        });
+  }
+
+  /**
+   * Keeps the {@link #storyBox} up to date with the story files that are added, changed or
+   * removed while the menu is shown. The menu replaces the listener of the previous menu.
+   */
+  private void watchStories() {
+    if (storyWatcher == null) {
+      return;
+    }
+    storyWatcher.setListener(new StoryWatcher.Listener() {
+      @Override
+      public void storyChanged(StoryEntry entry) {
+        Platform.runLater(() -> {
+          if (entry.isValid()) {
+            addStoryToBox(entry);
+          } else {
+            storyBox.getItems().remove(entry.getFileName());
+          }
+        });
+      }
+
+      @Override
+      public void storyRemoved(String fileName) {
+        Platform.runLater(() -> storyBox.getItems().remove(fileName));
+      }
+    });
+  }
+
+  /**
+   * Creates the {@link StoryWatcher} reloading the stories whose files change while the
+   * application runs.
+   *
+   * @return the started story watcher, or null if the stories cannot be watched.
+   */
+  private static StoryWatcher createStoryWatcher() {
+    try {
+      StoryWatcher watcher = new StoryWatcher(storyLibrary);
+      watcher.start();
+      return watcher;
+    } catch (IOException e) {
+      logger.log(Level.WARNING, "The story files will not be reloaded when they change.", e);
+      return null;
+    }
+  }
+
+  /**
+   * Adds a loaded story to the {@link #storyBox}, keeping the stories ordered by file name.
+   * Stories that could not be loaded are not added.
+   *
+   * @param entry the loaded story.
+   */
+  private void addStoryToBox(StoryEntry entry) {
+    if (!entry.isValid()) {
+      return;
+    }
+    List<String> stories = storyBox.getItems();
+    int index = Collections.binarySearch(stories, entry.getFileName());
+    if (index < 0) {
+      stories.add(-index - 1, entry.getFileName());
+    }
   }
 
   /**
@@ -259,9 +339,10 @@ public class CreateGameMenu extends BorderPane {
     try {
       getChosenDifficulty();
       String pathOfFile = "src/main/resources/stories/" + storyBox.getValue();
-      selectedStory = FileStoryHandler.readStoryFromFile(pathOfFile);
+      ParseResult<Story> parseResult = storyLibrary.getStory(storyBox.getValue());
+      selectedStory = parseResult.getValue();
 
-      if (invalidActionsAlert(FileStoryHandler.getInvalidActions()) && brokenLinksAlert(
+      if (invalidActionsAlert(parseResult.getDiagnostics()) && brokenLinksAlert(
           selectedStory.getBrokenLinks())) {
 
         listener.onCreateClicked(pathOfFile, chosenGoals, id, chosenName, getChosenDifficulty(),
@@ -339,16 +420,6 @@ public class CreateGameMenu extends BorderPane {
     return Difficulty.parseToDifficulty(difficultyBox.getValue().toString());
   }
 
-  /**
-   * Finds all files in the director given by the location.
-   *
-   * @param location The location of the directory.
-   * @return All files located in the given directory
-   */
-  private String[] findAllDirectoryFiles(String location) {
-    return new File(location).list();
-  }
-
   /**
    * Creates a button for uploading a paths file from the user.
    * <li>If the file cannot be read or written, the user will be alerted.</li>
@@ -366,9 +437,11 @@ public class CreateGameMenu extends BorderPane {
         return;
       }
       try {
-        Story story = FileStoryHandler.readStoryFromFile(selectedFile.getPath());
+        ParseResult<Story> parseResult =
+            FileStoryHandler.parseStoryWithDiagnostics(selectedFile.getPath());
+        Story story = parseResult.getValue();
         if (brokenLinksAlert(story.getBrokenLinks()) && invalidActionsAlert(
-            FileStoryHandler.getInvalidActions())) {
+            parseResult.getDiagnostics())) {
 
           String pathOfFile = story.getTitle().trim().toLowerCase().replace(" ", "_");
 
@@ -386,11 +459,12 @@ public class CreateGameMenu extends BorderPane {
    * The method checks if there are any invalid actions in the provided list and displays a warning
    * alert if any invalid actions are found.
    *
-   * @param invalidActions the list of invalid actions to check.
+   * @param invalidActions the diagnostics of the invalid actions to check.
    * @return true if no invalid actions or of user confirms the continuation, false otherwise.
    * @throws NullPointerException if the list of invalid actions is null.
    */
-  private boolean invalidActionsAlert(List<String> invalidActions) throws NullPointerException {
+  private boolean invalidActionsAlert(List<ParseDiagnostic> invalidActions)
+      throws NullPointerException {
     if (invalidActions == null) {
       throw new NullPointerException("The list of invalid actions cannot be null.");
     }
@@ -398,7 +472,7 @@ public class CreateGameMenu extends BorderPane {
     if (!invalidActions.isEmpty()) {
       StringBuilder stringBuilder = new StringBuilder().append("The chosen story has ")
           .append(invalidActions.size()).append(" invalid actions.");
-      for (String action : invalidActions) {
+      for (ParseDiagnostic action : invalidActions) {
         stringBuilder.append("\n - ").append(action);
       }
       stringBuilder.append("\n\nAre you sure you want to continue?");
@@ -1,13 +1,15 @@
 package edu.ntnu.idatt2001.paths.view.menus;
 
+import com.google.gson.JsonParseException;
 import edu.ntnu.idatt2001.paths.controller.GameManager;
-import edu.ntnu.idatt2001.paths.model.filehandling.FileGameHandler;
+import edu.ntnu.idatt2001.paths.model.filehandling.StoredGame;
 import edu.ntnu.idatt2001.paths.view.listeners.StoredGamesListener;
 import edu.ntnu.idatt2001.paths.view.utility.GuiUtils;
 import edu.ntnu.idatt2001.paths.model.Game;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.function.Function;
 import java.util.logging.Level;
@@ -30,7 +32,8 @@ import javafx.scene.layout.VBox;
 /**
  * The StoredGamesMenu class represents a menu used for loading stored games.
  * It provides functionality for displaying a table of selectable games
- * and buttons for interacting with the games in the table.
+ * and buttons for interacting with the games in the table. The table shows
+ * the summaries of the stored games, and a game is only loaded when it is selected.
  *
  * @author Ramtin Samavat
  * @author Tobias Oftedal
@@ -41,8 +44,8 @@ public class StoredGamesMenu extends BorderPane {
   private static final Logger logger = Logger.getLogger(StoredGamesMenu.class.getName());
   private final StoredGamesListener listener;
   private final GameManager gameManager;
-  private TableView<Game> gameTable;
-  private List<Game> gameList;
+  private TableView<StoredGame> gameTable;
+  private List<StoredGame> gameList;
   private VBox rightButtonPane;
 
   /**
@@ -71,23 +74,19 @@ public class StoredGamesMenu extends BorderPane {
     addGameTable();
     addButtons();
     setPadding(new Insets(20));
-    showInvalidGames();
   }
 
   /**
-   * The method displays an alert with information about any invalid games in the file.
+   * The method displays an alert with information about a game that could not be loaded.
+   *
+   * @param storedGame the game that could not be loaded.
+   * @param e the exception thrown when loading the game.
    */
-  private void showInvalidGames() {
-    List<String> invalidGames = FileGameHandler.getInvalidGames();
-    if (invalidGames.isEmpty()) {
-      return;
-    }
-    StringBuilder stringBuilder = new StringBuilder();
-    stringBuilder.append("You have ").append(invalidGames.size()).append(" invalid games:");
-    for (String invalidGame : invalidGames) {
-      stringBuilder.append("\n").append(invalidGame);
-    }
-    Alert alert = new Alert(AlertType.ERROR, stringBuilder.toString());
+  private void showInvalidGame(StoredGame storedGame, JsonParseException e) {
+    String errorMessage = "Failed to load game: " + storedGame.getGameId() + ". "
+        + e.getMessage() + " The current game cannot be played before it is fixed.";
+    logger.log(Level.WARNING, errorMessage, e);
+    Alert alert = new Alert(AlertType.ERROR, errorMessage);
     alert.showAndWait();
   }
 
@@ -132,7 +131,7 @@ public class StoredGamesMenu extends BorderPane {
   /**
    * Adds a delete button to the menu.
    * <p>
-   * <li>The button will try to delete the currently selected {@link Game} in the
+   * <li>The button will try to delete the currently selected {@link StoredGame} in the
    * {@link StoredGamesMenu#gameTable}.</li>
    * <li>If the game cannot be deleted, an {@link Alert}
    * will be shown to the user.</li>
@@ -143,9 +142,9 @@ public class StoredGamesMenu extends BorderPane {
     deleteButton.setPrefWidth(Double.MAX_VALUE);
     deleteButton.setId("delete-button");
     deleteButton.setOnAction(event -> {
-      Game selectedGame = gameTable.getSelectionModel().getSelectedItem();
+      StoredGame selectedGame = gameTable.getSelectionModel().getSelectedItem();
       try {
-        gameManager.deleteGame(selectedGame);
+        gameManager.deleteGameById(selectedGame.getGameId());
         fillGamesData();
         addGameTable();
       } catch (IOException | IllegalArgumentException | NullPointerException e) {
@@ -163,8 +162,10 @@ public class StoredGamesMenu extends BorderPane {
   /**
    * Adds a confirm button to the menu.
    * <p>
-   * <li>The button activation triggers the
-   * {@link StoredGamesListener#onSelectedGameClicked(Game)} method.</li>
+   * <li>The button activation loads the selected game through the {@link GameManager} and
+   * triggers the {@link StoredGamesListener#onSelectedGameClicked(Game)} method.</li>
+   * <li>If the game cannot be loaded, an {@link Alert} will be shown to the user. A game that
+   * has been deleted since the menu was opened is removed from the table.</li>
    * </p>
    */
   private void addConfirmButton() {
@@ -175,8 +176,20 @@ public class StoredGamesMenu extends BorderPane {
 
     confirmButton.setOnAction(event -> {
 
-      Game game = gameTable.getSelectionModel().getSelectedItem();
+      StoredGame storedGame = gameTable.getSelectionModel().getSelectedItem();
 
+      Game game;
+      try {
+        game = gameManager.getGame(storedGame.getGameId());
+      } catch (JsonParseException e) {
+        showInvalidGame(storedGame, e);
+        return;
+      } catch (NoSuchElementException e) {
+        logger.log(Level.WARNING, e.getMessage(), e);
+        new Alert(AlertType.ERROR, e.getMessage()).showAndWait();
+        gameTable.getItems().remove(storedGame);
+        return;
+      }
       listener.onSelectedGameClicked(game);
     });
 
@@ -191,7 +204,7 @@ public class StoredGamesMenu extends BorderPane {
    *     <li>Game ID</li>
    *     <li>Story title</li>
    *     <li>Player name</li>
-   *     <li>Amount of broken links</li>
+   *     <li>Current passage</li>
    * </ul>
    */
   private void addGameTable() {
@@ -199,10 +212,10 @@ public class StoredGamesMenu extends BorderPane {
     gameTable = new TableView<>();
     gameTable.getColumns().clear();
 
-    addTableColumn(gameTable, "Game id", Game::getGameId);
-    addTableColumn(gameTable, "Story", game -> game.getStory().getTitle());
-    addTableColumn(gameTable, "Player", game -> game.getPlayer().getName());
-    addTableColumn(gameTable, "Broken links", game -> String.valueOf(game.getStory().getBrokenLinks().size()));
+    addTableColumn(gameTable, "Game id", StoredGame::getGameId);
+    addTableColumn(gameTable, "Story", StoredGame::getStoryTitle);
+    addTableColumn(gameTable, "Player", StoredGame::getPlayerName);
+    addTableColumn(gameTable, "Current passage", StoredGame::getCurrentPassageTitle);
 
     gameTable.setItems(FXCollections.observableList(gameList));
     gameTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
@@ -230,10 +243,10 @@ public class StoredGamesMenu extends BorderPane {
   }
 
   /**
-   * Adds all games to the list of games.
+   * Adds all stored games to the list of games.
    */
   private void fillGamesData() {
-    List<Game> storedGames = GameManager.getInstance().getGames();
+    List<StoredGame> storedGames = GameManager.getInstance().getStoredGames();
     gameList = new ArrayList<>(storedGames);
   }
 
@@ -11,6 +11,10 @@ import edu.ntnu.idatt2001.paths.model.actions.HealthAction;
 import edu.ntnu.idatt2001.paths.model.actions.InventoryAction;
 import edu.ntnu.idatt2001.paths.model.actions.ScoreAction;
 import edu.ntnu.idatt2001.paths.model.filehandling.FileGameHandler;
+import edu.ntnu.idatt2001.paths.model.filehandling.GameJournal;
+import edu.ntnu.idatt2001.paths.model.filehandling.GameSpill;
+import edu.ntnu.idatt2001.paths.model.filehandling.SaveCompression;
+import edu.ntnu.idatt2001.paths.model.filehandling.StoredGame;
 import edu.ntnu.idatt2001.paths.model.goals.Goal;
 import edu.ntnu.idatt2001.paths.model.goals.GoldGoal;
 import edu.ntnu.idatt2001.paths.model.goals.HealthGoal;
@@ -25,6 +29,11 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -150,6 +159,33 @@ class GameManagerTest {
     Path path = Paths.get(testFile.getPath());
     try {
       Files.deleteIfExists(path);
+      Files.deleteIfExists(Paths.get(GameJournal.getJournalPath(pathOfFile)));
+      Files.deleteIfExists(Paths.get(GameJournal.getIndexPath(pathOfFile)));
+    } catch (IOException e) {
+      logger.log(Level.WARNING, "Error deleting file.", e);
+    }
+  }
+
+  /**
+   * Helper method to retrieve the game IDs of stored games.
+   *
+   * @param storedGames the stored games.
+   * @return the game IDs.
+   */
+  private static List<String> gameIds(List<StoredGame> storedGames) {
+    return storedGames.stream().map(StoredGame::getGameId).toList();
+  }
+
+  /**
+   * Helper method to delete the file of games at the given path, with its journal and index.
+   *
+   * @param pathOfGames the path of the file of games.
+   */
+  private static void deleteGamesFile(String pathOfGames) {
+    try {
+      Files.deleteIfExists(Paths.get(pathOfGames));
+      Files.deleteIfExists(Paths.get(GameJournal.getJournalPath(pathOfGames)));
+      Files.deleteIfExists(Paths.get(GameJournal.getIndexPath(pathOfGames)));
     } catch (IOException e) {
       logger.log(Level.WARNING, "Error deleting file.", e);
     }
@@ -175,6 +211,54 @@ class GameManagerTest {
       assertEquals(player1, game.getPlayer());
       assertEquals(story, game.getStory());
       assertEquals(goals1, game.getGoals());
+      gameManager.releaseGame(game);
+    }
+
+    @Test
+    @DisplayName("Should create game again when released")
+    void shouldCreateGameAgainWhenReleased() {
+      Game game = gameManager.createGame("Test ID 4", player1, story, goals1);
+      assertThrows(IllegalArgumentException.class,
+          () -> gameManager.createGame(" Test ID 4 ", player1, story, goals1));
+
+      gameManager.releaseGame(game);
+      Game createdAgain = gameManager.createGame("Test ID 4", player1, story, goals1);
+
+      assertNotSame(game, createdAgain);
+      gameManager.releaseGame(createdAgain);
+    }
+
+    @Test
+    @DisplayName("Should create only one of the games created concurrently with the same ID")
+    void shouldCreateOnlyOneOfGamesCreatedConcurrentlyWithSameId() throws Exception {
+      int sessions = 8;
+      ExecutorService executor = Executors.newFixedThreadPool(sessions);
+      CountDownLatch start = new CountDownLatch(1);
+      try {
+        List<Future<Game>> futures = new ArrayList<>();
+        for (int session = 0; session < sessions; session++) {
+          futures.add(executor.submit(() -> {
+            start.await();
+            try {
+              return gameManager.createGame("Test ID 5", player1, story, goals1);
+            } catch (IllegalArgumentException e) {
+              return null;
+            }
+          }));
+        }
+        start.countDown();
+        List<Game> createdGames = new ArrayList<>();
+        for (Future<Game> future : futures) {
+          if (future.get() != null) {
+            createdGames.add(future.get());
+          }
+        }
+
+        assertEquals(1, createdGames.size());
+        gameManager.releaseGame(createdGames.get(0));
+      } finally {
+        executor.shutdown();
+      }
     }
 
     @Test
@@ -221,7 +305,24 @@ class GameManagerTest {
 
       assertEquals(3, gameManager.getGames().size());
       assertEquals("Test ID 3", gameManager.getGames().get(2).getGameId());
-      assertEquals(passage1, game.getStory().getCurrentPassage());
+      assertEquals(passage1, game.getCurrentPassage());
+
+      try {
+        gameManager.deleteGame(game);
+      } catch (IOException e) {
+        logger.log(Level.WARNING, e.getMessage(), e);
+      }
+    }
+
+    @Test
+    @DisplayName("Should save game asynchronously")
+    void shouldSaveGameAsynchronously() {
+      Game game = new Game("Test ID 3", player1, story, goals1);
+
+      gameManager.saveGameAsync(game, passage1).join();
+
+      assertEquals(3, gameManager.getGames().size());
+      assertTrue(gameManager.getGames().contains(game));
 
       try {
         gameManager.deleteGame(game);
@@ -230,6 +331,328 @@ class GameManagerTest {
       }
     }
 
+    @Test
+    @DisplayName("Should get game by ID")
+    void shouldGetGameById() {
+      assertTrue(gameManager.hasGame(gameId1));
+      assertEquals(game1.getPlayer(), gameManager.getGame(gameId1).getPlayer());
+      assertSame(gameManager.getGame(gameId1), gameManager.getGame(gameId1));
+      assertEquals("Player1", gameManager.getStoredGame(gameId1).getPlayerName());
+      assertEquals(2, gameManager.getGameCount());
+    }
+
+    @Test
+    @DisplayName("Should keep games of separate game managers apart")
+    void shouldKeepGamesOfSeparateGameManagersApart() throws IOException {
+      String pathOfOtherGames = "src/test/resources/games/other_games_test.json";
+      FileGameHandler.writeGamesToFile(new ArrayList<>(), pathOfOtherGames);
+      try {
+        GameManager otherGameManager = new GameManager(pathOfOtherGames);
+        otherGameManager.saveGame(new Game("Other ID", player1, story, goals1), passage1);
+        otherGameManager.close();
+
+        assertFalse(gameManager.hasGame("Other ID"));
+        assertNotSame(gameManager, otherGameManager);
+        assertEquals(1, new GameManager(pathOfOtherGames).getGameCount());
+      } finally {
+        deleteGamesFile(pathOfOtherGames);
+      }
+    }
+
+    @Test
+    @DisplayName("Should save and delete games concurrently")
+    void shouldSaveAndDeleteGamesConcurrently() throws Exception {
+      String pathOfConcurrentGames = "src/test/resources/games/concurrent_games_test.json";
+      FileGameHandler.writeGamesToFile(new ArrayList<>(), pathOfConcurrentGames);
+      int sessions = 8;
+      int gamesPerSession = 50;
+      ExecutorService executor = Executors.newFixedThreadPool(sessions);
+      try {
+        GameManager concurrentGameManager = new GameManager(pathOfConcurrentGames);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int session = 0; session < sessions; session++) {
+          int sessionNumber = session;
+          futures.add(executor.submit(() -> {
+            for (int i = 0; i < gamesPerSession; i++) {
+              String gameId = "Session " + sessionNumber + " game " + i;
+              Game game = concurrentGameManager.createGame(gameId,
+                  new Player.PlayerBuilder("Player " + sessionNumber).build(), story, goals1);
+              concurrentGameManager.saveGame(game, passage1);
+              if (i % 2 == 1) {
+                concurrentGameManager.deleteGameById(gameId);
+              }
+            }
+            return null;
+          }));
+        }
+        for (Future<?> future : futures) {
+          future.get();
+        }
+        concurrentGameManager.close();
+
+        int expectedGames = sessions * gamesPerSession / 2;
+        assertEquals(expectedGames, concurrentGameManager.getGameCount());
+        GameManager reloadedGameManager = new GameManager(pathOfConcurrentGames);
+        assertEquals(expectedGames, reloadedGameManager.getGameCount());
+        assertTrue(reloadedGameManager.hasGame("Session 3 game 4"));
+        assertFalse(reloadedGameManager.hasGame("Session 3 game 5"));
+      } finally {
+        executor.shutdown();
+        deleteGamesFile(pathOfConcurrentGames);
+      }
+    }
+
+    @Test
+    @DisplayName("Should evict idle games and keep unsaved changes")
+    void shouldEvictIdleGamesAndKeepUnsavedChanges() throws IOException {
+      String pathOfEvictedGames = "src/test/resources/games/evicted_games_test.json";
+      FileGameHandler.writeGamesToFile(new ArrayList<>(), pathOfEvictedGames);
+      try {
+        GameManager evictingGameManager = new GameManager(pathOfEvictedGames,
+            SaveCompression.NONE, 2);
+        for (int i = 0; i < 5; i++) {
+          evictingGameManager.saveGame(new Game("Game " + i,
+              new Player.PlayerBuilder("Player " + i).gold(10).build(), story, goals1), passage1);
+        }
+        GameCacheStatistics statistics = evictingGameManager.getCacheStatistics();
+        assertEquals(2, statistics.getResidentGames());
+        assertEquals(3, statistics.getEvictions());
+        assertEquals(0, statistics.getSpills());
+
+        evictingGameManager.withGame("Game 0", game -> {
+          game.getPlayer().increaseGold(5);
+          return null;
+        });
+        evictingGameManager.getGame("Game 1");
+        evictingGameManager.getGame("Game 2");
+        assertTrue(evictingGameManager.getStoredGame("Game 0").isSpilled());
+        assertTrue(Files.isDirectory(Paths.get(GameSpill.getSpillPath(pathOfEvictedGames))));
+
+        assertEquals(15, evictingGameManager.getGame("Game 0").getPlayer().getGold());
+        assertSame(evictingGameManager.getGame("Game 0"), evictingGameManager.getGame("Game 0"));
+        assertFalse(evictingGameManager.getStoredGame("Game 0").isSpilled());
+        statistics = evictingGameManager.getCacheStatistics();
+        assertEquals(1, statistics.getSpills());
+        assertEquals(4, statistics.getMisses());
+        assertEquals(2, statistics.getHits());
+        assertEquals(2.0 / 6, statistics.getHitRate(), 1e-9);
+        assertTrue(statistics.getResidentGames() <= 2);
+
+        evictingGameManager.close();
+        assertFalse(Files.exists(Paths.get(GameSpill.getSpillPath(pathOfEvictedGames))));
+        assertEquals(10, new GameManager(pathOfEvictedGames).getGame("Game 0").getPlayer()
+            .getGold());
+      } finally {
+        deleteGamesFile(pathOfEvictedGames);
+      }
+    }
+
+    @Test
+    @DisplayName("Should increase version on every save")
+    void shouldIncreaseVersionOnEverySave() throws IOException {
+      String pathOfVersionedGames = "src/test/resources/games/versioned_games_test.json";
+      FileGameHandler.writeGamesToFile(new ArrayList<>(), pathOfVersionedGames);
+      try {
+        GameManager versionedGameManager = new GameManager(pathOfVersionedGames);
+        Game game = new Game("Versioned", player1, story, goals1);
+        assertEquals(0, game.getVersion());
+        versionedGameManager.saveGame(game, passage1);
+        versionedGameManager.saveGame(game, passage1);
+        assertEquals(2, game.getVersion());
+        assertEquals(2, versionedGameManager.getStoredGame("Versioned").getVersion());
+        versionedGameManager.close();
+
+        GameManager reloadedGameManager = new GameManager(pathOfVersionedGames);
+        assertEquals(2, reloadedGameManager.getStoredGame("Versioned").getVersion());
+        Game reloadedGame = reloadedGameManager.getGame("Versioned");
+        assertEquals(2, reloadedGame.getVersion());
+        reloadedGameManager.saveGame(reloadedGame, passage1);
+        assertEquals(3, reloadedGameManager.getStoredGame("Versioned").getVersion());
+        reloadedGameManager.compact();
+        reloadedGameManager.close();
+        assertEquals(3, new GameManager(pathOfVersionedGames).getStoredGame("Versioned")
+            .getVersion());
+      } finally {
+        deleteGamesFile(pathOfVersionedGames);
+      }
+    }
+
+    @Test
+    @DisplayName("Should save only one of concurrent saves of the same version")
+    void shouldSaveOnlyOneOfConcurrentSavesOfSameVersion() throws Exception {
+      String pathOfRacingGames = "src/test/resources/games/racing_games_test.json";
+      FileGameHandler.writeGamesToFile(new ArrayList<>(), pathOfRacingGames);
+      int sessions = 8;
+      ExecutorService executor = Executors.newFixedThreadPool(sessions);
+      CountDownLatch start = new CountDownLatch(1);
+      try {
+        GameManager racingGameManager = new GameManager(pathOfRacingGames);
+        racingGameManager.saveGame(new Game("Racing", new Player.PlayerBuilder("Player").build(),
+            story, goals1), passage1);
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int session = 1; session <= sessions; session++) {
+          int gold = session;
+          futures.add(executor.submit(() -> {
+            Game game = new Game("Racing", new Player.PlayerBuilder("Player").gold(gold)
+                .build(), story, goals1);
+            game.setVersion(1);
+            start.await();
+            try {
+              racingGameManager.saveGame(game, passage1);
+              return gold;
+            } catch (GameVersionConflictException e) {
+              return 0;
+            }
+          }));
+        }
+        start.countDown();
+        List<Integer> savedGold = new ArrayList<>();
+        for (Future<Integer> future : futures) {
+          if (future.get() != 0) {
+            savedGold.add(future.get());
+          }
+        }
+        racingGameManager.close();
+
+        assertEquals(1, savedGold.size());
+        assertEquals(2, racingGameManager.getStoredGame("Racing").getVersion());
+        GameManager reloadedGameManager = new GameManager(pathOfRacingGames);
+        assertEquals(2, reloadedGameManager.getStoredGame("Racing").getVersion());
+        assertEquals((int) savedGold.get(0),
+            reloadedGameManager.getGame("Racing").getPlayer().getGold());
+      } finally {
+        executor.shutdown();
+        deleteGamesFile(pathOfRacingGames);
+      }
+    }
+
+    @Test
+    @DisplayName("Should keep latest save or delete of a game changed concurrently")
+    void shouldKeepLatestSaveOrDeleteOfGameChangedConcurrently() throws Exception {
+      String pathOfRacingGames = "src/test/resources/games/racing_games_test.json";
+      FileGameHandler.writeGamesToFile(new ArrayList<>(), pathOfRacingGames);
+      int sessions = 4;
+      int changesPerSession = 200;
+      ExecutorService executor = Executors.newFixedThreadPool(sessions);
+      try {
+        GameManager racingGameManager = new GameManager(pathOfRacingGames);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int session = 0; session < sessions; session++) {
+          int sessionNumber = session;
+          futures.add(executor.submit(() -> {
+            for (int i = 0; i < changesPerSession; i++) {
+              if ((i + sessionNumber) % 5 == 0) {
+                racingGameManager.deleteGameById("Racing");
+                continue;
+              }
+              Game game = new Game("Racing", new Player.PlayerBuilder("Player")
+                  .score(sessionNumber * changesPerSession + i).build(), story, goals1);
+              try {
+                game.setVersion(racingGameManager.hasGame("Racing")
+                    ? racingGameManager.getStoredGame("Racing").getVersion() : 0);
+                racingGameManager.saveGameAsync(game, passage1);
+              } catch (GameVersionConflictException | NoSuchElementException e) {
+                logger.log(Level.FINE, e.getMessage());
+              }
+            }
+            return null;
+          }));
+        }
+        for (Future<?> future : futures) {
+          future.get();
+        }
+        racingGameManager.close();
+
+        GameManager reloadedGameManager = new GameManager(pathOfRacingGames);
+        assertEquals(racingGameManager.hasGame("Racing"), reloadedGameManager.hasGame("Racing"));
+        assertEquals(gameIds(racingGameManager.findGames(GameQuery.builder().build())),
+            gameIds(reloadedGameManager.getStoredGames()));
+        if (racingGameManager.hasGame("Racing")) {
+          StoredGame storedGame = racingGameManager.getStoredGame("Racing");
+          assertEquals(storedGame.getVersion(),
+              reloadedGameManager.getStoredGame("Racing").getVersion());
+          assertEquals(storedGame.getPlayerScore(),
+              reloadedGameManager.getGame("Racing").getPlayer().getScore());
+        }
+      } finally {
+        executor.shutdown();
+        deleteGamesFile(pathOfRacingGames);
+      }
+    }
+
+    @Test
+    @DisplayName("Should find games by query")
+    void shouldFindGamesByQuery() throws IOException {
+      String pathOfQueriedGames = "src/test/resources/games/queried_games_test.json";
+      FileGameHandler.writeGamesToFile(new ArrayList<>(), pathOfQueriedGames);
+      try {
+        GameManager queriedGameManager = new GameManager(pathOfQueriedGames);
+        String[] names = {"Alice", "Albert", "Bob", "alfred"};
+        int[] scores = {30, 10, 20, 40};
+        for (int i = 0; i < names.length; i++) {
+          queriedGameManager.saveGame(new Game("Game " + i, new Player.PlayerBuilder(names[i])
+              .score(scores[i]).build(), story, goals1), passage1);
+        }
+
+        assertEquals(List.of("Game 0", "Game 1", "Game 3"), gameIds(queriedGameManager
+            .findGames(GameQuery.builder().playerNamePrefix("AL").build())));
+        assertEquals(List.of("Game 1", "Game 2", "Game 0"), gameIds(queriedGameManager
+            .findGames(GameQuery.builder().minScore(10).maxScore(30).build())));
+        assertEquals(List.of("Game 2", "Game 0"), gameIds(queriedGameManager
+            .findGames(GameQuery.builder().minScore(15).limit(2).build())));
+        assertEquals(List.of("Game 1", "Game 0"), gameIds(queriedGameManager
+            .findGames(GameQuery.builder().storyTitle("haunted house").playerNamePrefix("al")
+                .maxScore(30).build())));
+        assertEquals(4, queriedGameManager.findGames(GameQuery.builder()
+            .currentPassageTitle("Another room").build()).size());
+        assertTrue(queriedGameManager.findGames(GameQuery.builder()
+            .storyTitle("Other story").build()).isEmpty());
+
+        Game game = queriedGameManager.getGame("Game 2");
+        game.getPlayer().increaseScore(100);
+        queriedGameManager.saveGame(game, passage1);
+        queriedGameManager.deleteGameById("Game 0");
+        assertEquals(List.of("Game 1", "Game 3", "Game 2"), gameIds(queriedGameManager
+            .findGames(GameQuery.builder().minScore(0).build())));
+        assertEquals(List.of("Game 1", "Game 3"), gameIds(queriedGameManager
+            .findGames(GameQuery.builder().playerNamePrefix("al").build())));
+        queriedGameManager.close();
+
+        assertEquals(List.of("Game 2"), gameIds(new GameManager(pathOfQueriedGames)
+            .findGames(GameQuery.builder().minScore(100).build())));
+      } finally {
+        deleteGamesFile(pathOfQueriedGames);
+      }
+    }
+
+    @Test
+    @DisplayName("Should find games with equal scores in the order they were first saved")
+    void shouldFindGamesWithEqualScoresInOrderFirstSaved() throws IOException {
+      String pathOfQueriedGames = "src/test/resources/games/queried_games_test.json";
+      FileGameHandler.writeGamesToFile(new ArrayList<>(), pathOfQueriedGames);
+      try {
+        GameManager queriedGameManager = new GameManager(pathOfQueriedGames);
+        for (int i = 0; i < 4; i++) {
+          queriedGameManager.saveGame(new Game("Game " + i, new Player.PlayerBuilder("Player")
+              .score(50).build(), story, goals1), passage1);
+        }
+        queriedGameManager.saveGame(queriedGameManager.getGame("Game 0"), passage1);
+        queriedGameManager.saveGame(queriedGameManager.getGame("Game 1"), passage1);
+
+        List<String> expectedGameIds = List.of("Game 0", "Game 1", "Game 2");
+        assertEquals(expectedGameIds, gameIds(queriedGameManager
+            .findGames(GameQuery.builder().minScore(50).limit(3).build())));
+        assertEquals(expectedGameIds, gameIds(queriedGameManager
+            .findGames(GameQuery.builder().minScore(50).playerNamePrefix("player").limit(3)
+                .build())));
+        assertEquals(expectedGameIds, gameIds(queriedGameManager
+            .findGames(GameQuery.builder().limit(3).build())));
+        queriedGameManager.close();
+      } finally {
+        deleteGamesFile(pathOfQueriedGames);
+      }
+    }
+
     @Test
     @DisplayName("Should get games")
     void shouldGetGames() {
@@ -274,6 +697,69 @@ class GameManagerTest {
       assertThrows(NullPointerException.class, () -> gameManager.createGame("Test ID 3", player1, story, null));
     }
 
+    @Test
+    @DisplayName("Should not get missing game throws NoSuchElementException")
+    void shouldNotGetMissingGameThrowsNoSuchElementException() {
+      assertThrows(NoSuchElementException.class, () -> gameManager.getGame("Missing ID"));
+      assertThrows(NullPointerException.class, () -> gameManager.getGame(null));
+      assertThrows(NullPointerException.class, () -> gameManager.hasGame(null));
+    }
+
+    @Test
+    @DisplayName("Should not construct with no resident games throws IllegalArgumentException")
+    void shouldNotConstructWithNoResidentGamesThrowsIllegalArgumentException() {
+      assertThrows(IllegalArgumentException.class, () -> new GameManager(pathOfFile,
+          SaveCompression.NONE, 0));
+      assertThrows(NullPointerException.class, () -> gameManager.withGame(gameId1, null));
+    }
+
+    @Test
+    @DisplayName("Should not save stale version throws GameVersionConflictException")
+    void shouldNotSaveStaleVersionThrowsGameVersionConflictException() throws IOException {
+      String pathOfConflictingGames = "src/test/resources/games/conflicting_games_test.json";
+      FileGameHandler.writeGamesToFile(new ArrayList<>(), pathOfConflictingGames);
+      try {
+        GameManager conflictingGameManager = new GameManager(pathOfConflictingGames);
+        Game game = new Game("Conflicting", new Player.PlayerBuilder("Player").gold(10).build(),
+            story, goals1);
+        conflictingGameManager.saveGame(game, passage1);
+        Game staleGame = new Game("Conflicting", new Player.PlayerBuilder("Player").build(),
+            story, goals1);
+        staleGame.setVersion(game.getVersion());
+        Passage stalePassage = staleGame.getCurrentPassage();
+        game.getPlayer().increaseGold(5);
+        conflictingGameManager.saveGame(game, passage1);
+
+        GameVersionConflictException exception = assertThrows(
+            GameVersionConflictException.class,
+            () -> conflictingGameManager.saveGame(staleGame, passage1));
+        assertEquals("Conflicting", exception.getGameId());
+        assertEquals(1, exception.getExpectedVersion());
+        assertEquals(2, exception.getActualVersion());
+        assertEquals(1, staleGame.getVersion());
+        assertSame(stalePassage, staleGame.getCurrentPassage());
+        assertEquals(15, conflictingGameManager.getGame("Conflicting").getPlayer().getGold());
+
+        assertThrows(GameVersionConflictException.class, () -> conflictingGameManager
+            .saveGame(new Game("Conflicting", player1, story, goals1), passage1));
+        conflictingGameManager.deleteGameById("Conflicting");
+        assertThrows(GameVersionConflictException.class,
+            () -> conflictingGameManager.saveGame(game, passage1));
+        conflictingGameManager.close();
+      } finally {
+        deleteGamesFile(pathOfConflictingGames);
+      }
+    }
+
+    @Test
+    @DisplayName("Should not build invalid query throws IllegalArgumentException")
+    void shouldNotBuildInvalidQueryThrowsIllegalArgumentException() {
+      assertThrows(IllegalArgumentException.class, () -> GameQuery.builder().minScore(10)
+          .maxScore(5).build());
+      assertThrows(IllegalArgumentException.class, () -> GameQuery.builder().limit(0).build());
+      assertThrows(NullPointerException.class, () -> gameManager.findGames(null));
+    }
+
     @Test
     @DisplayName("Should not delete game throws NullPointerException")
     void shouldNotDeleteGameThrowsNullPointerException() {
@@ -0,0 +1,139 @@
+package edu.ntnu.idatt2001.paths.controller;
+
+import edu.ntnu.idatt2001.paths.model.Game;
+import edu.ntnu.idatt2001.paths.model.Link;
+import edu.ntnu.idatt2001.paths.model.Passage;
+import edu.ntnu.idatt2001.paths.model.Player;
+import edu.ntnu.idatt2001.paths.model.Story;
+import edu.ntnu.idatt2001.paths.model.filehandling.StoredGame;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+
+/**
+ * The class measures the time of finding stored games with the index of a GameManager,
+ * compared to filtering the list of every stored game. The benchmark is run with the main
+ * method, and is not part of the tests.
+ *
+ * @author Ramtin Samavat and Tobias Oftedal.
+ * @version 1.0
+ * @since May 26, 2023.
+ */
+public final class GameQueryBenchmark {
+
+  private static final int DEFAULT_GAMES = 100_000;
+  private static final int STORIES = 50;
+  private static final int PASSAGES = 20;
+  private static final int WARMUP_ROUNDS = 20;
+  private static final int MEASURED_ROUNDS = 100;
+
+  /**
+   * Private constructor for the GameQueryBenchmark.
+   *
+   * @throws IllegalStateException If the constructor is used.
+   */
+  private GameQueryBenchmark() throws IllegalStateException {
+    throw new IllegalStateException("Cannot instantiate a GameQueryBenchmark object");
+  }
+
+  /**
+   * The method runs the benchmark and prints the time of each query.
+   *
+   * @param args the number of games, or none for the default number.
+   */
+  public static void main(String[] args) {
+    int gameCount = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_GAMES;
+    List<StoredGame> storedGames = createStoredGames(gameCount);
+    StoredGameIndex index = new StoredGameIndex();
+    long start = System.nanoTime();
+    for (int i = 0; i < storedGames.size(); i++) {
+      index.put(storedGames.get(i).getGameId(), storedGames.get(i), i);
+    }
+    System.out.printf("indexed %d games in %.1f ms%n", gameCount,
+        (System.nanoTime() - start) / 1e6);
+
+    measure("player prefix", index, storedGames,
+        GameQuery.builder().playerNamePrefix("player 4711").build(),
+        game -> game.getPlayerName().toLowerCase().startsWith("player 4711"));
+    measure("story", index, storedGames,
+        GameQuery.builder().storyTitle("Story 7").build(),
+        game -> game.getStoryTitle().equalsIgnoreCase("Story 7"));
+    measure("story and passage", index, storedGames,
+        GameQuery.builder().storyTitle("Story 7").currentPassageTitle("Passage 3").build(),
+        game -> game.getStoryTitle().equalsIgnoreCase("Story 7")
+            && game.getCurrentPassageTitle().equalsIgnoreCase("Passage 3"));
+    measure("score range, top 20", index, storedGames,
+        GameQuery.builder().minScore(900).limit(20).build(),
+        game -> game.getPlayerScore() >= 900);
+    measure("score range", index, storedGames,
+        GameQuery.builder().minScore(500).maxScore(510).build(),
+        game -> game.getPlayerScore() >= 500 && game.getPlayerScore() <= 510);
+  }
+
+  /**
+   * Helper method to measure and print the time of a query, with the index and by filtering
+   * every stored game.
+   *
+   * @param name        the name of the query.
+   * @param index       the index of the stored games.
+   * @param storedGames the stored games.
+   * @param query       the query.
+   * @param filter      the filter matching the same games as the query.
+   */
+  private static void measure(String name, StoredGameIndex index, List<StoredGame> storedGames,
+                              GameQuery query, Predicate<StoredGame> filter) {
+    int found = 0;
+    for (int i = 0; i < WARMUP_ROUNDS; i++) {
+      found += index.find(query).size();
+      found += storedGames.stream().filter(filter).count();
+    }
+    long start = System.nanoTime();
+    for (int i = 0; i < MEASURED_ROUNDS; i++) {
+      found = index.find(query).size();
+    }
+    double indexedTime = (System.nanoTime() - start) / 1e6 / MEASURED_ROUNDS;
+    start = System.nanoTime();
+    long filtered = 0;
+    for (int i = 0; i < MEASURED_ROUNDS; i++) {
+      filtered = storedGames.stream().filter(filter).count();
+    }
+    double filteredTime = (System.nanoTime() - start) / 1e6 / MEASURED_ROUNDS;
+    System.out.printf("%-20s %6d games, index %8.3f ms, filter %8.3f ms (%d)%n", name, found,
+        indexedTime, filteredTime, filtered);
+  }
+
+  /**
+   * Helper method to create stored games with random players, stories, passages and scores.
+   *
+   * @param gameCount the number of games.
+   * @return the stored games.
+   */
+  private static List<StoredGame> createStoredGames(int gameCount) {
+    List<Story> stories = new ArrayList<>();
+    List<List<Passage>> storyPassages = new ArrayList<>();
+    for (int s = 0; s < STORIES; s++) {
+      List<Passage> passages = new ArrayList<>();
+      for (int p = 0; p < PASSAGES; p++) {
+        Passage passage = new Passage("Passage " + p, "The story goes on.");
+        passage.addLink(new Link("Go on", "Passage " + (p + 1) % PASSAGES));
+        passages.add(passage);
+      }
+      Story story = new Story("Story " + s, passages.get(0));
+      passages.subList(1, PASSAGES).forEach(story::addPassage);
+      stories.add(story);
+      storyPassages.add(passages);
+    }
+
+    Random random = new Random(42);
+    List<StoredGame> storedGames = new ArrayList<>(gameCount);
+    for (int i = 0; i < gameCount; i++) {
+      int s = random.nextInt(STORIES);
+      Game game = new Game("Game " + i, new Player.PlayerBuilder("Player " + i)
+          .score(random.nextInt(1000)).build(), stories.get(s), new ArrayList<>());
+      game.setCurrentPassage(storyPassages.get(s).get(random.nextInt(PASSAGES)));
+      storedGames.add(StoredGame.of(game));
+    }
+    return storedGames;
+  }
+}
@@ -0,0 +1,122 @@
+package edu.ntnu.idatt2001.paths.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The class tests the CompiledStory class.
+ *
+ * @author Ramtin Samavat and Tobias Oftedal.
+ * @version 1.0
+ * @since May 22, 2023.
+ */
+class CompiledStoryTest {
+  private Story story;
+  private Passage openingPassage;
+  private Passage passage1;
+  private Passage passage2;
+  private Link brokenLink;
+
+  @BeforeEach
+  void setUp() {
+    openingPassage = new Passage("Beginnings", "There is a door in front of you.");
+    openingPassage.addLink(new Link("Try to open the door", "Another room"));
+
+    passage1 = new Passage("Another room", "You see a desk with a large, dusty book.");
+    passage1.addLink(new Link("Open the book", "the book of spells"));
+    passage1.addLink(new Link("Go back", "Beginnings"));
+
+    passage2 = new Passage("The book of spells", "You find the spell of teleportation.");
+    brokenLink = new Link("Cast the spell", "Forest");
+    passage2.addLink(brokenLink);
+
+    story = new Story("Haunted House", openingPassage);
+    story.addPassage(passage1);
+    story.addPassage(passage2);
+  }
+
+  @Nested
+  @DisplayName("Positive tests")
+  class PositiveTests {
+    @Test
+    @DisplayName("Should compile passages with opening passage first")
+    void shouldCompilePassages() {
+      CompiledStory compiledStory = new CompiledStory(story);
+      assertEquals("Haunted House", compiledStory.getTitle());
+      assertEquals(3, compiledStory.getPassageCount());
+      assertEquals(4, compiledStory.getLinkCount());
+      assertSame(openingPassage, compiledStory.getPassage(compiledStory.getOpeningPassageId()));
+      assertSame(passage2, compiledStory.getPassage(compiledStory.getPassageId("THE BOOK OF SPELLS")));
+    }
+
+    @Test
+    @DisplayName("Should store the links of a passage between its offsets")
+    void shouldStoreLinksBetweenOffsets() {
+      CompiledStory compiledStory = new CompiledStory(story);
+      int passageId = compiledStory.getPassageId("Another room");
+      int first = compiledStory.getFirstLinkIndex(passageId);
+      int end = compiledStory.getEndLinkIndex(passageId);
+      assertEquals(2, end - first);
+      assertEquals(passage1.getLinks().get(0), compiledStory.getLink(first));
+      assertEquals(passage1.getLinks().get(1), compiledStory.getLink(first + 1));
+    }
+
+    @Test
+    @DisplayName("Should follow links by passage ID")
+    void shouldFollowLinks() {
+      CompiledStory compiledStory = new CompiledStory(story);
+      int passageId = compiledStory.getOpeningPassageId();
+      passageId = compiledStory.go(compiledStory.getFirstLinkIndex(passageId));
+      assertSame(passage1, compiledStory.getPassage(passageId));
+      passageId = compiledStory.go(compiledStory.getFirstLinkIndex(passageId));
+      assertSame(passage2, compiledStory.getPassage(passageId));
+    }
+
+    @Test
+    @DisplayName("Should mark broken links")
+    void shouldMarkBrokenLinks() {
+      CompiledStory compiledStory = new CompiledStory(story);
+      int linkIndex = compiledStory.getFirstLinkIndex(compiledStory.getPassageId("The book of spells"));
+      assertEquals(brokenLink, compiledStory.getLink(linkIndex));
+      assertEquals(CompiledStory.BROKEN_LINK, compiledStory.getLinkTarget(linkIndex));
+    }
+  }
+
+  @Nested
+  @DisplayName("Negative tests")
+  class NegativeTests {
+    @Test
+    @DisplayName("Should not compile story throws NullPointerException")
+    void shouldNotCompileStoryThrowsNullPointerException() {
+      assertThrows(NullPointerException.class, () -> new CompiledStory(null));
+    }
+
+    @Test
+    @DisplayName("Should not get passage ID throws NoSuchElementException")
+    void shouldNotGetPassageIdThrowsNoSuchElementException() {
+      CompiledStory compiledStory = new CompiledStory(story);
+      assertThrows(NoSuchElementException.class, () -> compiledStory.getPassageId("Forest"));
+    }
+
+    @Test
+    @DisplayName("Should not follow broken link throws NoSuchElementException")
+    void shouldNotFollowBrokenLinkThrowsNoSuchElementException() {
+      CompiledStory compiledStory = new CompiledStory(story);
+      int linkIndex = compiledStory.getFirstLinkIndex(compiledStory.getPassageId("The book of spells"));
+      assertThrows(NoSuchElementException.class, () -> compiledStory.go(linkIndex));
+    }
+
+    @Test
+    @DisplayName("Should not get passage throws IndexOutOfBoundsException")
+    void shouldNotGetPassageThrowsIndexOutOfBoundsException() {
+      CompiledStory compiledStory = new CompiledStory(story);
+      assertThrows(IndexOutOfBoundsException.class, () -> compiledStory.getPassage(3));
+      assertThrows(IndexOutOfBoundsException.class, () -> compiledStory.getLink(-1));
+    }
+  }
+}
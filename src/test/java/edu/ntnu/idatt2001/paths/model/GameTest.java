@@ -1,5 +1,6 @@
 package edu.ntnu.idatt2001.paths.model;
 
+import edu.ntnu.idatt2001.paths.model.actions.GoldAction;
 import edu.ntnu.idatt2001.paths.model.goals.Goal;
 import edu.ntnu.idatt2001.paths.model.goals.HealthGoal;
 import org.junit.jupiter.api.BeforeEach;
@@ -97,6 +98,15 @@ class GameTest {
       List<Goal> actualGoals = game.getGoals();
       assertTrue(expectedGoals.containsAll(actualGoals));
     }
+
+    @Test
+    @DisplayName("Should set version")
+    void shouldSetVersion() {
+      assertEquals(0, game.getVersion());
+      game.setVersion(3);
+      assertEquals(3, game.getVersion());
+      assertThrows(IllegalArgumentException.class, () -> game.setVersion(-1));
+    }
   }
 
   @Nested
@@ -115,7 +125,7 @@ class GameTest {
       Story testStory = new Story("New story", openingPassage);
       Passage gameStartPassage = game.resetGame(testStory);
       assertEquals("New story", game.getStory().getTitle());
-      assertEquals(openingPassage, game.getStory().getCurrentPassage());
+      assertEquals(openingPassage, game.getCurrentPassage());
       assertEquals(openingPassage, gameStartPassage);
     }
 
@@ -129,6 +139,73 @@ class GameTest {
       assertEquals(expectedPassage, actualPassage);
     }
 
+    @Test
+    @DisplayName("Should execute actions of a link only once")
+    void shouldExecuteActionsOfLinkOnlyOnce() {
+      Link link = new Link("Pick up the gold", "Test title");
+      link.addAction(new GoldAction(10));
+      openingPassage.addLink(link);
+
+      assertTrue(game.executeActions(link));
+      assertFalse(game.executeActions(link));
+      assertTrue(game.isConsumed(link));
+      assertEquals(60, player.getGold());
+      assertEquals(1, link.getActions().size());
+    }
+
+    @Test
+    @DisplayName("Should keep consumed links separate for games sharing a story")
+    void shouldKeepConsumedLinksSeparateForGamesSharingStory() {
+      Link link = new Link("Pick up the gold", "Test title");
+      link.addAction(new GoldAction(10));
+      openingPassage.addLink(link);
+      Player otherPlayer = new Player.PlayerBuilder("Other name").build();
+      Game otherGame = new Game("Other ID", otherPlayer, story, goals);
+
+      game.executeActions(link);
+
+      assertFalse(otherGame.isConsumed(link));
+      assertTrue(otherGame.executeActions(link));
+      assertEquals(10, otherPlayer.getGold());
+    }
+
+    @Test
+    @DisplayName("Should share compiled story between games sharing a story")
+    void shouldShareCompiledStoryBetweenGamesSharingStory() {
+      Link link = new Link("Pick up the gold", "Test title");
+      link.addAction(new GoldAction(10));
+      openingPassage.addLink(link);
+      Game otherGame = new Game("Other ID", new Player.PlayerBuilder("Other name").build(),
+          story, goals);
+
+      game.executeActions(link);
+      CompiledStory compiledStory = story.getCompiledStory();
+      otherGame.executeActions(link);
+
+      assertSame(compiledStory, story.getCompiledStory());
+      story.addPassage(new Passage("Another title", "Another content"));
+      assertNotSame(compiledStory, story.getCompiledStory());
+    }
+
+    @Test
+    @DisplayName("Should reset consumed links and current passage")
+    void shouldResetConsumedLinksAndCurrentPassage() {
+      Passage passage = new Passage("Another title", "Another content");
+      story.addPassage(passage);
+      Link link = new Link("Pick up the gold", "Another title");
+      link.addAction(new GoldAction(10));
+      openingPassage.addLink(link);
+      game.executeActions(link);
+      game.setCurrentPassage(game.go(link));
+
+      Passage startPassage = game.resetGame();
+
+      assertEquals(openingPassage, startPassage);
+      assertEquals(openingPassage, game.getCurrentPassage());
+      assertFalse(game.isConsumed(link));
+      assertEquals(50, player.getGold());
+    }
+
     @Test
     @DisplayName("Should not reset the game throws NullPointerException")
     void shouldNotResetTheGameThrowsNullPointerException() {
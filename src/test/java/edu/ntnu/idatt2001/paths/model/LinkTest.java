@@ -131,5 +131,13 @@ class LinkTest {
       Link testLink = new Link ("Test text", "Test reference");
       assertEquals(link, testLink);
     }
+
+    @Test
+    @DisplayName("Test hash code does not change when actions are added")
+    void testHashCodeDoesNotChangeWhenActionsAreAdded() {
+      int hashBefore = link.hashCode();
+      link.addAction(new GoldAction(5));
+      assertEquals(hashBefore, link.hashCode());
+    }
   }
 }
\ No newline at end of file
@@ -0,0 +1,53 @@
+package edu.ntnu.idatt2001.paths.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The class tests the PassageKey class.
+ *
+ * @author Ramtin Samavat and Tobias Oftedal.
+ * @version 1.0
+ * @since May 22, 2023.
+ */
+class PassageKeyTest {
+
+  @Nested
+  @DisplayName("Positive tests")
+  class PositiveTests {
+    @Test
+    @DisplayName("Should normalize title")
+    void shouldNormalizeTitle() {
+      PassageKey key = PassageKey.of("  The Book Of Spells ");
+      assertEquals("the book of spells", key.getTitle());
+    }
+
+    @Test
+    @DisplayName("Should be equal for titles in different case")
+    void shouldBeEqualForTitlesInDifferentCase() {
+      PassageKey key1 = PassageKey.of("Another room");
+      PassageKey key2 = PassageKey.of("ANOTHER ROOM ");
+      assertEquals(key1, key2);
+      assertEquals(key1.hashCode(), key2.hashCode());
+    }
+
+    @Test
+    @DisplayName("Should not be equal for different titles")
+    void shouldNotBeEqualForDifferentTitles() {
+      assertNotEquals(PassageKey.of("Another room"), PassageKey.of("Beginnings"));
+    }
+  }
+
+  @Nested
+  @DisplayName("Negative tests")
+  class NegativeTests {
+    @Test
+    @DisplayName("Should not create key throws NullPointerException")
+    void shouldNotCreateKeyThrowsNullPointerException() {
+      assertThrows(NullPointerException.class, () -> PassageKey.of(null));
+    }
+  }
+}
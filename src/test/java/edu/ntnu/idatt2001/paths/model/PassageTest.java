@@ -84,6 +84,12 @@ class PassageTest {
       assertEquals(expectedLinks, actualLinks);
     }
 
+    @Test
+    @DisplayName("Should not modify links directly throws UnsupportedOperationException")
+    void shouldNotModifyLinksDirectlyThrowsUnsupportedOperationException() {
+      assertThrows(UnsupportedOperationException.class, () -> passage.getLinks().add(testLink));
+    }
+
     @Test
     @DisplayName("Should have links")
     void ShouldHaveLinks() {
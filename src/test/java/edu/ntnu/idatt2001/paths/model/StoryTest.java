@@ -127,6 +127,23 @@ class StoryTest {
       assertEquals(passage2, actualPassage);
     }
 
+    @Test
+    @DisplayName("Should get passage ignoring case and surrounding whitespace")
+    void shouldGetPassageIgnoringCase() {
+      story.addPassage(passage2);
+      Link link = new Link("Text link", "  TITLE PASSAGE2 ");
+      assertEquals(passage2, story.getPassage(link));
+    }
+
+    @Test
+    @DisplayName("Should check if story has passage")
+    void shouldCheckIfStoryHasPassage() {
+      story.addPassage(passage1);
+      assertTrue(story.hasPassage("title passage1"));
+      assertTrue(story.hasPassage("Opening passage"));
+      assertFalse(story.hasPassage("Title passage2"));
+    }
+
     @Test
     @DisplayName("Should get passages")
     void shouldGetPassages() {
@@ -174,6 +191,38 @@ class StoryTest {
       assertTrue(expectedBrokenLinks.containsAll(actualBrokenLinks));
     }
 
+    @Test
+    @DisplayName("Should resolve broken links when the referenced passage is added")
+    void shouldResolveBrokenLinksWhenPassageIsAdded() {
+      passage1.addLink(link1);
+      story.addPassage(passage1);
+      assertEquals(List.of(link1), story.getBrokenLinks());
+
+      story.addPassage(passage2);
+      assertTrue(story.getBrokenLinks().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should get broken links added after the passage")
+    void shouldGetBrokenLinksAddedAfterPassage() {
+      story.addPassage(passage1);
+      passage1.addLink(link2);
+      assertEquals(List.of(link2), story.getBrokenLinks());
+    }
+
+    @Test
+    @DisplayName("Should get broken links after removing passage")
+    void shouldGetBrokenLinksAfterRemovingPassage() {
+      passage1.addLink(link1);
+      passage2.addLink(link2);
+      story.addPassage(passage1);
+      story.addPassage(passage2);
+
+      story.removePassage(link1);
+
+      assertEquals(List.of(link1), story.getBrokenLinks());
+    }
+
     @Test
     @DisplayName("Should not set new current passage throws NullPointerException")
     void shouldNotSetNewCurrentPassageThrowsNullPointerException() {
@@ -193,6 +242,14 @@ class StoryTest {
       assertThrows(IllegalArgumentException.class, () -> story.addPassage(passage1));
     }
 
+    @Test
+    @DisplayName("Should not add passage with same title in different case")
+    void shouldNotAddPassageWithSameTitleInDifferentCase() {
+      story.addPassage(passage1);
+      Passage duplicate = new Passage("TITLE PASSAGE1", "Other content");
+      assertThrows(IllegalArgumentException.class, () -> story.addPassage(duplicate));
+    }
+
     @Test
     @DisplayName("Should not get passage throws NullPointerException")
     void shouldNotGetPassageThrowsNullPointerException() {
@@ -1,5 +1,6 @@
 package edu.ntnu.idatt2001.paths.model.filehandling;
 
+import com.google.gson.JsonParseException;
 import com.google.gson.JsonSyntaxException;
 import edu.ntnu.idatt2001.paths.model.Game;
 import edu.ntnu.idatt2001.paths.model.Link;
@@ -28,10 +29,12 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -45,6 +48,7 @@ class FileGameHandlerTest {
 
   private static final Logger logger = Logger.getLogger(FileGameHandlerTest.class.getName());
   private String pathOfFile;
+  private String pathOfStoryFile;
   private File gamesFile;
   private List<Game> games;
   private Game game1;
@@ -53,6 +57,7 @@ class FileGameHandlerTest {
   @BeforeEach
   void setUp() {
     pathOfFile = "src/test/resources/games/game_objects.json";
+    pathOfStoryFile = "src/test/resources/stories/referenced_story.paths";
     gamesFile = new File(pathOfFile);
 
     String gameId1 = "Test ID 1";
@@ -130,11 +135,80 @@ class FileGameHandlerTest {
     games.add(game2);
   }
 
+  /**
+   * Helper method to delete the archived copies of the story file.
+   *
+   * @throws IOException if the archive cannot be deleted.
+   */
+  private void deleteArchive() throws IOException {
+    Path archive = StoryArchive.getArchivePath(Paths.get(pathOfStoryFile));
+    if (Files.isDirectory(archive)) {
+      try (Stream<Path> files = Files.list(archive)) {
+        for (Path file : files.toList()) {
+          Files.delete(file);
+        }
+      }
+      Files.delete(archive);
+    }
+  }
+
+  /**
+   * Helper method to find the archived copy of the story file.
+   *
+   * @return the path of the archived copy.
+   * @throws IOException if the archive cannot be listed.
+   */
+  private Path findArchivedCopy() throws IOException {
+    try (Stream<Path> files = Files.list(StoryArchive.getArchivePath(
+        Paths.get(pathOfStoryFile)))) {
+      return files.filter(file -> file.toString().endsWith(".paths")).findFirst().orElseThrow();
+    }
+  }
+
+  /**
+   * Helper method to write a game whose story is read from the story file, after going to
+   * another room.
+   *
+   * @return the written game.
+   * @throws IOException if the story or the game cannot be written.
+   */
+  private Game writeGameReferringToStoryFile() throws IOException {
+    FileStoryHandler.writeStoryToFile(game1.getStory(), pathOfStoryFile);
+    Story story = FileStoryHandler.readStoryFromFile(pathOfStoryFile);
+    Game game = new Game("Test ID 3", game1.getPlayer(), story, game1.getGoals());
+    Link consumedLink = story.getOpeningPassage().getLinks().get(0);
+    game.executeActions(consumedLink);
+    game.setCurrentPassage(game.go(consumedLink));
+    games.clear();
+    games.add(game);
+    FileGameHandler.writeGamesToFile(games, pathOfFile);
+    return game;
+  }
+
+  /**
+   * Helper method to change the story file, by adding a forest and optionally keeping the
+   * other room.
+   *
+   * @param story           the story of the file.
+   * @param keepAnotherRoom true if the other room is kept in the story.
+   * @throws IOException if the story cannot be written.
+   */
+  private void writeChangedStoryFile(Story story, boolean keepAnotherRoom) throws IOException {
+    Story changedStory = new Story(story.getTitle(), story.getOpeningPassage());
+    story.getPassages().stream()
+        .filter(passage -> keepAnotherRoom || !passage.getTitle().equals("Another room"))
+        .forEach(changedStory::addPassage);
+    changedStory.addPassage(new Passage("Forest", "You are in a forest."));
+    FileStoryHandler.writeStoryToFile(changedStory, pathOfStoryFile);
+  }
+
   @AfterEach
   void tearDown() {
     Path pathGames = Paths.get(gamesFile.getPath());
     try {
       Files.deleteIfExists(pathGames);
+      Files.deleteIfExists(Paths.get(pathOfStoryFile));
+      deleteArchive();
     } catch (IOException e) {
       logger.log(Level.WARNING, "Error deleting file.", e);
     }
@@ -183,6 +257,7 @@ class FileGameHandlerTest {
                           "reference": "Another room",
                           "actions": [
                             {
+                              "type": "INVENTORY",
                               "item": "Sword"
                             }
                           ]
@@ -198,6 +273,7 @@ class FileGameHandlerTest {
                           "reference": "Another room",
                           "actions": [
                             {
+                              "type": "INVENTORY",
                               "item": "Sword"
                             }
                           ]
@@ -214,9 +290,11 @@ class FileGameHandlerTest {
                             "reference": "The book of spells",
                             "actions": [
                               {
+                                "type": "SCORE",
                                 "points": 10
                               },
                               {
+                                "type": "HEALTH",
                                 "health": 10
                               }
                             ]
@@ -226,9 +304,11 @@ class FileGameHandlerTest {
                             "reference": "Beginnings",
                             "actions": [
                               {
+                                "type": "SCORE",
                                 "points": -10
                               },
                               {
+                                "type": "HEALTH",
                                 "health": -10
                               }
                             ]
@@ -244,6 +324,7 @@ class FileGameHandlerTest {
                             "reference": "Forest",
                             "actions": [
                               {
+                                "type": "GOLD",
                                 "gold": 10
                               }
                             ]
@@ -253,6 +334,7 @@ class FileGameHandlerTest {
                             "reference": "Another room",
                             "actions": [
                               {
+                                "type": "GOLD",
                                 "gold": -10
                               }
                             ]
@@ -262,15 +344,19 @@ class FileGameHandlerTest {
                     ],
                     "goals": [
                       {
+                        "type": "SCORE",
                         "minimumPoints": 10
                       },
                       {
+                        "type": "HEALTH",
                         "minimumHealth": 70
                       },
                       {
+                        "type": "GOLD",
                         "minimumGold": 100
                       },
                       {
+                        "type": "INVENTORY",
                         "mandatoryItems": [
                           "Sword"
                         ]
@@ -299,6 +385,7 @@ class FileGameHandlerTest {
                           "reference": "Another room",
                           "actions": [
                             {
+                              "type": "INVENTORY",
                               "item": "Sword"
                             }
                           ]
@@ -314,6 +401,7 @@ class FileGameHandlerTest {
                           "reference": "Another room",
                           "actions": [
                             {
+                              "type": "INVENTORY",
                               "item": "Sword"
                             }
                           ]
@@ -330,9 +418,11 @@ class FileGameHandlerTest {
                             "reference": "The book of spells",
                             "actions": [
                               {
+                                "type": "SCORE",
                                 "points": 10
                               },
                               {
+                                "type": "HEALTH",
                                 "health": 10
                               }
                             ]
@@ -342,9 +432,11 @@ class FileGameHandlerTest {
                             "reference": "Beginnings",
                             "actions": [
                               {
+                                "type": "SCORE",
                                 "points": -10
                               },
                               {
+                                "type": "HEALTH",
                                 "health": -10
                               }
                             ]
@@ -360,6 +452,7 @@ class FileGameHandlerTest {
                             "reference": "Forest",
                             "actions": [
                               {
+                                "type": "GOLD",
                                 "gold": 10
                               }
                             ]
@@ -369,6 +462,7 @@ class FileGameHandlerTest {
                             "reference": "Another room",
                             "actions": [
                               {
+                                "type": "GOLD",
                                 "gold": -10
                               }
                             ]
@@ -378,15 +472,19 @@ class FileGameHandlerTest {
                     ],
                     "goals": [
                       {
+                        "type": "SCORE",
                         "minimumPoints": 100
                       },
                       {
+                        "type": "HEALTH",
                         "minimumHealth": 50
                       },
                       {
+                        "type": "GOLD",
                         "minimumGold": 10
                       },
                       {
+                        "type": "INVENTORY",
                         "mandatoryItems": [
                           "Sword"
                         ]
@@ -452,14 +550,218 @@ class FileGameHandlerTest {
       assertTrue(gamesReadFromFile.isEmpty());
     }
 
+    @Test
+    @DisplayName("Should read consumed links and current passage from file")
+    void shouldReadConsumedLinksAndCurrentPassageFromFile() {
+      Link consumedLink = game1.getStory().getOpeningPassage().getLinks().get(0);
+      game1.executeActions(consumedLink);
+      game1.setCurrentPassage(game1.go(consumedLink));
+
+      List<Game> gamesReadFromFile = new ArrayList<>();
+      try {
+        FileGameHandler.writeGamesToFile(games, pathOfFile);
+        gamesReadFromFile.addAll(FileGameHandler.parseGamesFromFile(pathOfFile));
+      } catch (IOException | JsonSyntaxException e) {
+        logger.log(Level.WARNING, e.getMessage(), e);
+      }
+
+      Game gameReadFromFile = gamesReadFromFile.get(0);
+      Link linkReadFromFile = gameReadFromFile.getStory().getOpeningPassage().getLinks().get(0);
+      assertTrue(gameReadFromFile.isConsumed(linkReadFromFile));
+      assertEquals("Another room", gameReadFromFile.getCurrentPassage().getTitle());
+      assertFalse(gamesReadFromFile.get(1).isConsumed(
+              gamesReadFromFile.get(1).getStory().getOpeningPassage().getLinks().get(0)));
+    }
+
+    @Test
+    @DisplayName("Should write reference to story file")
+    void shouldWriteReferenceToStoryFile() throws IOException {
+      FileStoryHandler.writeStoryToFile(game1.getStory(), pathOfStoryFile);
+      Story story = FileStoryHandler.readStoryFromFile(pathOfStoryFile);
+      Game game = new Game("Test ID 3", game1.getPlayer(), story, game1.getGoals());
+      Link consumedLink = story.getOpeningPassage().getLinks().get(0);
+      game.executeActions(consumedLink);
+      game.setCurrentPassage(game.go(consumedLink));
+      games.add(game);
+
+      FileGameHandler.writeGamesToFile(games, pathOfFile);
+      String content = Files.readString(Paths.get(pathOfFile));
+      String canonicalPath = Paths.get(pathOfStoryFile).toRealPath().toString();
+      assertTrue(content.contains("\"story file\": \"" + canonicalPath + "\""));
+      assertTrue(content.contains("\"story archive\""));
+      assertEquals(2, content.split("\"story passages\"").length - 1);
+
+      Game gameReadFromFile = FileGameHandler.parseGamesFromFile(pathOfFile).get(2);
+      assertSame(story, gameReadFromFile.getStory());
+      assertTrue(gameReadFromFile.isConsumed(consumedLink));
+      assertEquals("Another room", gameReadFromFile.getCurrentPassage().getTitle());
+      assertEquals(game1.getPlayer(), gameReadFromFile.getPlayer());
+      assertEquals(game1.getGoals(), gameReadFromFile.getGoals());
+    }
+
+    @Test
+    @DisplayName("Should embed story when story file is missing")
+    void shouldEmbedStoryWhenStoryFileIsMissing() throws IOException {
+      FileStoryHandler.writeStoryToFile(game1.getStory(), pathOfStoryFile);
+      Story story = FileStoryHandler.readStoryFromFile(pathOfStoryFile);
+      Files.delete(Paths.get(pathOfStoryFile));
+      games.clear();
+      games.add(new Game("Test ID 3", game1.getPlayer(), story, game1.getGoals()));
+
+      FileGameHandler.writeGamesToFile(games, pathOfFile);
+      String content = Files.readString(Paths.get(pathOfFile));
+      assertFalse(content.contains("\"story file\""));
+
+      Game gameReadFromFile = FileGameHandler.parseGamesFromFile(pathOfFile).get(0);
+      assertEquals(story.getOpeningPassage(), gameReadFromFile.getStory().getOpeningPassage());
+      assertEquals(story.getPassages().size(), gameReadFromFile.getStory().getPassages().size());
+    }
+
+    @Test
+    @DisplayName("Should load archived story when story file is missing")
+    void shouldLoadArchivedStoryWhenStoryFileIsMissing() throws IOException {
+      Game game = writeGameReferringToStoryFile();
+
+      Files.delete(Paths.get(pathOfStoryFile));
+
+      Game gameReadFromFile = FileGameHandler.parseGamesFromFile(pathOfFile).get(0);
+      assertEquals(2, gameReadFromFile.getStory().getPassages().size());
+      assertEquals("Another room", gameReadFromFile.getCurrentPassage().getTitle());
+      assertEquals(game.getConsumedLinks(), gameReadFromFile.getConsumedLinks());
+    }
+
+    @Test
+    @DisplayName("Should load archived story when story file has changed")
+    void shouldLoadArchivedStoryWhenStoryFileHasChanged() throws IOException {
+      Game game = writeGameReferringToStoryFile();
+
+      writeChangedStoryFile(game.getStory(), true);
+
+      Game gameReadFromFile = FileGameHandler.parseGamesFromFile(pathOfFile).get(0);
+      assertEquals(2, gameReadFromFile.getStory().getPassages().size());
+      assertEquals("Another room", gameReadFromFile.getCurrentPassage().getTitle());
+      assertEquals(game.getConsumedLinks(), gameReadFromFile.getConsumedLinks());
+    }
+
+    @Test
+    @DisplayName("Should reset consumed links when story file has changed and is not archived")
+    void shouldResetConsumedLinksWhenStoryFileHasChangedAndIsNotArchived() throws IOException {
+      Game game = writeGameReferringToStoryFile();
+      deleteArchive();
+
+      writeChangedStoryFile(game.getStory(), true);
+
+      Game gameReadFromFile = FileGameHandler.parseGamesFromFile(pathOfFile).get(0);
+      assertEquals(3, gameReadFromFile.getStory().getPassages().size());
+      assertEquals("Another room", gameReadFromFile.getCurrentPassage().getTitle());
+      assertTrue(gameReadFromFile.getConsumedLinks().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should not load archived story that does not match fingerprint")
+    void shouldNotLoadArchivedStoryThatDoesNotMatchFingerprint() throws IOException {
+      Game game = writeGameReferringToStoryFile();
+
+      writeChangedStoryFile(game.getStory(), true);
+      Files.copy(Paths.get(pathOfStoryFile), findArchivedCopy(),
+          StandardCopyOption.REPLACE_EXISTING);
+
+      Game gameReadFromFile = FileGameHandler.parseGamesFromFile(pathOfFile).get(0);
+      assertEquals(Paths.get(pathOfStoryFile).toRealPath().toString(),
+          gameReadFromFile.getStory().getSourcePath());
+      assertEquals(3, gameReadFromFile.getStory().getPassages().size());
+      assertTrue(gameReadFromFile.getConsumedLinks().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should replace archived story that does not match fingerprint")
+    void shouldReplaceArchivedStoryThatDoesNotMatchFingerprint() throws IOException {
+      writeGameReferringToStoryFile();
+      Path archivedCopy = findArchivedCopy();
+      Files.writeString(archivedCopy, "Not the story");
+
+      Story story = FileStoryHandler.readStoryFromFile(pathOfStoryFile);
+      String archivedPath = StoryArchive.archive(story);
+
+      assertEquals(archivedCopy.toRealPath().toString(), archivedPath);
+      assertEquals(story.getSourceFingerprint(),
+          FileFingerprint.computeFileHash(archivedCopy));
+    }
+
+    @Test
+    @DisplayName("Should move player to opening passage when current passage is removed")
+    void shouldMovePlayerToOpeningPassageWhenCurrentPassageIsRemoved() throws IOException {
+      Game game = writeGameReferringToStoryFile();
+      deleteArchive();
+
+      writeChangedStoryFile(game.getStory(), false);
+
+      Game gameReadFromFile = FileGameHandler.parseGamesFromFile(pathOfFile).get(0);
+      assertEquals("Beginnings", gameReadFromFile.getCurrentPassage().getTitle());
+    }
+
+    @Test
+    @DisplayName("Should read stored games without creating games")
+    void shouldReadStoredGamesWithoutCreatingGames() throws IOException {
+      FileGameHandler.writeGamesToFile(games, pathOfFile);
+
+      List<StoredGame> storedGames = FileGameHandler.readStoredGamesFromFile(pathOfFile);
+
+      assertEquals(2, storedGames.size());
+      StoredGame storedGame = storedGames.get(0);
+      assertFalse(storedGame.isLoaded());
+      assertEquals("Test ID 1", storedGame.getGameId());
+      assertEquals("Player1", storedGame.getPlayerName());
+      assertEquals("Haunted House", storedGame.getStoryTitle());
+      assertEquals("Beginnings", storedGame.getCurrentPassageTitle());
+
+      Game game = storedGame.getGame();
+      assertTrue(storedGame.isLoaded());
+      assertSame(game, storedGame.getGame());
+      assertEquals(game1, game);
+      assertEquals(game1.getPlayer(), game.getPlayer());
+    }
+
+    @Test
+    @DisplayName("Should pass stored games to consumer while reading")
+    void shouldPassStoredGamesToConsumerWhileReading() throws IOException {
+      FileGameHandler.writeGamesToFile(games, pathOfFile);
+      List<String> gameIds = new ArrayList<>();
+
+      FileGameHandler.readStoredGamesFromFile(pathOfFile,
+          storedGame -> gameIds.add(storedGame.getGameId()));
+
+      assertEquals(List.of("Test ID 1", "Test ID 2"), gameIds);
+    }
+
+    @Test
+    @DisplayName("Should report invalid stored game when it is loaded")
+    void shouldReportInvalidStoredGameWhenItIsLoaded() throws IOException {
+      List<StoredGame> storedGames = FileGameHandler.readStoredGamesFromFile(
+          "src/test/resources/games/invalid_object_game_objects.json");
+
+      assertEquals(2, storedGames.size());
+      assertThrows(JsonParseException.class, () -> storedGames.get(0).getGame());
+
+      ParseResult<List<Game>> parseResult = FileGameHandler.loadGamesWithDiagnostics(storedGames);
+      assertEquals(1, parseResult.getValue().size());
+      assertEquals(game2, parseResult.getValue().get(0));
+      assertEquals(1, parseResult.getDiagnostics().size());
+      assertFalse(parseResult.getDiagnostics().get(0).hasLocation());
+    }
+
     @Test
     @DisplayName("Should read valid games from file with invalid action")
     void shouldReadValidGamesFromFileWithInvalidAction() {
       String pathOfFileInvalidActions = "src/test/resources/games/invalid_action_game_objects.json";
       List<Game> gamesReadFromFile = new ArrayList<>();
+      List<ParseDiagnostic> diagnostics = new ArrayList<>();
 
       try {
-        gamesReadFromFile.addAll(FileGameHandler.parseGamesFromFile(pathOfFileInvalidActions));
+        ParseResult<List<Game>> parseResult =
+            FileGameHandler.parseGamesWithDiagnostics(pathOfFileInvalidActions);
+        gamesReadFromFile.addAll(parseResult.getValue());
+        diagnostics.addAll(parseResult.getDiagnostics());
       } catch (IOException | JsonSyntaxException e) {
         logger.log(Level.WARNING, e.getMessage(), e);
       }
@@ -467,7 +769,39 @@ class FileGameHandlerTest {
       assertEquals(1, gamesReadFromFile.size());
       assertTrue(gamesReadFromFile.contains(game2));
       assertFalse(gamesReadFromFile.contains(game1));
-      assertEquals(1, FileGameHandler.getInvalidGames().size());
+      assertEquals(1, diagnostics.size());
+    }
+
+    @Test
+    @DisplayName("Should report line and column of invalid games on the same line")
+    void shouldReportLineAndColumnOfInvalidGamesOnTheSameLine() throws IOException {
+      Files.writeString(Paths.get(pathOfFile), "[{\"game ID\": \"A {[\\\"\"},\n"
+          + "  {\"game ID\": \"B\"}, {\"game ID\": \"C\\n}\"}]");
+
+      List<ParseDiagnostic> diagnostics =
+          FileGameHandler.parseGamesWithDiagnostics(pathOfFile).getDiagnostics();
+
+      assertEquals(3, diagnostics.size());
+      assertEquals(1, diagnostics.get(0).getLine());
+      assertEquals(2, diagnostics.get(0).getColumn());
+      assertEquals(2, diagnostics.get(1).getLine());
+      assertEquals(3, diagnostics.get(1).getColumn());
+      assertEquals(2, diagnostics.get(2).getLine());
+      assertEquals(21, diagnostics.get(2).getColumn());
+    }
+
+    @Test
+    @DisplayName("Should report line and column of invalid game")
+    void shouldReportLineAndColumnOfInvalidGame() throws IOException {
+      String pathOfFileInvalidActions = "src/test/resources/games/invalid_action_game_objects.json";
+
+      ParseResult<List<Game>> parseResult =
+          FileGameHandler.parseGamesWithDiagnostics(pathOfFileInvalidActions);
+
+      ParseDiagnostic diagnostic = parseResult.getDiagnostics().get(0);
+      assertEquals(2, diagnostic.getLine());
+      assertEquals(3, diagnostic.getColumn());
+      assertTrue(diagnostic.getMessage().contains("Test ID 1"));
     }
 
     @Test
@@ -475,9 +809,13 @@ class FileGameHandlerTest {
     void shouldReadValidGamesFromFileWithInvalidGoal() {
       String pathOfFileInvalidGoal = "src/test/resources/games/invalid_goal_game_objects.json";
       List<Game> gamesReadFromFile = new ArrayList<>();
+      List<ParseDiagnostic> diagnostics = new ArrayList<>();
 
       try {
-        gamesReadFromFile.addAll(FileGameHandler.parseGamesFromFile(pathOfFileInvalidGoal));
+        ParseResult<List<Game>> parseResult =
+            FileGameHandler.parseGamesWithDiagnostics(pathOfFileInvalidGoal);
+        gamesReadFromFile.addAll(parseResult.getValue());
+        diagnostics.addAll(parseResult.getDiagnostics());
       } catch (IOException | JsonSyntaxException e) {
         logger.log(Level.WARNING, e.getMessage(), e);
       }
@@ -485,7 +823,7 @@ class FileGameHandlerTest {
       assertEquals(1, gamesReadFromFile.size());
       assertTrue(gamesReadFromFile.contains(game2));
       assertFalse(gamesReadFromFile.contains(game1));
-      assertEquals(1, FileGameHandler.getInvalidGames().size());
+      assertEquals(1, diagnostics.size());
     }
 
     @Test
@@ -493,9 +831,13 @@ class FileGameHandlerTest {
     void shouldReadValidGamesFromFileWithInvalidObject() {
       String pathOfFileInvalidGoal = "src/test/resources/games/invalid_object_game_objects.json";
       List<Game> gamesReadFromFile = new ArrayList<>();
+      List<ParseDiagnostic> diagnostics = new ArrayList<>();
 
       try {
-        gamesReadFromFile.addAll(FileGameHandler.parseGamesFromFile(pathOfFileInvalidGoal));
+        ParseResult<List<Game>> parseResult =
+            FileGameHandler.parseGamesWithDiagnostics(pathOfFileInvalidGoal);
+        gamesReadFromFile.addAll(parseResult.getValue());
+        diagnostics.addAll(parseResult.getDiagnostics());
       } catch (IOException | JsonSyntaxException e) {
         logger.log(Level.WARNING, e.getMessage(), e);
       }
@@ -503,7 +845,7 @@ class FileGameHandlerTest {
       assertEquals(1, gamesReadFromFile.size());
       assertTrue(gamesReadFromFile.contains(game2));
       assertFalse(gamesReadFromFile.contains(game1));
-      assertEquals(1, FileGameHandler.getInvalidGames().size());
+      assertEquals(1, diagnostics.size());
     }
 
     @Test
@@ -511,9 +853,13 @@ class FileGameHandlerTest {
     void shouldReadValidGamesFromFileWithInvalidGameId() {
       String pathOfFileInvalidGoal = "src/test/resources/games/invalid_game_id_game_objects.json";
       List<Game> gamesReadFromFile = new ArrayList<>();
+      List<ParseDiagnostic> diagnostics = new ArrayList<>();
 
       try {
-        gamesReadFromFile.addAll(FileGameHandler.parseGamesFromFile(pathOfFileInvalidGoal));
+        ParseResult<List<Game>> parseResult =
+            FileGameHandler.parseGamesWithDiagnostics(pathOfFileInvalidGoal);
+        gamesReadFromFile.addAll(parseResult.getValue());
+        diagnostics.addAll(parseResult.getDiagnostics());
       } catch (IOException | JsonSyntaxException e) {
         logger.log(Level.WARNING, e.getMessage(), e);
       }
@@ -521,7 +867,33 @@ class FileGameHandlerTest {
       assertEquals(1, gamesReadFromFile.size());
       assertTrue(gamesReadFromFile.contains(game2));
       assertFalse(gamesReadFromFile.contains(game1));
-      assertEquals(1, FileGameHandler.getInvalidGames().size());
+      assertEquals(1, diagnostics.size());
+    }
+
+    @Test
+    @DisplayName("Should read games from compressed files")
+    void shouldReadGamesFromCompressedFiles() throws IOException {
+      for (SaveCompression compression : SaveCompression.values()) {
+        FileGameHandler.writeGamesToFile(games, pathOfFile, compression);
+        byte[] content = Files.readAllBytes(Paths.get(pathOfFile));
+
+        assertEquals(compression, SaveCompression.detect(content[0] & 0xff,
+            content[1] & 0xff));
+        List<Game> gamesReadFromFile = FileGameHandler.parseGamesFromFile(pathOfFile);
+        assertEquals(games, gamesReadFromFile);
+        assertEquals(game2.getPlayer(), gamesReadFromFile.get(1).getPlayer());
+      }
+    }
+
+    @Test
+    @DisplayName("Should write compressed files smaller than uncompressed files")
+    void shouldWriteCompressedFilesSmallerThanUncompressedFiles() throws IOException {
+      FileGameHandler.writeGamesToFile(games, pathOfFile);
+      long uncompressedSize = Files.size(Paths.get(pathOfFile));
+
+      FileGameHandler.writeGamesToFile(games, pathOfFile, SaveCompression.GZIP);
+
+      assertTrue(Files.size(Paths.get(pathOfFile)) < uncompressedSize / 2);
     }
 
     @Test
@@ -559,6 +931,13 @@ class FileGameHandlerTest {
               () -> FileGameHandler.writeGamesToFile(games, invalidPathOfFileBlank));
     }
 
+    @Test
+    @DisplayName("Should not write games without compression throws NullPointerException")
+    void shouldNotWriteGamesWithoutCompressionThrowsNullPointerException() {
+      assertThrows(NullPointerException.class,
+              () -> FileGameHandler.writeGamesToFile(games, pathOfFile, null));
+    }
+
     @Test
     @DisplayName("Should not read games from file throws NullPointerException")
     void shouldNotReadStoryFromFileThrowsNullPointerException() {
@@ -589,5 +968,22 @@ class FileGameHandlerTest {
               () -> FileGameHandler.parseGamesFromFile(
                       "src/test/resources/games/invalid_syntax_game_objects.json"));
     }
+
+    @Test
+    @DisplayName("Should not read stored games throws NullPointerException")
+    void shouldNotReadStoredGamesThrowsNullPointerException() {
+      assertThrows(NullPointerException.class,
+              () -> FileGameHandler.readStoredGamesFromFile(invalidPathOfFileNull));
+      assertThrows(NullPointerException.class,
+              () -> FileGameHandler.readStoredGamesFromFile(pathOfFile, null));
+    }
+
+    @Test
+    @DisplayName("Should not read stored games invalid syntax throws JsonSyntaxException")
+    void shouldNotReadStoredGamesInvalidSyntaxThrowsJsonSyntaxException() {
+      assertThrows(JsonSyntaxException.class,
+              () -> FileGameHandler.readStoredGamesFromFile(
+                      "src/test/resources/games/invalid_syntax_game_objects.json"));
+    }
   }
-}
\ No newline at end of file
+}
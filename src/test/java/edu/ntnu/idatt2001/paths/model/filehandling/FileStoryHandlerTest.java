@@ -20,6 +20,11 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import static org.junit.jupiter.api.Assertions.*;
@@ -152,22 +157,130 @@ class FileStoryHandlerTest {
       assertTrue(storyReadFromFile.getPassages().containsAll(story.getPassages()));
     }
 
+    @Test
+    @DisplayName("Should read unchanged story from cache")
+    void shouldReadUnchangedStoryFromCache() {
+      Story firstRead = null;
+      Story secondRead = null;
+      try {
+        FileStoryHandler.writeStoryToFile(story, pathToFile);
+        firstRead = FileStoryHandler.readStoryFromFile(pathToFile);
+        secondRead = FileStoryHandler.readStoryFromFile(pathToFile);
+      } catch (IOException e) {
+        logger.log(Level.WARNING, "Error occurred while reading story from file: " + pathToFile, e);
+      }
+
+      assertNotNull(firstRead);
+      assertSame(firstRead, secondRead);
+    }
+
+    @Test
+    @DisplayName("Should read story again when the file has changed")
+    void shouldReadStoryAgainWhenFileHasChanged() {
+      Story firstRead = null;
+      Story secondRead = null;
+      try {
+        FileStoryHandler.writeStoryToFile(story, pathToFile);
+        firstRead = FileStoryHandler.readStoryFromFile(pathToFile);
+        Story changedStory = new Story("Changed title", story.getOpeningPassage());
+        FileStoryHandler.writeStoryToFile(changedStory, pathToFile);
+        secondRead = FileStoryHandler.readStoryFromFile(pathToFile);
+      } catch (IOException e) {
+        logger.log(Level.WARNING, "Error occurred while reading story from file: " + pathToFile, e);
+      }
+
+      assertNotNull(firstRead);
+      assertNotSame(firstRead, secondRead);
+      assertEquals("Changed title", secondRead.getTitle());
+    }
+
+    @Test
+    @DisplayName("Should keep invalid actions when reading story from cache")
+    void shouldKeepInvalidActionsWhenReadingStoryFromCache() {
+      String pathToFileWithInvalidActions = "src/test/resources/stories/invalid_actions_story.paths";
+      ParseResult<Story> firstRead = null;
+      ParseResult<Story> secondRead = null;
+      try {
+        firstRead = FileStoryHandler.parseStoryWithDiagnostics(pathToFileWithInvalidActions);
+        secondRead = FileStoryHandler.parseStoryWithDiagnostics(pathToFileWithInvalidActions);
+      } catch (IOException e) {
+        logger.log(Level.WARNING, "Error occurred while reading story from file: "
+                + pathToFileWithInvalidActions, e);
+      }
+
+      assertNotNull(firstRead);
+      assertSame(firstRead.getValue(), secondRead.getValue());
+      assertEquals(firstRead.getDiagnostics(), secondRead.getDiagnostics());
+      assertEquals(3, secondRead.getDiagnostics().size());
+    }
+
     @Test
     @DisplayName("Should read story from file with invalid actions")
     void shouldReadStoryFromFileWithInvalidActions() {
       String pathToFileWithInvalidActions = "src/test/resources/stories/invalid_actions_story.paths";
 
-      Story storyReadFromFile = null;
+      ParseResult<Story> parseResult = null;
       try {
-        storyReadFromFile = FileStoryHandler.readStoryFromFile(pathToFileWithInvalidActions);
+        parseResult = FileStoryHandler.parseStoryWithDiagnostics(pathToFileWithInvalidActions);
       } catch (IOException e) {
         logger.log(Level.WARNING, "Error occurred while reading story from file: "
                 + pathToFileWithInvalidActions, e);
       }
 
-      assertNotEquals(null, storyReadFromFile);
-      assertEquals(story.getTitle(), storyReadFromFile.getTitle());
-      assertEquals(3, FileStoryHandler.getInvalidActions().size());
+      assertNotEquals(null, parseResult);
+      assertEquals(story.getTitle(), parseResult.getValue().getTitle());
+      assertEquals(3, parseResult.getDiagnostics().size());
+    }
+
+    @Test
+    @DisplayName("Should report line and column of invalid actions")
+    void shouldReportLineAndColumnOfInvalidActions() throws IOException {
+      String pathToFileWithInvalidActions = "src/test/resources/stories/invalid_actions_story.paths";
+
+      List<ParseDiagnostic> diagnostics = FileStoryHandler.parseStoryWithDiagnostics(
+          pathToFileWithInvalidActions).getDiagnostics();
+
+      assertEquals(5, diagnostics.get(0).getLine());
+      assertEquals(37, diagnostics.get(0).getColumn());
+      assertEquals(9, diagnostics.get(1).getLine());
+      assertEquals(36, diagnostics.get(1).getColumn());
+      assertEquals(14, diagnostics.get(2).getLine());
+      assertEquals(25, diagnostics.get(2).getColumn());
+      assertTrue(diagnostics.get(2).toString().startsWith("Line 14, column 25: "));
+    }
+
+    @Test
+    @DisplayName("Should keep diagnostics of concurrent reads apart")
+    void shouldKeepDiagnosticsOfConcurrentReadsApart() throws Exception {
+      String pathToFileWithInvalidActions = "src/test/resources/stories/invalid_actions_story.paths";
+      FileStoryHandler.writeStoryToFile(story, pathToFile);
+
+      ExecutorService executor = Executors.newFixedThreadPool(4);
+      try {
+        List<Future<ParseResult<Story>>> results = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+          StoryCache.clear();
+          String pathOfFile = i % 2 == 0 ? pathToFileWithInvalidActions : pathToFile;
+          results.add(executor.submit(() -> FileStoryHandler.parseStoryWithDiagnostics(
+              pathOfFile)));
+        }
+        for (int i = 0; i < results.size(); i++) {
+          assertEquals(i % 2 == 0 ? 3 : 0, results.get(i).get().getDiagnostics().size());
+        }
+      } finally {
+        executor.shutdown();
+      }
+    }
+
+    @Test
+    @DisplayName("Should not modify diagnostics")
+    void shouldNotModifyDiagnostics() throws IOException {
+      String pathToFileWithInvalidActions = "src/test/resources/stories/invalid_actions_story.paths";
+
+      List<ParseDiagnostic> diagnostics = FileStoryHandler.parseStoryWithDiagnostics(
+          pathToFileWithInvalidActions).getDiagnostics();
+
+      assertThrows(UnsupportedOperationException.class, diagnostics::clear);
     }
   }
 
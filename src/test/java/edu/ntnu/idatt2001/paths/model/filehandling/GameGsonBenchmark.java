@@ -0,0 +1,200 @@
+package edu.ntnu.idatt2001.paths.model.filehandling;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonDeserializer;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import edu.ntnu.idatt2001.paths.model.Game;
+import edu.ntnu.idatt2001.paths.model.Link;
+import edu.ntnu.idatt2001.paths.model.Passage;
+import edu.ntnu.idatt2001.paths.model.Player;
+import edu.ntnu.idatt2001.paths.model.Story;
+import edu.ntnu.idatt2001.paths.model.actions.Action;
+import edu.ntnu.idatt2001.paths.model.actions.ActionType;
+import edu.ntnu.idatt2001.paths.model.actions.GoldAction;
+import edu.ntnu.idatt2001.paths.model.actions.HealthAction;
+import edu.ntnu.idatt2001.paths.model.actions.InventoryAction;
+import edu.ntnu.idatt2001.paths.model.actions.ScoreAction;
+import edu.ntnu.idatt2001.paths.model.goals.Goal;
+import edu.ntnu.idatt2001.paths.model.goals.GoalType;
+import edu.ntnu.idatt2001.paths.model.goals.GoldGoal;
+import edu.ntnu.idatt2001.paths.model.goals.InventoryGoal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The class measures the throughput of writing and reading a game with the shared Gson
+ * object of GameGson, compared to a Gson object that converts the game model with
+ * reflection, and finds the type of actions and goals by probing the keys of every type.
+ * The benchmark is run with the main method, and is not part of the tests.
+ *
+ * @author Ramtin Samavat and Tobias Oftedal.
+ * @version 1.0
+ * @since May 24, 2023.
+ */
+public final class GameGsonBenchmark {
+
+  private static final int PASSAGES = 200;
+  private static final int WARMUP_ROUNDS = 200;
+  private static final int MEASURED_ROUNDS = 1000;
+
+  /**
+   * Private constructor for the GameGsonBenchmark.
+   *
+   * @throws IllegalStateException If the constructor is used.
+   */
+  private GameGsonBenchmark() throws IllegalStateException {
+    throw new IllegalStateException("Cannot instantiate a GameGsonBenchmark object");
+  }
+
+  /**
+   * The method runs the benchmark and prints the throughput of each Gson object.
+   *
+   * @param args not used.
+   */
+  public static void main(String[] args) {
+    Game game = createGame();
+    Gson reflectiveGson = createReflectiveGson();
+    Gson gameGson = GameGson.getGson();
+
+    for (int i = 0; i < 3; i++) {
+      System.out.println("Round " + (i + 1));
+      printThroughput("write, reflection", measureWrite(game, reflectiveGson));
+      printThroughput("write, type adapters", measureWrite(game, gameGson));
+      printThroughput("read, reflection", measureRead(game, reflectiveGson));
+      printThroughput("read, type adapters", measureRead(game, gameGson));
+    }
+  }
+
+  /**
+   * Helper method to measure the throughput of writing the passages of a game.
+   *
+   * @param game the game to write.
+   * @param gson the Gson object to write with.
+   * @return the number of games written per second.
+   */
+  private static double measureWrite(Game game, Gson gson) {
+    List<Passage> passages = new ArrayList<>(game.getStory().getPassages());
+    int length = 0;
+    for (int i = 0; i < WARMUP_ROUNDS; i++) {
+      length += gson.toJson(passages).length() + gson.toJson(game.getPlayer()).length()
+          + gson.toJson(game.getGoals()).length();
+    }
+    long start = System.nanoTime();
+    for (int i = 0; i < MEASURED_ROUNDS; i++) {
+      length += gson.toJson(passages).length() + gson.toJson(game.getPlayer()).length()
+          + gson.toJson(game.getGoals()).length();
+    }
+    return throughput(start, length);
+  }
+
+  /**
+   * Helper method to measure the throughput of reading the passages of a game.
+   *
+   * @param game the game to read.
+   * @param gson the Gson object to read with.
+   * @return the number of games read per second.
+   */
+  private static double measureRead(Game game, Gson gson) {
+    String passages = GameGson.getGson().toJson(new ArrayList<>(game.getStory().getPassages()));
+    String player = GameGson.getGson().toJson(game.getPlayer());
+    String goals = GameGson.getGson().toJson(game.getGoals());
+    int count = 0;
+    for (int i = 0; i < WARMUP_ROUNDS; i++) {
+      count += gson.fromJson(passages, Passage[].class).length
+          + gson.fromJson(player, Player.class).getInventory().size()
+          + gson.fromJson(goals, Goal[].class).length;
+    }
+    long start = System.nanoTime();
+    for (int i = 0; i < MEASURED_ROUNDS; i++) {
+      count += gson.fromJson(passages, Passage[].class).length
+          + gson.fromJson(player, Player.class).getInventory().size()
+          + gson.fromJson(goals, Goal[].class).length;
+    }
+    return throughput(start, count);
+  }
+
+  /**
+   * Helper method to compute the throughput of the measured rounds.
+   *
+   * @param start  the time the measured rounds started, in nanoseconds.
+   * @param result the result of the rounds, used so that the work is not optimized away.
+   * @return the number of rounds per second.
+   */
+  private static double throughput(long start, int result) {
+    double seconds = (System.nanoTime() - start) / 1e9;
+    if (result == Integer.MIN_VALUE) {
+      System.out.println(result);
+    }
+    return MEASURED_ROUNDS / seconds;
+  }
+
+  /**
+   * Helper method to print the throughput of a measurement.
+   *
+   * @param name       the name of the measurement.
+   * @param throughput the number of games per second.
+   */
+  private static void printThroughput(String name, double throughput) {
+    System.out.printf("  %-22s %10.1f games/s%n", name, throughput);
+  }
+
+  /**
+   * Helper method to create a Gson object that converts the game model with reflection, as
+   * games were converted before the type adapters.
+   *
+   * @return the Gson object.
+   */
+  private static Gson createReflectiveGson() {
+    JsonDeserializer<Action> actionDeserializer = (jsonElement, type, context) -> {
+      JsonObject jsonObject = jsonElement.getAsJsonObject();
+      for (ActionType actionType : ActionType.values()) {
+        if (jsonObject.has(actionType.getActionValueDescription())) {
+          return context.deserialize(jsonElement, actionType.getActionClass());
+        }
+      }
+      throw new JsonParseException("Unknown action type: " + jsonElement + ".");
+    };
+    JsonDeserializer<Goal> goalDeserializer = (jsonElement, type, context) -> {
+      JsonObject jsonObject = jsonElement.getAsJsonObject();
+      for (GoalType goalType : GoalType.values()) {
+        if (jsonObject.has(goalType.getGoalValueDescription())) {
+          return context.deserialize(jsonElement, goalType.getGoalClass());
+        }
+      }
+      throw new JsonParseException("Unknown goal type: " + jsonElement + ".");
+    };
+    return new GsonBuilder().registerTypeAdapter(Action.class, actionDeserializer)
+        .registerTypeAdapter(Goal.class, goalDeserializer).setPrettyPrinting().setLenient()
+        .create();
+  }
+
+  /**
+   * Helper method to create a game with a story of many passages, each with links with
+   * every type of action.
+   *
+   * @return the game.
+   */
+  private static Game createGame() {
+    Passage openingPassage = new Passage("Passage 0", "The story begins.");
+    Story story = new Story("Benchmark", openingPassage);
+    for (int i = 1; i <= PASSAGES; i++) {
+      Passage passage = new Passage("Passage " + i, "The content of passage " + i + ".");
+      Link link = new Link("Go on", "Passage " + (i + 1) % PASSAGES);
+      link.addAction(new GoldAction(i));
+      link.addAction(new HealthAction(-1));
+      link.addAction(new InventoryAction("Item " + i));
+      link.addAction(new ScoreAction(10));
+      passage.addLink(link);
+      passage.addLink(new Link("Go back", "Passage " + (i - 1)));
+      story.addPassage(passage);
+    }
+    Player player = new Player.PlayerBuilder("Player").gold(10).build();
+    player.addToInventory("Sword");
+    List<Goal> goals = new ArrayList<>();
+    goals.add(new GoldGoal(100));
+    goals.add(new InventoryGoal(List.of("Sword", "Shield")));
+    return new Game("Benchmark", player, story, goals);
+  }
+}
@@ -0,0 +1,176 @@
+package edu.ntnu.idatt2001.paths.model.filehandling;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import edu.ntnu.idatt2001.paths.model.Link;
+import edu.ntnu.idatt2001.paths.model.Passage;
+import edu.ntnu.idatt2001.paths.model.Player;
+import edu.ntnu.idatt2001.paths.model.actions.Action;
+import edu.ntnu.idatt2001.paths.model.actions.GoldAction;
+import edu.ntnu.idatt2001.paths.model.actions.HealthAction;
+import edu.ntnu.idatt2001.paths.model.actions.InventoryAction;
+import edu.ntnu.idatt2001.paths.model.actions.ScoreAction;
+import edu.ntnu.idatt2001.paths.model.goals.Goal;
+import edu.ntnu.idatt2001.paths.model.goals.GoldGoal;
+import edu.ntnu.idatt2001.paths.model.goals.HealthGoal;
+import edu.ntnu.idatt2001.paths.model.goals.InventoryGoal;
+import edu.ntnu.idatt2001.paths.model.goals.ScoreGoal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The class tests the type adapters registered in the GameGson class.
+ *
+ * @author Ramtin Samavat and Tobias Oftedal.
+ * @version 1.0
+ * @since May 24, 2023.
+ */
+class GameGsonTest {
+
+  private Gson gson;
+
+  @BeforeEach
+  void setUp() {
+    gson = GameGson.getGson();
+  }
+
+  @Nested
+  @DisplayName("Positive tests")
+  class PositiveTests {
+    @Test
+    @DisplayName("Should write actions with type")
+    void shouldWriteActionsWithType() {
+      JsonObject jsonObject = gson.toJsonTree(new InventoryAction("Sword"), Action.class)
+          .getAsJsonObject();
+
+      assertEquals("INVENTORY", jsonObject.get("type").getAsString());
+      assertEquals("Sword", jsonObject.get("item").getAsString());
+    }
+
+    @Test
+    @DisplayName("Should read and write every action")
+    void shouldReadAndWriteEveryAction() {
+      List<Action> actions = List.of(new GoldAction(10), new HealthAction(-5),
+          new InventoryAction("Sword"), new ScoreAction(20));
+
+      for (Action action : actions) {
+        Action readAction = gson.fromJson(gson.toJson(action, Action.class), Action.class);
+        assertEquals(action, readAction);
+      }
+    }
+
+    @Test
+    @DisplayName("Should read and write every goal")
+    void shouldReadAndWriteEveryGoal() {
+      List<Goal> goals = List.of(new GoldGoal(10), new HealthGoal(50),
+          new InventoryGoal(List.of("Sword", "Shield")), new ScoreGoal(20));
+
+      for (Goal goal : goals) {
+        Goal readGoal = gson.fromJson(gson.toJson(goal, Goal.class), Goal.class);
+        assertEquals(goal, readGoal);
+      }
+    }
+
+    @Test
+    @DisplayName("Should read actions and goals without type")
+    void shouldReadActionsAndGoalsWithoutType() {
+      assertEquals(new InventoryAction("Sword"), gson.fromJson("{\"item\": \"Sword\"}",
+          Action.class));
+      assertEquals(new ScoreAction(-10), gson.fromJson("{\"points\": -10}", Action.class));
+
+      Goal goal = gson.fromJson("{\"mandatoryItems\": [\"Sword\"]}", Goal.class);
+      assertEquals(List.of("Sword"), ((InventoryGoal) goal).getMandatoryItems());
+    }
+
+    @Test
+    @DisplayName("Should read type before or after value")
+    void shouldReadTypeBeforeOrAfterValue() {
+      assertEquals(new GoldAction(5), gson.fromJson("{\"gold\": 5, \"type\": \"GOLD\"}",
+          Action.class));
+      assertEquals(new GoldAction(5), gson.fromJson("{\"type\": \"gold\", \"gold\": 5}",
+          Action.class));
+    }
+
+    @Test
+    @DisplayName("Should read and write player")
+    void shouldReadAndWritePlayer() {
+      Player player = new Player.PlayerBuilder("Player1").health(50).score(10).gold(20)
+          .build();
+      player.decreaseHealth(-20);
+      player.increaseScore(5);
+      player.decreaseGold(-20);
+      player.addToInventory("Sword");
+
+      Player readPlayer = gson.fromJson(gson.toJson(player), Player.class);
+
+      assertEquals(player, readPlayer);
+      assertEquals(50, readPlayer.getStartHealth());
+      assertEquals(10, readPlayer.getStartScore());
+      assertEquals(20, readPlayer.getStartGold());
+      readPlayer.resetPlayer();
+      assertEquals(50, readPlayer.getHealth());
+    }
+
+    @Test
+    @DisplayName("Should read and write passage with links and actions")
+    void shouldReadAndWritePassageWithLinksAndActions() {
+      Passage passage = new Passage("Beginnings", "There is a door in front of you.");
+      Link link = new Link("Open the door", "Another room");
+      link.addAction(new InventoryAction("Key"));
+      link.addAction(new GoldAction(-5));
+      passage.addLink(link);
+
+      Passage readPassage = gson.fromJson(gson.toJson(passage), Passage.class);
+
+      assertEquals(passage, readPassage);
+      assertEquals(link.getActions(), readPassage.getLinks().get(0).getActions());
+    }
+  }
+
+  @Nested
+  @DisplayName("Negative tests")
+  class NegativeTests {
+    @Test
+    @DisplayName("Should not read unknown action throws JsonParseException")
+    void shouldNotReadUnknownActionThrowsJsonParseException() {
+      assertThrows(JsonParseException.class,
+          () -> gson.fromJson("{\"invalid action\": \"Sword\"}", Action.class));
+    }
+
+    @Test
+    @DisplayName("Should not read goal without value throws JsonParseException")
+    void shouldNotReadGoalWithoutValueThrowsJsonParseException() {
+      assertThrows(JsonParseException.class,
+          () -> gson.fromJson("{\"type\": \"GOLD\", \"minimumHealth\": 5}", Goal.class));
+    }
+
+    @Test
+    @DisplayName("Should not read action of unknown type throws IllegalArgumentException")
+    void shouldNotReadActionOfUnknownTypeThrowsIllegalArgumentException() {
+      assertThrows(IllegalArgumentException.class,
+          () -> gson.fromJson("{\"type\": \"MANA\", \"gold\": 5}", Action.class));
+    }
+
+    @Test
+    @DisplayName("Should not read invalid player throws IllegalArgumentException")
+    void shouldNotReadInvalidPlayerThrowsIllegalArgumentException() {
+      JsonObject jsonObject = JsonParser.parseString(
+          "{\"name\": \"Player1\", \"startHealth\": 0}").getAsJsonObject();
+      assertThrows(IllegalArgumentException.class,
+          () -> gson.fromJson(jsonObject, Player.class));
+    }
+
+    @Test
+    @DisplayName("Should not read link without reference throws NullPointerException")
+    void shouldNotReadLinkWithoutReferenceThrowsNullPointerException() {
+      assertThrows(NullPointerException.class,
+          () -> gson.fromJson("{\"text\": \"Open the door\"}", Link.class));
+    }
+  }
+}
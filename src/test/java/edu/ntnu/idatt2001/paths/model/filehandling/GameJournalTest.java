@@ -0,0 +1,385 @@
+package edu.ntnu.idatt2001.paths.model.filehandling;
+
+import com.google.gson.JsonObject;
+import edu.ntnu.idatt2001.paths.model.Game;
+import edu.ntnu.idatt2001.paths.model.Link;
+import edu.ntnu.idatt2001.paths.model.Passage;
+import edu.ntnu.idatt2001.paths.model.Player;
+import edu.ntnu.idatt2001.paths.model.Story;
+import edu.ntnu.idatt2001.paths.model.actions.GoldAction;
+import edu.ntnu.idatt2001.paths.model.goals.Goal;
+import edu.ntnu.idatt2001.paths.model.goals.GoldGoal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The class tests the GameJournal class.
+ *
+ * @author Ramtin Samavat and Tobias Oftedal.
+ * @version 1.0
+ * @since May 23, 2023.
+ */
+class GameJournalTest {
+
+  private static final Logger logger = Logger.getLogger(GameJournalTest.class.getName());
+  private String pathOfFile;
+  private Path journalPath;
+  private Path previousJournalPath;
+  private Path indexPath;
+  private Game game1;
+  private Game game2;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    pathOfFile = "src/test/resources/games/journal_test.json";
+    journalPath = Paths.get(GameJournal.getJournalPath(pathOfFile));
+    previousJournalPath = Paths.get(GameJournal.getJournalPath(pathOfFile) + ".previous");
+    indexPath = Paths.get(GameJournal.getIndexPath(pathOfFile));
+
+    Link link = new Link("Open the chest", "Treasure room");
+    link.addAction(new GoldAction(10));
+    Passage openingPassage = new Passage("Beginnings", "There is a chest in front of you.");
+    openingPassage.addLink(link);
+    Passage treasureRoom = new Passage("Treasure room", "The chest is full of gold.");
+    Story story = new Story("Treasure", openingPassage);
+    story.addPassage(treasureRoom);
+
+    List<Goal> goals = new ArrayList<>();
+    goals.add(new GoldGoal(10));
+
+    game1 = new Game("Test ID 1", new Player.PlayerBuilder("Player1").gold(5).build(),
+        story, goals);
+    game2 = new Game("Test ID 2", new Player.PlayerBuilder("Player2").gold(15).build(),
+        story, goals);
+
+    List<Game> games = new ArrayList<>();
+    games.add(game1);
+    FileGameHandler.writeGamesToFile(games, pathOfFile);
+    Files.deleteIfExists(journalPath);
+    Files.deleteIfExists(indexPath);
+  }
+
+  @AfterEach
+  void tearDown() {
+    try {
+      Files.deleteIfExists(Paths.get(pathOfFile));
+      Files.deleteIfExists(journalPath);
+      Files.deleteIfExists(previousJournalPath);
+      Files.deleteIfExists(indexPath);
+    } catch (IOException e) {
+      logger.log(Level.WARNING, "Error deleting file.", e);
+    }
+  }
+
+  @Nested
+  @DisplayName("Positive tests")
+  class PositiveTests {
+    @Test
+    @DisplayName("Should load games from snapshot")
+    void shouldLoadGamesFromSnapshot() throws IOException {
+      List<Game> games = FileGameHandler.loadGames(new GameJournal(pathOfFile).load());
+
+      assertEquals(1, games.size());
+      assertEquals(game1, games.get(0));
+    }
+
+    @Test
+    @DisplayName("Should replay saves and deletes from journal")
+    void shouldReplaySavesAndDeletesFromJournal() throws IOException {
+      GameJournal journal = new GameJournal(pathOfFile);
+      journal.load();
+      game1.getPlayer().increaseGold(20);
+      journal.appendSave(game1);
+      journal.appendSave(game2);
+      journal.appendDelete(game1.getGameId());
+      journal.appendSave(game1);
+
+      List<Game> games = FileGameHandler.loadGames(new GameJournal(pathOfFile).load());
+
+      assertEquals(2, games.size());
+      assertEquals(game2, games.get(0));
+      assertEquals(game1, games.get(1));
+      assertEquals(25, games.get(1).getPlayer().getGold());
+    }
+
+    @Test
+    @DisplayName("Should not rewrite snapshot when saving")
+    void shouldNotRewriteSnapshotWhenSaving() throws IOException {
+      byte[] snapshot = Files.readAllBytes(Paths.get(pathOfFile));
+      GameJournal journal = new GameJournal(pathOfFile);
+      journal.load();
+      journal.appendSave(game2);
+
+      assertArrayEquals(snapshot, Files.readAllBytes(Paths.get(pathOfFile)));
+      assertEquals(1, journal.getPendingRecords());
+    }
+
+    @Test
+    @DisplayName("Should compact journal into snapshot")
+    void shouldCompactJournalIntoSnapshot() throws IOException {
+      GameJournal journal = new GameJournal(pathOfFile);
+      journal.load();
+      journal.appendSave(game2);
+      journal.compact();
+
+      assertEquals(0, journal.getPendingRecords());
+      assertEquals(1, Files.readAllLines(journalPath).size());
+      assertEquals(2, FileGameHandler.parseGamesFromFile(pathOfFile).size());
+      assertEquals(2, new GameJournal(pathOfFile).load().size());
+    }
+
+    @Test
+    @DisplayName("Should discard journal of replaced snapshot")
+    void shouldDiscardJournalOfReplacedSnapshot() throws IOException {
+      GameJournal journal = new GameJournal(pathOfFile);
+      journal.load();
+      journal.appendSave(game2);
+
+      List<Game> games = new ArrayList<>();
+      games.add(game1);
+      game1.getPlayer().increaseGold(1);
+      FileGameHandler.writeGamesToFile(games, pathOfFile);
+
+      List<Game> loadedGames = FileGameHandler.loadGames(new GameJournal(pathOfFile).load());
+      assertEquals(1, loadedGames.size());
+      assertEquals(game1, loadedGames.get(0));
+    }
+
+    @Test
+    @DisplayName("Should ignore incomplete last record")
+    void shouldIgnoreIncompleteLastRecord() throws IOException {
+      GameJournal journal = new GameJournal(pathOfFile);
+      journal.load();
+      journal.appendSave(game2);
+      Files.write(journalPath, "{\"operation\":\"save\",\"game\":{\"game I"
+          .getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+      List<Game> games = FileGameHandler.loadGames(new GameJournal(pathOfFile).load());
+      assertEquals(2, games.size());
+    }
+    @Test
+    @DisplayName("Should load summaries without creating games")
+    void shouldLoadSummariesWithoutCreatingGames() throws IOException {
+      List<StoredGame> storedGames = new GameJournal(pathOfFile).load();
+
+      assertTrue(Files.exists(indexPath));
+      StoredGame storedGame = storedGames.get(0);
+      assertFalse(storedGame.isLoaded());
+      assertEquals("Test ID 1", storedGame.getGameId());
+      assertEquals("Player1", storedGame.getPlayerName());
+      assertEquals("Treasure", storedGame.getStoryTitle());
+      assertEquals("Beginnings", storedGame.getCurrentPassageTitle());
+      assertEquals(game1.getPlayer(), storedGame.getGame().getPlayer());
+    }
+
+    @Test
+    @DisplayName("Should list games from index without reading snapshot")
+    void shouldListGamesFromIndexWithoutReadingSnapshot() throws IOException {
+      new GameJournal(pathOfFile).load();
+      Path snapshotPath = Paths.get(pathOfFile);
+      FileTime lastModified = Files.getLastModifiedTime(snapshotPath);
+      byte[] unreadableSnapshot = new byte[(int) Files.size(snapshotPath)];
+      Arrays.fill(unreadableSnapshot, (byte) '{');
+      Files.write(snapshotPath, unreadableSnapshot);
+      Files.setLastModifiedTime(snapshotPath, lastModified);
+
+      List<StoredGame> storedGames = new GameJournal(pathOfFile).load();
+
+      assertEquals(1, storedGames.size());
+      assertEquals("Player1", storedGames.get(0).getPlayerName());
+    }
+
+    @Test
+    @DisplayName("Should copy unsaved games from snapshot when compacting")
+    void shouldCopyUnsavedGamesFromSnapshotWhenCompacting() throws IOException {
+      GameJournal journal = new GameJournal(pathOfFile);
+      journal.load();
+      journal.appendSave(game2);
+      journal.compact();
+
+      List<StoredGame> storedGames = new GameJournal(pathOfFile).load();
+      List<Game> games = FileGameHandler.loadGames(storedGames);
+      assertEquals(2, games.size());
+      assertEquals(game1.getPlayer(), games.get(0).getPlayer());
+      assertEquals(game2.getPlayer(), games.get(1).getPlayer());
+      assertFalse(Files.exists(Paths.get(pathOfFile + ".tmp")));
+    }
+
+    @Test
+    @DisplayName("Should compact journal into compressed snapshot")
+    void shouldCompactJournalIntoCompressedSnapshot() throws IOException {
+      GameJournal journal = new GameJournal(pathOfFile, SaveCompression.DEFLATE);
+      journal.load();
+      journal.appendSave(game2);
+      journal.compact();
+      byte[] snapshot = Files.readAllBytes(Paths.get(pathOfFile));
+
+      assertEquals(SaveCompression.DEFLATE, SaveCompression.detect(snapshot[0] & 0xff,
+          snapshot[1] & 0xff));
+      journal.appendDelete(game1.getGameId());
+      List<Game> games = FileGameHandler.loadGames(new GameJournal(pathOfFile).load());
+      assertEquals(1, games.size());
+      assertEquals(game2.getPlayer(), games.get(0).getPlayer());
+    }
+
+    @Test
+    @DisplayName("Should read games from compressed snapshot on demand")
+    void shouldReadGamesFromCompressedSnapshotOnDemand() throws IOException {
+      List<Game> games = new ArrayList<>();
+      games.add(game1);
+      games.add(game2);
+      FileGameHandler.writeGamesToFile(games, pathOfFile, SaveCompression.GZIP);
+
+      List<StoredGame> storedGames = new GameJournal(pathOfFile).load();
+
+      assertEquals(2, storedGames.size());
+      assertFalse(storedGames.get(1).isLoaded());
+      assertEquals(game2.getPlayer(), storedGames.get(1).getGame().getPlayer());
+    }
+
+    @Test
+    @DisplayName("Should read games from blocks of compacted snapshot")
+    void shouldReadGamesFromBlocksOfCompactedSnapshot() throws IOException {
+      for (SaveCompression compression : SaveCompression.values()) {
+        GameJournal journal = new GameJournal(pathOfFile, compression);
+        journal.load();
+        for (int i = 0; i < 300; i++) {
+          journal.appendSave(new Game("Block ID " + i, new Player.PlayerBuilder("Player " + i)
+              .gold(i).build(), game1.getStory(), game1.getGoals()));
+        }
+        journal.compact();
+
+        Path snapshotPath = Paths.get(pathOfFile);
+        GameIndex index = GameIndex.read(indexPath, Files.size(snapshotPath),
+            Files.getLastModifiedTime(snapshotPath).toString());
+        assertNotNull(index);
+        assertTrue(index.getRows().stream().allMatch(row -> row.getOffset() > 0));
+        assertEquals(compression != SaveCompression.NONE,
+            index.getRows().stream().anyMatch(row -> row.getSkip() > 0));
+
+        List<StoredGame> storedGames = new GameJournal(pathOfFile).load();
+        assertEquals(301, storedGames.size());
+        for (int i : new int[] {300, 150, 1, 0}) {
+          assertEquals(i == 0 ? game1.getPlayer().getGold() : i - 1,
+              storedGames.get(i).getGame().getPlayer().getGold());
+        }
+        Files.deleteIfExists(journalPath);
+        Files.deleteIfExists(indexPath);
+        FileGameHandler.writeGamesToFile(List.of(game1), pathOfFile);
+      }
+    }
+
+    @Test
+    @DisplayName("Should append to journal while compaction is running")
+    void shouldAppendToJournalWhileCompactionIsRunning() throws Exception {
+      GameJournal journal = new GameJournal(pathOfFile);
+      journal.load();
+      JsonObject record = FileGameHandler.serializeGame(game2);
+      AtomicInteger reads = new AtomicInteger();
+      CountDownLatch compacting = new CountDownLatch(1);
+      CountDownLatch released = new CountDownLatch(1);
+      journal.appendStoredGame(new StoredGame(game2.getGameId(), "Player2", 0, "Treasure",
+          "Beginnings", 0, () -> {
+            if (reads.incrementAndGet() > 1) {
+              compacting.countDown();
+              try {
+                released.await();
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+            }
+            return record;
+          }));
+
+      CompletableFuture<Void> compaction = CompletableFuture.runAsync(() -> {
+        try {
+          journal.compact();
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+      try {
+        assertTrue(compacting.await(5, TimeUnit.SECONDS));
+        game1.getPlayer().increaseGold(20);
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> journal.appendSave(game1));
+      } finally {
+        released.countDown();
+      }
+      compaction.join();
+
+      assertEquals(1, journal.getPendingRecords());
+      assertEquals(2, FileGameHandler.parseGamesFromFile(pathOfFile).size());
+      assertFalse(Files.exists(previousJournalPath));
+      List<Game> games = FileGameHandler.loadGames(new GameJournal(pathOfFile).load());
+      assertEquals(2, games.size());
+      assertEquals(25, games.get(0).getPlayer().getGold());
+    }
+
+    @Test
+    @DisplayName("Should replay previous segment of unfinished compaction")
+    void shouldReplayPreviousSegmentOfUnfinishedCompaction() throws IOException {
+      GameJournal journal = new GameJournal(pathOfFile);
+      journal.load();
+      journal.appendSave(game2);
+      Files.move(journalPath, previousJournalPath);
+      Files.writeString(journalPath, Files.readAllLines(previousJournalPath).get(0) + "\n"
+          + "{\"operation\":\"delete\",\"game ID\":\"Test ID 1\"}\n");
+
+      List<Game> games = FileGameHandler.loadGames(new GameJournal(pathOfFile).load());
+
+      assertEquals(1, games.size());
+      assertEquals(game2, games.get(0));
+      assertFalse(Files.exists(previousJournalPath));
+      assertEquals(3, Files.readAllLines(journalPath).size());
+    }
+  }
+
+  @Nested
+  @DisplayName("Negative tests")
+  class NegativeTests {
+    @Test
+    @DisplayName("Should not create journal throws IllegalArgumentException")
+    void shouldNotCreateJournalThrowsIllegalArgumentException() {
+      assertThrows(IllegalArgumentException.class, () -> new GameJournal(""));
+      assertThrows(IllegalArgumentException.class, () -> new GameJournal("games.txt"));
+    }
+
+    @Test
+    @DisplayName("Should not append before loading throws IllegalStateException")
+    void shouldNotAppendBeforeLoadingThrowsIllegalStateException() {
+      GameJournal journal = new GameJournal(pathOfFile);
+      assertThrows(IllegalStateException.class, () -> journal.appendSave(game2));
+    }
+
+    @Test
+    @DisplayName("Should not append null throws NullPointerException")
+    void shouldNotAppendNullThrowsNullPointerException() throws IOException {
+      GameJournal journal = new GameJournal(pathOfFile);
+      journal.load();
+      assertThrows(NullPointerException.class, () -> journal.appendSave(null));
+      assertThrows(NullPointerException.class, () -> journal.appendDelete(null));
+    }
+  }
+}
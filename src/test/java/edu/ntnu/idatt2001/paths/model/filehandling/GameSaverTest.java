@@ -0,0 +1,225 @@
+package edu.ntnu.idatt2001.paths.model.filehandling;
+
+import edu.ntnu.idatt2001.paths.model.Game;
+import edu.ntnu.idatt2001.paths.model.Passage;
+import edu.ntnu.idatt2001.paths.model.Player;
+import edu.ntnu.idatt2001.paths.model.Story;
+import edu.ntnu.idatt2001.paths.model.goals.Goal;
+import edu.ntnu.idatt2001.paths.model.goals.GoldGoal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The class tests the GameSaver class.
+ *
+ * @author Ramtin Samavat and Tobias Oftedal.
+ * @version 1.0
+ * @since May 24, 2023.
+ */
+class GameSaverTest {
+
+  private static final Logger logger = Logger.getLogger(GameSaverTest.class.getName());
+  private String pathOfFile;
+  private GameJournal journal;
+  private Queue<Runnable> tasks;
+  private Executor executor;
+  private Game game1;
+  private Game game2;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    pathOfFile = "src/test/resources/games/saver_test.json";
+    Story story = new Story("Treasure", new Passage("Beginnings", "There is a chest."));
+    List<Goal> goals = new ArrayList<>();
+    goals.add(new GoldGoal(10));
+    game1 = new Game("Test ID 1", new Player.PlayerBuilder("Player1").build(), story, goals);
+    game2 = new Game("Test ID 2", new Player.PlayerBuilder("Player2").build(), story, goals);
+
+    FileGameHandler.writeGamesToFile(new ArrayList<>(), pathOfFile);
+    journal = new GameJournal(pathOfFile);
+    journal.load();
+    tasks = new ArrayDeque<>();
+    executor = tasks::add;
+  }
+
+  @AfterEach
+  void tearDown() {
+    try {
+      Files.deleteIfExists(Paths.get(pathOfFile));
+      Files.deleteIfExists(Paths.get(GameJournal.getJournalPath(pathOfFile)));
+      Files.deleteIfExists(Paths.get(GameJournal.getIndexPath(pathOfFile)));
+    } catch (IOException e) {
+      logger.log(Level.WARNING, "Error deleting file.", e);
+    }
+  }
+
+  /**
+   * Helper method to run the tasks submitted to the executor, in order.
+   */
+  private void runTasks() {
+    while (!tasks.isEmpty()) {
+      tasks.remove().run();
+    }
+  }
+
+  @Nested
+  @DisplayName("Positive tests")
+  class PositiveTests {
+    @Test
+    @DisplayName("Should write save when task runs")
+    void shouldWriteSaveWhenTaskRuns() throws IOException {
+      GameSaver saver = new GameSaver(journal, executor);
+      CompletableFuture<Void> future = saver.save(StoredGame.of(game1));
+
+      assertFalse(future.isDone());
+      assertEquals(0, journal.getPendingRecords());
+
+      runTasks();
+
+      assertTrue(future.isDone());
+      assertEquals(1, new GameJournal(pathOfFile).load().size());
+    }
+
+    @Test
+    @DisplayName("Should coalesce saves of same game")
+    void shouldCoalesceSavesOfSameGame() throws IOException {
+      GameSaver saver = new GameSaver(journal, executor);
+      CompletableFuture<Void> firstFuture = saver.save(StoredGame.of(game1));
+      game1.getPlayer().increaseGold(10);
+      CompletableFuture<Void> secondFuture = saver.save(StoredGame.of(game1));
+      saver.save(StoredGame.of(game2));
+
+      assertSame(firstFuture, secondFuture);
+      runTasks();
+
+      assertEquals(2, journal.getPendingRecords());
+      List<Game> games = FileGameHandler.loadGames(new GameJournal(pathOfFile).load());
+      assertEquals(10, games.get(0).getPlayer().getGold());
+    }
+
+    @Test
+    @DisplayName("Should skip save and delete when condition no longer holds")
+    void shouldSkipSaveAndDeleteWhenConditionNoLongerHolds() throws IOException {
+      GameSaver saver = new GameSaver(journal, executor);
+      saver.save(StoredGame.of(game1));
+      runTasks();
+      AtomicBoolean current = new AtomicBoolean(true);
+      CompletableFuture<Void> saved = saver.save(StoredGame.of(game2), current::get);
+      CompletableFuture<Void> deleted = saver.delete(game1.getGameId(), current::get);
+      current.set(false);
+
+      runTasks();
+
+      assertTrue(saved.isDone());
+      assertTrue(deleted.isDone());
+      assertEquals(1, journal.getPendingRecords());
+      assertEquals(List.of(game1.getGameId()), new GameJournal(pathOfFile).load().stream()
+          .map(StoredGame::getGameId).toList());
+    }
+
+    @Test
+    @DisplayName("Should not replace current pending save with stale save")
+    void shouldNotReplaceCurrentPendingSaveWithStaleSave() throws IOException {
+      GameSaver saver = new GameSaver(journal, executor);
+      game1.getPlayer().increaseGold(10);
+      saver.save(StoredGame.of(game1, 2), () -> true);
+      game1.getPlayer().decreaseGold(-10);
+      saver.save(StoredGame.of(game1, 1), () -> false);
+
+      runTasks();
+
+      List<StoredGame> storedGames = new GameJournal(pathOfFile).load();
+      assertEquals(2, storedGames.get(0).getVersion());
+      assertEquals(10, FileGameHandler.loadGames(storedGames).get(0).getPlayer().getGold());
+    }
+
+    @Test
+    @DisplayName("Should record game when saving")
+    void shouldRecordGameWhenSaving() throws IOException {
+      GameSaver saver = new GameSaver(journal, executor);
+      saver.save(StoredGame.of(game1));
+      game1.getPlayer().increaseGold(10);
+
+      runTasks();
+
+      List<Game> games = FileGameHandler.loadGames(new GameJournal(pathOfFile).load());
+      assertEquals(0, games.get(0).getPlayer().getGold());
+    }
+
+    @Test
+    @DisplayName("Should write save after delete of same game")
+    void shouldWriteSaveAfterDeleteOfSameGame() throws IOException {
+      GameSaver saver = new GameSaver(journal, executor);
+      saver.save(StoredGame.of(game1));
+      saver.delete(game1.getGameId());
+      saver.save(StoredGame.of(game1));
+
+      runTasks();
+
+      assertEquals(3, journal.getPendingRecords());
+      assertEquals(1, new GameJournal(pathOfFile).load().size());
+    }
+
+    @Test
+    @DisplayName("Should write pending saves when closing")
+    void shouldWritePendingSavesWhenClosing() throws IOException {
+      GameSaver saver = new GameSaver(journal);
+      CompletableFuture<Void> future = saver.save(StoredGame.of(game1));
+      saver.close();
+
+      assertTrue(future.isDone());
+      assertEquals(1, new GameJournal(pathOfFile).load().size());
+      assertFalse(Files.exists(Path.of(GameJournal.getJournalPath(pathOfFile) + ".tmp")));
+    }
+  }
+
+  @Nested
+  @DisplayName("Negative tests")
+  class NegativeTests {
+    @Test
+    @DisplayName("Should not save with closed saver throws IllegalStateException")
+    void shouldNotSaveWithClosedSaverThrowsIllegalStateException() {
+      GameSaver saver = new GameSaver(journal);
+      saver.close();
+      assertThrows(IllegalStateException.class, () -> saver.save(StoredGame.of(game1)));
+      assertThrows(IllegalStateException.class, () -> saver.delete(game1.getGameId()));
+    }
+
+    @Test
+    @DisplayName("Should not save null throws NullPointerException")
+    void shouldNotSaveNullThrowsNullPointerException() {
+      GameSaver saver = new GameSaver(journal, executor);
+      assertThrows(NullPointerException.class, () -> saver.save(null));
+      assertThrows(NullPointerException.class, () -> saver.delete(null));
+      assertThrows(NullPointerException.class, () -> new GameSaver(null));
+    }
+
+    @Test
+    @DisplayName("Should complete exceptionally when journal is not loaded")
+    void shouldCompleteExceptionallyWhenJournalIsNotLoaded() {
+      GameSaver saver = new GameSaver(new GameJournal(pathOfFile), executor);
+      CompletableFuture<Void> future = saver.save(StoredGame.of(game1));
+
+      runTasks();
+
+      assertTrue(future.isCompletedExceptionally());
+    }
+  }
+}
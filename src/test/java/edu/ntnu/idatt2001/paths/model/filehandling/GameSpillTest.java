@@ -0,0 +1,119 @@
+package edu.ntnu.idatt2001.paths.model.filehandling;
+
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The class tests the GameSpill class.
+ *
+ * @author Ramtin Samavat and Tobias Oftedal.
+ * @version 1.0
+ * @since May 26, 2023.
+ */
+class GameSpillTest {
+
+  private String pathOfFile;
+  private GameSpill spill;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    pathOfFile = "src/test/resources/games/spill_test.json";
+    spill = new GameSpill(pathOfFile);
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    spill.close();
+  }
+
+  /**
+   * Helper method to create a record of a game.
+   *
+   * @param gameId the ID of the game.
+   * @return the record.
+   */
+  private static JsonObject createRecord(String gameId) {
+    JsonObject record = new JsonObject();
+    record.addProperty("game ID", gameId);
+    return record;
+  }
+
+  @Nested
+  @DisplayName("Positive tests")
+  class PositiveTests {
+    @Test
+    @DisplayName("Should write and read records")
+    void shouldWriteAndReadRecords() throws IOException {
+      Path first = spill.write(createRecord("Test ID 1"));
+      Path second = spill.write(createRecord("Test ID 1"));
+
+      assertNotEquals(first, second);
+      assertEquals(createRecord("Test ID 1"), spill.read(first));
+      assertEquals(SaveCompression.GZIP, detect(first));
+    }
+
+    @Test
+    @DisplayName("Should delete records and directory")
+    void shouldDeleteRecordsAndDirectory() throws IOException {
+      Path record = spill.write(createRecord("Test ID 1"));
+      spill.write(createRecord("Test ID 2"));
+
+      spill.delete(record);
+      assertFalse(Files.exists(record));
+
+      spill.close();
+      assertFalse(Files.exists(Paths.get(GameSpill.getSpillPath(pathOfFile))));
+    }
+
+    @Test
+    @DisplayName("Should delete records left by earlier spill")
+    void shouldDeleteRecordsLeftByEarlierSpill() throws IOException {
+      Path record = spill.write(createRecord("Test ID 1"));
+
+      spill = new GameSpill(pathOfFile);
+
+      assertFalse(Files.exists(record));
+    }
+
+    /**
+     * Helper method to detect the compression of a file.
+     *
+     * @param path the path of the file.
+     * @return the compression.
+     * @throws IOException if the file cannot be read.
+     */
+    private SaveCompression detect(Path path) throws IOException {
+      byte[] bytes = Files.readAllBytes(path);
+      return SaveCompression.detect(bytes[0] & 0xff, bytes[1] & 0xff);
+    }
+  }
+
+  @Nested
+  @DisplayName("Negative tests")
+  class NegativeTests {
+    @Test
+    @DisplayName("Should not get spill path of null throws NullPointerException")
+    void shouldNotGetSpillPathOfNullThrowsNullPointerException() {
+      assertThrows(NullPointerException.class, () -> GameSpill.getSpillPath(null));
+      assertThrows(NullPointerException.class, () -> new GameSpill(null));
+    }
+
+    @Test
+    @DisplayName("Should not read deleted record throws IOException")
+    void shouldNotReadDeletedRecordThrowsIoException() throws IOException {
+      Path record = spill.write(createRecord("Test ID 1"));
+      spill.delete(record);
+
+      assertThrows(IOException.class, () -> spill.read(record));
+    }
+  }
+}
@@ -0,0 +1,221 @@
+package edu.ntnu.idatt2001.paths.model.filehandling;
+
+import edu.ntnu.idatt2001.paths.model.Game;
+import edu.ntnu.idatt2001.paths.model.Link;
+import edu.ntnu.idatt2001.paths.model.Passage;
+import edu.ntnu.idatt2001.paths.model.Player;
+import edu.ntnu.idatt2001.paths.model.Story;
+import edu.ntnu.idatt2001.paths.model.actions.GoldAction;
+import edu.ntnu.idatt2001.paths.model.actions.InventoryAction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The class tests the LazyStory class.
+ *
+ * @author Ramtin Samavat and Tobias Oftedal.
+ * @version 1.0
+ * @since May 26, 2023.
+ */
+class LazyStoryTest {
+
+  private static final Logger logger = Logger.getLogger(LazyStoryTest.class.getName());
+  private static final int PASSAGES = 30;
+  private String pathOfFile;
+  private Story story;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    pathOfFile = "src/test/resources/stories/lazy_story.paths";
+    Passage openingPassage = new Passage("Passage 0", "The story begins.");
+    openingPassage.addLink(new Link("Go on", "Passage 1"));
+    story = new Story("Lazy story", openingPassage);
+    for (int i = 1; i < PASSAGES; i++) {
+      Passage passage = new Passage("Passage " + i, "The content of passage " + i + ".");
+      Link link = new Link("Go on", "Passage " + (i + 1) % PASSAGES);
+      link.addAction(new GoldAction(i));
+      link.addAction(new InventoryAction("Item " + i));
+      passage.addLink(link);
+      passage.addLink(new Link("Go back", "Passage " + (i - 1)));
+      story.addPassage(passage);
+    }
+    story.getPassages().iterator().next().addLink(new Link("Go nowhere", "Missing"));
+    FileStoryHandler.writeStoryToFile(story, pathOfFile);
+  }
+
+  @AfterEach
+  void tearDown() {
+    try {
+      Files.deleteIfExists(Paths.get(pathOfFile));
+      Files.deleteIfExists(Paths.get(pathOfFile + StoryIndex.INDEX_EXTENSION));
+    } catch (IOException e) {
+      logger.log(Level.WARNING, "Error deleting file.", e);
+    }
+    StoryCache.clear();
+  }
+
+  @Nested
+  @DisplayName("Positive tests")
+  class PositiveTests {
+    @Test
+    @DisplayName("Should read passages like the story file")
+    void shouldReadPassagesLikeTheStoryFile() throws IOException {
+      LazyStory lazyStory = LazyStory.open(pathOfFile, 5);
+
+      assertEquals(story.getTitle(), lazyStory.getTitle());
+      assertEquals(story.getOpeningPassage(), lazyStory.getOpeningPassage());
+      for (Passage passage : story.getPassages()) {
+        assertTrue(lazyStory.hasPassage(passage.getTitle()));
+        assertEquals(passage, lazyStory.getPassage(new Link("Link", passage.getTitle())));
+      }
+      assertEquals(new ArrayList<>(story.getPassages()),
+          new ArrayList<>(lazyStory.getPassages()));
+      assertEquals(story.getBrokenLinks(), lazyStory.getBrokenLinks());
+      assertEquals(Paths.get(pathOfFile).toRealPath().toString(), lazyStory.getSourcePath());
+    }
+
+    @Test
+    @DisplayName("Should keep a limited number of passages in memory")
+    void shouldKeepALimitedNumberOfPassagesInMemory() throws IOException {
+      LazyStory lazyStory = LazyStory.open(pathOfFile, 3);
+      assertEquals(0, lazyStory.getResidentPassageCount());
+
+      Passage passage = lazyStory.getOpeningPassage();
+      for (int i = 0; i < 10; i++) {
+        passage = lazyStory.getPassage(passage.getLinks().get(0));
+      }
+
+      assertEquals(3, lazyStory.getResidentPassageCount());
+      assertSame(passage, lazyStory.getPassage(new Link("Link", passage.getTitle())));
+    }
+
+    @Test
+    @DisplayName("Should consume links like the compiled story")
+    void shouldConsumeLinksLikeTheCompiledStory() throws IOException {
+      LazyStory lazyStory = LazyStory.open(pathOfFile, 2);
+      Game game = new Game("Game", new Player.PlayerBuilder("Player").build(), story,
+          new ArrayList<>());
+      Game lazyGame = new Game("Lazy game", new Player.PlayerBuilder("Player").build(),
+          lazyStory, new ArrayList<>());
+
+      Passage passage = game.begin();
+      Passage lazyPassage = lazyGame.begin();
+      for (int i = 0; i < PASSAGES + 5; i++) {
+        Link link = passage.getLinks().get(0);
+        Link lazyLink = lazyPassage.getLinks().get(0);
+        assertEquals(game.executeActions(link), lazyGame.executeActions(lazyLink));
+        assertEquals(game.getConsumedLinks(), lazyGame.getConsumedLinks());
+        passage = game.go(link);
+        lazyPassage = lazyGame.go(lazyLink);
+      }
+      assertEquals(game.getPlayer().getGold(), lazyGame.getPlayer().getGold());
+    }
+
+    @Test
+    @DisplayName("Should reuse stored index")
+    void shouldReuseStoredIndex() throws IOException {
+      LazyStory.open(pathOfFile, 5);
+      FileTime indexTime = Files.getLastModifiedTime(
+          Paths.get(pathOfFile + StoryIndex.INDEX_EXTENSION));
+
+      LazyStory lazyStory = LazyStory.open(pathOfFile, 5);
+
+      assertEquals(indexTime, Files.getLastModifiedTime(
+          Paths.get(pathOfFile + StoryIndex.INDEX_EXTENSION)));
+      assertEquals(story.getTitle(), lazyStory.getTitle());
+    }
+
+    @Test
+    @DisplayName("Should rebuild index of changed story file")
+    void shouldRebuildIndexOfChangedStoryFile() throws IOException {
+      LazyStory.open(pathOfFile, 5);
+      Story changedStory = new Story("Changed story", new Passage("Start", "Changed."));
+      FileStoryHandler.writeStoryToFile(changedStory, pathOfFile);
+
+      LazyStory lazyStory = LazyStory.open(pathOfFile, 5);
+
+      assertEquals("Changed story", lazyStory.getTitle());
+      assertFalse(lazyStory.hasPassage("Passage 1"));
+    }
+
+    @Test
+    @DisplayName("Should rebuild invalid index")
+    void shouldRebuildInvalidIndex() throws IOException {
+      Files.writeString(Paths.get(pathOfFile + StoryIndex.INDEX_EXTENSION), "Not an index.");
+
+      LazyStory lazyStory = LazyStory.open(pathOfFile, 5);
+
+      assertEquals(story.getTitle(), lazyStory.getTitle());
+      assertTrue(lazyStory.hasPassage("Passage 1"));
+    }
+  }
+
+  @Nested
+  @DisplayName("Negative tests")
+  class NegativeTests {
+    @Test
+    @DisplayName("Should not get missing passage throws NoSuchElementException")
+    void shouldNotGetMissingPassageThrowsNoSuchElementException() throws IOException {
+      LazyStory lazyStory = LazyStory.open(pathOfFile, 5);
+      assertThrows(NoSuchElementException.class,
+          () -> lazyStory.getPassage(new Link("Link", "Missing")));
+    }
+
+    @Test
+    @DisplayName("Should not modify story throws UnsupportedOperationException")
+    void shouldNotModifyStoryThrowsUnsupportedOperationException() throws IOException {
+      LazyStory lazyStory = LazyStory.open(pathOfFile, 5);
+      assertThrows(UnsupportedOperationException.class,
+          () -> lazyStory.addPassage(new Passage("New", "New passage.")));
+      assertThrows(UnsupportedOperationException.class,
+          () -> lazyStory.removePassage(new Link("Link", "Passage 1")));
+    }
+
+    @Test
+    @DisplayName("Should not read passage of changed file throws IllegalStateException")
+    void shouldNotReadPassageOfChangedFileThrowsIllegalStateException() throws IOException {
+      LazyStory lazyStory = LazyStory.open(pathOfFile, 5);
+      Files.writeString(Paths.get(pathOfFile), "Changed story\n\n::Start\nChanged.\n");
+
+      assertThrows(IllegalStateException.class,
+          () -> lazyStory.getPassage(new Link("Link", "Passage 1")));
+    }
+
+    @Test
+    @DisplayName("Should not open story without resident passages throws "
+        + "IllegalArgumentException")
+    void shouldNotOpenStoryWithoutResidentPassagesThrowsIllegalArgumentException() {
+      assertThrows(IllegalArgumentException.class, () -> LazyStory.open(pathOfFile, 0));
+    }
+
+    @Test
+    @DisplayName("Should not open missing story throws IOException")
+    void shouldNotOpenMissingStoryThrowsIoException() {
+      assertThrows(IOException.class,
+          () -> LazyStory.open("src/test/resources/stories/missing.paths", 5));
+    }
+
+    @Test
+    @DisplayName("Should not open story with duplicate passages throws "
+        + "IllegalArgumentException")
+    void shouldNotOpenStoryWithDuplicatePassagesThrowsIllegalArgumentException()
+        throws IOException {
+      Files.writeString(Paths.get(pathOfFile), "Story\n\n::Start\nStart.\n\n::Next\nNext.\n\n"
+          + "::Next\nNext again.\n");
+      assertThrows(IllegalArgumentException.class, () -> LazyStory.open(pathOfFile, 5));
+    }
+  }
+}
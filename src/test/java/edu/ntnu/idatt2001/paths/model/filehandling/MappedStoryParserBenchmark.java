@@ -0,0 +1,148 @@
+package edu.ntnu.idatt2001.paths.model.filehandling;
+
+import com.sun.management.ThreadMXBean;
+import edu.ntnu.idatt2001.paths.model.Story;
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.LineNumberReader;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The class measures the time it takes to parse a large story file with the line-based
+ * parser of FileStoryHandler, reading the whole file into a byte array, compared to the
+ * MappedStoryParser on the memory-mapped file. The size of the generated file in megabytes
+ * can be given as the first argument. The benchmark is run with the main method, and is not
+ * part of the tests.
+ *
+ * @author Ramtin Samavat and Tobias Oftedal.
+ * @version 1.0
+ * @since May 25, 2023.
+ */
+public final class MappedStoryParserBenchmark {
+
+  private static final int DEFAULT_MEGABYTES = 256;
+  private static final int ROUNDS = 3;
+  private static final int INVALID_ACTION_INTERVAL = 1000;
+
+  /**
+   * Private constructor for the MappedStoryParserBenchmark.
+   *
+   * @throws IllegalStateException If the constructor is used.
+   */
+  private MappedStoryParserBenchmark() throws IllegalStateException {
+    throw new IllegalStateException("Cannot instantiate a MappedStoryParserBenchmark object");
+  }
+
+  /**
+   * The method runs the benchmark and prints the time and allocation of each parser.
+   *
+   * @param args the size of the story file in megabytes, optional.
+   * @throws IOException if the story file cannot be written or read.
+   */
+  public static void main(String[] args) throws IOException {
+    int megabytes = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_MEGABYTES;
+    Path file = Files.createTempFile("benchmark", ".paths");
+    try {
+      writeStory(file, megabytes * 1024L * 1024L);
+      System.out.println("Story file of " + Files.size(file) / (1024 * 1024) + " MB");
+      for (int i = 0; i < ROUNDS; i++) {
+        System.out.println("Round " + (i + 1));
+        measure("line parser", () -> parseWithLineParser(file));
+        measure("mapped parser", () -> parseWithMappedParser(file));
+      }
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  /**
+   * The Parser interface parses the story file of the benchmark.
+   */
+  private interface Parser {
+    Story parse() throws IOException;
+  }
+
+  /**
+   * Helper method to measure and print the time and the memory allocated by a parser.
+   *
+   * @param name   the name of the parser.
+   * @param parser the parser.
+   * @throws IOException if the story file cannot be read.
+   */
+  private static void measure(String name, Parser parser) throws IOException {
+    System.gc();
+    ThreadMXBean threadBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long threadId = Thread.currentThread().getId();
+    long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+    long start = System.nanoTime();
+    Story story = parser.parse();
+    long millis = (System.nanoTime() - start) / 1_000_000;
+    long allocated = threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+    System.out.printf("  %-14s %6d ms %8d MB allocated %8d passages%n", name, millis,
+        allocated / (1024 * 1024), story.getPassages().size());
+  }
+
+  /**
+   * Helper method to parse the story file as it was parsed before the mapped parser.
+   *
+   * @param file the story file.
+   * @return the story.
+   * @throws IOException if the story file cannot be read.
+   */
+  private static Story parseWithLineParser(Path file) throws IOException {
+    byte[] content = Files.readAllBytes(file);
+    try (LineNumberReader reader = new LineNumberReader(new InputStreamReader(
+        new ByteArrayInputStream(content), StandardCharsets.UTF_8))) {
+      return FileStoryHandler.parseStory(reader, new ArrayList<>());
+    }
+  }
+
+  /**
+   * Helper method to parse the memory-mapped story file with the mapped parser.
+   *
+   * @param file the story file.
+   * @return the story.
+   * @throws IOException if the story file cannot be read.
+   */
+  private static Story parseWithMappedParser(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      ByteBuffer content = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      List<ParseDiagnostic> diagnostics = new ArrayList<>();
+      return MappedStoryParser.parse(content, StandardCharsets.UTF_8, diagnostics);
+    }
+  }
+
+  /**
+   * Helper method to write a story file of about the given size, with passages that have
+   * links with actions. Every thousandth passage has an invalid action, which is logged, so
+   * that the time of logging does not hide the time of parsing.
+   *
+   * @param file the story file.
+   * @param size the size of the file in bytes.
+   * @throws IOException if the story file cannot be written.
+   */
+  private static void writeStory(Path file, long size) throws IOException {
+    try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+      writer.write("Benchmark\n\n");
+      long written = 0;
+      for (int i = 0; written < size; i++) {
+        String passage = "::Passage " + i + "\nThe content of passage " + i + ".\n"
+            + "[Go on](Passage " + (i + 1) + "){Gold:" + i + "}{Health:-1}{Inventory:Key}\n"
+            + "[Go back](Passage " + (i - 1) + "){Score:10}"
+            + (i % INVALID_ACTION_INTERVAL == 0 ? "{Mana:5}" : "") + "\n\n";
+        writer.write(passage);
+        written += passage.length();
+      }
+    }
+  }
+}
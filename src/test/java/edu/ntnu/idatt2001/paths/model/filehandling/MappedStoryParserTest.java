@@ -0,0 +1,182 @@
+package edu.ntnu.idatt2001.paths.model.filehandling;
+
+import edu.ntnu.idatt2001.paths.model.Passage;
+import edu.ntnu.idatt2001.paths.model.Story;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.io.LineNumberReader;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The class tests that the MappedStoryParser class parses stories in the same way as the
+ * line-based parser of the FileStoryHandler class.
+ *
+ * @author Ramtin Samavat and Tobias Oftedal.
+ * @version 1.0
+ * @since May 25, 2023.
+ */
+class MappedStoryParserTest {
+
+  private static final Logger logger = Logger.getLogger(MappedStoryParserTest.class.getName());
+  private static final String LARGE_STORY_PATH = "src/test/resources/stories/large_story.paths";
+
+  @AfterEach
+  void tearDown() {
+    try {
+      Files.deleteIfExists(Paths.get(LARGE_STORY_PATH));
+    } catch (IOException e) {
+      logger.log(Level.WARNING, "Error deleting file.", e);
+    }
+    StoryCache.clear();
+  }
+
+  /**
+   * Helper method to parse a story with both parsers, and check that the stories, the
+   * diagnostics and the exceptions are the same. The story is parsed from a heap buffer and
+   * from a direct buffer.
+   *
+   * @param content the content of the story file.
+   */
+  private static void assertSameAsLineParser(String content) {
+    List<ParseDiagnostic> expectedDiagnostics = new ArrayList<>();
+    Story expectedStory = null;
+    Exception expectedException = null;
+    try {
+      expectedStory = FileStoryHandler.parseStory(
+          new LineNumberReader(new StringReader(content)), expectedDiagnostics);
+    } catch (IOException | RuntimeException e) {
+      expectedException = e;
+    }
+
+    byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+    ByteBuffer directBuffer = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+    for (ByteBuffer buffer : List.of(ByteBuffer.wrap(bytes), directBuffer)) {
+      List<ParseDiagnostic> diagnostics = new ArrayList<>();
+      if (expectedException != null) {
+        Class<? extends Exception> exceptionClass = expectedException.getClass();
+        assertThrows(exceptionClass, () -> MappedStoryParser.parse(buffer,
+            StandardCharsets.UTF_8, diagnostics), content);
+      } else {
+        Story story = MappedStoryParser.parse(buffer, StandardCharsets.UTF_8, diagnostics);
+        assertEquals(expectedStory.getTitle(), story.getTitle(), content);
+        assertEquals(expectedStory.getOpeningPassage(), story.getOpeningPassage(), content);
+        assertEquals(new ArrayList<>(expectedStory.getPassages()),
+            new ArrayList<>(story.getPassages()), content);
+        assertEquals(expectedDiagnostics, diagnostics, content);
+      }
+    }
+  }
+
+  @Nested
+  @DisplayName("Positive tests")
+  class PositiveTests {
+    @Test
+    @DisplayName("Should parse story files like line parser")
+    void shouldParseStoryFilesLikeLineParser() throws IOException {
+      List<Path> storyFiles = new ArrayList<>();
+      for (String directory : List.of("src/main/resources/stories", "src/test/resources/stories")) {
+        try (Stream<Path> files = Files.list(Paths.get(directory))) {
+          files.filter(file -> file.toString().endsWith(".paths")).forEach(storyFiles::add);
+        }
+      }
+
+      assertFalse(storyFiles.isEmpty());
+      for (Path storyFile : storyFiles) {
+        assertSameAsLineParser(Files.readString(storyFile, Charset.defaultCharset()));
+      }
+    }
+
+    @Test
+    @DisplayName("Should handle line endings like line parser")
+    void shouldHandleLineEndingsLikeLineParser() {
+      assertSameAsLineParser("Story\r\n\r\n::Start\r\nContent\r\n[Go](End){Gold:5}\r\n\r\n"
+          + "::End\r\nThe end.");
+      assertSameAsLineParser("Story\r\r::Start\rContent\r[Go](End)\r\r::End\rThe end.\r");
+      assertSameAsLineParser("Story\n\n::Start\nContent\n[Go](End)\n::End\nSkipped.\n\n"
+          + "::Last\nThe end.\n");
+    }
+
+    @Test
+    @DisplayName("Should parse actions like line parser")
+    void shouldParseActionsLikeLineParser() {
+      List<String> actions = List.of("{Gold:5}", "{gold: +5}", "{HEALTH : -10 }",
+          "{Score:99999999999}", "{Score:00000000005}", "{Inventory: Sword of fire }",
+          "{Gold:5:7}", "{Gold::}", "{Gold}", "{:5}", "{Inventory:}", "{Mana:5}",
+          "{Gold:five}", "{Gold:-2147483648}", "{Inventory:\u00d8ks}", "{\u017fcore:5}");
+      for (String action : actions) {
+        assertSameAsLineParser("Story\n\n::Start\nContent\n[Go](End)" + action + "\n\n"
+            + "::End\nThe end.\n");
+      }
+    }
+
+    @Test
+    @DisplayName("Should report columns in characters like line parser")
+    void shouldReportColumnsInCharactersLikeLineParser() {
+      assertSameAsLineParser("Story\n\n::Start\nContent\n"
+          + "[G\u00e5 til d\u00f8ren](D\u00f8ren){Mana:5}{Gold:5}{Invalid}\n\n"
+          + "::D\u00f8ren\nThe end.\n");
+    }
+
+    @Test
+    @DisplayName("Should parse large story from mapped file")
+    void shouldParseLargeStoryFromMappedFile() throws IOException {
+      StringBuilder content = new StringBuilder("Large story\n\n");
+      int passages = 0;
+      while (content.length() < 2 * 1024 * 1024) {
+        content.append("::Passage ").append(passages).append("\nThe content of passage ")
+            .append(passages).append(".\n[Go on](Passage ").append(passages + 1)
+            .append("){Gold:1}{Inventory:Key}\n[Go back](Passage ").append(passages - 1)
+            .append("){Mana:1}\n\n");
+        passages++;
+      }
+      Files.writeString(Paths.get(LARGE_STORY_PATH), content, Charset.defaultCharset());
+
+      ParseResult<Story> parseResult = FileStoryHandler.parseStoryWithDiagnostics(
+          LARGE_STORY_PATH);
+
+      assertEquals(passages - 1, parseResult.getValue().getPassages().size());
+      assertEquals(passages, parseResult.getDiagnostics().size());
+      Passage passage = parseResult.getValue().getPassages().iterator().next();
+      assertEquals(2, passage.getLinks().get(0).getActions().size());
+      assertSameAsLineParser(content.toString());
+    }
+  }
+
+  @Nested
+  @DisplayName("Negative tests")
+  class NegativeTests {
+    @Test
+    @DisplayName("Should fail on malformed stories like line parser")
+    void shouldFailOnMalformedStoriesLikeLineParser() {
+      assertSameAsLineParser("");
+      assertSameAsLineParser("Only a title\n");
+      assertSameAsLineParser("Story\n\n::Start\nContent\n[Go]\n");
+      assertSameAsLineParser("Story\n\n::Start\nContent\n]Go[(End)\n");
+      assertSameAsLineParser("Story\n\n::Start\nContent\n[Go]()\n");
+      assertSameAsLineParser("Story\n\n::Start\n");
+      assertSameAsLineParser("Story\n\n::\nContent\n");
+    }
+
+    @Test
+    @DisplayName("Should not parse unsupported charset throws IllegalArgumentException")
+    void shouldNotParseUnsupportedCharsetThrowsIllegalArgumentException() {
+      assertThrows(IllegalArgumentException.class, () -> MappedStoryParser.parse(
+          ByteBuffer.allocate(0), StandardCharsets.UTF_16, new ArrayList<>()));
+    }
+  }
+}
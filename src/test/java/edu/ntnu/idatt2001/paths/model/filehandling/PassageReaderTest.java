@@ -0,0 +1,146 @@
+package edu.ntnu.idatt2001.paths.model.filehandling;
+
+import edu.ntnu.idatt2001.paths.model.Passage;
+import edu.ntnu.idatt2001.paths.model.Story;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The class tests the PassageReader class.
+ *
+ * @author Ramtin Samavat and Tobias Oftedal.
+ * @version 1.0
+ * @since May 26, 2023.
+ */
+class PassageReaderTest {
+
+  private static final Logger logger = Logger.getLogger(PassageReaderTest.class.getName());
+  private static final String PATH_OF_FILE = "src/test/resources/stories/streamed_story.paths";
+
+  @AfterEach
+  void tearDown() {
+    try {
+      Files.deleteIfExists(Paths.get(PATH_OF_FILE));
+    } catch (IOException e) {
+      logger.log(Level.WARNING, "Error deleting file.", e);
+    }
+    StoryCache.clear();
+  }
+
+  @Nested
+  @DisplayName("Positive tests")
+  class PositiveTests {
+    @Test
+    @DisplayName("Should read passages like readStoryFromFile")
+    void shouldReadPassagesLikeReadStoryFromFile() throws IOException {
+      String pathOfFile = "src/test/resources/stories/invalid_actions_story.paths";
+      ParseResult<Story> parseResult = FileStoryHandler.parseStoryWithDiagnostics(pathOfFile);
+      Story story = parseResult.getValue();
+
+      List<Passage> passages = new ArrayList<>();
+      List<ParseDiagnostic> diagnostics;
+      try (PassageReader reader = FileStoryHandler.openPassageReader(pathOfFile)) {
+        assertEquals(story.getTitle(), reader.getStoryTitle());
+        reader.forEachRemaining(passages::add);
+        diagnostics = reader.getDiagnostics();
+      }
+
+      assertEquals(story.getOpeningPassage(), passages.get(0));
+      assertEquals(new ArrayList<>(story.getPassages()), passages.subList(1, passages.size()));
+      assertEquals(parseResult.getDiagnostics(), diagnostics);
+    }
+
+    @Test
+    @DisplayName("Should read passages one at a time")
+    void shouldReadPassagesOneAtATime() throws IOException {
+      PassageReader reader = new PassageReader(new StringReader(
+          "Story\n\n::Start\nStart.\n[Next](Next)\n\n::Next\nNext.\n"));
+
+      assertTrue(reader.hasNext());
+      assertEquals(6, reader.getLineNumber());
+      assertEquals("Start", reader.next().getTitle());
+      assertTrue(reader.hasNext());
+      assertTrue(reader.hasNext());
+      assertEquals("Next", reader.next().getTitle());
+      assertFalse(reader.hasNext());
+      reader.close();
+    }
+
+    @Test
+    @DisplayName("Should read empty file without passages")
+    void shouldReadEmptyFileWithoutPassages() throws IOException {
+      PassageReader reader = new PassageReader(new StringReader(""));
+
+      assertNull(reader.getStoryTitle());
+      assertFalse(reader.hasNext());
+    }
+
+    @Test
+    @DisplayName("Should read passages written by passage writer")
+    void shouldReadPassagesWrittenByPassageWriter() throws IOException {
+      try (PassageWriter writer = FileStoryHandler.openPassageWriter(PATH_OF_FILE, "Story")) {
+        for (int i = 0; i < 100; i++) {
+          writer.write(new Passage("Passage " + i, "Content " + i + "."));
+        }
+      }
+
+      int count = 0;
+      try (PassageReader reader = FileStoryHandler.openPassageReader(PATH_OF_FILE)) {
+        while (reader.hasNext()) {
+          assertEquals("Passage " + count, reader.next().getTitle());
+          count++;
+        }
+      }
+      assertEquals(100, count);
+    }
+  }
+
+  @Nested
+  @DisplayName("Negative tests")
+  class NegativeTests {
+    @Test
+    @DisplayName("Should not read past last passage throws NoSuchElementException")
+    void shouldNotReadPastLastPassageThrowsNoSuchElementException() throws IOException {
+      PassageReader reader = new PassageReader(new StringReader("Story\n\n::Start\nStart.\n"));
+      reader.next();
+
+      assertThrows(NoSuchElementException.class, reader::next);
+    }
+
+    @Test
+    @DisplayName("Should not read closed reader throws NoSuchElementException")
+    void shouldNotReadClosedReaderThrowsNoSuchElementException() throws IOException {
+      PassageReader reader = new PassageReader(new StringReader("Story\n\n::Start\nStart.\n"));
+      reader.close();
+
+      assertFalse(reader.hasNext());
+      assertThrows(NoSuchElementException.class, reader::next);
+    }
+
+    @Test
+    @DisplayName("Should not open missing file throws IOException")
+    void shouldNotOpenMissingFileThrowsIoException() {
+      assertThrows(IOException.class, () -> FileStoryHandler.openPassageReader(
+          "src/test/resources/stories/missing.paths"));
+    }
+
+    @Test
+    @DisplayName("Should not open file with wrong extension throws IllegalArgumentException")
+    void shouldNotOpenFileWithWrongExtensionThrowsIllegalArgumentException() {
+      assertThrows(IllegalArgumentException.class, () -> FileStoryHandler.openPassageReader(
+          "src/test/resources/stories/story.txt"));
+    }
+  }
+}
@@ -0,0 +1,109 @@
+package edu.ntnu.idatt2001.paths.model.filehandling;
+
+import edu.ntnu.idatt2001.paths.model.Link;
+import edu.ntnu.idatt2001.paths.model.Passage;
+import edu.ntnu.idatt2001.paths.model.Story;
+import edu.ntnu.idatt2001.paths.model.actions.GoldAction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The class tests the PassageWriter class.
+ *
+ * @author Ramtin Samavat and Tobias Oftedal.
+ * @version 1.0
+ * @since May 26, 2023.
+ */
+class PassageWriterTest {
+
+  private static final Logger logger = Logger.getLogger(PassageWriterTest.class.getName());
+  private static final String PATH_OF_FILE = "src/test/resources/stories/written_story.paths";
+
+  @AfterEach
+  void tearDown() {
+    try {
+      Files.deleteIfExists(Paths.get(PATH_OF_FILE));
+    } catch (IOException e) {
+      logger.log(Level.WARNING, "Error deleting file.", e);
+    }
+    StoryCache.clear();
+  }
+
+  @Nested
+  @DisplayName("Positive tests")
+  class PositiveTests {
+    @Test
+    @DisplayName("Should write story like writeStoryToFile")
+    void shouldWriteStoryLikeWriteStoryToFile() throws IOException {
+      Passage openingPassage = new Passage("Start", "The story begins.");
+      Link link = new Link("Go on", "End");
+      link.addAction(new GoldAction(5));
+      openingPassage.addLink(link);
+      Passage passage = new Passage("End", "The story ends.");
+      Story story = new Story("Story", openingPassage);
+      story.addPassage(passage);
+      FileStoryHandler.writeStoryToFile(story, PATH_OF_FILE);
+      String expectedContent = Files.readString(Paths.get(PATH_OF_FILE));
+
+      try (PassageWriter writer = FileStoryHandler.openPassageWriter(PATH_OF_FILE, "Story")) {
+        writer.write(openingPassage);
+        writer.write(passage);
+        assertEquals(2, writer.getPassageCount());
+      }
+
+      assertEquals(expectedContent, Files.readString(Paths.get(PATH_OF_FILE)));
+    }
+
+    @Test
+    @DisplayName("Should replace cached story when closed")
+    void shouldReplaceCachedStoryWhenClosed() throws IOException {
+      try (PassageWriter writer = FileStoryHandler.openPassageWriter(PATH_OF_FILE, "First")) {
+        writer.write(new Passage("Start", "First."));
+      }
+      assertEquals("First", FileStoryHandler.readStoryFromFile(PATH_OF_FILE).getTitle());
+
+      try (PassageWriter writer = FileStoryHandler.openPassageWriter(PATH_OF_FILE, "Second")) {
+        writer.write(new Passage("Start", "Second."));
+      }
+
+      assertEquals("Second", FileStoryHandler.readStoryFromFile(PATH_OF_FILE).getTitle());
+    }
+  }
+
+  @Nested
+  @DisplayName("Negative tests")
+  class NegativeTests {
+    @Test
+    @DisplayName("Should not write to closed writer throws IllegalStateException")
+    void shouldNotWriteToClosedWriterThrowsIllegalStateException() throws IOException {
+      PassageWriter writer = FileStoryHandler.openPassageWriter(PATH_OF_FILE, "Story");
+      writer.close();
+
+      assertThrows(IllegalStateException.class,
+          () -> writer.write(new Passage("Start", "Start.")));
+    }
+
+    @Test
+    @DisplayName("Should not write null passage throws NullPointerException")
+    void shouldNotWriteNullPassageThrowsNullPointerException() throws IOException {
+      try (PassageWriter writer = FileStoryHandler.openPassageWriter(PATH_OF_FILE, "Story")) {
+        assertThrows(NullPointerException.class, () -> writer.write(null));
+      }
+    }
+
+    @Test
+    @DisplayName("Should not open writer with blank title throws IllegalArgumentException")
+    void shouldNotOpenWriterWithBlankTitleThrowsIllegalArgumentException() {
+      assertThrows(IllegalArgumentException.class,
+          () -> FileStoryHandler.openPassageWriter(PATH_OF_FILE, " "));
+    }
+  }
+}
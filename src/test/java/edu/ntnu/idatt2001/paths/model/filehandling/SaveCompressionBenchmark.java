@@ -0,0 +1,143 @@
+package edu.ntnu.idatt2001.paths.model.filehandling;
+
+import edu.ntnu.idatt2001.paths.model.Game;
+import edu.ntnu.idatt2001.paths.model.Link;
+import edu.ntnu.idatt2001.paths.model.Passage;
+import edu.ntnu.idatt2001.paths.model.Player;
+import edu.ntnu.idatt2001.paths.model.Story;
+import edu.ntnu.idatt2001.paths.model.actions.GoldAction;
+import edu.ntnu.idatt2001.paths.model.actions.InventoryAction;
+import edu.ntnu.idatt2001.paths.model.goals.Goal;
+import edu.ntnu.idatt2001.paths.model.goals.GoldGoal;
+import edu.ntnu.idatt2001.paths.model.goals.InventoryGoal;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * The class measures the size of a file of games, and the time to write and read it, for
+ * every compression of SaveCompression. The games reference a story file, as games started
+ * from the story library do, and have played a few passages. The benchmark is run with the
+ * main method, and is not part of the tests.
+ *
+ * @author Ramtin Samavat and Tobias Oftedal.
+ * @version 1.0
+ * @since May 26, 2023.
+ */
+public final class SaveCompressionBenchmark {
+
+  private static final int[] GAME_COUNTS = {1_000, 10_000, 100_000};
+  private static final int PASSAGES = 20;
+  private static final int ROUNDS = 3;
+
+  /**
+   * Private constructor for the SaveCompressionBenchmark.
+   *
+   * @throws IllegalStateException If the constructor is used.
+   */
+  private SaveCompressionBenchmark() throws IllegalStateException {
+    throw new IllegalStateException("Cannot instantiate a SaveCompressionBenchmark object");
+  }
+
+  /**
+   * The method runs the benchmark and prints the size of the file and the best time of
+   * writing and reading it for every number of games and compression.
+   *
+   * @param args not used.
+   * @throws IOException if the files cannot be written or read.
+   */
+  public static void main(String[] args) throws IOException {
+    Path directory = Files.createTempDirectory("paths-benchmark");
+    try {
+      Path storyPath = directory.resolve("benchmark.paths");
+      FileStoryHandler.writeStoryToFile(createStory(), storyPath.toString());
+      Story story = FileStoryHandler.readStoryFromFile(storyPath.toString());
+      String pathOfFile = directory.resolve("games.json").toString();
+
+      System.out.printf("%8s  %-8s %12s %10s %10s%n", "games", "format", "size", "write",
+          "read");
+      for (int gameCount : GAME_COUNTS) {
+        List<Game> games = createGames(story, gameCount);
+        for (SaveCompression compression : SaveCompression.values()) {
+          long bestWrite = Long.MAX_VALUE;
+          long bestRead = Long.MAX_VALUE;
+          for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            FileGameHandler.writeGamesToFile(games, pathOfFile, compression);
+            bestWrite = Math.min(bestWrite, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            int readCount = FileGameHandler.parseGamesFromFile(pathOfFile).size();
+            bestRead = Math.min(bestRead, System.nanoTime() - start);
+            if (readCount != gameCount) {
+              throw new IllegalStateException("Read " + readCount + " of " + gameCount
+                  + " games.");
+            }
+          }
+          System.out.printf("%8d  %-8s %12d %8d ms %7d ms%n", gameCount, compression,
+              Files.size(Path.of(pathOfFile)), bestWrite / 1_000_000, bestRead / 1_000_000);
+        }
+      }
+    } finally {
+      try (Stream<Path> files = Files.list(directory)) {
+        for (Path file : files.toList()) {
+          Files.delete(file);
+        }
+      }
+      Files.delete(directory);
+    }
+  }
+
+  /**
+   * Helper method to create a story of passages in a circle, each with a link with actions.
+   *
+   * @return the story.
+   */
+  private static Story createStory() {
+    Passage openingPassage = new Passage("Passage 0", "The story begins.");
+    Story story = new Story("Benchmark", openingPassage);
+    for (int i = 0; i < PASSAGES; i++) {
+      Passage passage = i == 0 ? openingPassage
+          : new Passage("Passage " + i, "The content of passage " + i + ".");
+      Link link = new Link("Go on", "Passage " + (i + 1) % PASSAGES);
+      link.addAction(new GoldAction(i));
+      link.addAction(new InventoryAction("Item " + i));
+      passage.addLink(link);
+      if (i > 0) {
+        story.addPassage(passage);
+      }
+    }
+    return story;
+  }
+
+  /**
+   * Helper method to create games of the story, each of which has played a number of
+   * passages given by its position.
+   *
+   * @param story     the story of the games.
+   * @param gameCount the number of games.
+   * @return the games.
+   */
+  private static List<Game> createGames(Story story, int gameCount) {
+    List<Game> games = new ArrayList<>(gameCount);
+    for (int i = 0; i < gameCount; i++) {
+      Player player = new Player.PlayerBuilder("Player " + i).health(100).gold(i % 50)
+          .build();
+      List<Goal> goals = new ArrayList<>();
+      goals.add(new GoldGoal(100));
+      goals.add(new InventoryGoal(List.of("Item 3")));
+      Game game = new Game("Game " + i, player, story, goals);
+      Passage passage = game.begin();
+      for (int step = 0; step < i % PASSAGES; step++) {
+        Link link = passage.getLinks().get(0);
+        game.executeActions(link);
+        passage = game.go(link);
+      }
+      games.add(game);
+    }
+    return games;
+  }
+}
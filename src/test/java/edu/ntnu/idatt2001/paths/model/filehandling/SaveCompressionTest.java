@@ -0,0 +1,118 @@
+package edu.ntnu.idatt2001.paths.model.filehandling;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The class tests the SaveCompression enum.
+ *
+ * @author Ramtin Samavat and Tobias Oftedal.
+ * @version 1.0
+ * @since May 26, 2023.
+ */
+class SaveCompressionTest {
+
+  private static final String CONTENT = "[\n  {\n    \"game ID\": \"Test ID 1\"\n  }\n]";
+
+  /**
+   * Helper method to compress the content with the given compression.
+   *
+   * @param compression the compression.
+   * @return the compressed content.
+   * @throws IOException if the content cannot be compressed.
+   */
+  private static byte[] compress(SaveCompression compression) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (OutputStream out = compression.compress(bytes)) {
+      out.write(CONTENT.getBytes(StandardCharsets.UTF_8));
+    }
+    return bytes.toByteArray();
+  }
+
+  @Nested
+  @DisplayName("Positive tests")
+  class PositiveTests {
+    @Test
+    @DisplayName("Should decompress content of every compression")
+    void shouldDecompressContentOfEveryCompression() throws IOException {
+      for (SaveCompression compression : SaveCompression.values()) {
+        byte[] compressed = compress(compression);
+
+        assertEquals(compression, SaveCompression.detect(compressed[0] & 0xff,
+            compressed[1] & 0xff));
+        try (InputStream in = SaveCompression.decompress(new ByteArrayInputStream(compressed))) {
+          assertEquals(CONTENT, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+      }
+    }
+
+    @Test
+    @DisplayName("Should detect JSON as uncompressed")
+    void shouldDetectJsonAsUncompressed() {
+      for (String json : new String[] {"[]", " [", "\n[", "\ufeff[", "{}", "\"x\""}) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        assertEquals(SaveCompression.NONE, SaveCompression.detect(bytes[0] & 0xff,
+            bytes[1] & 0xff), json);
+      }
+    }
+
+    @Test
+    @DisplayName("Should read empty and single byte streams as uncompressed")
+    void shouldReadEmptyAndSingleByteStreamsAsUncompressed() throws IOException {
+      try (InputStream in = SaveCompression.decompress(new ByteArrayInputStream(new byte[0]))) {
+        assertEquals(-1, in.read());
+      }
+      try (InputStream in = SaveCompression.decompress(
+          new ByteArrayInputStream(new byte[] {'['}))) {
+        assertEquals('[', in.read());
+        assertEquals(-1, in.read());
+      }
+    }
+
+    @Test
+    @DisplayName("Should only pretty print uncompressed files")
+    void shouldOnlyPrettyPrintUncompressedFiles() {
+      assertTrue(SaveCompression.NONE.isPrettyPrinted());
+      assertFalse(SaveCompression.GZIP.isPrettyPrinted());
+      assertFalse(SaveCompression.DEFLATE.isPrettyPrinted());
+    }
+  }
+
+  @Nested
+  @DisplayName("Negative tests")
+  class NegativeTests {
+    @Test
+    @DisplayName("Should not compress null stream throws NullPointerException")
+    void shouldNotCompressNullStreamThrowsNullPointerException() {
+      assertThrows(NullPointerException.class, () -> SaveCompression.GZIP.compress(null));
+    }
+
+    @Test
+    @DisplayName("Should not decompress null stream throws NullPointerException")
+    void shouldNotDecompressNullStreamThrowsNullPointerException() {
+      assertThrows(NullPointerException.class, () -> SaveCompression.decompress(null));
+    }
+
+    @Test
+    @DisplayName("Should not decompress truncated stream throws IOException")
+    void shouldNotDecompressTruncatedStreamThrowsIoException() throws IOException {
+      byte[] compressed = compress(SaveCompression.GZIP);
+      byte[] truncated = Arrays.copyOf(compressed, compressed.length / 2);
+
+      assertThrows(IOException.class, () -> {
+        try (InputStream in = SaveCompression.decompress(new ByteArrayInputStream(truncated))) {
+          in.readAllBytes();
+        }
+      });
+    }
+  }
+}
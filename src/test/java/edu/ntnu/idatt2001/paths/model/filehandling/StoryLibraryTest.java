@@ -0,0 +1,185 @@
+package edu.ntnu.idatt2001.paths.model.filehandling;
+
+import edu.ntnu.idatt2001.paths.model.Passage;
+import edu.ntnu.idatt2001.paths.model.Story;
+import edu.ntnu.idatt2001.paths.model.filehandling.StoryLibrary.StoryEntry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The class tests the StoryLibrary class.
+ *
+ * @author Ramtin Samavat and Tobias Oftedal.
+ * @version 1.0
+ * @since May 25, 2023.
+ */
+class StoryLibraryTest {
+
+  private static final Logger logger = Logger.getLogger(StoryLibraryTest.class.getName());
+  private String directory;
+  private StoryLibrary storyLibrary;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    directory = "src/test/resources/stories/library";
+    Files.createDirectories(Paths.get(directory));
+    for (int i = 0; i < 10; i++) {
+      writeStory("story" + i + ".paths", "Story " + i);
+    }
+    Files.writeString(Paths.get(directory, "notes.txt"), "Not a story.");
+    storyLibrary = new StoryLibrary(directory);
+  }
+
+  @AfterEach
+  void tearDown() {
+    try (Stream<Path> files = Files.list(Paths.get(directory))) {
+      for (Path file : files.toList()) {
+        Files.delete(file);
+      }
+      Files.delete(Paths.get(directory));
+    } catch (IOException e) {
+      logger.log(Level.WARNING, "Error deleting file.", e);
+    }
+    StoryCache.clear();
+  }
+
+  /**
+   * Helper method to write a story with the given title to the library directory.
+   *
+   * @param fileName the name of the story file.
+   * @param title    the title of the story.
+   * @throws IOException if the story cannot be written.
+   */
+  private void writeStory(String fileName, String title) throws IOException {
+    Story story = new Story(title, new Passage("Beginnings", "There is a door."));
+    FileStoryHandler.writeStoryToFile(story, directory + "/" + fileName);
+  }
+
+  @Nested
+  @DisplayName("Positive tests")
+  class PositiveTests {
+    @Test
+    @DisplayName("Should scan every story of directory")
+    void shouldScanEveryStoryOfDirectory() {
+      List<String> published = Collections.synchronizedList(new ArrayList<>());
+
+      List<StoryEntry> entries = storyLibrary.scan(entry -> published.add(entry.getFileName()))
+          .join();
+
+      assertEquals(10, entries.size());
+      assertEquals(10, published.size());
+      assertEquals("story0.paths", entries.get(0).getFileName());
+      assertEquals("Story 0", entries.get(0).getParseResult().getValue().getTitle());
+      assertEquals(10, storyLibrary.size());
+    }
+
+    @Test
+    @DisplayName("Should keep stories of unchanged files")
+    void shouldKeepStoriesOfUnchangedFiles() {
+      StoryEntry firstScan = storyLibrary.scan(entry -> {
+      }).join().get(3);
+      StoryEntry secondScan = storyLibrary.scan(entry -> {
+      }).join().get(3);
+
+      assertSame(firstScan, secondScan);
+    }
+
+    @Test
+    @DisplayName("Should get entries of last scan without scanning")
+    void shouldGetEntriesOfLastScanWithoutScanning() throws IOException {
+      assertTrue(storyLibrary.getEntries().isEmpty());
+      List<StoryEntry> scanned = storyLibrary.scan(entry -> {
+      }).join();
+      Files.delete(Paths.get(directory, "story9.paths"));
+
+      assertEquals(scanned, storyLibrary.getEntries());
+    }
+
+    @Test
+    @DisplayName("Should parse changed and forget removed files")
+    void shouldParseChangedAndForgetRemovedFiles() throws IOException {
+      storyLibrary.scan(entry -> {
+      }).join();
+
+      writeStory("story3.paths", "Changed story");
+      Path changedFile = Paths.get(directory, "story3.paths");
+      Files.setLastModifiedTime(changedFile, FileTime.fromMillis(
+          Files.getLastModifiedTime(changedFile).toMillis() + 2000));
+      Files.delete(Paths.get(directory, "story9.paths"));
+      List<StoryEntry> entries = storyLibrary.scan(entry -> {
+      }).join();
+
+      assertEquals(9, entries.size());
+      assertEquals(9, storyLibrary.size());
+      assertEquals("Changed story", entries.get(3).getParseResult().getValue().getTitle());
+    }
+
+    @Test
+    @DisplayName("Should get story by file name")
+    void shouldGetStoryByFileName() throws IOException {
+      ParseResult<Story> parseResult = storyLibrary.getStory("story5.paths");
+
+      assertEquals("Story 5", parseResult.getValue().getTitle());
+      assertSame(parseResult, storyLibrary.getStory("story5.paths"));
+    }
+
+    @Test
+    @DisplayName("Should report invalid story file as invalid entry")
+    void shouldReportInvalidStoryFileAsInvalidEntry() throws IOException {
+      Files.writeString(Paths.get(directory, "broken.paths"), "Only a title");
+
+      List<StoryEntry> entries = storyLibrary.scan(entry -> {
+      }).join();
+
+      assertEquals(11, entries.size());
+      assertFalse(entries.get(0).isValid());
+      assertNotNull(entries.get(0).getErrorMessage());
+      assertTrue(entries.get(1).isValid());
+    }
+  }
+
+  @Nested
+  @DisplayName("Negative tests")
+  class NegativeTests {
+    @Test
+    @DisplayName("Should not get invalid story throws IOException")
+    void shouldNotGetInvalidStoryThrowsIoException() throws IOException {
+      Files.writeString(Paths.get(directory, "broken.paths"), "Only a title");
+      assertThrows(IOException.class, () -> storyLibrary.getStory("broken.paths"));
+      assertThrows(IOException.class, () -> storyLibrary.getStory("missing.paths"));
+    }
+
+    @Test
+    @DisplayName("Should not scan missing directory")
+    void shouldNotScanMissingDirectory() {
+      StoryLibrary missingLibrary = new StoryLibrary(directory + "/missing");
+      assertThrows(CompletionException.class, () -> missingLibrary.scan(entry -> {
+      }).join());
+    }
+
+    @Test
+    @DisplayName("Should not create library with invalid arguments")
+    void shouldNotCreateLibraryWithInvalidArguments() {
+      assertThrows(NullPointerException.class, () -> new StoryLibrary(null));
+      assertThrows(IllegalArgumentException.class, () -> new StoryLibrary(" "));
+      assertThrows(NullPointerException.class, () -> storyLibrary.scan(null));
+      assertThrows(NullPointerException.class, () -> storyLibrary.getStory(null));
+    }
+  }
+}
@@ -0,0 +1,187 @@
+package edu.ntnu.idatt2001.paths.model.filehandling;
+
+import edu.ntnu.idatt2001.paths.model.Story;
+import edu.ntnu.idatt2001.paths.model.filehandling.ValidationIssue.Type;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The class tests the StoryValidator class.
+ *
+ * @author Ramtin Samavat and Tobias Oftedal.
+ * @version 1.0
+ * @since May 26, 2023.
+ */
+class StoryValidatorTest {
+
+  @AfterEach
+  void tearDown() {
+    StoryCache.clear();
+  }
+
+  /**
+   * Helper method to validate a story and keep the problems of the given type.
+   *
+   * @param content the content of the story file.
+   * @param type    the type of the problems to keep.
+   * @return the problems of the type.
+   * @throws IOException if the story cannot be read.
+   */
+  private static List<ParseDiagnostic> validate(String content, Type type) throws IOException {
+    return StoryValidator.validate(new StringReader(content)).stream()
+        .filter(issue -> issue.getType() == type)
+        .map(ValidationIssue::getDiagnostic)
+        .toList();
+  }
+
+  @Nested
+  @DisplayName("Positive tests")
+  class PositiveTests {
+    @Test
+    @DisplayName("Should find no errors in valid story")
+    void shouldFindNoErrorsInValidStory() throws IOException {
+      List<ValidationIssue> issues = StoryValidator.validate(new StringReader(
+          "Story\n\n::Start\nStart.\n[Go on](End){Gold:5}\n[Go on](end)\n\n::End\nEnd.\n"));
+
+      assertEquals(1, issues.size());
+      assertEquals(Type.DEAD_END, issues.get(0).getType());
+      assertFalse(issues.get(0).isError());
+      assertEquals(8, issues.get(0).getDiagnostic().getLine());
+    }
+
+    @Test
+    @DisplayName("Should report broken links with location")
+    void shouldReportBrokenLinksWithLocation() throws IOException {
+      List<ParseDiagnostic> brokenLinks = validate("Story\n\n::Start\nStart.\n[Go on](End)\n"
+          + "[Go away](Missing)\n", Type.BROKEN_LINK);
+
+      assertEquals(2, brokenLinks.size());
+      assertEquals(5, brokenLinks.get(0).getLine());
+      assertEquals(8, brokenLinks.get(0).getColumn());
+      assertEquals(6, brokenLinks.get(1).getLine());
+    }
+
+    @Test
+    @DisplayName("Should report duplicate titles")
+    void shouldReportDuplicateTitles() throws IOException {
+      List<ParseDiagnostic> duplicates = validate("Story\n\n::Start\nStart.\n\n::Next\nNext.\n\n"
+          + "::next \nNext again.\n", Type.DUPLICATE_TITLE);
+
+      assertEquals(1, duplicates.size());
+      assertEquals(9, duplicates.get(0).getLine());
+      assertTrue(duplicates.get(0).getMessage().contains("line 6"));
+    }
+
+    @Test
+    @DisplayName("Should report invalid actions like readStoryFromFile")
+    void shouldReportInvalidActionsLikeReadStoryFromFile() throws IOException {
+      String pathOfFile = "src/test/resources/stories/invalid_actions_story.paths";
+      List<ParseDiagnostic> expectedDiagnostics = FileStoryHandler.parseStoryWithDiagnostics(
+          pathOfFile).getDiagnostics();
+
+      List<ParseDiagnostic> diagnostics = StoryValidator.validate(pathOfFile).stream()
+          .filter(issue -> issue.getType() == Type.INVALID_ACTION)
+          .map(ValidationIssue::getDiagnostic)
+          .toList();
+
+      assertFalse(diagnostics.isEmpty());
+      assertEquals(expectedDiagnostics, diagnostics);
+    }
+
+    @Test
+    @DisplayName("Should report unreachable passages and dead ends")
+    void shouldReportUnreachablePassagesAndDeadEnds() throws IOException {
+      String content = "Story\n\n::Start\nStart.\n[Go on](Middle)\n\n::Middle\nMiddle.\n"
+          + "[Go back](Start)\n\n::Island\nIsland.\n[Go on](Middle)\n\n::Lost\nLost.\n";
+
+      List<ParseDiagnostic> unreachable = validate(content, Type.UNREACHABLE_PASSAGE);
+      List<ParseDiagnostic> deadEnds = validate(content, Type.DEAD_END);
+
+      assertEquals(List.of(11, 15), unreachable.stream().map(ParseDiagnostic::getLine).toList());
+      assertEquals(List.of(15), deadEnds.stream().map(ParseDiagnostic::getLine).toList());
+    }
+
+    @Test
+    @DisplayName("Should report passages skipped after links")
+    void shouldReportPassagesSkippedAfterLinks() throws IOException {
+      List<ParseDiagnostic> malformed = validate("Story\n\n::Start\nStart.\n[Go on](End)\n"
+          + "::End\nEnd.\n", Type.MALFORMED_PASSAGE);
+
+      assertEquals(1, malformed.size());
+      assertEquals(6, malformed.get(0).getLine());
+    }
+
+    @Test
+    @DisplayName("Should find broken links like getBrokenLinks")
+    void shouldFindBrokenLinksLikeGetBrokenLinks() throws IOException {
+      try (Stream<Path> files = Files.list(Paths.get("src/main/resources/stories"))) {
+        for (Path file : files.filter(f -> f.toString().endsWith(".paths")).toList()) {
+          Story story = FileStoryHandler.readStoryFromFile(file.toString());
+          List<ValidationIssue> issues = StoryValidator.validate(file.toString());
+
+          assertEquals(story.getBrokenLinks().size(), issues.stream()
+              .filter(issue -> issue.getType() == Type.BROKEN_LINK).count(), file.toString());
+          assertTrue(issues.stream().noneMatch(issue -> issue.getType() == Type.DUPLICATE_TITLE
+              || issue.getType() == Type.MALFORMED_PASSAGE), file.toString());
+        }
+      }
+    }
+  }
+
+  @Nested
+  @DisplayName("Negative tests")
+  class NegativeTests {
+    @Test
+    @DisplayName("Should report malformed links")
+    void shouldReportMalformedLinks() throws IOException {
+      List<ParseDiagnostic> malformed = validate("Story\n\n::Start\nStart.\n[Go on]\n",
+          Type.MALFORMED_LINK);
+
+      assertEquals(1, malformed.size());
+      assertEquals(5, malformed.get(0).getLine());
+    }
+
+    @Test
+    @DisplayName("Should report story without passages")
+    void shouldReportStoryWithoutPassages() throws IOException {
+      List<ValidationIssue> issues = StoryValidator.validate(new StringReader(""));
+
+      assertEquals(2, issues.size());
+      assertTrue(issues.stream().allMatch(issue -> issue.getType() == Type.MALFORMED_STORY));
+    }
+
+    @Test
+    @DisplayName("Should report passage without content")
+    void shouldReportPassageWithoutContent() throws IOException {
+      List<ParseDiagnostic> malformed = validate("Story\n\n::Start\n", Type.MALFORMED_PASSAGE);
+
+      assertEquals(1, malformed.size());
+      assertEquals(3, malformed.get(0).getLine());
+    }
+
+    @Test
+    @DisplayName("Should not validate missing file throws IOException")
+    void shouldNotValidateMissingFileThrowsIoException() {
+      assertThrows(IOException.class,
+          () -> StoryValidator.validate("src/test/resources/stories/missing.paths"));
+    }
+
+    @Test
+    @DisplayName("Should not validate file with wrong extension throws "
+        + "IllegalArgumentException")
+    void shouldNotValidateFileWithWrongExtensionThrowsIllegalArgumentException() {
+      assertThrows(IllegalArgumentException.class,
+          () -> StoryValidator.validate("src/test/resources/stories/story.txt"));
+    }
+  }
+}
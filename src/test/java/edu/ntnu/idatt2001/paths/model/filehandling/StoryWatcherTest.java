@@ -0,0 +1,157 @@
+package edu.ntnu.idatt2001.paths.model.filehandling;
+
+import edu.ntnu.idatt2001.paths.model.Passage;
+import edu.ntnu.idatt2001.paths.model.Story;
+import edu.ntnu.idatt2001.paths.model.filehandling.StoryLibrary.StoryEntry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The class tests the StoryWatcher class.
+ *
+ * @author Ramtin Samavat and Tobias Oftedal.
+ * @version 1.0
+ * @since May 25, 2023.
+ */
+class StoryWatcherTest {
+
+  private static final Logger logger = Logger.getLogger(StoryWatcherTest.class.getName());
+  private String directory;
+  private StoryLibrary storyLibrary;
+  private StoryWatcher storyWatcher;
+  private BlockingQueue<StoryEntry> changedStories;
+  private BlockingQueue<String> removedStories;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    directory = "src/test/resources/stories/watched";
+    Files.createDirectories(Paths.get(directory));
+    writeStory("story.paths", "First version");
+
+    storyLibrary = new StoryLibrary(directory);
+    storyLibrary.scan(entry -> {
+    }).join();
+    changedStories = new LinkedBlockingQueue<>();
+    removedStories = new LinkedBlockingQueue<>();
+    storyWatcher = new StoryWatcher(storyLibrary);
+    storyWatcher.setListener(new StoryWatcher.Listener() {
+      @Override
+      public void storyChanged(StoryEntry entry) {
+        changedStories.add(entry);
+      }
+
+      @Override
+      public void storyRemoved(String fileName) {
+        removedStories.add(fileName);
+      }
+    });
+    storyWatcher.start();
+  }
+
+  @AfterEach
+  void tearDown() {
+    try (Stream<Path> files = Files.list(Paths.get(directory))) {
+      storyWatcher.close();
+      for (Path file : files.toList()) {
+        Files.delete(file);
+      }
+      Files.delete(Paths.get(directory));
+    } catch (IOException e) {
+      logger.log(Level.WARNING, "Error deleting file.", e);
+    }
+    StoryCache.clear();
+  }
+
+  /**
+   * Helper method to write a story with the given title to the watched directory.
+   *
+   * @param fileName the name of the story file.
+   * @param title    the title of the story.
+   * @throws IOException if the story cannot be written.
+   */
+  private void writeStory(String fileName, String title) throws IOException {
+    Story story = new Story(title, new Passage("Beginnings", "There is a door."));
+    FileStoryHandler.writeStoryToFile(story, directory + "/" + fileName);
+  }
+
+  @Nested
+  @DisplayName("Positive tests")
+  class PositiveTests {
+    @Test
+    @DisplayName("Should reload modified story")
+    void shouldReloadModifiedStory() throws Exception {
+      Story runningStory = storyLibrary.getStory("story.paths").getValue();
+
+      writeStory("story.paths", "Second version");
+      StoryEntry entry = changedStories.poll(10, TimeUnit.SECONDS);
+
+      assertNotNull(entry);
+      assertEquals("Second version", entry.getParseResult().getValue().getTitle());
+      assertEquals("Second version",
+          FileStoryHandler.readStoryFromFile(directory + "/story.paths").getTitle());
+      assertEquals("First version", runningStory.getTitle());
+    }
+
+    @Test
+    @DisplayName("Should load created story")
+    void shouldLoadCreatedStory() throws Exception {
+      writeStory("new_story.paths", "New story");
+      StoryEntry entry = changedStories.poll(10, TimeUnit.SECONDS);
+
+      assertNotNull(entry);
+      assertEquals("new_story.paths", entry.getFileName());
+      assertEquals(2, storyLibrary.size());
+    }
+
+    @Test
+    @DisplayName("Should remove deleted story")
+    void shouldRemoveDeletedStory() throws Exception {
+      Files.delete(Paths.get(directory, "story.paths"));
+
+      assertEquals("story.paths", removedStories.poll(10, TimeUnit.SECONDS));
+      assertEquals(0, storyLibrary.size());
+    }
+
+    @Test
+    @DisplayName("Should ignore files that are not stories")
+    void shouldIgnoreFilesThatAreNotStories() throws Exception {
+      Files.writeString(Paths.get(directory, "notes.txt"), "Not a story.");
+      writeStory("story.paths", "Second version");
+
+      StoryEntry entry = changedStories.poll(10, TimeUnit.SECONDS);
+      assertEquals("story.paths", entry.getFileName());
+      assertNull(changedStories.poll(500, TimeUnit.MILLISECONDS));
+    }
+  }
+
+  @Nested
+  @DisplayName("Negative tests")
+  class NegativeTests {
+    @Test
+    @DisplayName("Should not watch missing directory throws IOException")
+    void shouldNotWatchMissingDirectoryThrowsIoException() {
+      StoryLibrary missingLibrary = new StoryLibrary(directory + "/missing");
+      assertThrows(IOException.class, () -> new StoryWatcher(missingLibrary));
+    }
+
+    @Test
+    @DisplayName("Should not create watcher without library throws NullPointerException")
+    void shouldNotCreateWatcherWithoutLibraryThrowsNullPointerException() {
+      assertThrows(NullPointerException.class, () -> new StoryWatcher(null));
+    }
+  }
+}
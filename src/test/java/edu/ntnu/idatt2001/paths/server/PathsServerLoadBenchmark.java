@@ -0,0 +1,292 @@
+package edu.ntnu.idatt2001.paths.server;
+
+import edu.ntnu.idatt2001.paths.controller.GameManager;
+import edu.ntnu.idatt2001.paths.model.Link;
+import edu.ntnu.idatt2001.paths.model.Passage;
+import edu.ntnu.idatt2001.paths.model.Story;
+import edu.ntnu.idatt2001.paths.model.actions.GoldAction;
+import edu.ntnu.idatt2001.paths.model.actions.InventoryAction;
+import edu.ntnu.idatt2001.paths.model.filehandling.FileGameHandler;
+import edu.ntnu.idatt2001.paths.model.filehandling.FileStoryHandler;
+import edu.ntnu.idatt2001.paths.model.filehandling.SaveCompression;
+import edu.ntnu.idatt2001.paths.model.filehandling.StoredGame;
+import edu.ntnu.idatt2001.paths.model.filehandling.StoryLibrary;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * The class measures how many concurrent sessions the server sustains. Every session is
+ * started at once, and each creates a game, follows a number of links and saves the game,
+ * sending its next request as soon as the previous response arrives. The number of requests
+ * in flight, the throughput and the latency of the requests, and the statistics of the
+ * games the game manager kept in memory, are printed. The benchmark is
+ * run with the main method, and is not part of the tests.
+ *
+ * <p>The benchmark passes if no request fails, the 99th percentile of the latency is within
+ * the bound, and every game is saved with the version and current passage of its final
+ * save. Otherwise the reasons are printed and the benchmark exits with status 1.
+ *
+ * @author Ramtin Samavat and Tobias Oftedal.
+ * @version 1.0
+ * @since May 26, 2023.
+ */
+public final class PathsServerLoadBenchmark {
+
+  private static final int DEFAULT_SESSIONS = 5_000;
+  private static final int DEFAULT_MAX_RESIDENT_GAMES = 1_000;
+  private static final double DEFAULT_MAX_P99_MILLIS = 2_000;
+  private static final int STEPS = 10;
+  private static final int PASSAGES = 20;
+
+  private static final AtomicInteger inFlight = new AtomicInteger();
+  private static final AtomicInteger maxInFlight = new AtomicInteger();
+  private static final AtomicInteger failures = new AtomicInteger();
+  private static final AtomicReference<String> firstFailure = new AtomicReference<>();
+
+  /**
+   * Private constructor for the PathsServerLoadBenchmark.
+   *
+   * @throws IllegalStateException If the constructor is used.
+   */
+  private PathsServerLoadBenchmark() throws IllegalStateException {
+    throw new IllegalStateException("Cannot instantiate a PathsServerLoadBenchmark object");
+  }
+
+  /**
+   * The method runs the benchmark and prints the results.
+   *
+   * @param args the number of sessions, the maximum number of games kept in memory and the
+   *             bound of the 99th percentile of the latency in milliseconds, or none for the
+   *             default values.
+   * @throws IOException if the files cannot be written or the server cannot be started.
+   */
+  public static void main(String[] args) throws IOException {
+    int sessions = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_SESSIONS;
+    int maxResidentGames = args.length > 1 ? Integer.parseInt(args[1])
+        : DEFAULT_MAX_RESIDENT_GAMES;
+    double maxP99Millis = args.length > 2 ? Double.parseDouble(args[2])
+        : DEFAULT_MAX_P99_MILLIS;
+    List<String> problems = new ArrayList<>();    Path directory = Files.createTempDirectory("paths-server-benchmark");
+    ExecutorService clientExecutor = Executors.newFixedThreadPool(4, runnable -> {
+      Thread thread = new Thread(runnable, "paths-client");
+      thread.setDaemon(true);
+      return thread;
+    });
+    GameManager gameManager = null;
+    PathsServer server = null;
+    try {
+      FileStoryHandler.writeStoryToFile(createStory(),
+          directory.resolve("benchmark.paths").toString());
+      String pathOfFile = directory.resolve("games.json").toString();
+      FileGameHandler.writeGamesToFile(new ArrayList<>(), pathOfFile);
+
+      gameManager = new GameManager(pathOfFile, SaveCompression.NONE, maxResidentGames);
+      server = new PathsServer(new InetSocketAddress("localhost", 0), gameManager,
+          new StoryLibrary(directory.toString()));
+      server.start();
+      HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+          .executor(clientExecutor).build();
+      String baseUri = "http://localhost:" + server.getPort();
+
+      long[] latencies = new long[sessions * (STEPS + 2)];
+      AtomicInteger requestCount = new AtomicInteger();
+      long start = System.nanoTime();
+      List<CompletableFuture<?>> futures = new ArrayList<>(sessions);
+      for (int i = 0; i < sessions; i++) {
+        futures.add(playSession(client, baseUri, "Game " + i, latencies, requestCount));
+      }
+      CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+      long elapsed = System.nanoTime() - start;
+
+      server.stop(0);
+      server = null;
+      String cacheStatistics = gameManager.getCacheStatistics().toString();
+      gameManager.close();
+      gameManager = null;
+      int requests = requestCount.get();
+      long[] sorted = Arrays.copyOf(latencies, requests);
+      Arrays.sort(sorted);
+      System.out.printf("sessions         %d%n", sessions);
+      System.out.printf("requests         %d (%d failed)%n", requests, failures.get());
+      if (firstFailure.get() != null) {
+        System.out.printf("first failure    %s%n", firstFailure.get());
+      }
+      System.out.printf("max in flight    %d%n", maxInFlight.get());
+      GameManager savedGames = new GameManager(pathOfFile);
+      int verifiedGames = verifySavedGames(savedGames, sessions);
+      System.out.printf("saved games      %d (%d with the final save)%n",
+          savedGames.getGameCount(), verifiedGames);
+      savedGames.close();
+      System.out.printf("elapsed          %d ms%n", elapsed / 1_000_000);
+      System.out.printf("throughput       %.0f requests/s%n", requests / (elapsed / 1e9));
+      System.out.printf("latency p50      %.1f ms%n", percentile(sorted, 0.50));
+      System.out.printf("latency p99      %.1f ms%n", percentile(sorted, 0.99));
+      System.out.printf("latency max      %.1f ms%n", percentile(sorted, 1.0));
+      System.out.printf("games in memory  %s%n", cacheStatistics);
+
+      if (failures.get() > 0) {
+        problems.add(failures.get() + " requests failed");
+      }
+      if (percentile(sorted, 0.99) > maxP99Millis) {
+        problems.add("the latency p99 is above " + maxP99Millis + " ms");
+      }
+      if (verifiedGames != sessions) {
+        problems.add((sessions - verifiedGames) + " games were not saved with the final save");
+      }
+      System.out.printf("result           %s%n", problems.isEmpty() ? "passed"
+          : "failed, " + String.join(", ", problems));
+    } finally {
+      if (server != null) {
+        server.stop(0);
+      }
+      if (gameManager != null) {
+        gameManager.close();
+      }
+      clientExecutor.shutdown();
+      try (Stream<Path> files = Files.walk(directory)) {
+        for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+          Files.delete(file);
+        }
+      }
+    }
+    if (!problems.isEmpty()) {
+      System.exit(1);
+    }
+  }
+
+  /**
+   * Helper method to count the games of the sessions that are saved as their final save left
+   * them, with the version of the second save and the passage reached by the last link.
+   *
+   * @param savedGames the game manager reading the saved games.
+   * @param sessions   the number of sessions.
+   * @return the number of games saved with the final save.
+   */
+  private static int verifySavedGames(GameManager savedGames, int sessions) {
+    String finalPassageTitle = "Passage " + STEPS % PASSAGES;
+    int verifiedGames = 0;
+    for (int i = 0; i < sessions; i++) {
+      String gameId = "Game " + i;
+      if (savedGames.hasGame(gameId)) {
+        StoredGame storedGame = savedGames.getStoredGame(gameId);
+        if (storedGame.getVersion() == 2
+            && finalPassageTitle.equals(storedGame.getCurrentPassageTitle())) {
+          verifiedGames++;
+        }
+      }
+    }
+    return verifiedGames;
+  }
+
+  /**
+   * Helper method to play a session, creating a game, following links and saving the game.
+   *
+   * @param client       the client sending the requests.
+   * @param baseUri      the URI of the server.
+   * @param gameId       the ID of the game of the session.
+   * @param latencies    the latencies of the requests, in nanoseconds.
+   * @param requestCount the number of requests sent.
+   * @return a future that completes when the session is finished, or a request of it has
+   *         failed.
+   */
+  private static CompletableFuture<?> playSession(HttpClient client, String baseUri,
+                                                  String gameId, long[] latencies,
+                                                  AtomicInteger requestCount) {
+    String gamePath = baseUri + "/games/" + gameId.replace(" ", "%20");
+    String game = "{\"gameId\": \"" + gameId + "\", \"player\": {\"name\": \"Player\", "
+        + "\"health\": 100}, \"story\": \"benchmark.paths\", \"goals\": "
+        + "[{\"type\": \"GOLD\", \"minimumGold\": 100}]}";
+    CompletableFuture<?> future = send(client, baseUri + "/games", game, 201, latencies,
+        requestCount);
+    for (int step = 0; step < STEPS; step++) {
+      future = future.thenCompose(response -> send(client, gamePath + "/links/0", null, 200,
+          latencies, requestCount));
+    }
+    return future.thenCompose(response -> send(client, gamePath + "/save", null, 200,
+        latencies, requestCount)).exceptionally(exception -> null);
+  }
+
+  /**
+   * Helper method to send a POST request, and record its latency.
+   *
+   * @param client         the client sending the request.
+   * @param uri            the URI of the request.
+   * @param body           the body of the request, or null if the request has no body.
+   * @param expectedStatus the status of a successful response.
+   * @param latencies      the latencies of the requests, in nanoseconds.
+   * @param requestCount   the number of requests sent.
+   * @return a future that completes with the response.
+   */
+  private static CompletableFuture<HttpResponse<String>> send(HttpClient client, String uri,
+      String body, int expectedStatus, long[] latencies, AtomicInteger requestCount) {
+    HttpRequest request = HttpRequest.newBuilder(URI.create(uri))
+        .POST(body == null ? HttpRequest.BodyPublishers.noBody()
+            : HttpRequest.BodyPublishers.ofString(body))
+        .build();
+    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+    long start = System.nanoTime();
+    return client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+        .whenComplete((response, exception) -> {
+          inFlight.decrementAndGet();
+          latencies[requestCount.getAndIncrement()] = System.nanoTime() - start;
+          if (exception != null || response.statusCode() != expectedStatus) {
+            failures.incrementAndGet();
+            firstFailure.compareAndSet(null, exception != null ? exception.toString()
+                : response.statusCode() + " " + response.body());
+          }
+        });
+  }
+
+  /**
+   * Helper method to find a percentile of the sorted latencies.
+   *
+   * @param sorted     the sorted latencies, in nanoseconds.
+   * @param percentile the percentile, between 0 and 1.
+   * @return the latency at the percentile, in milliseconds.
+   */
+  private static double percentile(long[] sorted, double percentile) {
+    if (sorted.length == 0) {
+      return 0;
+    }
+    int index = (int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1);
+    return sorted[Math.max(0, index)] / 1e6;
+  }
+
+  /**
+   * Helper method to create a story of passages in a circle, each with a link with actions.
+   *
+   * @return the story.
+   */
+  private static Story createStory() {
+    Passage openingPassage = new Passage("Passage 0", "The story begins.");
+    Story story = new Story("Benchmark", openingPassage);
+    for (int i = 0; i < PASSAGES; i++) {
+      Passage passage = i == 0 ? openingPassage
+          : new Passage("Passage " + i, "The content of passage " + i + ".");
+      Link link = new Link("Go on", "Passage " + (i + 1) % PASSAGES);
+      link.addAction(new GoldAction(i));
+      link.addAction(new InventoryAction("Item " + i));
+      passage.addLink(link);
+      if (i > 0) {
+        story.addPassage(passage);
+      }
+    }
+    return story;
+  }
+}
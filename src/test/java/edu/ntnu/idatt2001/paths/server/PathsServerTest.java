@@ -0,0 +1,403 @@
+package edu.ntnu.idatt2001.paths.server;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import edu.ntnu.idatt2001.paths.controller.GameManager;
+import edu.ntnu.idatt2001.paths.model.Link;
+import edu.ntnu.idatt2001.paths.model.Passage;
+import edu.ntnu.idatt2001.paths.model.Story;
+import edu.ntnu.idatt2001.paths.model.actions.GoldAction;
+import edu.ntnu.idatt2001.paths.model.actions.HealthAction;
+import edu.ntnu.idatt2001.paths.model.actions.InventoryAction;
+import edu.ntnu.idatt2001.paths.model.filehandling.FileGameHandler;
+import edu.ntnu.idatt2001.paths.model.filehandling.FileStoryHandler;
+import edu.ntnu.idatt2001.paths.model.filehandling.GameJournal;
+import edu.ntnu.idatt2001.paths.model.filehandling.StoryLibrary;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The class tests the PathsServer class, and the requests handled by it.
+ *
+ * @author Ramtin Samavat and Tobias Oftedal.
+ * @version 1.0
+ * @since May 26, 2023.
+ */
+class PathsServerTest {
+
+  private static final Logger logger = Logger.getLogger(PathsServerTest.class.getName());
+  private static final String GAME = "{\"gameId\": \"Test ID 1\", \"player\": {\"name\": "
+      + "\"Player1\", \"health\": 50, \"gold\": 20}, \"story\": \"server_story.paths\", "
+      + "\"goals\": [{\"type\": \"GOLD\", \"minimumGold\": 25}]}";
+  private String directory;
+  private String pathOfFile;
+  private GameManager gameManager;
+  private PathsServer server;
+  private HttpClient client;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    directory = "src/test/resources/stories/server";
+    pathOfFile = "src/test/resources/games/server_games_test.json";
+    Files.createDirectories(Paths.get(directory));
+    FileStoryHandler.writeStoryToFile(createStory(), directory + "/server_story.paths");
+    FileGameHandler.writeGamesToFile(new ArrayList<>(), pathOfFile);
+
+    gameManager = new GameManager(pathOfFile);
+    server = new PathsServer(new InetSocketAddress("localhost", 0), gameManager,
+        new StoryLibrary(directory), 4);
+    server.start();
+    client = HttpClient.newHttpClient();
+  }
+
+  @AfterEach
+  void tearDown() {
+    server.stop(0);
+    gameManager.close();
+    try (Stream<Path> files = Files.walk(Paths.get(directory))) {
+      for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+        Files.delete(file);
+      }
+      Files.deleteIfExists(Paths.get(pathOfFile));
+      Files.deleteIfExists(Paths.get(GameJournal.getJournalPath(pathOfFile)));
+      Files.deleteIfExists(Paths.get(GameJournal.getIndexPath(pathOfFile)));
+    } catch (IOException e) {
+      logger.log(Level.WARNING, "Error deleting file.", e);
+    }
+  }
+
+  /**
+   * Helper method to create a story where the first link leads to a room with gold and a
+   * sword, and the second link leads to a trap that kills the player.
+   *
+   * @return the story.
+   */
+  private static Story createStory() {
+    Passage openingPassage = new Passage("Beginnings", "There is a door and a hole.");
+    Link doorLink = new Link("Open the door", "Another room");
+    doorLink.addAction(new GoldAction(10));
+    doorLink.addAction(new InventoryAction("Sword"));
+    openingPassage.addLink(doorLink);
+    Link holeLink = new Link("Jump into the hole", "Trap");
+    holeLink.addAction(new HealthAction(-100));
+    openingPassage.addLink(holeLink);
+
+    Passage trap = new Passage("Trap", "The hole is deep.");
+    trap.addLink(new Link("Climb out", "Beginnings"));
+
+    Story story = new Story("Server story", openingPassage);
+    story.addPassage(new Passage("Another room", "The room is empty."));
+    story.addPassage(trap);
+    return story;
+  }
+
+  /**
+   * Helper method to send a request to the server.
+   *
+   * @param method the method of the request.
+   * @param path   the path of the request.
+   * @param body   the body of the request, or null if the request has no body.
+   * @return the response.
+   * @throws IOException          if the request cannot be sent.
+   * @throws InterruptedException if the request is interrupted.
+   */
+  private HttpResponse<String> send(String method, String path, String body)
+      throws IOException, InterruptedException {
+    HttpRequest request = HttpRequest.newBuilder(
+            URI.create("http://localhost:" + server.getPort() + path))
+        .method(method, body == null ? HttpRequest.BodyPublishers.noBody()
+            : HttpRequest.BodyPublishers.ofString(body))
+        .build();
+    return client.send(request, HttpResponse.BodyHandlers.ofString());
+  }
+
+  /**
+   * Helper method to parse the JSON object of a response.
+   *
+   * @param response the response.
+   * @return the JSON object.
+   */
+  private static JsonObject json(HttpResponse<String> response) {
+    return JsonParser.parseString(response.body()).getAsJsonObject();
+  }
+
+  @Nested
+  @DisplayName("Positive tests")
+  class PositiveTests {
+    @Test
+    @DisplayName("Should list stories")
+    void shouldListStories() throws IOException, InterruptedException {
+      HttpResponse<String> response = send("GET", "/stories", null);
+
+      assertEquals(200, response.statusCode());
+      JsonArray stories = JsonParser.parseString(response.body()).getAsJsonArray();
+      assertEquals(1, stories.size());
+      assertEquals("server_story.paths",
+          stories.get(0).getAsJsonObject().get("file").getAsString());
+      assertEquals("Server story", stories.get(0).getAsJsonObject().get("title").getAsString());
+    }
+
+    @Test
+    @DisplayName("Should list story added while the server runs")
+    void shouldListStoryAddedWhileServerRuns() throws IOException, InterruptedException {
+      FileStoryHandler.writeStoryToFile(new Story("Added story",
+          new Passage("Beginnings", "The story was added.")), directory + "/added_story.paths");
+
+      JsonArray stories = new JsonArray();
+      long deadline = System.currentTimeMillis() + 10_000;
+      while (stories.size() < 2 && System.currentTimeMillis() < deadline) {
+        Thread.sleep(50);
+        stories = JsonParser.parseString(send("GET", "/stories", null).body())
+            .getAsJsonArray();
+      }
+
+      assertEquals(2, stories.size());
+      assertEquals("added_story.paths",
+          stories.get(0).getAsJsonObject().get("file").getAsString());
+      assertEquals("Added story", stories.get(0).getAsJsonObject().get("title").getAsString());
+    }
+
+    @Test
+    @DisplayName("Should create game at opening passage")
+    void shouldCreateGameAtOpeningPassage() throws IOException, InterruptedException {
+      HttpResponse<String> response = send("POST", "/games", GAME);
+
+      assertEquals(201, response.statusCode());
+      JsonObject state = json(response);
+      assertEquals("Test ID 1", state.get("gameId").getAsString());
+      assertEquals("Beginnings", state.getAsJsonObject("passage").get("title").getAsString());
+      assertEquals(2, state.getAsJsonObject("passage").getAsJsonArray("links").size());
+      assertEquals(20, state.getAsJsonObject("player").get("gold").getAsInt());
+      assertFalse(state.get("goalsFulfilled").getAsBoolean());
+      assertFalse(state.get("finished").getAsBoolean());
+      assertTrue(gameManager.hasGame("Test ID 1"));
+    }
+
+    @Test
+    @DisplayName("Should follow link and execute actions and evaluate goals")
+    void shouldFollowLinkAndExecuteActionsAndEvaluateGoals()
+        throws IOException, InterruptedException {
+      send("POST", "/games", GAME);
+
+      HttpResponse<String> response = send("POST", "/games/Test%20ID%201/links/0", null);
+
+      assertEquals(200, response.statusCode());
+      JsonObject state = json(response);
+      assertEquals("Another room", state.getAsJsonObject("passage").get("title").getAsString());
+      JsonObject player = state.getAsJsonObject("player");
+      assertEquals(30, player.get("gold").getAsInt());
+      assertEquals("Sword", player.getAsJsonArray("inventory").get(0).getAsString());
+      assertTrue(state.get("goalsFulfilled").getAsBoolean());
+      assertTrue(state.get("finished").getAsBoolean());
+      assertEquals(state, json(send("GET", "/games/Test%20ID%201", null)));
+    }
+
+    @Test
+    @DisplayName("Should save game and load it in new server")
+    void shouldSaveGameAndLoadItInNewServer() throws IOException, InterruptedException {
+      send("POST", "/games", GAME);
+      send("POST", "/games/Test%20ID%201/links/0", null);
+
+      HttpResponse<String> response = send("POST", "/games/Test%20ID%201/save", null);
+      assertEquals(200, response.statusCode());
+      assertTrue(gameManager.hasGame("Test ID 1"));
+
+      server.stop(0);
+      gameManager.close();
+      gameManager = new GameManager(pathOfFile);
+      server = new PathsServer(new InetSocketAddress("localhost", 0), gameManager,
+          new StoryLibrary(directory), 4);
+      server.start();
+
+      JsonObject state = json(send("GET", "/games/Test%20ID%201", null));
+      assertEquals("Another room", state.getAsJsonObject("passage").get("title").getAsString());
+      assertEquals(30, state.getAsJsonObject("player").get("gold").getAsInt());
+    }
+
+    @Test
+    @DisplayName("Should find games by query")
+    void shouldFindGamesByQuery() throws IOException, InterruptedException {
+      send("POST", "/games", GAME);
+      send("POST", "/games", GAME.replace("Test ID 1", "Test ID 2")
+          .replace("Player1", "Other player"));
+      send("POST", "/games/Test%20ID%202/links/0", null);
+      send("POST", "/games/Test%20ID%202/save", null);
+
+      HttpResponse<String> response = send("GET", "/games?player=play", null);
+      assertEquals(200, response.statusCode());
+      JsonArray games = JsonParser.parseString(response.body()).getAsJsonArray();
+      assertEquals(1, games.size());
+      assertEquals("Test ID 1", games.get(0).getAsJsonObject().get("gameId").getAsString());
+
+      games = JsonParser.parseString(send("GET",
+          "/games?story=server%20story&passage=Another%20room", null).body()).getAsJsonArray();
+      assertEquals(1, games.size());
+      JsonObject game = games.get(0).getAsJsonObject();
+      assertEquals("Test ID 2", game.get("gameId").getAsString());
+      assertEquals(2, game.get("version").getAsInt());
+
+      games = JsonParser.parseString(send("GET", "/games?limit=5", null).body())
+          .getAsJsonArray();
+      assertEquals(2, games.size());
+    }
+  }
+
+  @Nested
+  @DisplayName("Negative tests")
+  class NegativeTests {
+    @Test
+    @DisplayName("Should not create game with same ID returns conflict")
+    void shouldNotCreateGameWithSameIdReturnsConflict() throws IOException, InterruptedException {
+      send("POST", "/games", GAME);
+
+      HttpResponse<String> response = send("POST", "/games", GAME);
+
+      assertEquals(409, response.statusCode());
+      assertTrue(json(response).has("error"));
+    }
+
+    @Test
+    @DisplayName("Should not create games with same ID concurrently returns conflict")
+    void shouldNotCreateGamesWithSameIdConcurrentlyReturnsConflict() {
+      List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        HttpRequest request = HttpRequest.newBuilder(
+                URI.create("http://localhost:" + server.getPort() + "/games"))
+            .POST(HttpRequest.BodyPublishers.ofString(GAME))
+            .build();
+        responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+      }
+
+      List<Integer> statuses = responses.stream()
+          .map(response -> response.join().statusCode())
+          .toList();
+
+      assertEquals(1, statuses.stream().filter(status -> status == 201).count());
+      assertEquals(7, statuses.stream().filter(status -> status == 409).count());
+      assertEquals(1, gameManager.getGameCount());
+    }
+
+    @Test
+    @DisplayName("Should not create invalid game returns bad request")
+    void shouldNotCreateInvalidGameReturnsBadRequest() throws IOException, InterruptedException {
+      assertEquals(400, send("POST", "/games", "{\"gameId\": \"Test ID 1\"}").statusCode());
+      assertEquals(400, send("POST", "/games", "[").statusCode());
+      assertEquals(400, send("POST", "/games",
+          GAME.replace("server_story.paths", "../server_story.paths")).statusCode());
+      assertEquals(400, send("POST", "/games",
+          GAME.replace("\"GOLD\"", "\"SILVER\"")).statusCode());
+    }
+
+    @Test
+    @DisplayName("Should not create game of missing story returns not found")
+    void shouldNotCreateGameOfMissingStoryReturnsNotFound()
+        throws IOException, InterruptedException {
+      HttpResponse<String> response = send("POST", "/games",
+          GAME.replace("server_story.paths", "missing_story.paths"));
+
+      assertEquals(404, response.statusCode());
+    }
+
+    @Test
+    @DisplayName("Should not get missing game returns not found")
+    void shouldNotGetMissingGameReturnsNotFound() throws IOException, InterruptedException {
+      assertEquals(404, send("GET", "/games/Missing", null).statusCode());
+      assertEquals(404, send("GET", "/unknown", null).statusCode());
+      assertEquals(0, gameManager.getGameCount());
+    }
+
+    @Test
+    @DisplayName("Should not follow missing link returns not found")
+    void shouldNotFollowMissingLinkReturnsNotFound() throws IOException, InterruptedException {
+      send("POST", "/games", GAME);
+
+      assertEquals(404, send("POST", "/games/Test%20ID%201/links/2", null).statusCode());
+      assertEquals(404, send("POST", "/games/Test%20ID%201/links/x", null).statusCode());
+    }
+
+    @Test
+    @DisplayName("Should not follow link when player is dead returns conflict")
+    void shouldNotFollowLinkWhenPlayerIsDeadReturnsConflict()
+        throws IOException, InterruptedException {
+      send("POST", "/games", GAME);
+
+      JsonObject state = json(send("POST", "/games/Test%20ID%201/links/1", null));
+      assertTrue(state.get("finished").getAsBoolean());
+
+      assertEquals(409, send("POST", "/games/Test%20ID%201/links/0", null).statusCode());
+    }
+
+    @Test
+    @DisplayName("Should not handle wrong method returns method not allowed")
+    void shouldNotHandleWrongMethodReturnsMethodNotAllowed()
+        throws IOException, InterruptedException {
+      assertEquals(405, send("DELETE", "/games", null).statusCode());
+      assertEquals(405, send("POST", "/stories", "{}").statusCode());
+    }
+
+    @Test
+    @DisplayName("Should not find games by invalid query returns bad request")
+    void shouldNotFindGamesByInvalidQueryReturnsBadRequest()
+        throws IOException, InterruptedException {
+      assertEquals(400, send("GET", "/games?colour=red", null).statusCode());
+      assertEquals(400, send("GET", "/games?minScore=high", null).statusCode());
+      assertEquals(400, send("GET", "/games?minScore=10&maxScore=5", null).statusCode());
+    }
+
+    @Test
+    @DisplayName("Should not create game with invalid values returns bad request")
+    void shouldNotCreateGameWithInvalidValuesReturnsBadRequest()
+        throws IOException, InterruptedException {
+      assertEquals(400, send("POST", "/games",
+          GAME.replace("\"health\": 50", "\"health\": \"high\"")).statusCode());
+      assertEquals(400, send("POST", "/games",
+          GAME.replace("\"health\": 50", "\"health\": true")).statusCode());
+      assertEquals(400, send("POST", "/games",
+          GAME.replace("\"health\": 50", "\"health\": {}")).statusCode());
+      assertEquals(400, send("POST", "/games",
+          GAME.replace("\"health\": 50", "\"health\": -1")).statusCode());
+      assertEquals(400, send("POST", "/games",
+          "{\"gameId\": \"Test ID 1\", \"player\": \"Player1\"}").statusCode());
+      assertEquals(400, send("POST", "/games", "[]").statusCode());
+      assertEquals(0, gameManager.getGameCount());
+    }
+
+    @Test
+    @DisplayName("Should not save game when game manager is closed returns server error")
+    void shouldNotSaveGameWhenGameManagerIsClosedReturnsServerError()
+        throws IOException, InterruptedException {
+      send("POST", "/games", GAME);
+      gameManager.close();
+
+      assertEquals(500, send("POST", "/games/Test%20ID%201/save", null).statusCode());
+    }
+
+    @Test
+    @DisplayName("Should not construct with zero threads throws IllegalArgumentException")
+    void shouldNotConstructWithZeroThreadsThrowsIllegalArgumentException() {
+      assertThrows(IllegalArgumentException.class, () -> new PathsServer(
+          new InetSocketAddress("localhost", 0), gameManager, new StoryLibrary(directory), 0));
+    }
+  }
+}